@@ -12,19 +12,26 @@
 package org.eclipse.cbi.common.http;
 
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.Date;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 import org.apache.http.StatusLine;
@@ -35,6 +42,7 @@ import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.HttpMultipartMode;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
@@ -44,19 +52,55 @@ import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.cbi.common.util.Paths;
+import org.eclipse.cbi.common.util.Zips;
 import org.codehaus.plexus.util.IOUtil;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * A class that send a file to as a post request to an HTTP server adn replace
  * the send file with the reply.
+ * <p>
+ * All the requests are sent through a single pooled HTTP client, so that the
+ * connections to the server are kept alive and reused between the files. The
+ * sender is thread-safe and must be {@link #close() closed} once all files
+ * have been sent.
+ * <p>
+ * The time spent uploading each file, waiting for the server, downloading the
+ * reply and waiting before retries is recorded in a {@link SigningReport}.
  */
 public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
 
+    /**
+     * Default maximum number of connections to the server.
+     */
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 4;
+
+    /**
+     * Default time after which an idle connection is closed, in seconds.
+     */
+    static final long DEFAULT_IDLE_CONNECTION_TIMEOUT = 30;
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /**
+     * Status codes of the responses to requests that may succeed if sent
+     * again. Requests that get any other error status are not retried.
+     */
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = ImmutableSet.of(
+            HttpStatus.SC_REQUEST_TIMEOUT,
+            429, // Too Many Requests, not defined in HttpStatus
+            HttpStatus.SC_INTERNAL_SERVER_ERROR,
+            HttpStatus.SC_BAD_GATEWAY,
+            HttpStatus.SC_SERVICE_UNAVAILABLE,
+            HttpStatus.SC_GATEWAY_TIMEOUT);
+
     /**
      * The URI of the server where the file will be send.
      */
@@ -82,6 +126,33 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
      */
     private final NameValuePair[] additionalParams;
 
+    /**
+     * The pool of connections to the server.
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The time after which an idle connection is closed, in milliseconds.
+     */
+    private final long idleConnectionTimeout;
+
+    /**
+     * The client used for all requests.
+     */
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * The policy deciding when to retry failed requests. If {@code null}, the
+     * retry parameters given to {@link #post(Path, String, int, int, TimeUnit)}
+     * are used.
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * The report of the time spent sending the files.
+     */
+    private final SigningReport report;
+
     /**
      * Default constructor.
      *
@@ -91,11 +162,38 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
      *            the log for providing {@code DEBUG} feedback about the signing process
      */
     public ApacheHttpClientPostFileSender(URI serverURI, Logger log, String user, String password, NameValuePair... additionalParams) {
+        this(serverURI, log, user, password, additionalParams, DEFAULT_MAX_CONNECTIONS_PER_ROUTE, TimeUnit.SECONDS.toMillis(DEFAULT_IDLE_CONNECTION_TIMEOUT), null, new SigningReport());
+    }
+
+    private ApacheHttpClientPostFileSender(URI serverURI, Logger log, String user, String password, NameValuePair[] additionalParams, int maxConnectionsPerRoute, long idleConnectionTimeout, RetryPolicy retryPolicy, SigningReport report) {
         this.serverURI = Objects.requireNonNull(serverURI);
         this.log = Objects.requireNonNull(log);
         this.user = user;
         this.password = password;
         this.additionalParams = additionalParams;
+        this.idleConnectionTimeout = idleConnectionTimeout;
+        this.retryPolicy = retryPolicy;
+        this.report = Objects.requireNonNull(report);
+
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        this.connectionManager.setMaxTotal(maxConnectionsPerRoute);
+
+        HttpClientBuilder clientBuilder = HttpClientBuilder.create().setConnectionManager(connectionManager);
+        if (user != null) {
+            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
+            clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+        this.httpClient = clientBuilder.build();
+    }
+
+    /**
+     * Closes the pooled HTTP client and all the connections to the server.
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
     }
 
     /**
@@ -119,53 +217,71 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
         checkPositive(retryInterval, "'retryInterval' must be positive");
         Objects.requireNonNull(unit, "'unit' must not be null");
 
-        CredentialsProvider credentialsProvider = null;
         HttpClientContext context = HttpClientContext.create();
         if (user != null) {
-            credentialsProvider = new BasicCredentialsProvider();
-            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
-
             AuthCache authCache = new BasicAuthCache();
             authCache.put(new HttpHost(serverURI.getHost(), serverURI.getPort(), "http"), new BasicScheme());
             authCache.put(new HttpHost(serverURI.getHost(), serverURI.getPort(), "https"), new BasicScheme());
 
             // Add AuthCache to the execution context
-            context.setCredentialsProvider(credentialsProvider);
             context.setAuthCache(authCache);
         }
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().setDefaultCredentialsProvider(credentialsProvider).build()) {
-            boolean sucessfullySigned = false;
-
-            Exception lastThrownException = null;
-            for (int retryCount = 0; !sucessfullySigned && retryCount <= maxRetries; retryCount++) {
-                if (!sucessfullySigned && retryCount > 0) {
-                    logDebug("Unable to sign '"+path+"' on '"+ serverURI +"'. Will retry ("+(retryCount)+" / "+maxRetries+") in "+ retryInterval +" "+unit.name()+"...");
-                    try {
-                        unit.sleep(retryInterval);
-                    } catch (InterruptedException e) {
-                        logDebug("Signing thread has been interrupted", e);
-                        Thread.currentThread().interrupt();
-                    }
+        // the client is long lived, evict the connections that the server
+        // (or a proxy) may have closed since the last request
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS);
+
+        final RetryPolicy policy = retryPolicy != null ? retryPolicy : RetryPolicy.fixedDelay(maxRetries, retryInterval, unit);
+        final long start = System.nanoTime();
+
+        Exception lastThrownException = null;
+        long minDelayMillis = 0;
+        for (int retryCount = 0; ; retryCount++) {
+            if (retryCount > 0) {
+                long delayMillis = policy.delayBeforeRetry(retryCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), minDelayMillis);
+                if (delayMillis == RetryPolicy.STOP) {
+                    break;
                 }
-
+                logDebug("Unable to sign '"+path+"' on '"+ serverURI +"'. Will retry ("+(retryCount)+") in "+ delayMillis +" MILLISECONDS...");
+                report.retried(path);
+                final long sleepStart = System.nanoTime();
                 try {
-                    sucessfullySigned = sign(path, partName, httpClient, context);
-                } catch (MojoExecutionException e) {
-                    logDebug("Error occured while communicating with '"+ serverURI +"'", e);
-                    throw e;
-                } catch (Exception e) {
-                    lastThrownException = e;
-                    logDebug("Error occured while communicating with '"+ serverURI +"'", e);
+                    TimeUnit.MILLISECONDS.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    logDebug("Signing thread has been interrupted", e);
+                    Thread.currentThread().interrupt();
+                    break;
+                } finally {
+                    report.recordSince(path, SigningReport.Phase.RETRY_WAIT, sleepStart);
                 }
             }
 
-            if (lastThrownException != null) {
-                propagate(lastThrownException);
+            try {
+                final SigningAttempt attempt = sign(path, partName, httpClient, context);
+                lastThrownException = null;
+                if (attempt.signed) {
+                    return true;
+                } else if (!attempt.retryable) {
+                    logDebug("Signing server replied with a non-retryable error, giving up signing of '" + path + "'");
+                    break;
+                }
+                minDelayMillis = attempt.retryAfterMillis;
+            } catch (MojoExecutionException e) {
+                logDebug("Error occured while communicating with '"+ serverURI +"'", e);
+                throw e;
+            } catch (Exception e) {
+                lastThrownException = e;
+                minDelayMillis = 0;
+                logDebug("Error occured while communicating with '"+ serverURI +"'", e);
             }
+        }
 
-            return sucessfullySigned;
+        if (lastThrownException != null) {
+            propagate(lastThrownException);
         }
+
+        return false;
     }
 
     private static void propagate(Exception exception) throws IOException {
@@ -186,20 +302,27 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
         }
     }
 
-    private boolean sign(Path source, String partName, CloseableHttpClient httpClient, HttpContext context) throws IOException, MojoExecutionException {
+    private SigningAttempt sign(Path source, String partName, CloseableHttpClient httpClient, HttpContext context) throws IOException, MojoExecutionException {
         try (CloseableHttpResponse response = sendSigningRequest(source, partName, httpClient, context)) {
             final StatusLine statusLine = response.getStatusLine();
             final HttpEntity resEntity = response.getEntity();
 
-            final boolean ret;
+            final SigningAttempt ret;
             if (statusLine != null && statusLine.getStatusCode() == HttpStatus.SC_OK && resEntity != null) {
-                try (InputStream is = new BufferedInputStream(resEntity.getContent())) {
-                    Files.copy(is, source, StandardCopyOption.REPLACE_EXISTING);
+                final long downloadStart = System.nanoTime();
+                try {
+                    replaceWithResponse(source, resEntity);
+                } finally {
+                    report.recordSince(source, SigningReport.Phase.DOWNLOAD, downloadStart);
                 }
-                ret = true;
+                ret = SigningAttempt.SIGNED;
             } else {
                 handleError(statusLine, resEntity);
-                ret = false;
+                if (statusLine == null || RETRYABLE_STATUS_CODES.contains(statusLine.getStatusCode())) {
+                    ret = SigningAttempt.retryable(retryAfterMillis(response));
+                } else {
+                    ret = SigningAttempt.NOT_RETRYABLE;
+                }
             }
 
             return ret;
@@ -207,7 +330,87 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
     }
 
     /**
-     * Send the given file to the server and return its response.
+     * Returns the time to wait before retrying as requested by the
+     * {@code Retry-After} header of the response, in milliseconds. Returns 0
+     * if there is no such header or if it can't be parsed.
+     */
+    private long retryAfterMillis(HttpResponse response) {
+        final Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || Strings.isNullOrEmpty(retryAfter.getValue())) {
+            return 0;
+        }
+        final String value = retryAfter.getValue().trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            final Date date = DateUtils.parseDate(value);
+            if (date != null) {
+                return Math.max(0, date.getTime() - System.currentTimeMillis());
+            }
+            logDebug("Unable to parse 'Retry-After' header value '" + value + "'");
+            return 0;
+        }
+    }
+
+    /**
+     * Replaces the given file with the content of the response. The content is
+     * first written to a temporary file next to the source and checked; the
+     * source is replaced only if the content is complete, so that it stays
+     * untouched (and can be sent again) if the transfer fails midway.
+     *
+     * @param source
+     *            the file that has been sent.
+     * @param resEntity
+     *            the entity of the response.
+     * @throws IOException
+     *             if the content can't be read or is not complete.
+     */
+    private void replaceWithResponse(Path source, HttpEntity resEntity) throws IOException {
+        final boolean isZipFile = Zips.isZipFile(source);
+        Path signedFile = Files.createTempFile(Paths.getParent(source.toAbsolutePath()), source.getFileName().toString() + "_signed_", TMP_SUFFIX);
+        try {
+            final long size;
+            try (InputStream is = resEntity.getContent()) {
+                size = Files.copy(is, signedFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            final long expectedSize = resEntity.getContentLength();
+            if (expectedSize >= 0 && size != expectedSize) {
+                throw new IOException("Signing server replied with " + size + " bytes while " + expectedSize + " were announced for '" + source + "'");
+            }
+            if (isZipFile) {
+                checkZipFile(source, signedFile);
+            }
+            try {
+                Files.move(signedFile, source, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(signedFile, source, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Paths.deleteQuietly(signedFile);
+        }
+    }
+
+    /**
+     * Checks that the signed version of a Zip file is a readable Zip file,
+     * i.e., that its central directory (which is written last) is there.
+     */
+    private static void checkZipFile(Path source, Path signedFile) throws IOException {
+        final boolean hasEntries;
+        try (ZipFile zipFile = Zips.openZipFile(signedFile)) {
+            hasEntries = zipFile.getEntries().hasMoreElements();
+        } catch (IOException e) {
+            throw new IOException("Signing server replied with an invalid archive for '" + source + "'", e);
+        }
+        if (!hasEntries) {
+            throw new IOException("Signing server replied with an empty archive for '" + source + "'");
+        }
+    }
+
+    /**
+     * Send the given file to the server and return its response. The time
+     * until the whole file has been read is recorded as the upload, the time
+     * from then until the response headers are received as the wait for the
+     * server.
      *
      * @param filetoBeSigned
      *            the file to be signed.
@@ -228,11 +431,53 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
             }
         }
 
-        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(filetoBeSigned, StandardOpenOption.READ))) {
+        final long start = System.nanoTime();
+        try (EndOfStreamTimingInputStream inputStream = new EndOfStreamTimingInputStream(new BufferedInputStream(Files.newInputStream(filetoBeSigned, StandardOpenOption.READ)))) {
             InputStreamBody inputStreamBody = new InputStreamBody(inputStream, ContentType.DEFAULT_BINARY, filetoBeSigned.getFileName().toString());
             builder.addPart(partName, inputStreamBody);
             post.setEntity(builder.build());
-            return client.execute(post, context);
+            try {
+                return client.execute(post, context);
+            } finally {
+                final long end = System.nanoTime();
+                final long uploadEnd = inputStream.endOfStreamNanos != 0 ? inputStream.endOfStreamNanos : end;
+                report.record(filetoBeSigned, SigningReport.Phase.UPLOAD, uploadEnd - start, TimeUnit.NANOSECONDS);
+                report.record(filetoBeSigned, SigningReport.Phase.WAIT, end - uploadEnd, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * An input stream remembering when its end has been reached, i.e., when
+     * the HTTP client has sent the whole file.
+     */
+    private static final class EndOfStreamTimingInputStream extends FilterInputStream {
+
+        /**
+         * The {@link System#nanoTime()} when the end of the stream has first
+         * been reached, 0 if it has not been reached yet.
+         */
+        volatile long endOfStreamNanos;
+
+        EndOfStreamTimingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return endOfStream(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return endOfStream(super.read(b, off, len));
+        }
+
+        private int endOfStream(int read) {
+            if (read == -1 && endOfStreamNanos == 0) {
+                endOfStreamNanos = System.nanoTime();
+            }
+            return read;
         }
     }
 
@@ -272,4 +517,178 @@ public class ApacheHttpClientPostFileSender implements HttpPostFileSender {
         log.debug("[" + new Date() + "] " + msg, e);
     }
 
+    /**
+     * Creates a builder of {@link ApacheHttpClientPostFileSender}.
+     *
+     * @param serverURI
+     *            the URI of the server where the files will be send.
+     * @return the builder of {@link ApacheHttpClientPostFileSender}.
+     */
+    public static Builder builder(URI serverURI) {
+        return new Builder(serverURI);
+    }
+
+    /**
+     * A builder of {@link ApacheHttpClientPostFileSender}. Default value for
+     * options are:
+     * <ul>
+     * <li>{@link #logOn(Logger)}: mandatory</li>
+     * <li>{@link #credentials(String, String)}: none</li>
+     * <li>{@link #additionalParams(NameValuePair...)}: none</li>
+     * <li>{@link #maxConnectionsPerRoute(int)}: {@value ApacheHttpClientPostFileSender#DEFAULT_MAX_CONNECTIONS_PER_ROUTE}</li>
+     * <li>{@link #idleConnectionTimeout(long, TimeUnit)}: {@value ApacheHttpClientPostFileSender#DEFAULT_IDLE_CONNECTION_TIMEOUT} {@link TimeUnit#SECONDS seconds}</li>
+     * <li>{@link #retryPolicy(RetryPolicy)}: a fixed delay policy built from the parameters of each {@code post} call</li>
+     * <li>{@link #report(SigningReport)}: a new report</li>
+     * </ul>
+     */
+    public static class Builder {
+
+        private final URI serverURI;
+
+        private Logger log;
+
+        private String user;
+
+        private String password;
+
+        private NameValuePair[] additionalParams = new NameValuePair[0];
+
+        private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+        private long idleConnectionTimeout = TimeUnit.SECONDS.toMillis(DEFAULT_IDLE_CONNECTION_TIMEOUT);
+
+        private RetryPolicy retryPolicy;
+
+        private SigningReport report = new SigningReport();
+
+        Builder(URI serverURI) {
+            this.serverURI = Objects.requireNonNull(serverURI);
+        }
+
+        /**
+         * The {@link Logger} onto which the feedback should be printed.
+         * @param log
+         * @return this builder for chained calls.
+         */
+        public Builder logOn(Logger log) {
+            this.log = log;
+            return this;
+        }
+
+        /**
+         * The credentials to use for HTTP Basic Auth.
+         * @param user
+         * @param password
+         * @return this builder for chained calls.
+         */
+        public Builder credentials(String user, String password) {
+            this.user = user;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * Additional parameters to add to each request.
+         * @param additionalParams
+         * @return this builder for chained calls.
+         */
+        public Builder additionalParams(NameValuePair... additionalParams) {
+            this.additionalParams = Objects.requireNonNull(additionalParams);
+            return this;
+        }
+
+        /**
+         * The maximum number of connections that will be kept open to the
+         * server, i.e., the maximum number of files that can be sent
+         * concurrently.
+         * @param maxConnectionsPerRoute
+         * @return this builder for chained calls.
+         */
+        public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            if (maxConnectionsPerRoute < 1) {
+                throw new IllegalArgumentException("'maxConnectionsPerRoute' must be strictly positive");
+            }
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * The time after which a connection that has not been used is
+         * closed.
+         * @param timeout
+         * @param unit
+         * @return this builder for chained calls.
+         */
+        public Builder idleConnectionTimeout(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("'timeout' must be positive or null");
+            }
+            this.idleConnectionTimeout = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * The policy deciding whether and when failed requests are sent
+         * again. When set, it takes precedence over the retry parameters
+         * given to {@link ApacheHttpClientPostFileSender#post(Path, String, int, int, TimeUnit)}.
+         * Requests that get a response with an error status code other than
+         * 408, 429, 500, 502, 503 and 504 are never retried.
+         * @param retryPolicy
+         * @return this builder for chained calls.
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy);
+            return this;
+        }
+
+        /**
+         * The report where the time spent uploading, waiting for the server,
+         * downloading and waiting before retries is recorded for each file.
+         * @param report
+         * @return this builder for chained calls.
+         */
+        public Builder report(SigningReport report) {
+            this.report = Objects.requireNonNull(report);
+            return this;
+        }
+
+        /**
+         * Creates and returns a new ApacheHttpClientPostFileSender configured
+         * with the options specified to this builder.
+         *
+         * @return a new ApacheHttpClientPostFileSender.
+         */
+        public ApacheHttpClientPostFileSender build() {
+            return new ApacheHttpClientPostFileSender(serverURI, log, user, password, additionalParams, maxConnectionsPerRoute, idleConnectionTimeout, retryPolicy, report);
+        }
+    }
+
+    /**
+     * The outcome of a single signing request.
+     */
+    private static final class SigningAttempt {
+
+        static final SigningAttempt SIGNED = new SigningAttempt(true, false, 0);
+
+        static final SigningAttempt NOT_RETRYABLE = new SigningAttempt(false, false, 0);
+
+        final boolean signed;
+
+        final boolean retryable;
+
+        /**
+         * The minimum time to wait before retrying, as requested by the server.
+         */
+        final long retryAfterMillis;
+
+        private SigningAttempt(boolean signed, boolean retryable, long retryAfterMillis) {
+            this.signed = signed;
+            this.retryable = retryable;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        static SigningAttempt retryable(long retryAfterMillis) {
+            return new SigningAttempt(false, true, retryAfterMillis);
+        }
+    }
 }
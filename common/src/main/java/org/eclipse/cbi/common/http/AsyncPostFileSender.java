@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.common.http;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A {@link HttpPostFileSender} that can send several files concurrently. Files
+ * are sent by a delegate sender from a bounded pool of threads, so that no
+ * more than the configured number of requests are in flight at any time,
+ * whatever the number of submitted files. The upload of a file, its signing on
+ * the server and the download of the result thus overlap with the ones of the
+ * other files.
+ * <p>
+ * The delegate sender must be thread-safe.
+ */
+public class AsyncPostFileSender implements HttpPostFileSender {
+
+	private static final long DEFAULT_SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+	/**
+	 * The sender that actually sends the files.
+	 */
+	private final HttpPostFileSender delegate;
+
+	/**
+	 * The executor running the requests.
+	 */
+	private final ListeningExecutorService executor;
+
+	/**
+	 * The time to wait for the pending files on {@link #close()}, in
+	 * nanoseconds.
+	 */
+	private final long shutdownTimeoutNanos;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param delegate
+	 *            the thread-safe sender used to send the files.
+	 * @param maxConcurrentRequests
+	 *            the maximum number of files being sent at the same time. Must
+	 *            be strictly positive.
+	 */
+	public AsyncPostFileSender(HttpPostFileSender delegate, int maxConcurrentRequests) {
+		this(delegate, maxConcurrentRequests, DEFAULT_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	AsyncPostFileSender(HttpPostFileSender delegate, int maxConcurrentRequests, long shutdownTimeout, TimeUnit shutdownTimeoutUnit) {
+		Preconditions.checkArgument(maxConcurrentRequests > 0, "'maxConcurrentRequests' must be strictly positive");
+		this.delegate = Objects.requireNonNull(delegate);
+		this.executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(maxConcurrentRequests,
+				new ThreadFactoryBuilder().setNameFormat("cbi-post-file-sender-%d").setDaemon(true).build()));
+		this.shutdownTimeoutNanos = shutdownTimeoutUnit.toNanos(shutdownTimeout);
+	}
+
+	/**
+	 * Sends the given file from the calling thread, without any concurrency
+	 * limit.
+	 */
+	@Override
+	public boolean post(Path path, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) throws IOException, MojoExecutionException {
+		return delegate.post(path, partName, maxRetry, retryInterval, intervalUnit);
+	}
+
+	/**
+	 * Sends the given file from the calling thread, without any concurrency
+	 * limit.
+	 */
+	@Override
+	public boolean post(Path path, String partName) throws IOException, MojoExecutionException {
+		return delegate.post(path, partName);
+	}
+
+	/**
+	 * Schedules the sending of the given file. The returned future never fails:
+	 * the exceptions thrown while sending are reported by the {@link Result}.
+	 *
+	 * @param path
+	 *            the file to be signed (must exists and be a file).
+	 * @param partName
+	 *            the name of the part that will be send
+	 * @param maxRetry
+	 *            see {@link HttpPostFileSender#post(Path, String, int, int, TimeUnit)}.
+	 * @param retryInterval
+	 *            see {@link HttpPostFileSender#post(Path, String, int, int, TimeUnit)}.
+	 * @param intervalUnit
+	 *            see {@link HttpPostFileSender#post(Path, String, int, int, TimeUnit)}.
+	 * @return the future result of the sending.
+	 */
+	public ListenableFuture<Result> postAsync(final Path path, final String partName, final int maxRetry, final int retryInterval, final TimeUnit intervalUnit) {
+		Objects.requireNonNull(path);
+		return executor.submit(new Callable<Result>() {
+			@Override
+			public Result call() {
+				try {
+					return new Result(path, delegate.post(path, partName, maxRetry, retryInterval, intervalUnit), null);
+				} catch (IOException | MojoExecutionException | RuntimeException e) {
+					return new Result(path, false, e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Schedules the sending of all the given files.
+	 *
+	 * @param paths
+	 *            the files to be signed.
+	 * @param partName
+	 *            the name of the part that will be send
+	 * @param maxRetry
+	 *            see {@link HttpPostFileSender#post(Path, String, int, int, TimeUnit)}.
+	 * @param retryInterval
+	 *            see {@link HttpPostFileSender#post(Path, String, int, int, TimeUnit)}.
+	 * @param intervalUnit
+	 *            see {@link HttpPostFileSender#post(Path, String, int, int, TimeUnit)}.
+	 * @return the future results, in the iteration order of {@code paths}. It
+	 *         completes once all the files have been sent.
+	 */
+	public ListenableFuture<List<Result>> postAll(Collection<Path> paths, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) {
+		List<ListenableFuture<Result>> results = new ArrayList<>(paths.size());
+		for (Path path : paths) {
+			results.add(postAsync(path, partName, maxRetry, retryInterval, intervalUnit));
+		}
+		return Futures.allAsList(results);
+	}
+
+	/**
+	 * Waits for the pending files to be sent, and closes the delegate sender.
+	 * If they are not sent in time (or if the calling thread is interrupted),
+	 * the files being sent are interrupted and the delegate is only closed
+	 * once they have stopped using it, or after the same timeout if they
+	 * don't react to the interruption.
+	 */
+	@Override
+	public void close() throws IOException {
+		executor.shutdown();
+		boolean interrupted = false;
+		try {
+			if (!executor.awaitTermination(shutdownTimeoutNanos, TimeUnit.NANOSECONDS)) {
+				executor.shutdownNow();
+				interrupted = awaitTerminationUninterruptibly();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			awaitTerminationUninterruptibly();
+			interrupted = true;
+		} finally {
+			try {
+				delegate.close();
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for the executor to terminate, at most the shutdown timeout.
+	 *
+	 * @return whether the calling thread has been interrupted while waiting.
+	 */
+	private boolean awaitTerminationUninterruptibly() {
+		boolean interrupted = false;
+		final long deadline = System.nanoTime() + shutdownTimeoutNanos;
+		while (true) {
+			try {
+				executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				return interrupted;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+	}
+
+	/**
+	 * The outcome of the sending of a file.
+	 */
+	public static final class Result {
+
+		private final Path path;
+
+		private final boolean signed;
+
+		private final Exception failure;
+
+		Result(Path path, boolean signed, Exception failure) {
+			this.path = path;
+			this.signed = signed;
+			this.failure = failure;
+		}
+
+		/**
+		 * @return the sent file.
+		 */
+		public Path path() {
+			return path;
+		}
+
+		/**
+		 * @return true if the file has been successfully signed, false
+		 *         otherwise.
+		 */
+		public boolean isSigned() {
+			return signed;
+		}
+
+		/**
+		 * @return the exception thrown while sending the file, or
+		 *         {@code null} if none has been thrown.
+		 */
+		public Exception failure() {
+			return failure;
+		}
+	}
+}
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.common.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.cbi.common.util.Paths;
+import org.eclipse.cbi.common.util.Zips;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A {@link HttpPostFileSender} that keeps a local copy of the files returned by
+ * a delegate sender, so that sending the exact same file again is answered
+ * from the local copy without any request.
+ * <p>
+ * Entries are addressed by the SHA-256 of the sent content, the part name and
+ * an identity of the remote signer (typically its URL and the additional
+ * parameters of the request). Zips can be addressed by their entries instead
+ * (see {@link #CachingPostFileSender(HttpPostFileSender, String, Path, long, boolean, Logger)}),
+ * so that zipping the same files again in another build, with other
+ * modification times, still hits the cache. The cache directory can be shared by several
+ * builds (and several processes): entries are written to a temporary file and
+ * then atomically moved in place. When the total size of the cache exceeds the
+ * configured maximum, the least recently used entries are deleted.
+ */
+public class CachingPostFileSender implements HttpPostFileSender {
+
+	private static final String TMP_SUFFIX = ".tmp";
+
+	private static final Comparator<ZipArchiveEntry> BY_NAME = new Comparator<ZipArchiveEntry>() {
+		@Override
+		public int compare(ZipArchiveEntry o1, ZipArchiveEntry o2) {
+			return o1.getName().compareTo(o2.getName());
+		}
+	};
+
+	/**
+	 * The sender to use on cache misses.
+	 */
+	private final HttpPostFileSender delegate;
+
+	/**
+	 * Identity of the remote signer, part of the key of all entries.
+	 */
+	private final String signerIdentity;
+
+	/**
+	 * The directory where the entries are stored.
+	 */
+	private final Path cacheDirectory;
+
+	/**
+	 * The maximum total size of the entries, in bytes.
+	 */
+	private final long maxSize;
+
+	/**
+	 * Whether the sent files are zips addressed by their entries rather than
+	 * by their bytes.
+	 */
+	private final boolean keyedByZipEntries;
+
+	/**
+	 * The log for providing {@code DEBUG} feedback about the cache.
+	 */
+	private final Logger log;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param delegate
+	 *            the sender to use when a file is not in the cache.
+	 * @param signerIdentity
+	 *            identifies the remote signer and the parameters of the
+	 *            requests (e.g., its URL). Files sent with different identities
+	 *            are cached separately.
+	 * @param cacheDirectory
+	 *            the directory where the cache entries are stored. Will be
+	 *            created if it does not exist.
+	 * @param maxSize
+	 *            the maximum total size of the entries, in bytes.
+	 * @param log
+	 *            the log for providing {@code DEBUG} feedback about the cache.
+	 */
+	public CachingPostFileSender(HttpPostFileSender delegate, String signerIdentity, Path cacheDirectory, long maxSize, Logger log) {
+		this(delegate, signerIdentity, cacheDirectory, maxSize, false, log);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            the sender to use when a file is not in the cache.
+	 * @param signerIdentity
+	 *            identifies the remote signer and the parameters of the
+	 *            requests (e.g., its URL). Files sent with different identities
+	 *            are cached separately.
+	 * @param cacheDirectory
+	 *            the directory where the cache entries are stored. Will be
+	 *            created if it does not exist.
+	 * @param maxSize
+	 *            the maximum total size of the entries, in bytes.
+	 * @param keyedByZipEntries
+	 *            if true, the sent files must be zips, and are addressed by the
+	 *            names, Unix modes and contents of their entries, regardless of
+	 *            their order, modification times and compression. Otherwise,
+	 *            files are addressed by their bytes.
+	 * @param log
+	 *            the log for providing {@code DEBUG} feedback about the cache.
+	 */
+	public CachingPostFileSender(HttpPostFileSender delegate, String signerIdentity, Path cacheDirectory, long maxSize, boolean keyedByZipEntries, Logger log) {
+		this.keyedByZipEntries = keyedByZipEntries;
+		this.delegate = Objects.requireNonNull(delegate);
+		this.signerIdentity = Objects.requireNonNull(signerIdentity);
+		this.cacheDirectory = Objects.requireNonNull(cacheDirectory);
+		Preconditions.checkArgument(maxSize > 0, "'maxSize' must be strictly positive");
+		this.maxSize = maxSize;
+		this.log = Objects.requireNonNull(log);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean post(Path path, String partName) throws IOException, MojoExecutionException {
+		return post(path, partName, 0, 0, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean post(Path path, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) throws IOException, MojoExecutionException {
+		if (path == null || !Files.isRegularFile(path)) {
+			throw new IllegalArgumentException("'source' must be an existing regular file.");
+		}
+
+		Path entry = entryPath(path, partName);
+		if (restore(entry, path)) {
+			logDebug("Reusing cached signed file '" + entry + "' for '" + path + "'");
+			return true;
+		}
+
+		boolean signed = delegate.post(path, partName, maxRetry, retryInterval, intervalUnit);
+		if (signed) {
+			try {
+				store(path, entry);
+				evictIfNeeded(entry);
+			} catch (IOException e) {
+				// the file is signed, failing to cache it must not fail the build
+				logDebug("Unable to store '" + path + "' in signing cache '" + cacheDirectory + "'", e);
+			}
+		}
+		return signed;
+	}
+
+	/**
+	 * Closes the delegate sender.
+	 */
+	@Override
+	public void close() throws IOException {
+		delegate.close();
+	}
+
+	/**
+	 * Computes the path of the cache entry for the given file.
+	 */
+	private Path entryPath(Path path, String partName) throws IOException {
+		Hasher hasher = Hashing.sha256().newHasher()
+				.putString(signerIdentity, StandardCharsets.UTF_8).putByte((byte) 0)
+				.putString(String.valueOf(partName), StandardCharsets.UTF_8).putByte((byte) 0);
+		if (keyedByZipEntries) {
+			putZipEntries(path, hasher);
+		} else {
+			try (InputStream is = Files.newInputStream(path)) {
+				ByteStreams.copy(is, Funnels.asOutputStream(hasher));
+			}
+		}
+		String key = hasher.hash().toString();
+		return cacheDirectory.resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	/**
+	 * Puts the name, the Unix mode and the content of each entry of the given
+	 * zip into the given hasher, sorted by name.
+	 */
+	private static void putZipEntries(Path zip, Hasher hasher) throws IOException {
+		try (ZipFile zipFile = Zips.openZipFile(zip)) {
+			List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+			Collections.sort(entries, BY_NAME);
+			for (ZipArchiveEntry entry : entries) {
+				hasher.putString(entry.getName(), StandardCharsets.UTF_8).putByte((byte) 0)
+					.putInt(entry.getUnixMode())
+					.putLong(entry.getSize());
+				try (InputStream is = zipFile.getInputStream(entry)) {
+					ByteStreams.copy(is, Funnels.asOutputStream(hasher));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces the given file with the cache entry, if any. Touches the entry
+	 * so that it is evicted last.
+	 *
+	 * @return true if the file has been replaced, false if there is no such
+	 *         entry.
+	 */
+	private boolean restore(Path entry, Path path) throws IOException {
+		if (!Files.isRegularFile(entry)) {
+			return false;
+		}
+		Path tmp = Files.createTempFile(Paths.getParent(path.toAbsolutePath()), path.getFileName().toString(), TMP_SUFFIX);
+		try {
+			Files.copy(entry, tmp, StandardCopyOption.REPLACE_EXISTING);
+		} catch (NoSuchFileException e) {
+			Paths.deleteQuietly(tmp);
+			return false;
+		} catch (IOException e) {
+			Paths.deleteQuietly(tmp);
+			logDebug("Unable to read entry '" + entry + "' from signing cache", e);
+			return false;
+		}
+		try {
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Paths.deleteQuietly(tmp);
+		}
+		touch(entry);
+		return true;
+	}
+
+	private void touch(Path entry) {
+		try {
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			// may have been evicted concurrently, nothing to do
+			logDebug("Unable to update last modified time of '" + entry + "'", e);
+		}
+	}
+
+	/**
+	 * Stores the given (signed) file as the given cache entry.
+	 */
+	private static void store(Path path, Path entry) throws IOException {
+		Path shard = Files.createDirectories(entry.getParent());
+		Path tmp = Files.createTempFile(shard, entry.getFileName().toString(), TMP_SUFFIX);
+		try {
+			Files.copy(path, tmp, StandardCopyOption.REPLACE_EXISTING);
+			try {
+				Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException | FileAlreadyExistsException e) {
+				Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Paths.deleteQuietly(tmp);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until the total size of the
+	 * cache is below {@link #maxSize}. The given entry, just stored, is never
+	 * evicted.
+	 */
+	private synchronized void evictIfNeeded(Path storedEntry) throws IOException {
+		List<CacheEntry> entries = new ArrayList<>();
+		long totalSize = Files.size(storedEntry);
+		try (DirectoryStream<Path> shards = Files.newDirectoryStream(cacheDirectory)) {
+			for (Path shard : shards) {
+				if (Files.isDirectory(shard)) {
+					try (DirectoryStream<Path> shardEntries = Files.newDirectoryStream(shard)) {
+						for (Path entry : shardEntries) {
+							if (!entry.getFileName().toString().endsWith(TMP_SUFFIX) && !entry.equals(storedEntry)) {
+								try {
+									BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+									entries.add(new CacheEntry(entry, attributes.size(), attributes.lastModifiedTime().toMillis()));
+									totalSize += attributes.size();
+								} catch (NoSuchFileException e) {
+									// evicted concurrently
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+
+		if (totalSize > maxSize) {
+			Collections.sort(entries, CacheEntry.LEAST_RECENTLY_USED_FIRST);
+			for (CacheEntry entry : entries) {
+				if (totalSize <= maxSize) {
+					break;
+				}
+				Files.deleteIfExists(entry.path);
+				totalSize -= entry.size;
+				logDebug("Evicted '" + entry.path + "' from signing cache");
+			}
+		}
+	}
+
+	private void logDebug(String msg) {
+		log.debug("[" + new Date() + "] " + msg);
+	}
+
+	private void logDebug(String msg, Exception e) {
+		log.debug("[" + new Date() + "] " + msg, e);
+	}
+
+	/**
+	 * An entry of the cache, as seen while looking for entries to evict.
+	 */
+	private static final class CacheEntry {
+
+		static final Comparator<CacheEntry> LEAST_RECENTLY_USED_FIRST = new Comparator<CacheEntry>() {
+			@Override
+			public int compare(CacheEntry o1, CacheEntry o2) {
+				return Long.compare(o1.lastModified, o2.lastModified);
+			}
+		};
+
+		final Path path;
+
+		final long size;
+
+		final long lastModified;
+
+		CacheEntry(Path path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.cbi.common.http;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
@@ -17,9 +18,10 @@ import java.util.concurrent.TimeUnit;
 import org.apache.maven.plugin.MojoExecutionException;
 
 /**
- * Common interface for signers.
+ * Common interface for signers. Signers may hold resources (e.g., connections
+ * to the server) and must be closed once all files have been sent.
  */
-public interface HttpPostFileSender {
+public interface HttpPostFileSender extends Closeable {
 
 	/**
 	 * Sign the given file. It will retry a given number of time and will wait
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.common.http;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Decides whether and when a failed request should be sent again.
+ * <p>
+ * Implementations must be thread-safe: the same policy is used for all the
+ * requests of a {@link HttpPostFileSender}, possibly concurrently.
+ */
+public abstract class RetryPolicy {
+
+	/**
+	 * Value returned by {@link #delayBeforeRetry(int, long, long)} when the
+	 * request should not be retried.
+	 */
+	public static final long STOP = -1;
+
+	/**
+	 * Returns the time to wait before sending the request again, or
+	 * {@link #STOP} if it should not be sent again.
+	 *
+	 * @param retryCount
+	 *            the number of the upcoming retry, starting at 1.
+	 * @param elapsedMillis
+	 *            the time elapsed since the first attempt, in milliseconds.
+	 * @param minDelayMillis
+	 *            the minimum time to wait, as requested by the server (e.g.
+	 *            with a {@code Retry-After} header), in milliseconds. 0 if the
+	 *            server did not request anything.
+	 * @return the time to wait in milliseconds, or {@link #STOP}.
+	 */
+	public abstract long delayBeforeRetry(int retryCount, long elapsedMillis, long minDelayMillis);
+
+	/**
+	 * Creates a policy that retries at most {@code maxRetries} times and
+	 * waits the same {@code delay} before each retry (or longer, if requested
+	 * by the server).
+	 *
+	 * @param maxRetries
+	 *            the maximum number of retries. Must be positive or null.
+	 * @param delay
+	 *            the time to wait before each retry. Must be positive or null.
+	 * @param unit
+	 *            the unit of {@code delay}.
+	 * @return a new policy.
+	 */
+	public static RetryPolicy fixedDelay(int maxRetries, long delay, TimeUnit unit) {
+		Preconditions.checkArgument(maxRetries >= 0, "'maxRetries' must be positive");
+		Preconditions.checkArgument(delay >= 0, "'delay' must be positive");
+		return new FixedDelay(maxRetries, unit.toMillis(delay));
+	}
+
+	/**
+	 * Creates a policy that retries at most {@code maxRetries} times, as long
+	 * as {@code maxElapsedTime} is not exceeded. The time to wait before the
+	 * n-th retry is chosen randomly between 0 and
+	 * {@code min(maxDelay, initialDelay * 2^(n-1))} ("full jitter"), so that
+	 * the clients that failed at the same time do not retry in lockstep.
+	 *
+	 * @param maxRetries
+	 *            the maximum number of retries. Must be positive or null.
+	 * @param initialDelay
+	 *            the upper bound of the time to wait before the first retry.
+	 *            Must be positive or null.
+	 * @param maxDelay
+	 *            the upper bound of the time to wait before any retry. Must be
+	 *            greater or equal to {@code initialDelay}.
+	 * @param maxElapsedTime
+	 *            the time after which no more retry is done, measured from
+	 *            the first attempt. 0 means no limit.
+	 * @param unit
+	 *            the unit of the given durations.
+	 * @return a new policy.
+	 */
+	public static RetryPolicy exponentialBackoff(int maxRetries, long initialDelay, long maxDelay, long maxElapsedTime, TimeUnit unit) {
+		Preconditions.checkArgument(maxRetries >= 0, "'maxRetries' must be positive");
+		Preconditions.checkArgument(initialDelay >= 0, "'initialDelay' must be positive");
+		Preconditions.checkArgument(maxDelay >= initialDelay, "'maxDelay' must be greater or equal to 'initialDelay'");
+		Preconditions.checkArgument(maxElapsedTime >= 0, "'maxElapsedTime' must be positive");
+		Objects.requireNonNull(unit);
+		return new ExponentialBackoff(maxRetries, unit.toMillis(initialDelay), unit.toMillis(maxDelay), unit.toMillis(maxElapsedTime));
+	}
+
+	private static final class FixedDelay extends RetryPolicy {
+
+		private final int maxRetries;
+
+		private final long delayMillis;
+
+		FixedDelay(int maxRetries, long delayMillis) {
+			this.maxRetries = maxRetries;
+			this.delayMillis = delayMillis;
+		}
+
+		@Override
+		public long delayBeforeRetry(int retryCount, long elapsedMillis, long minDelayMillis) {
+			if (retryCount > maxRetries) {
+				return STOP;
+			}
+			return Math.max(delayMillis, minDelayMillis);
+		}
+
+		@Override
+		public String toString() {
+			return "fixed delay of " + delayMillis + "ms, at most " + maxRetries + " retries";
+		}
+	}
+
+	private static final class ExponentialBackoff extends RetryPolicy {
+
+		private final int maxRetries;
+
+		private final long initialDelayMillis;
+
+		private final long maxDelayMillis;
+
+		private final long maxElapsedMillis;
+
+		ExponentialBackoff(int maxRetries, long initialDelayMillis, long maxDelayMillis, long maxElapsedMillis) {
+			this.maxRetries = maxRetries;
+			this.initialDelayMillis = initialDelayMillis;
+			this.maxDelayMillis = maxDelayMillis;
+			this.maxElapsedMillis = maxElapsedMillis;
+		}
+
+		@Override
+		public long delayBeforeRetry(int retryCount, long elapsedMillis, long minDelayMillis) {
+			if (retryCount > maxRetries) {
+				return STOP;
+			}
+			long delay = Math.max(randomDelay(retryCount), minDelayMillis);
+			if (maxElapsedMillis > 0 && elapsedMillis + delay > maxElapsedMillis) {
+				return STOP;
+			}
+			return delay;
+		}
+
+		private long randomDelay(int retryCount) {
+			// initialDelay * 2^(retryCount-1), without overflowing
+			int shift = Math.min(retryCount - 1, Long.numberOfLeadingZeros(Math.max(initialDelayMillis, 1)) - 1);
+			long upperBound = Math.min(maxDelayMillis, initialDelayMillis << shift);
+			return upperBound > 0 ? ThreadLocalRandom.current().nextLong(upperBound + 1) : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "exponential backoff from " + initialDelayMillis + "ms up to " + maxDelayMillis + "ms, at most " + maxRetries + " retries"
+					+ (maxElapsedMillis > 0 ? " within " + maxElapsedMillis + "ms" : "");
+		}
+	}
+}
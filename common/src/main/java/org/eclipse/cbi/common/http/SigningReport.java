@@ -0,0 +1,415 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.common.http;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.cbi.common.util.Paths;
+
+/**
+ * Records the time spent in each phase of the signing of files: local
+ * (un)packing, upload, wait for the server, download and wait before retries.
+ * The time of the phases is accumulated per file, so that the overhead of
+ * signing can be tracked across builds, either through a
+ * {@link #summary() summary} printed at the end of the build or through a
+ * {@link #writeJson(Path) JSON report}.
+ * <p>
+ * The files that are actually sent are often temporary ones (e.g. a zipped
+ * application or a nested Jar extracted to a random folder). Their time is
+ * recorded against the artifacts they have been {@link #attribute(Path, String)
+ * attributed} to, so that the reports are comparable from one build to
+ * another.
+ * <p>
+ * This class is thread-safe: the same report may be shared by all the files
+ * signed concurrently.
+ */
+public final class SigningReport {
+
+	/**
+	 * The phases of the signing of a file.
+	 */
+	public enum Phase {
+		/** Packing the file (or its folder) before sending it. */
+		ZIP("zip"),
+		/** Unpacking the signed file. */
+		UNZIP("unzip"),
+		/** Sending the file to the server. */
+		UPLOAD("upload"),
+		/** Waiting for the server, from the end of the upload to the reply. */
+		WAIT("wait"),
+		/** Receiving the signed file. */
+		DOWNLOAD("download"),
+		/** Waiting before sending the file again after a failure. */
+		RETRY_WAIT("retryWait");
+
+		private final String id;
+
+		private Phase(String id) {
+			this.id = id;
+		}
+
+		/**
+		 * Returns the name of this phase in the reports.
+		 *
+		 * @return the name of this phase in the reports.
+		 */
+		public String id() {
+			return id;
+		}
+	}
+
+	private static final int SLOWEST_FILES_IN_SUMMARY = 5;
+
+	private static final Phase[] PHASES = Phase.values();
+
+	/**
+	 * The timings by file, sorted by path so that the reports are stable.
+	 */
+	private final ConcurrentMap<String, FileTimings> files;
+
+	/**
+	 * The artifacts the temporary files stand for, indexed by the path of the
+	 * temporary files.
+	 */
+	private final ConcurrentMap<String, List<String>> attributions;
+
+	/**
+	 * Creates an empty report.
+	 */
+	public SigningReport() {
+		this.files = new ConcurrentSkipListMap<>();
+		this.attributions = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Records the time spent on the given file against the given artifact
+	 * from now on. Used when the file sent for signing is a temporary file
+	 * standing for the artifact.
+	 *
+	 * @param file
+	 *            the temporary file.
+	 * @param artifact
+	 *            the name of the artifact in the reports, see
+	 *            {@link #nameOf(Path)}.
+	 */
+	public void attribute(Path file, String artifact) {
+		attribute(file, Collections.singletonList(artifact));
+	}
+
+	/**
+	 * Records the time spent on the given file against the given artifacts
+	 * from now on. Used when several artifacts are sent in a single temporary
+	 * file: the time is split evenly between them.
+	 *
+	 * @param file
+	 *            the temporary file.
+	 * @param artifacts
+	 *            the names of the artifacts in the reports, see
+	 *            {@link #nameOf(Path)}.
+	 */
+	public void attribute(Path file, Collection<String> artifacts) {
+		if (artifacts.isEmpty()) {
+			throw new IllegalArgumentException("At least one artifact is required");
+		}
+		attributions.put(keyOf(file), Collections.unmodifiableList(new ArrayList<>(artifacts)));
+	}
+
+	/**
+	 * Returns the name of the given file in the reports: the artifact it has
+	 * been attributed to, if any and if there is only one, its absolute path
+	 * otherwise.
+	 *
+	 * @param file
+	 *            the file.
+	 * @return the name of the file in the reports.
+	 */
+	public String nameOf(Path file) {
+		String key = keyOf(file);
+		List<String> artifacts = attributions.get(key);
+		return artifacts != null && artifacts.size() == 1 ? artifacts.get(0) : key;
+	}
+
+	/**
+	 * Adds the given duration to the given phase of the signing of the given
+	 * file.
+	 *
+	 * @param file
+	 *            the signed file.
+	 * @param phase
+	 *            the phase.
+	 * @param duration
+	 *            the duration.
+	 * @param unit
+	 *            the unit of the duration.
+	 */
+	public void record(Path file, Phase phase, long duration, TimeUnit unit) {
+		List<FileTimings> timings = timings(file);
+		long nanos = Math.max(0, unit.toNanos(duration)) / timings.size();
+		for (FileTimings artifactTimings : timings) {
+			artifactTimings.nanos.addAndGet(phase.ordinal(), nanos);
+		}
+	}
+
+	/**
+	 * Adds the time elapsed since the given {@link System#nanoTime()} to the
+	 * given phase of the signing of the given file.
+	 *
+	 * @param file
+	 *            the signed file.
+	 * @param phase
+	 *            the phase.
+	 * @param startNanos
+	 *            the start of the phase, as returned by
+	 *            {@link System#nanoTime()}.
+	 */
+	public void recordSince(Path file, Phase phase, long startNanos) {
+		record(file, phase, System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records that the given file is about to be sent again.
+	 *
+	 * @param file
+	 *            the signed file.
+	 */
+	public void retried(Path file) {
+		for (FileTimings artifactTimings : timings(file)) {
+			artifactTimings.retries.incrementAndGet();
+		}
+	}
+
+	private static String keyOf(Path file) {
+		return file.toAbsolutePath().normalize().toString();
+	}
+
+	private List<FileTimings> timings(Path file) {
+		String key = keyOf(file);
+		List<String> artifacts = attributions.get(key);
+		if (artifacts == null) {
+			return Collections.singletonList(timings(key));
+		}
+		List<FileTimings> ret = new ArrayList<>(artifacts.size());
+		for (String artifact : artifacts) {
+			ret.add(timings(artifact));
+		}
+		return ret;
+	}
+
+	private FileTimings timings(String key) {
+		FileTimings timings = files.get(key);
+		if (timings == null) {
+			FileTimings newTimings = new FileTimings(key);
+			timings = files.putIfAbsent(key, newTimings);
+			if (timings == null) {
+				timings = newTimings;
+			}
+		}
+		return timings;
+	}
+
+	/**
+	 * Returns whether nothing has been recorded.
+	 *
+	 * @return whether nothing has been recorded.
+	 */
+	public boolean isEmpty() {
+		return files.isEmpty();
+	}
+
+	/**
+	 * Returns the total time spent in the given phase, all files included.
+	 *
+	 * @param phase
+	 *            the phase.
+	 * @param unit
+	 *            the unit of the returned time.
+	 * @return the total time spent in the given phase.
+	 */
+	public long total(Phase phase, TimeUnit unit) {
+		long total = 0;
+		for (FileTimings timings : files.values()) {
+			total += timings.nanos.get(phase.ordinal());
+		}
+		return unit.convert(total, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the number of retries, all files included.
+	 *
+	 * @return the number of retries.
+	 */
+	public int retries() {
+		int retries = 0;
+		for (FileTimings timings : files.values()) {
+			retries += timings.retries.get();
+		}
+		return retries;
+	}
+
+	/**
+	 * Returns the lines of a table summing up the time spent in each phase,
+	 * followed by the slowest files.
+	 *
+	 * @return the lines of the summary, empty if nothing has been recorded.
+	 */
+	public List<String> summary() {
+		List<FileTimings> snapshot = new ArrayList<>(files.values());
+		if (snapshot.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> lines = new ArrayList<>();
+		lines.add("Signing time of " + snapshot.size() + " file(s), " + retries() + " retry(ies):");
+		lines.add(String.format(Locale.ENGLISH, "  %-10s %7s %12s %12s %12s", "Phase", "Files", "Total", "Average", "Max"));
+		for (Phase phase : PHASES) {
+			int count = 0;
+			long total = 0;
+			long max = 0;
+			for (FileTimings timings : snapshot) {
+				long nanos = timings.nanos.get(phase.ordinal());
+				if (nanos > 0) {
+					count++;
+					total += nanos;
+					max = Math.max(max, nanos);
+				}
+			}
+			if (count > 0) {
+				lines.add(String.format(Locale.ENGLISH, "  %-10s %7d %12s %12s %12s", phase.id(), count, seconds(total), seconds(total / count), seconds(max)));
+			}
+		}
+
+		Collections.sort(snapshot, new Comparator<FileTimings>() {
+			@Override
+			public int compare(FileTimings t1, FileTimings t2) {
+				return Long.compare(t2.totalNanos(), t1.totalNanos());
+			}
+		});
+		lines.add("Slowest file(s):");
+		for (FileTimings timings : snapshot.subList(0, Math.min(SLOWEST_FILES_IN_SUMMARY, snapshot.size()))) {
+			StringBuilder line = new StringBuilder(String.format(Locale.ENGLISH, "  %12s  %s (", seconds(timings.totalNanos()), timings.file));
+			String separator = "";
+			for (Phase phase : PHASES) {
+				long nanos = timings.nanos.get(phase.ordinal());
+				if (nanos > 0) {
+					line.append(separator).append(phase.id()).append(' ').append(seconds(nanos));
+					separator = ", ";
+				}
+			}
+			if (timings.retries.get() > 0) {
+				line.append(separator).append(timings.retries.get()).append(" retry(ies)");
+			}
+			lines.add(line.append(')').toString());
+		}
+		return lines;
+	}
+
+	private static String seconds(long nanos) {
+		return String.format(Locale.ENGLISH, "%.3fs", nanos / 1e9);
+	}
+
+	/**
+	 * Writes the time spent in each phase for each file, in milliseconds, to
+	 * the given file in the JSON format. The parent folders are created if
+	 * need be.
+	 *
+	 * @param reportFile
+	 *            the file to write.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void writeJson(Path reportFile) throws IOException {
+		Objects.requireNonNull(reportFile);
+		Path parent = Paths.getParent(reportFile.toAbsolutePath());
+		Files.createDirectories(parent);
+		try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+			writer.write("{\n  \"retries\": " + retries() + ",\n  \"totalMillis\": {");
+			String separator = "";
+			for (Phase phase : PHASES) {
+				writer.write(separator + "\"" + phase.id() + "\": " + total(phase, TimeUnit.MILLISECONDS));
+				separator = ", ";
+			}
+			writer.write("},\n  \"files\": [");
+			separator = "\n";
+			for (Entry<String, FileTimings> entry : files.entrySet()) {
+				FileTimings timings = entry.getValue();
+				writer.write(separator + "    {\"file\": \"" + escapeJson(timings.file) + "\", \"retries\": " + timings.retries.get());
+				for (Phase phase : PHASES) {
+					writer.write(", \"" + phase.id() + "Millis\": " + TimeUnit.NANOSECONDS.toMillis(timings.nanos.get(phase.ordinal())));
+				}
+				writer.write("}");
+				separator = ",\n";
+			}
+			writer.write("\n  ]\n}\n");
+		}
+	}
+
+	private static String escapeJson(String value) {
+		StringBuilder ret = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				ret.append('\\').append(c);
+			} else if (c < 0x20) {
+				ret.append(String.format("\\u%04x", (int) c));
+			} else {
+				ret.append(c);
+			}
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * The time spent in each phase for a single file.
+	 */
+	private static final class FileTimings {
+
+		final String file;
+
+		/**
+		 * The time spent in each phase, in nanoseconds, indexed by the
+		 * ordinal of the phase.
+		 */
+		final AtomicLongArray nanos;
+
+		final AtomicInteger retries;
+
+		FileTimings(String file) {
+			this.file = file;
+			this.nanos = new AtomicLongArray(PHASES.length);
+			this.retries = new AtomicInteger();
+		}
+
+		long totalNanos() {
+			long total = 0;
+			for (int i = 0; i < nanos.length(); i++) {
+				total += nanos.get(i);
+			}
+			return total;
+		}
+	}
+}
@@ -13,6 +13,8 @@ package org.eclipse.cbi.common.util;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -23,12 +25,19 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.jar.JarInputStream;
 import java.util.jar.JarOutputStream;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -36,9 +45,19 @@ import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.Zip64ExtendedInformationExtraField;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipExtraField;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 
 /**
  * Utility class to work with Zip files ({@link Path} based).
@@ -125,8 +144,12 @@ public class Zips {
 	
 	private static int unpack(ZipInputStream zis, Path outputDir, Set<Path> excludedPath) throws IOException {
 		int unpackedEntries = 0;
+		final Path normalizedOutputDir = outputDir.normalize();
 		for(ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
 			final Path entryPath = outputDir.resolve(entry.getName());
+			if (!entryPath.normalize().startsWith(normalizedOutputDir)) {
+				throw new IOException("Entry '" + entry.getName() + "' is outside of the target directory");
+			}
 			if (!excludedPath.contains(entryPath)) {
 				if (entry.isDirectory()) {
 					Files.createDirectories(entryPath);
@@ -142,6 +165,281 @@ public class Zips {
 		return unpackedEntries;
 	}
 
+	/**
+	 * Extracts the file entries of the given {@code source} Zip file whose
+	 * name is accepted by the given filter in the {@code outputDir}. Other
+	 * entries are neither read nor inflated: the Zip file is accessed through
+	 * its central directory.
+	 * 
+	 * @param source
+	 *            the Zip file to extract entries from.
+	 * @param outputDir
+	 *            the output directory where the entries will be extracted. It
+	 *            does not have to exist beforehand.
+	 * @param entryNameFilter
+	 *            the filter of the entries to be extracted.
+	 * @return the paths of the extracted files, indexed by their entry name
+	 *         (in the order of the central directory).
+	 * @throws IOException
+	 */
+	public static Map<String, Path> unpackEntries(Path source, Path outputDir, Predicate<String> entryNameFilter) throws IOException {
+		checkPathExists(source, "'source' path must exists");
+		final Map<String, Path> ret = new LinkedHashMap<>();
+		final Path normalizedOutputDir = outputDir.normalize();
+		try (ZipFile zipFile = newZipFile(source)) {
+			for (Enumeration<ZipArchiveEntry> entries = zipFile.getEntries(); entries.hasMoreElements();) {
+				ZipArchiveEntry entry = entries.nextElement();
+				if (!entry.isDirectory() && entryNameFilter.apply(entry.getName())) {
+					final Path entryPath = outputDir.resolve(entry.getName());
+					if (!entryPath.normalize().startsWith(normalizedOutputDir)) {
+						throw new IOException("Entry '" + entry.getName() + "' is outside of the target directory");
+					}
+					Files.createDirectories(entryPath.normalize().getParent());
+					try (InputStream is = zipFile.getInputStream(entry)) {
+						Files.copy(is, entryPath, StandardCopyOption.REPLACE_EXISTING);
+					}
+					Files.setLastModifiedTime(entryPath, FileTime.from(entry.getTime(), TimeUnit.MILLISECONDS));
+					ret.put(entry.getName(), entryPath);
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Reads and returns the content of the entry with the given name from the
+	 * {@code source} Zip file. The entry is looked up in the central directory
+	 * so that no other entries are read or inflated, whatever the size of the
+	 * Zip file.
+	 * 
+	 * @param source
+	 *            the Zip file to read the entry from.
+	 * @param entryName
+	 *            the name of the entry to read.
+	 * @return the content of the entry or {@code null} if the Zip file does
+	 *         not contain any file entry with the given name.
+	 * @throws IOException
+	 */
+	public static byte[] readEntry(Path source, String entryName) throws IOException {
+		checkPathExists(source, "'source' path must exists");
+		try (ZipFile zipFile = newZipFile(source)) {
+			ZipArchiveEntry entry = zipFile.getEntry(entryName);
+			if (entry == null || entry.isDirectory()) {
+				return null;
+			}
+			try (InputStream is = zipFile.getInputStream(entry)) {
+				return ByteStreams.toByteArray(is);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given file starts with a Zip local file header (or
+	 * with an end of central directory record for empty Zip files). It only
+	 * reads the first bytes of the file, it does not check that the whole file
+	 * is a valid Zip file.
+	 * 
+	 * @param source
+	 *            the file to check.
+	 * @return true if the file looks like a Zip file, false otherwise.
+	 * @throws IOException
+	 */
+	public static boolean isZipFile(Path source) throws IOException {
+		checkPathExists(source, "'source' path must exists");
+		byte[] signature = new byte[4];
+		int read;
+		try (InputStream is = Files.newInputStream(source)) {
+			read = ByteStreams.read(is, signature, 0, signature.length);
+		}
+		return ZipArchiveInputStream.matches(signature, read);
+	}
+
+	/**
+	 * Writes a copy of the {@code source} Zip file to {@code target} where the
+	 * content of the entries whose name is a key of {@code replacements} is
+	 * replaced by the content of the associated file. All other entries are
+	 * copied as is, without being inflated and deflated again: their
+	 * compressed data, CRC and sizes are preserved. Entries keep the order
+	 * they have in the {@code source} Zip file. Replaced entries keep the
+	 * compression method, comment and extra fields of the original entry.
+	 * 
+	 * @param source
+	 *            the Zip file to copy.
+	 * @param target
+	 *            the Zip file to create or overwrite. Must not be the
+	 *            {@code source} file.
+	 * @param replacements
+	 *            the files to use as the new content of the entries, indexed
+	 *            by entry name.
+	 * @return the number of entries written to the target Zip file.
+	 * @throws IOException
+	 */
+	public static int replaceEntries(Path source, Path target, Map<String, Path> replacements) throws IOException {
+		return copyEntries(source, target, Predicates.<String>alwaysTrue(), replacements);
+	}
+
+	/**
+	 * Writes a copy of the {@code source} Zip file to {@code target} with only
+	 * the entries whose name is accepted by the given filter. Entries are
+	 * copied as is, without being inflated and deflated again: their
+	 * compressed data, CRC and sizes are preserved. Entries keep the order
+	 * they have in the {@code source} Zip file.
+	 * 
+	 * @param source
+	 *            the Zip file to copy.
+	 * @param target
+	 *            the Zip file to create or overwrite. Must not be the
+	 *            {@code source} file.
+	 * @param entryNameFilter
+	 *            the filter of the entries to be copied.
+	 * @return the number of entries written to the target Zip file.
+	 * @throws IOException
+	 */
+	public static int copyEntries(Path source, Path target, Predicate<String> entryNameFilter) throws IOException {
+		return copyEntries(source, target, entryNameFilter, ImmutableMap.<String, Path>of());
+	}
+
+	/**
+	 * Writes a copy of the {@code source} Zip file to {@code target} with only
+	 * the entries whose name is accepted by the given filter. The content of
+	 * the accepted entries whose name is a key of {@code replacements} is
+	 * replaced by the content of the associated file. All other accepted
+	 * entries are copied as is, without being inflated and deflated again:
+	 * their compressed data, CRC and sizes are preserved. Entries keep the
+	 * order they have in the {@code source} Zip file.
+	 * 
+	 * @param source
+	 *            the Zip file to copy.
+	 * @param target
+	 *            the Zip file to create or overwrite. Must not be the
+	 *            {@code source} file.
+	 * @param entryNameFilter
+	 *            the filter of the entries to be copied.
+	 * @param replacements
+	 *            the files to use as the new content of the entries, indexed
+	 *            by entry name.
+	 * @return the number of entries written to the target Zip file.
+	 * @throws IOException
+	 */
+	public static int copyEntries(Path source, Path target, Predicate<String> entryNameFilter, Map<String, Path> replacements) throws IOException {
+		checkPathExists(source, "'source' path must exists");
+		try (ZipFile zipFile = newZipFile(source);
+				ZipArchiveOutputStream zos = new ZipArchiveOutputStream(newBufferedOutputStream(target))) {
+			return copyEntries(zipFile, zos, entryNameFilter, replacements);
+		}
+	}
+
+	/**
+	 * Writes the entries of the {@code source} Zip file whose name is accepted
+	 * by the given filter to the {@code target} Zip output stream. The content
+	 * of the accepted entries whose name is a key of {@code replacements} is
+	 * replaced by the content of the associated file. All other accepted
+	 * entries are copied as is, without being inflated and deflated again:
+	 * their compressed data, CRC and sizes are preserved.
+	 * <p>
+	 * The Zip output stream is neither finished nor closed, so that entries
+	 * from several sources can be written to it.
+	 * 
+	 * @param source
+	 *            the Zip file to copy entries from.
+	 * @param target
+	 *            the Zip output stream to write entries to.
+	 * @param entryNameFilter
+	 *            the filter of the entries to be copied.
+	 * @param replacements
+	 *            the files to use as the new content of the entries, indexed
+	 *            by entry name.
+	 * @return the number of entries written to the target Zip output stream.
+	 * @throws IOException
+	 */
+	public static int copyEntries(ZipFile source, ZipArchiveOutputStream target, Predicate<String> entryNameFilter, Map<String, Path> replacements) throws IOException {
+		int writtenEntries = 0;
+		for (Enumeration<ZipArchiveEntry> entries = source.getEntriesInPhysicalOrder(); entries.hasMoreElements();) {
+			ZipArchiveEntry entry = entries.nextElement();
+			if (entryNameFilter.apply(entry.getName())) {
+				Path replacement = replacements.get(entry.getName());
+				if (replacement != null) {
+					putReplacingEntry(entry, replacement, target);
+				} else {
+					try (InputStream rawInputStream = source.getRawInputStream(entry)) {
+						target.addRawArchiveEntry(entry, rawInputStream);
+					}
+				}
+				writtenEntries++;
+			}
+		}
+		return writtenEntries;
+	}
+
+	/**
+	 * Writes the content of {@code replacement} as a new entry mirroring the
+	 * given one: same name, time, comment, extra fields and compression
+	 * method, so that a stored entry (e.g., a nested jar) is not compressed
+	 * when it is replaced. Entries using a method other than stored are
+	 * deflated. The Zip64 extra field is left to the output stream, as it
+	 * depends on the new sizes.
+	 */
+	private static void putReplacingEntry(ZipArchiveEntry entry, Path replacement, ZipArchiveOutputStream zos) throws IOException {
+		ZipArchiveEntry replacingEntry = new ZipArchiveEntry(entry.getName());
+		replacingEntry.setTime(entry.getTime());
+		replacingEntry.setComment(entry.getComment());
+		List<ZipExtraField> extraFields = new ArrayList<>();
+		for (ZipExtraField extraField : entry.getExtraFields(true)) {
+			if (!(extraField instanceof Zip64ExtendedInformationExtraField)) {
+				extraFields.add(extraField);
+			}
+		}
+		replacingEntry.setExtraFields(extraFields.toArray(new ZipExtraField[extraFields.size()]));
+		if (entry.getMethod() == ZipEntry.STORED) {
+			// the sizes and CRC of stored entries must be known before writing them
+			replacingEntry.setMethod(ZipEntry.STORED);
+			replacingEntry.setSize(Files.size(replacement));
+			replacingEntry.setCrc(crc32(replacement));
+		} else {
+			replacingEntry.setMethod(ZipEntry.DEFLATED);
+		}
+		zos.putArchiveEntry(replacingEntry);
+		Files.copy(replacement, zos);
+		zos.closeArchiveEntry();
+	}
+
+	private static long crc32(Path file) throws IOException {
+		try (CheckedInputStream cis = new CheckedInputStream(newBufferedInputStream(file), new CRC32())) {
+			ByteStreams.copy(cis, ByteStreams.nullOutputStream());
+			return cis.getChecksum().getValue();
+		}
+	}
+
+	/**
+	 * Opens the given Zip file for random access through its central
+	 * directory. Works with any {@link java.nio.file.FileSystem}, not only the
+	 * default one. The caller is responsible for closing the returned
+	 * {@link ZipFile}.
+	 * 
+	 * @param source
+	 *            the Zip file to open.
+	 * @return a new {@link ZipFile}.
+	 * @throws IOException
+	 */
+	public static ZipFile openZipFile(Path source) throws IOException {
+		checkPathExists(source, "'source' path must exists");
+		return newZipFile(source);
+	}
+
+	/**
+	 * Opens the given Zip file for random access. Works with any
+	 * {@link java.nio.file.FileSystem}, not only the default one.
+	 */
+	private static ZipFile newZipFile(Path source) throws IOException {
+		SeekableByteChannel channel = Files.newByteChannel(source, StandardOpenOption.READ);
+		try {
+			return new ZipFile(channel, source.toString(), "UTF8", true);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
 	public static int unpackTarGz(Path sourcePath, Path outputDir) throws IOException {
 		try (TarArchiveInputStream tarArchiveInputStream = new TarArchiveInputStream(new GZIPInputStream(Files.newInputStream(sourcePath)))) {
 			return unpack(tarArchiveInputStream, outputDir);
@@ -311,6 +609,19 @@ public class Zips {
 		}
 	}
 
+	/**
+	 * Returns the name of the Zip entry of the given file, as it would be
+	 * packed by {@link #packZip(Path, Path, boolean)}, i.e., with {@code /}
+	 * as the separator whatever the file system.
+	 * 
+	 * @param relativePath
+	 *            the path of the file, relative to the packed folder.
+	 * @return the name of the Zip entry of the given file.
+	 */
+	public static String entryName(Path relativePath) {
+		return entryNameFrom(relativePath, false);
+	}
+
 	private static String entryNameFrom(Path path, boolean isDirectoryw) {
 		final String pathFsSeparator = path.getFileSystem().getSeparator();
 		final String escapedEntryName;
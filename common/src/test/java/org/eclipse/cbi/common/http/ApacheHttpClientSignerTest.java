@@ -4,14 +4,24 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.ServletException;
@@ -176,6 +186,55 @@ public class ApacheHttpClientSignerTest {
 		}
 	}
 
+	@Test
+	public void testNoRetryOnClientError() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			StatusHandler handler = new StatusHandler(HttpServletResponse.SC_NOT_FOUND, null);
+			Server server = createSigningServer(handler);
+			try (ApacheHttpClientPostFileSender signer = createLocalSigner("localhost", getPort(server))) {
+				Path path = SampleFilesGenerators.createLoremIpsumFile(fs.getPath("fileToSign"), 10);
+				assertFalse(signer.post(path, "file", 3, 100, TimeUnit.MILLISECONDS));
+				assertEquals(1, handler.getRequestCount());
+			} finally {
+				server.stop();
+			}
+		}
+	}
+
+	@Test
+	public void testRetryAfter() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			StatusHandler handler = new StatusHandler(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "1");
+			Server server = createSigningServer(handler);
+			try (ApacheHttpClientPostFileSender signer = ApacheHttpClientPostFileSender.builder(URI.create("http://localhost:"+getPort(server)+"/signing-service"))
+					.logOn(new NullLog()).retryPolicy(RetryPolicy.fixedDelay(1, 0, TimeUnit.MILLISECONDS)).build()) {
+				Path path = SampleFilesGenerators.createLoremIpsumFile(fs.getPath("fileToSign"), 10);
+				long start = System.nanoTime();
+				assertFalse(signer.post(path, "file"));
+				assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+				assertEquals(2, handler.getRequestCount());
+			} finally {
+				server.stop();
+			}
+		}
+	}
+
+	@Test
+	public void testRetryPolicyTakesPrecedence() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			StatusHandler handler = new StatusHandler(HttpServletResponse.SC_BAD_GATEWAY, null);
+			Server server = createSigningServer(handler);
+			try (ApacheHttpClientPostFileSender signer = ApacheHttpClientPostFileSender.builder(URI.create("http://localhost:"+getPort(server)+"/signing-service"))
+					.logOn(new NullLog()).retryPolicy(RetryPolicy.exponentialBackoff(2, 10, 50, 0, TimeUnit.MILLISECONDS)).build()) {
+				Path path = SampleFilesGenerators.createLoremIpsumFile(fs.getPath("fileToSign"), 10);
+				assertFalse(signer.post(path, "file", 10, 10, TimeUnit.MILLISECONDS));
+				assertEquals(3, handler.getRequestCount());
+			} finally {
+				server.stop();
+			}
+		}
+	}
+
 	@Test(expected=IOException.class)
 	public void testRetryOnException() throws Exception {
 		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
@@ -185,6 +244,109 @@ public class ApacheHttpClientSignerTest {
 		}
 	}
 
+	@Test
+	public void testConnectionIsReused() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+			Server server = createSigningServer(new AbstractHandler() {
+				@Override
+				public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+					clientPorts.add(request.getRemotePort());
+					SampleFilesGenerators.readAllBytes(request.getInputStream());
+					baseRequest.setHandled(true);
+					response.setStatus(HttpServletResponse.SC_OK);
+					response.getWriter().print("Signed!");
+				}
+			});
+			try (ApacheHttpClientPostFileSender signer = ApacheHttpClientPostFileSender.builder(URI.create("http://localhost:"+getPort(server)+"/signing-service"))
+					.logOn(new NullLog()).maxConnectionsPerRoute(1).build()) {
+				for (int i = 0; i < 5; i++) {
+					Path path = SampleFilesGenerators.createLoremIpsumFile(fs.getPath("fileToSign" + i), 10);
+					assertTrue(signer.post(path, "file"));
+				}
+				assertEquals(1, clientPorts.size());
+			} finally {
+				server.stop();
+			}
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidMaxConnectionsPerRoute() {
+		ApacheHttpClientPostFileSender.builder(URI.create("http://localhost:8080/signing-service")).maxConnectionsPerRoute(0);
+	}
+
+	@Test
+	public void testSignArchive() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			final byte[] signedArchive = createArchive("signed");
+			Server server = createSigningServer(createReplyingHandler(signedArchive));
+			try (ApacheHttpClientPostFileSender signer = createLocalSigner("localhost", getPort(server))) {
+				Path path = Files.write(fs.getPath("fileToSign.jar"), createArchive("unsigned"));
+				assertTrue(signer.post(path, "file"));
+				assertArrayEquals(signedArchive, Files.readAllBytes(path));
+				assertEquals(1, countFiles(fs.getPath("").toAbsolutePath()));
+			} finally {
+				server.stop();
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidArchiveIsNotKept() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			byte[] signedArchive = createArchive("signed");
+			Server server = createSigningServer(createReplyingHandler(Arrays.copyOf(signedArchive, signedArchive.length / 2)));
+			try (ApacheHttpClientPostFileSender signer = createLocalSigner("localhost", getPort(server))) {
+				byte[] unsignedArchive = createArchive("unsigned");
+				Path path = Files.write(fs.getPath("fileToSign.jar"), unsignedArchive);
+				try {
+					signer.post(path, "file");
+					fail("An IOException should have been thrown");
+				} catch (IOException e) {
+					// expected
+				}
+				// check that the file content did not change
+				assertArrayEquals(unsignedArchive, Files.readAllBytes(path));
+				assertEquals(1, countFiles(fs.getPath("").toAbsolutePath()));
+			} finally {
+				server.stop();
+			}
+		}
+	}
+
+	private static int countFiles(Path directory) throws IOException {
+		int count = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (@SuppressWarnings("unused") Path file : files) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static byte[] createArchive(String content) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+			zos.putNextEntry(new ZipEntry("aFile"));
+			zos.write(content.getBytes());
+			zos.closeEntry();
+		}
+		return baos.toByteArray();
+	}
+
+	private static Handler createReplyingHandler(final byte[] content) {
+		return new AbstractHandler() {
+			@Override
+			public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+				SampleFilesGenerators.readAllBytes(request.getInputStream());
+				baseRequest.setHandled(true);
+				response.setStatus(HttpServletResponse.SC_OK);
+				response.getOutputStream().write(content);
+			}
+		};
+	}
+
 	private static int getPort(Server server) {
 		return ((NetworkConnector)server.getConnectors()[0]).getLocalPort();
 	}
@@ -232,6 +394,32 @@ public class ApacheHttpClientSignerTest {
 		return new ServiceUnavailableHandler();
 	}
 
+	private static final class StatusHandler extends AbstractHandler {
+		private final int status;
+		private final String retryAfter;
+		private final AtomicInteger requestCount = new AtomicInteger();
+
+		StatusHandler(int status, String retryAfter) {
+			this.status = status;
+			this.retryAfter = retryAfter;
+		}
+
+		@Override
+		public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+			requestCount.incrementAndGet();
+			baseRequest.setHandled(true);
+			response.setStatus(status);
+			if (retryAfter != null) {
+				response.setHeader("Retry-After", retryAfter);
+			}
+			response.getWriter().print("Some more explanations about the error from the server!");
+		}
+
+		public int getRequestCount() {
+			return requestCount.get();
+		}
+	}
+
 	private static final class ServiceUnavailableHandler extends AbstractHandler {
 		int requestCount;
 
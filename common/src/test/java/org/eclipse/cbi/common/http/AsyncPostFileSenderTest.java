@@ -0,0 +1,160 @@
+package org.eclipse.cbi.common.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.cbi.common.test.util.DummySigner;
+import org.eclipse.cbi.common.test.util.ErrorSigner;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class AsyncPostFileSenderTest {
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNoConcurrentRequest() {
+		new AsyncPostFileSender(new DummySigner(), 0);
+	}
+
+	@Test
+	public void testPostAll() throws Exception {
+		List<Path> paths = Arrays.asList(Paths.get("file1"), Paths.get("file2"), Paths.get("file3"));
+		try (AsyncPostFileSender sender = new AsyncPostFileSender(new DummySigner(), 2)) {
+			List<AsyncPostFileSender.Result> results = sender.postAll(paths, "file", 0, 0, TimeUnit.SECONDS).get();
+			assertEquals(3, results.size());
+			for (int i = 0; i < paths.size(); i++) {
+				assertEquals(paths.get(i), results.get(i).path());
+				assertTrue(results.get(i).isSigned());
+				assertNull(results.get(i).failure());
+			}
+		}
+	}
+
+	@Test
+	public void testFailureIsReported() throws Exception {
+		try (AsyncPostFileSender sender = new AsyncPostFileSender(new ErrorSigner(), 2)) {
+			AsyncPostFileSender.Result result = sender.postAsync(Paths.get("file"), "file", 0, 0, TimeUnit.SECONDS).get();
+			assertFalse(result.isSigned());
+			assertTrue(result.failure() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void testConcurrencyIsBounded() throws Exception {
+		ConcurrencyCountingSigner delegate = new ConcurrencyCountingSigner();
+		try (AsyncPostFileSender sender = new AsyncPostFileSender(delegate, 3)) {
+			Path[] paths = new Path[20];
+			for (int i = 0; i < paths.length; i++) {
+				paths[i] = Paths.get("file" + i);
+			}
+			sender.postAll(Arrays.asList(paths), "file", 0, 0, TimeUnit.SECONDS).get();
+		}
+		assertTrue(delegate.maxInFlight.get() <= 3);
+		assertTrue(delegate.maxInFlight.get() > 1);
+	}
+
+	@Test
+	public void testCloseClosesDelegate() throws IOException {
+		ConcurrencyCountingSigner delegate = new ConcurrencyCountingSigner();
+		new AsyncPostFileSender(delegate, 1).close();
+		assertTrue(delegate.closed);
+	}
+
+	@Test
+	public void testCloseWaitsForInterruptedRequests() throws Exception {
+		final SlowToStopSigner delegate = new SlowToStopSigner();
+		AsyncPostFileSender sender = new AsyncPostFileSender(delegate, 1, 1, TimeUnit.SECONDS);
+		sender.postAsync(Paths.get("file"), "file", 0, 0, TimeUnit.SECONDS);
+		delegate.started.await();
+		sender.close();
+		assertTrue(delegate.closed);
+		assertFalse(delegate.inFlightWhenClosed);
+	}
+
+	/**
+	 * A signer whose requests take some time to stop once interrupted, as the
+	 * ones writing the reply to disk.
+	 */
+	private static final class SlowToStopSigner implements HttpPostFileSender {
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		volatile boolean inFlight;
+
+		volatile boolean inFlightWhenClosed;
+
+		volatile boolean closed;
+
+		@Override
+		public boolean post(Path path, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) {
+			inFlight = true;
+			started.countDown();
+			try {
+				Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			} catch (InterruptedException e) {
+				// finishes the current write before giving up
+				Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+			} finally {
+				inFlight = false;
+			}
+			return false;
+		}
+
+		@Override
+		public boolean post(Path path, String partName) {
+			return post(path, partName, 0, 0, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void close() {
+			inFlightWhenClosed = inFlight;
+			closed = true;
+		}
+	}
+
+	private static final class ConcurrencyCountingSigner implements HttpPostFileSender {
+
+		final AtomicInteger inFlight = new AtomicInteger();
+
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		volatile boolean closed;
+
+		@Override
+		public boolean post(Path path, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) {
+			int current = inFlight.incrementAndGet();
+			for (int max = maxInFlight.get(); current > max && !maxInFlight.compareAndSet(max, current); max = maxInFlight.get()) {
+				// retry
+			}
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			return true;
+		}
+
+		@Override
+		public boolean post(Path path, String partName) {
+			return post(path, partName, 0, 0, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package org.eclipse.cbi.common.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.cbi.common.test.util.NotSigningSigner;
+import org.eclipse.cbi.common.test.util.SampleFilesGenerators;
+import org.eclipse.cbi.common.util.Zips;
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+@RunWith(Theories.class)
+public class CachingPostFileSenderTest {
+
+	private static final String SIGNER = "http://localhost:8080/sign";
+
+	@DataPoints
+	public static Configuration[] configurations() {
+		return new Configuration[] {
+				Configuration.unix(),
+				Configuration.osX(),
+				Configuration.windows(),
+		};
+	}
+
+	@Theory
+	public void testCacheHit(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
+			CountingSigner delegate = new CountingSigner();
+			CachingPostFileSender sender = new CachingPostFileSender(delegate, SIGNER, fs.getPath("cache"), Long.MAX_VALUE, new NullLog());
+			Path file1 = SampleFilesGenerators.writeFile(fs.getPath("file1"), "Content");
+			Path file2 = SampleFilesGenerators.writeFile(fs.getPath("file2"), "Content");
+			assertTrue(sender.post(file1, "file"));
+			assertTrue(sender.post(file2, "file"));
+			assertEquals(1, delegate.count);
+			assertEquals("Content signed", read(file2));
+		}
+	}
+
+	@Theory
+	public void testCacheMissOnDifferentContent(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
+			CountingSigner delegate = new CountingSigner();
+			CachingPostFileSender sender = new CachingPostFileSender(delegate, SIGNER, fs.getPath("cache"), Long.MAX_VALUE, new NullLog());
+			assertTrue(sender.post(SampleFilesGenerators.writeFile(fs.getPath("file1"), "Content 1"), "file"));
+			assertTrue(sender.post(SampleFilesGenerators.writeFile(fs.getPath("file2"), "Content 2"), "file"));
+			assertEquals(2, delegate.count);
+		}
+	}
+
+	@Theory
+	public void testCacheMissOnDifferentSigner(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
+			CountingSigner delegate = new CountingSigner();
+			new CachingPostFileSender(delegate, SIGNER, fs.getPath("cache"), Long.MAX_VALUE, new NullLog())
+				.post(SampleFilesGenerators.writeFile(fs.getPath("file1"), "Content"), "file");
+			new CachingPostFileSender(delegate, SIGNER + "?name=other", fs.getPath("cache"), Long.MAX_VALUE, new NullLog())
+				.post(SampleFilesGenerators.writeFile(fs.getPath("file2"), "Content"), "file");
+			assertEquals(2, delegate.count);
+		}
+	}
+
+	@Theory
+	public void testZipCacheHitDespiteOtherTimes(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
+			CountingSigner delegate = new CountingSigner();
+			CachingPostFileSender sender = new CachingPostFileSender(delegate, SIGNER, fs.getPath("cache"), Long.MAX_VALUE, true, new NullLog());
+			Path app = Files.createDirectories(fs.getPath("Test.app", "Contents"));
+			SampleFilesGenerators.writeFile(app.resolve("Info.plist"), "Info");
+			SampleFilesGenerators.writeFile(app.resolve("eclipse"), "Launcher");
+			Path zip1 = fs.getPath("app1.zip");
+			Zips.packZip(app.getParent(), zip1, true);
+			assertTrue(sender.post(zip1, "file"));
+
+			// same files, zipped again later
+			Files.setLastModifiedTime(app.resolve("eclipse"), FileTime.fromMillis(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+			Path zip2 = fs.getPath("app2.zip");
+			Zips.packZip(app.getParent(), zip2, true);
+			assertFalse(Arrays.equals(Files.readAllBytes(zip1), Files.readAllBytes(zip2)));
+			assertTrue(sender.post(zip2, "file"));
+			assertEquals(1, delegate.count);
+
+			SampleFilesGenerators.writeFile(app.resolve("eclipse"), "Other launcher");
+			Path zip3 = fs.getPath("app3.zip");
+			Zips.packZip(app.getParent(), zip3, true);
+			assertTrue(sender.post(zip3, "file"));
+			assertEquals(2, delegate.count);
+		}
+	}
+
+	@Theory
+	public void testFailedSigningIsNotCached(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
+			CachingPostFileSender notSigning = new CachingPostFileSender(new NotSigningSigner(), SIGNER, fs.getPath("cache"), Long.MAX_VALUE, new NullLog());
+			Path file = SampleFilesGenerators.writeFile(fs.getPath("file"), "Content");
+			assertFalse(notSigning.post(file, "file"));
+			assertEquals("Content", read(file));
+
+			CountingSigner delegate = new CountingSigner();
+			assertTrue(new CachingPostFileSender(delegate, SIGNER, fs.getPath("cache"), Long.MAX_VALUE, new NullLog()).post(file, "file"));
+			assertEquals(1, delegate.count);
+		}
+	}
+
+	@Theory
+	public void testEviction(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
+			CountingSigner delegate = new CountingSigner();
+			// room for a single entry
+			CachingPostFileSender sender = new CachingPostFileSender(delegate, SIGNER, fs.getPath("cache"), 20, new NullLog());
+			sender.post(SampleFilesGenerators.writeFile(fs.getPath("file1"), "Content 1"), "file");
+			sender.post(SampleFilesGenerators.writeFile(fs.getPath("file2"), "Content 2"), "file");
+			sender.post(SampleFilesGenerators.writeFile(fs.getPath("file3"), "Content 2"), "file");
+			assertEquals(2, delegate.count);
+			sender.post(SampleFilesGenerators.writeFile(fs.getPath("file4"), "Content 1"), "file");
+			assertEquals(3, delegate.count);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeMaxSize() {
+		new CachingPostFileSender(new CountingSigner(), SIGNER, Jimfs.newFileSystem().getPath("cache"), -1, new NullLog());
+	}
+
+	private static String read(Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+	}
+
+	private static final class CountingSigner implements HttpPostFileSender {
+
+		int count;
+
+		@Override
+		public boolean post(Path path, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) throws IOException {
+			count++;
+			Files.write(path, " signed".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			return true;
+		}
+
+		@Override
+		public boolean post(Path path, String partName) throws IOException {
+			return post(path, partName, 0, 0, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package org.eclipse.cbi.common.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+	@Test
+	public void testFixedDelay() {
+		RetryPolicy policy = RetryPolicy.fixedDelay(2, 3, TimeUnit.SECONDS);
+		assertEquals(3000, policy.delayBeforeRetry(1, 0, 0));
+		assertEquals(3000, policy.delayBeforeRetry(2, 0, 0));
+		assertEquals(RetryPolicy.STOP, policy.delayBeforeRetry(3, 0, 0));
+	}
+
+	@Test
+	public void testFixedDelayHonorsMinDelay() {
+		RetryPolicy policy = RetryPolicy.fixedDelay(2, 3, TimeUnit.SECONDS);
+		assertEquals(10000, policy.delayBeforeRetry(1, 0, 10000));
+	}
+
+	@Test
+	public void testExponentialBackoffBounds() {
+		RetryPolicy policy = RetryPolicy.exponentialBackoff(10, 100, 1000, 0, TimeUnit.MILLISECONDS);
+		for (int i = 0; i < 100; i++) {
+			assertBetween(0, 100, policy.delayBeforeRetry(1, 0, 0));
+			assertBetween(0, 200, policy.delayBeforeRetry(2, 0, 0));
+			assertBetween(0, 400, policy.delayBeforeRetry(3, 0, 0));
+			assertBetween(0, 1000, policy.delayBeforeRetry(10, 0, 0));
+		}
+		assertEquals(RetryPolicy.STOP, policy.delayBeforeRetry(11, 0, 0));
+	}
+
+	@Test
+	public void testExponentialBackoffDoesNotOverflow() {
+		RetryPolicy policy = RetryPolicy.exponentialBackoff(Integer.MAX_VALUE, 1, 1, 0, TimeUnit.DAYS);
+		assertBetween(0, TimeUnit.DAYS.toMillis(1), policy.delayBeforeRetry(1000, 0, 0));
+	}
+
+	@Test
+	public void testExponentialBackoffMaxElapsedTime() {
+		RetryPolicy policy = RetryPolicy.exponentialBackoff(10, 100, 1000, 5000, TimeUnit.MILLISECONDS);
+		assertBetween(0, 100, policy.delayBeforeRetry(1, 4000, 0));
+		assertEquals(RetryPolicy.STOP, policy.delayBeforeRetry(1, 5001, 0));
+		assertEquals(RetryPolicy.STOP, policy.delayBeforeRetry(1, 4000, 2000));
+	}
+
+	@Test
+	public void testExponentialBackoffHonorsMinDelay() {
+		RetryPolicy policy = RetryPolicy.exponentialBackoff(10, 100, 1000, 0, TimeUnit.MILLISECONDS);
+		assertEquals(3000, policy.delayBeforeRetry(1, 0, 3000));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidMaxDelay() {
+		RetryPolicy.exponentialBackoff(10, 100, 10, 0, TimeUnit.MILLISECONDS);
+	}
+
+	private static void assertBetween(long min, long max, long actual) {
+		assertTrue(actual + " is not in [" + min + ", " + max + "]", actual >= min && actual <= max);
+	}
+}
@@ -0,0 +1,100 @@
+package org.eclipse.cbi.common.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cbi.common.http.SigningReport.Phase;
+import org.junit.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class SigningReportTest {
+
+	@Test
+	public void testEmptyReport() {
+		SigningReport report = new SigningReport();
+		assertTrue(report.isEmpty());
+		assertTrue(report.summary().isEmpty());
+		assertEquals(0, report.total(Phase.UPLOAD, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testTotals() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			SigningReport report = new SigningReport();
+			Path a = fs.getPath("/work/a.jar");
+			Path b = fs.getPath("/work/../work/b.jar");
+			report.record(a, Phase.UPLOAD, 100, TimeUnit.MILLISECONDS);
+			report.record(a, Phase.UPLOAD, 50, TimeUnit.MILLISECONDS);
+			report.record(b, Phase.UPLOAD, 2, TimeUnit.SECONDS);
+			report.record(b, Phase.WAIT, 3, TimeUnit.SECONDS);
+			report.retried(b);
+			report.retried(fs.getPath("/work/b.jar"));
+
+			assertEquals(2150, report.total(Phase.UPLOAD, TimeUnit.MILLISECONDS));
+			assertEquals(3000, report.total(Phase.WAIT, TimeUnit.MILLISECONDS));
+			assertEquals(0, report.total(Phase.DOWNLOAD, TimeUnit.MILLISECONDS));
+			assertEquals(2, report.retries());
+
+			List<String> summary = report.summary();
+			assertEquals("Signing time of 2 file(s), 2 retry(ies):", summary.get(0));
+			assertTrue(summary.get(2).contains("upload"));
+			assertTrue(summary.get(3).contains("wait"));
+			assertEquals("Slowest file(s):", summary.get(4));
+			assertTrue(summary.get(5).contains("/work/b.jar"));
+			assertTrue(summary.get(5).endsWith("2 retry(ies))"));
+			assertTrue(summary.get(6).contains("/work/a.jar"));
+		}
+	}
+
+	@Test
+	public void testAttribution() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			SigningReport report = new SigningReport();
+			Path outer = fs.getPath("/work/outer.jar");
+			Path nested = fs.getPath("/work/outer.jar_nested_1234/lib/a.jar");
+			report.attribute(nested, report.nameOf(outer) + "!/lib/a.jar");
+			assertEquals("/work/outer.jar!/lib/a.jar", report.nameOf(nested));
+			report.record(nested, Phase.UPLOAD, 100, TimeUnit.MILLISECONDS);
+
+			Path batch = fs.getPath("/work/batch_5678/batch.zip");
+			report.attribute(batch, Arrays.asList(report.nameOf(nested), report.nameOf(fs.getPath("/work/b.jar"))));
+			assertEquals("/work/batch_5678/batch.zip", report.nameOf(batch));
+			report.record(batch, Phase.WAIT, 2, TimeUnit.SECONDS);
+			report.retried(batch);
+
+			assertEquals(100, report.total(Phase.UPLOAD, TimeUnit.MILLISECONDS));
+			assertEquals(2000, report.total(Phase.WAIT, TimeUnit.MILLISECONDS));
+			assertEquals(2, report.retries());
+
+			List<String> summary = report.summary();
+			assertEquals("Signing time of 2 file(s), 2 retry(ies):", summary.get(0));
+			assertTrue(summary.get(5).contains("/work/outer.jar!/lib/a.jar (upload 0.100s, wait 1.000s"));
+			assertTrue(summary.get(6).contains("/work/b.jar (wait 1.000s"));
+		}
+	}
+
+	@Test
+	public void testWriteJson() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			SigningReport report = new SigningReport();
+			report.record(fs.getPath("/work/a \"1\".jar"), Phase.ZIP, 42, TimeUnit.MILLISECONDS);
+			Path json = fs.getPath("/target/reports/timings.json");
+			report.writeJson(json);
+
+			String content = new String(Files.readAllBytes(json), StandardCharsets.UTF_8);
+			assertTrue(content.contains("\"retries\": 0"));
+			assertTrue(content.contains("\"totalMillis\": {\"zip\": 42, \"unzip\": 0"));
+			assertTrue(content.contains("{\"file\": \"/work/a \\\"1\\\".jar\", \"retries\": 0, \"zipMillis\": 42"));
+		}
+	}
+}
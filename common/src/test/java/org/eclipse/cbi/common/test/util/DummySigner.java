@@ -15,4 +15,9 @@ public class DummySigner implements HttpPostFileSender {
 	public boolean post(Path path, String partName) {
 		return post(path, partName, 0, 0, null);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void close() {
+		// nothing to close
+	}
+}
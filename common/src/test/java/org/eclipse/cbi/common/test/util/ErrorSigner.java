@@ -16,4 +16,9 @@ public class ErrorSigner implements HttpPostFileSender {
 	public boolean post(Path path, String partName) throws IOException {
 		return post(path, partName, 0, 0, null);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void close() {
+		// nothing to close
+	}
+}
@@ -12,12 +12,15 @@ package org.eclipse.cbi.common.util;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -26,12 +29,18 @@ import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.PosixFilePermission;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Map;
 import java.util.Set;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.UnicodeCommentExtraField;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.eclipse.cbi.common.test.util.SampleFilesGenerators;
 import org.eclipse.cbi.common.util.Zips;
 import org.junit.Test;
@@ -40,6 +49,9 @@ import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
 import org.junit.runner.RunWith;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.jimfs.Configuration;
 import com.google.common.jimfs.Jimfs;
 
@@ -191,6 +203,24 @@ public class ZipsTest {
 		}
 	}
 	
+	@Theory
+	public void testUnpackEntryOutsideOfOutputDir(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path zip = fs.getPath("evil.zip");
+			try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+				zos.putNextEntry(new ZipEntry("../evil.txt"));
+				zos.write(1);
+				zos.closeEntry();
+			}
+			try {
+				Zips.unpackZip(zip, fs.getPath("unzipFolder"));
+				fail("Entries outside of the output dir must not be unpacked");
+			} catch (IOException e) {
+				assertFalse(Files.exists(fs.getPath("evil.txt")));
+			}
+		}
+	}
+	
 	@Theory
 	public void testPackUnpackZip(Configuration conf) throws IOException {
 		try (FileSystem fs = Jimfs.newFileSystem(conf)) {	
@@ -242,6 +272,178 @@ public class ZipsTest {
 		}
 	}
 
+	@Theory
+	public void testUnpackEntries(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path path1 = createLoremIpsumFile(fs.getPath("folder", "t1", "Test1.java"), 3);
+			createLoremIpsumFile(fs.getPath("folder", "t2", "t3", "Test2.java"), 10);
+			createLoremIpsumFile(fs.getPath("folder", "t2", "t3", "Test3.txt"), 10);
+			Path zip = fs.getPath("testUnpackEntries.zip");
+			Zips.packZip(fs.getPath("folder"), zip, false);
+			
+			Map<String, Path> entries = Zips.unpackEntries(zip, fs.getPath("unpackFolder"), new Predicate<String>() {
+				@Override
+				public boolean apply(String input) {
+					return input.endsWith(".java");
+				}
+			});
+			assertEquals(2, entries.size());
+			assertEquals(fs.getPath("unpackFolder", "t1", "Test1.java"), entries.get("t1/Test1.java"));
+			assertEquals(fs.getPath("unpackFolder", "t2", "t3", "Test2.java"), entries.get("t2/t3/Test2.java"));
+			assertArrayEquals(Files.readAllBytes(path1), Files.readAllBytes(entries.get("t1/Test1.java")));
+			assertFalse(Files.exists(fs.getPath("unpackFolder", "t2", "t3", "Test3.txt")));
+		}
+	}
+	
+	@Theory
+	public void testUnpackEntriesOutsideOfOutputDir(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path zip = fs.getPath("evil.zip");
+			try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+				zos.putNextEntry(new ZipEntry("../../evil.jar"));
+				zos.write(1);
+				zos.closeEntry();
+			}
+			try {
+				Zips.unpackEntries(zip, fs.getPath("work", "unpackFolder"), Predicates.<String>alwaysTrue());
+				fail("Entries outside of the output dir must not be extracted");
+			} catch (IOException e) {
+				assertFalse(Files.exists(fs.getPath("evil.jar")));
+			}
+		}
+	}
+	
+	@Theory
+	public void testReplaceEntries(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path path1 = createLoremIpsumFile(fs.getPath("folder", "t1", "Test1.java"), 3);
+			Path path2 = createLoremIpsumFile(fs.getPath("folder", "t2", "t3", "Test2.java"), 10);
+			Path replacement = createLoremIpsumFile(fs.getPath("Replacement.java"), 20);
+			Path zip = fs.getPath("testReplaceEntries.zip");
+			Path replacedZip = fs.getPath("testReplaceEntries-replaced.zip");
+			assertEquals(5, Zips.packZip(path1.getParent().getParent(), zip, false));
+
+			assertEquals(5, Zips.replaceEntries(zip, replacedZip, ImmutableMap.of("t1/Test1.java", replacement)));
+			
+			try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(replacedZip))) {
+				checkNextEntry(zis, path1.getParent(), "t1/");
+				checkNextEntry(zis, replacement, "t1/Test1.java");
+				checkNextEntry(zis, path2.getParent().getParent(), "t2/");
+				checkNextEntry(zis, path2.getParent(), "t2/t3/");
+				checkNextEntry(zis, path2, "t2/t3/Test2.java");
+				assertNull(zis.getNextEntry());
+			}
+		}
+	}
+
+	@Theory
+	public void testReplaceStoredEntry(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path replacement = createLoremIpsumFile(fs.getPath("Replacement.jar"), 20);
+			Path zip = fs.getPath("testReplaceStoredEntry.zip");
+			Path replacedZip = fs.getPath("testReplaceStoredEntry-replaced.zip");
+			try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(Files.newOutputStream(zip))) {
+				ZipArchiveEntry entry = new ZipArchiveEntry("nested.jar");
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(1);
+				entry.setCrc(0xA505DF1BL);
+				entry.setComment("nested jar");
+				entry.addExtraField(new UnicodeCommentExtraField("nested jar", "nested jar".getBytes(StandardCharsets.UTF_8)));
+				zos.putArchiveEntry(entry);
+				zos.write(1);
+				zos.closeArchiveEntry();
+			}
+
+			Zips.replaceEntries(zip, replacedZip, ImmutableMap.of("nested.jar", replacement));
+
+			try (ZipFile zipFile = Zips.openZipFile(replacedZip)) {
+				ZipArchiveEntry entry = zipFile.getEntry("nested.jar");
+				assertEquals(ZipEntry.STORED, entry.getMethod());
+				assertEquals(Files.size(replacement), entry.getSize());
+				assertEquals(Files.size(replacement), entry.getCompressedSize());
+				assertEquals("nested jar", entry.getComment());
+				assertNotNull(entry.getExtraField(UnicodeCommentExtraField.UCOM_ID));
+				try (InputStream is = zipFile.getInputStream(entry)) {
+					assertArrayEquals(Files.readAllBytes(replacement), SampleFilesGenerators.readAllBytes(is));
+				}
+			}
+		}
+	}
+
+	@Theory
+	public void testCopyEntries(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path path1 = createLoremIpsumFile(fs.getPath("folder", "t1", "Test1.java"), 3);
+			Path path2 = createLoremIpsumFile(fs.getPath("folder", "t2", "t3", "Test2.java"), 10);
+			Path zip = fs.getPath("testCopyEntries.zip");
+			Path copiedZip = fs.getPath("testCopyEntries-copied.zip");
+			assertEquals(5, Zips.packZip(path1.getParent().getParent(), zip, false));
+			
+			assertEquals(3, Zips.copyEntries(zip, copiedZip, new Predicate<String>() {
+				@Override
+				public boolean apply(String input) {
+					return input.startsWith("t2/");
+				}
+			}));
+			
+			try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(copiedZip))) {
+				checkNextEntry(zis, path2.getParent().getParent(), "t2/");
+				checkNextEntry(zis, path2.getParent(), "t2/t3/");
+				checkNextEntry(zis, path2, "t2/t3/Test2.java");
+				assertNull(zis.getNextEntry());
+			}
+		}
+	}
+	
+	@Theory
+	public void testCopyEntriesPreservesCompressedData(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path path1 = createLoremIpsumFile(fs.getPath("folder", "t1", "Test1.java"), 30);
+			Path zip = fs.getPath("testCopyEntries.zip");
+			Path copiedZip = fs.getPath("testCopyEntries-copied.zip");
+			Zips.packZip(path1.getParent().getParent(), zip, false);
+			Zips.copyEntries(zip, copiedZip, Predicates.<String>alwaysTrue());
+			
+			try (ZipFile original = Zips.openZipFile(zip); ZipFile copy = Zips.openZipFile(copiedZip)) {
+				ZipArchiveEntry originalEntry = original.getEntry("t1/Test1.java");
+				ZipArchiveEntry copiedEntry = copy.getEntry("t1/Test1.java");
+				assertEquals(originalEntry.getCrc(), copiedEntry.getCrc());
+				assertEquals(originalEntry.getSize(), copiedEntry.getSize());
+				assertEquals(originalEntry.getCompressedSize(), copiedEntry.getCompressedSize());
+				assertTrue(copiedEntry.getCompressedSize() < copiedEntry.getSize());
+				try (InputStream originalRaw = original.getRawInputStream(originalEntry); InputStream copiedRaw = copy.getRawInputStream(copiedEntry)) {
+					assertArrayEquals(SampleFilesGenerators.readAllBytes(originalRaw), SampleFilesGenerators.readAllBytes(copiedRaw));
+				}
+			}
+		}
+	}
+
+	@Theory
+	public void testReadEntry(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path path1 = createLoremIpsumFile(fs.getPath("folder", "t1", "Test1.java"), 3);
+			Path zip = fs.getPath("testReadEntry.zip");
+			Zips.packZip(path1.getParent().getParent(), zip, false);
+			
+			assertArrayEquals(Files.readAllBytes(path1), Zips.readEntry(zip, "t1/Test1.java"));
+			assertNull(Zips.readEntry(zip, "t1/"));
+			assertNull(Zips.readEntry(zip, "t1/Test2.java"));
+		}
+	}
+
+	@Theory
+	public void testIsZipFile(Configuration conf) throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(conf)) {
+			Path path1 = createLoremIpsumFile(fs.getPath("folder", "t1", "Test1.java"), 3);
+			Path zip = fs.getPath("testIsZipFile.zip");
+			Zips.packZip(path1.getParent().getParent(), zip, false);
+			
+			assertTrue(Zips.isZipFile(zip));
+			assertFalse(Zips.isZipFile(path1));
+			assertFalse(Zips.isZipFile(Files.createFile(fs.getPath("empty"))));
+		}
+	}
+
 	@Theory
 	public void testUnpackTarGz(Configuration conf) throws IOException {
 		try (FileSystem fs = Jimfs.newFileSystem(conf); 
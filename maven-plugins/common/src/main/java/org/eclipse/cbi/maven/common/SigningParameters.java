@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.maven.common;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.cbi.common.http.AsyncPostFileSender;
+import org.eclipse.cbi.common.http.CachingPostFileSender;
+import org.eclipse.cbi.common.http.HttpPostFileSender;
+import org.eclipse.cbi.common.http.RetryPolicy;
+
+/**
+ * Interprets the parameters shared by the signing Mojos. The Mojos declare the
+ * parameters themselves and only delegate to this class to turn them into the
+ * objects configuring the signing.
+ */
+public final class SigningParameters {
+
+	private static final String FIXED_BACKOFF = "fixed";
+
+	private static final String EXPONENTIAL_BACKOFF = "exponential";
+
+	private static final long MEGABYTE = 1024 * 1024;
+
+	private SigningParameters() {
+		// prevents instantiation
+	}
+
+	/**
+	 * Creates the {@link RetryPolicy} of the signing requests.
+	 * <p>
+	 * With the {@code exponential} backoff, the time to wait before the n-th
+	 * retry is chosen randomly between 0 and
+	 * {@code min(retryMaxDelay, retryTimer * 2^(n-1))} seconds, so that
+	 * concurrent builds do not retry all at the same time. Retrying stops
+	 * after {@code retryLimit} retries or {@code retryMaxElapsedTime} seconds
+	 * after the first attempt, whichever comes first (0 means no time limit).
+	 * With the {@code fixed} backoff, {@code retryTimer} seconds are waited
+	 * before each of the {@code retryLimit} retries. In both cases, the delay
+	 * requested by the server with a {@code Retry-After} header is honored.
+	 *
+	 * @param retryBackoff
+	 *            either {@code exponential} or {@code fixed}, case
+	 *            insensitive.
+	 * @param retryLimit
+	 *            the maximum number of retries of a file.
+	 * @param retryTimer
+	 *            the base number of seconds to wait before a retry.
+	 * @param retryMaxDelay
+	 *            the maximum number of seconds to wait before a retry with the
+	 *            {@code exponential} backoff.
+	 * @param retryMaxElapsedTime
+	 *            the number of seconds after which a file is not retried
+	 *            anymore with the {@code exponential} backoff.
+	 * @return the retry policy.
+	 * @throws MojoExecutionException
+	 *             if the backoff is unknown or the other parameters are
+	 *             invalid.
+	 */
+	public static RetryPolicy retryPolicy(String retryBackoff, int retryLimit, int retryTimer, int retryMaxDelay, int retryMaxElapsedTime) throws MojoExecutionException {
+		try {
+			if (FIXED_BACKOFF.equalsIgnoreCase(retryBackoff)) {
+				return RetryPolicy.fixedDelay(retryLimit, retryTimer, TimeUnit.SECONDS);
+			} else if (EXPONENTIAL_BACKOFF.equalsIgnoreCase(retryBackoff)) {
+				return RetryPolicy.exponentialBackoff(retryLimit, retryTimer, Math.max(retryTimer, retryMaxDelay), retryMaxElapsedTime, TimeUnit.SECONDS);
+			} else {
+				throw new MojoExecutionException("Unknown 'retryBackoff' value '" + retryBackoff + "', must be '" + EXPONENTIAL_BACKOFF + "' or '" + FIXED_BACKOFF + "'.");
+			}
+		} catch (IllegalArgumentException e) {
+			throw new MojoExecutionException("Invalid retry parameters: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the identity of a signing service in the local cache of signed
+	 * files: its URL, followed by the additional parameters of the requests as
+	 * a query string ({@code ?name1=value1&name2=value2}), in the given order
+	 * and URL-encoded in UTF-8. Files signed with other parameters are thus
+	 * cached separately.
+	 *
+	 * @param signerUrl
+	 *            the URL of the signing service.
+	 * @param additionalParams
+	 *            the additional parameters of the requests.
+	 * @return the identity of the signing service in the cache.
+	 */
+	public static String signerIdentity(String signerUrl, List<? extends NameValuePair> additionalParams) {
+		if (additionalParams.isEmpty()) {
+			return signerUrl;
+		}
+		return signerUrl + "?" + URLEncodedUtils.format(additionalParams, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Wraps the given sender with the local cache of signed files, if a cache
+	 * directory is given. Files whose exact content has already been signed by
+	 * the same signing service are then not sent again: the previously signed
+	 * file is reused instead. The cache can be shared between builds and
+	 * projects, e.g. {@code ~/.m2/cbi-sign-cache}. Least recently used files
+	 * are deleted from the cache when it gets bigger than its maximum size.
+	 *
+	 * @param sender
+	 *            the sender to wrap.
+	 * @param signerIdentity
+	 *            the signing service and the parameters of the requests, so
+	 *            that files signed differently are not mixed up.
+	 * @param signCacheDirectory
+	 *            the directory of the cache, may be {@code null}.
+	 * @param signCacheMaxSize
+	 *            the maximum size of the cache, in megabytes.
+	 * @param log
+	 *            the Mojo log.
+	 * @return the sender to use.
+	 */
+	public static HttpPostFileSender withSignCache(HttpPostFileSender sender, String signerIdentity, File signCacheDirectory, long signCacheMaxSize, Log log) {
+		return withSignCache(sender, signerIdentity, signCacheDirectory, signCacheMaxSize, false, log);
+	}
+
+	/**
+	 * Wraps the given sender with the local cache of signed files, as
+	 * {@link #withSignCache(HttpPostFileSender, String, File, long, Log)}
+	 * does. If {@code zippedFiles} is true, the sent files are zips (e.g.
+	 * zipped applications) and are recognized by their entries, so that files
+	 * zipped again by another build, with other modification times, are still
+	 * found in the cache.
+	 *
+	 * @param sender
+	 *            the sender to wrap.
+	 * @param signerIdentity
+	 *            the signing service and the parameters of the requests, so
+	 *            that files signed differently are not mixed up.
+	 * @param signCacheDirectory
+	 *            the directory of the cache, may be {@code null}.
+	 * @param signCacheMaxSize
+	 *            the maximum size of the cache, in megabytes.
+	 * @param zippedFiles
+	 *            whether the sent files are zips recognized by their entries.
+	 * @param log
+	 *            the Mojo log.
+	 * @return the sender to use.
+	 */
+	public static HttpPostFileSender withSignCache(HttpPostFileSender sender, String signerIdentity, File signCacheDirectory, long signCacheMaxSize, boolean zippedFiles, Log log) {
+		if (signCacheDirectory == null) {
+			return sender;
+		}
+		log.debug("Using signing cache '" + signCacheDirectory + "'");
+		return new CachingPostFileSender(sender, signerIdentity, signCacheDirectory.toPath(), signCacheMaxSize * MEGABYTE, zippedFiles, new MavenLogger(log));
+	}
+
+	/**
+	 * Wraps the given sender so that it sends up to {@code parallelism} files
+	 * concurrently, if greater than 1. The upload, signing and download of the
+	 * files then overlap.
+	 *
+	 * @param sender
+	 *            the thread-safe sender to wrap.
+	 * @param parallelism
+	 *            the maximum number of files sent at the same time.
+	 * @return the sender to use.
+	 */
+	public static HttpPostFileSender withParallelism(HttpPostFileSender sender, int parallelism) {
+		if (parallelism <= 1) {
+			return sender;
+		}
+		return new AsyncPostFileSender(sender, parallelism);
+	}
+}
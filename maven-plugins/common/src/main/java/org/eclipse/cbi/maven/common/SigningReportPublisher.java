@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.maven.common;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.cbi.common.http.SigningReport;
+
+/**
+ * Publishes the {@link SigningReport} of a Mojo once all its files have been
+ * signed: the time spent packing, uploading, waiting for the signing service,
+ * downloading, unpacking and waiting before retries. The Mojos only declare
+ * the file of the JSON report as a parameter.
+ */
+public final class SigningReportPublisher {
+
+	private SigningReportPublisher() {
+		// prevents instantiation
+	}
+
+	/**
+	 * Logs the summary of the given report and, if a report file is given,
+	 * writes the report to it in the JSON format. Failing to write the report
+	 * file does not fail the build, it is only logged.
+	 *
+	 * @param report
+	 *            the report to publish.
+	 * @param log
+	 *            where the summary is logged.
+	 * @param jsonReport
+	 *            the JSON report file, may be {@code null}.
+	 */
+	public static void publish(SigningReport report, Log log, File jsonReport) {
+		for (String line : report.summary()) {
+			log.info(line);
+		}
+		if (jsonReport != null && !report.isEmpty()) {
+			try {
+				report.writeJson(jsonReport.toPath());
+				log.info("Signing timing report written to '" + jsonReport + "'");
+			} catch (IOException e) {
+				log.warn("Unable to write the signing timing report '" + jsonReport + "'", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.maven.plugins.jarsigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.cbi.common.http.HttpPostFileSender;
+import org.eclipse.cbi.common.http.SigningReport;
+import org.eclipse.cbi.common.util.Paths;
+import org.eclipse.cbi.common.util.Zips;
+
+/**
+ * Signs several Jars with a single request to the batch endpoint of the Jar
+ * signing service. The Jars are sent as a single zip in a part named
+ * {@value #PART_NAME}; the service replies with a zip of the signed Jars and
+ * a {@value #STATUS_ENTRY_NAME} file with the status of each of them.
+ */
+class JarBatchSigner {
+
+	static final String PART_NAME = "batch";
+
+	static final String STATUS_ENTRY_NAME = "signing-status.properties";
+
+	static final String STATUS_OK = "OK";
+
+	private static final String ZIP_ENTRY_NAME_SEPARATOR = "/";
+
+	private final HttpPostFileSender signer;
+
+	private final int retryLimit;
+
+	private final int retryTimer;
+
+	private final TimeUnit retryTimerUnit;
+
+	private final SigningReport report;
+
+	JarBatchSigner(HttpPostFileSender signer, int retryLimit, int retryTimer, TimeUnit retryTimerUnit, SigningReport report) {
+		this.signer = Objects.requireNonNull(signer);
+		this.retryLimit = retryLimit;
+		this.retryTimer = retryTimer;
+		this.retryTimerUnit = retryTimerUnit;
+		this.report = Objects.requireNonNull(report);
+	}
+
+	/**
+	 * Signs the given Jars with a single request. The Jars that have been
+	 * signed are replaced with their signed version, the other ones are left
+	 * untouched.
+	 *
+	 * @param jars
+	 *            the Jars to sign.
+	 * @return the reasons of the failures, indexed by the Jar that could not
+	 *         be signed. Empty if all Jars have been signed.
+	 * @throws IOException
+	 *             if the batch can't be created or the reply can't be read.
+	 * @throws MojoExecutionException
+	 */
+	Map<Path, String> signJars(List<Path> jars) throws IOException, MojoExecutionException {
+		final Map<Path, String> failures = new LinkedHashMap<>();
+		final Path batchFolder = Files.createTempDirectory(Paths.getParent(jars.get(0).toAbsolutePath()), "batch_");
+		try {
+			// each Jar is put in its own folder to avoid name clashes
+			Path jarsFolder = Files.createDirectory(batchFolder.resolve("jars"));
+			for (int i = 0; i < jars.size(); i++) {
+				Path jar = jars.get(i);
+				Files.copy(jar, Files.createDirectory(jarsFolder.resolve(Integer.toString(i))).resolve(jar.getFileName().toString()));
+			}
+			Path batch = batchFolder.resolve("batch.zip");
+			List<String> artifacts = new ArrayList<>(jars.size());
+			for (Path jar : jars) {
+				artifacts.add(report.nameOf(jar));
+			}
+			report.attribute(batch, artifacts);
+			final long zipStart = System.nanoTime();
+			Zips.packZip(jarsFolder, batch, false);
+			report.recordSince(batch, SigningReport.Phase.ZIP, zipStart);
+
+			if (!signer.post(batch, PART_NAME, retryLimit, retryTimer, retryTimerUnit)) {
+				for (Path jar : jars) {
+					failures.put(jar, "Signing request failed. Activate debug (-X, --debug) to see why.");
+				}
+				return failures;
+			}
+
+			Path signedJarsFolder = batchFolder.resolve("signed");
+			final long unzipStart = System.nanoTime();
+			Zips.unpackZip(batch, signedJarsFolder);
+			report.recordSince(batch, SigningReport.Phase.UNZIP, unzipStart);
+			Properties status = readStatus(signedJarsFolder.resolve(STATUS_ENTRY_NAME));
+			for (int i = 0; i < jars.size(); i++) {
+				Path jar = jars.get(i);
+				String entryName = i + ZIP_ENTRY_NAME_SEPARATOR + jar.getFileName().toString();
+				String jarStatus = status.getProperty(entryName);
+				Path signedJar = signedJarsFolder.resolve(Integer.toString(i)).resolve(jar.getFileName().toString());
+				if (STATUS_OK.equals(jarStatus) && Files.isRegularFile(signedJar)) {
+					Files.move(signedJar, jar, StandardCopyOption.REPLACE_EXISTING);
+				} else if (jarStatus == null || STATUS_OK.equals(jarStatus)) {
+					failures.put(jar, "The signing service did not reply with the signed Jar.");
+				} else {
+					failures.put(jar, jarStatus);
+				}
+			}
+		} finally {
+			Paths.deleteQuietly(batchFolder);
+		}
+		return failures;
+	}
+
+	private static Properties readStatus(Path statusFile) throws IOException {
+		if (!Files.isRegularFile(statusFile)) {
+			throw new IOException("The signing service did not reply with the status of the batch ('" + STATUS_ENTRY_NAME + "' is missing). Does it support batch signing?");
+		}
+		Properties status = new Properties();
+		try (InputStream is = Files.newInputStream(statusFile)) {
+			status.load(is);
+		}
+		return status;
+	}
+}
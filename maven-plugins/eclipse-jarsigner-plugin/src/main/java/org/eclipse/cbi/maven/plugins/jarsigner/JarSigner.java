@@ -10,27 +10,39 @@
  *******************************************************************************/
 package org.eclipse.cbi.maven.plugins.jarsigner;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.eclipse.cbi.common.http.HttpPostFileSender;
+import org.eclipse.cbi.common.http.SigningReport;
 import org.eclipse.cbi.common.util.Paths;
 import org.eclipse.cbi.common.util.Zips;
 import org.eclipse.cbi.maven.common.ExceptionHandler;
-import org.eclipse.cbi.maven.common.MojoExecutionExceptionWrapper;
+
+import com.google.common.base.Predicate;
 
 /**
  * Utility class that signs a Jar and the nested Jar.
@@ -64,6 +76,26 @@ public class JarSigner {
 	 */
 	private static final String DOT_WAR_GLOB_PATTERN = "glob:**.war";
 
+	private static final String DOT_JAR = ".jar";
+
+	private static final String DOT_WAR = ".war";
+
+	/**
+	 * Returned by {@link #prepareForSigning(Path, int)} when a file must not be
+	 * sent for signing.
+	 */
+	private static final int NOT_TO_BE_SIGNED = -1;
+
+	/**
+	 * Filter of the entries that are nested Jars.
+	 */
+	private static final Predicate<String> NESTED_JAR_ENTRY = new Predicate<String>() {
+		@Override
+		public boolean apply(String entryName) {
+			return entryName.endsWith(DOT_JAR) || entryName.endsWith(DOT_WAR);
+		}
+	};
+
 	/**
 	 * The log on which feedback will be provided.
 	 */
@@ -95,6 +127,37 @@ public class JarSigner {
 	 */
 	private final int maxDepth;
 
+	/**
+	 * The maximum number of nested Jars that will be signed concurrently. 1
+	 * means that nested Jars are signed one after the other.
+	 */
+	private final int parallelism;
+
+	/**
+	 * Detects the Jars that are already signed and should be skipped. May be
+	 * {@code null} if no detection should be done.
+	 */
+	private final SignedJarDetector signedJarDetector;
+
+	/**
+	 * The number of Jars that have been skipped because they were already
+	 * signed.
+	 */
+	private final AtomicInteger skippedJarCount;
+
+	/**
+	 * The maximum number of Jars sent in a single request to the batch
+	 * endpoint of the signing service. 1 means that each Jar is sent with its
+	 * own request.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The report where the time spent unpacking and repacking the nested Jars
+	 * is recorded.
+	 */
+	private final SigningReport report;
+
 	private final ExceptionHandler exceptionHandler;
 
 	/**
@@ -107,10 +170,19 @@ public class JarSigner {
 	 * @param retryLimit
 	 * @param retryTimer
 	 * @param retryTimerUnit
+	 * @param parallelism
+	 * @param signedJarDetector
+	 * @param batchSize
+	 * @param report
 	 */
-	private JarSigner(HttpPostFileSender signer, int maxdepth, boolean continueOnFail, Log log, int retryLimit, int retryTimer, TimeUnit retryTimerUnit) {
+	private JarSigner(HttpPostFileSender signer, int maxdepth, boolean continueOnFail, Log log, int retryLimit, int retryTimer, TimeUnit retryTimerUnit, int parallelism, SignedJarDetector signedJarDetector, int batchSize, SigningReport report) {
 		this.signer = signer;
 		this.maxDepth = maxdepth;
+		this.parallelism = parallelism;
+		this.signedJarDetector = signedJarDetector;
+		this.batchSize = batchSize;
+		this.report = report;
+		this.skippedJarCount = new AtomicInteger();
 		this.log = log;
 		this.retryLimit = retryLimit;
 		this.retryTimer = retryTimer;
@@ -129,6 +201,36 @@ public class JarSigner {
 	public int signJar(Path jarfile) throws MojoExecutionException {
 		return signJar(jarfile, 0);
 	}
+
+	/**
+	 * Sign the given Jar files. They are sent in batches if a batch size
+	 * greater than 1 has been configured, one after the other otherwise.
+	 * 
+	 * @param jarfiles
+	 *            the files to sign.
+	 * @return the number of Jar that has been signed.
+	 * @throws MojoExecutionException
+	 */
+	public int signJars(Collection<Path> jarfiles) throws MojoExecutionException {
+		Map<String, Path> jars = new LinkedHashMap<>();
+		for (Path jarfile : jarfiles) {
+			jars.put(jarfile.toString(), jarfile);
+		}
+		if (batchSize > 1) {
+			return signInBatches(jars, 0, new LinkedHashMap<String, Path>());
+		}
+		return signSequentially(jars, 0, new LinkedHashMap<String, Path>());
+	}
+
+	/**
+	 * Returns the number of Jars (including nested ones) that have been
+	 * skipped by this signer because they were already signed.
+	 * 
+	 * @return the number of skipped Jars.
+	 */
+	public int getSkippedJarCount() {
+		return skippedJarCount.get();
+	}
 	
 	/**
 	 * Sign the given Jar and its nested Jar if it {@link #shouldBeSigned(Path)}.
@@ -143,11 +245,14 @@ public class JarSigner {
 	private int signJar(Path file, int currentDepth) throws MojoExecutionException {
 		int ret = 0;
 		try {
-			if (shouldBeSigned(file, currentDepth)) {
-				if (currentDepth == 0) {
-					log.info("[" + new Date() + "] Signing JAR '" + file + "'...");
+			int nestedJarsSigned = prepareForSigning(file, currentDepth);
+			if (nestedJarsSigned != NOT_TO_BE_SIGNED) {
+				ret = nestedJarsSigned;
+				if (!signer.post(file, PART_NAME, retryLimit, retryTimer, retryTimerUnit)) {
+					exceptionHandler.handleError("Signing of jar '" + file + "' failed. Activate debug (-X, --debug) to see why.");
+				} else {
+					ret++;
 				}
-				ret = signJarRecursively(file, currentDepth);
 			}
 		} catch (IOException e) {
 			exceptionHandler.handleError("Signing of file '" + file + "' failed.", e);
@@ -155,6 +260,39 @@ public class JarSigner {
 		return ret;
 	}
 
+	/**
+	 * Checks whether the given file should be signed and, if so, signs its
+	 * nested Jars so that it is ready to be sent for signing.
+	 * 
+	 * @param file
+	 *            the file to prepare
+	 * @param currentDepth
+	 *            the current nesting depth of this Jar
+	 * @return the number of nested Jar that has been signed, or
+	 *         {@link #NOT_TO_BE_SIGNED} if the file must not be sent for
+	 *         signing.
+	 * @throws IOException
+	 * @throws MojoExecutionException
+	 */
+	private int prepareForSigning(Path file, int currentDepth) throws IOException, MojoExecutionException {
+		if (!shouldBeSigned(file, currentDepth)) {
+			return NOT_TO_BE_SIGNED;
+		}
+		if (isAlreadySigned(file)) {
+			log.info("JAR '" + file + "' is already signed, it will not be signed again.");
+			skippedJarCount.incrementAndGet();
+			return NOT_TO_BE_SIGNED;
+		}
+		if (currentDepth == 0) {
+			log.info("[" + new Date() + "] Signing JAR '" + file + "'...");
+		}
+		if (currentDepth >= maxDepth) {
+			log.info("Signing of nested jars of '" + file + "' is disabled.");
+			return 0;
+		}
+		return signNestedJars(file, currentDepth);
+	}
+
 	/**
 	 * Checks and returns whether the given file should be signed. The condition are:
 	 * <ul>
@@ -191,6 +329,20 @@ public class JarSigner {
 		return ret;
 	}
 
+	/**
+	 * Checks and returns whether the given Jar file is already signed by the
+	 * signer expected by the {@link #signedJarDetector}, if any. When it is, its
+	 * nested Jars are not signed either as they can't be modified without
+	 * invalidating the existing signature.
+	 * 
+	 * @param file
+	 * @return true if the Jar is already signed and should be skipped.
+	 * @throws IOException
+	 */
+	private boolean isAlreadySigned(Path file) throws IOException {
+		return signedJarDetector != null && signedJarDetector.isSignedBy(file);
+	}
+
 	/**
 	 * Checks and returns whether the given Jar file has signing disabled by an
 	 * file {@value #META_INF_ECLIPSE_INF} with the either the properties
@@ -204,117 +356,267 @@ public class JarSigner {
 	private boolean isDisabledInEclipseInf(final Path file) throws IOException {
 		boolean isDisabled = false;
 
-		try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(file))) {
-			boolean found = false;
-			for(ZipEntry entry = zis.getNextEntry(); !found && entry != null; entry = zis.getNextEntry()) {
-				if (META_INF_ECLIPSE_INF.equals(entry.getName())) {
-					found = true;
-					Properties eclipseInf = new Properties();
-					eclipseInf.load(zis);
-					
-					isDisabled = Boolean.parseBoolean(eclipseInf.getProperty(JARPROCESSOR_EXCLUDE))
-							|| Boolean.parseBoolean(eclipseInf.getProperty(JARPROCESSOR_EXCLUDE_SIGN));
-				}
-			}
-		}
+		byte[] eclipseInfContent = Zips.readEntry(file, META_INF_ECLIPSE_INF);
+		if (eclipseInfContent != null) {
+			Properties eclipseInf = new Properties();
+			eclipseInf.load(new ByteArrayInputStream(eclipseInfContent));
 
-		return isDisabled;
-	}
-
-	/**
-	 * Sign this Jar and its nested Jar.
-	 * 
-	 * @param file
-	 *            the file to sign
-	 * @param currentDepth
-	 *            the current nesting depth of the current file.
-	 * @param signedFile 
-	 * @return the number of Jar that has been signed.
-	 * @throws IOException
-	 * @throws MojoExecutionException
-	 */
-	private int signJarRecursively(Path file, int currentDepth) throws IOException, MojoExecutionException {
-		int nestedJarsSigned = 0;
-		if (currentDepth >= maxDepth) {
-			log.info("Signing of nested jars of '" + file + "' is disabled.");
-		} else {
-			nestedJarsSigned = signNestedJars(file, currentDepth);
+			isDisabled = Boolean.parseBoolean(eclipseInf.getProperty(JARPROCESSOR_EXCLUDE))
+					|| Boolean.parseBoolean(eclipseInf.getProperty(JARPROCESSOR_EXCLUDE_SIGN));
 		}
 
-		if (!signer.post(file, PART_NAME, retryLimit, retryTimer, retryTimerUnit)) {
-			exceptionHandler.handleError("Signing of jar '" + file + "' failed. Activate debug (-X, --debug) to see why.");
-			return nestedJarsSigned;
-		} else {
-			return nestedJarsSigned  + 1;
-		}
+		return isDisabled;
 	}
 
 	/**
-	 * Signs the inner jars in the given jar file
+	 * Signs the inner jars in the given jar file. Only the inner jars are
+	 * extracted; the jar file is then rewritten by streaming its other entries
+	 * as is, and by swapping in the signed inner jars.
 	 *
 	 * @param file
 	 *            jar file containing inner jars to be signed
 	 * @param currentDepth 
-	 * @param innerJars
-	 *            A list of inner jars that needs to be signed
 	 * @return the number of Jar that has been signed.
 	 */
 	private int signNestedJars(Path file, int currentDepth) throws MojoExecutionException {
 		int numberOfSignedNestedJar = 0;
-		Path jarUnpackFolder = null;
-		Path tmpSignedJar = null;
+		Path nestedJarsFolder = null;
+		Path repackedJar = null;
 		try {
-			jarUnpackFolder = Files.createTempDirectory(Paths.getParent(file), file.getFileName().toString() + "_unpacked_");
-			Zips.unpackJar(file, jarUnpackFolder);
+			nestedJarsFolder = Files.createTempDirectory(Paths.getParent(file), file.getFileName().toString() + "_nested_");
+			final long unzipStart = System.nanoTime();
+			Map<String, Path> nestedJars = Zips.unpackEntries(file, nestedJarsFolder, NESTED_JAR_ENTRY);
+			report.recordSince(file, SigningReport.Phase.UNZIP, unzipStart);
+			for (Entry<String, Path> nestedJar : nestedJars.entrySet()) {
+				// reported as the entry of the enclosing Jar rather than as the random temporary file
+				report.attribute(nestedJar.getValue(), report.nameOf(file) + "!/" + nestedJar.getKey());
+			}
 
 			// sign inner jars
-			NestedJarSigner nestedJarSigner = new NestedJarSigner(currentDepth);
-			Files.walkFileTree(jarUnpackFolder, nestedJarSigner);
+			Map<String, Path> signedNestedJars = new LinkedHashMap<>();
+			if (batchSize > 1 && nestedJars.size() > 1) {
+				numberOfSignedNestedJar = signInBatches(nestedJars, currentDepth + 1, signedNestedJars);
+			} else if (parallelism > 1 && currentDepth == 0 && nestedJars.size() > 1) {
+				numberOfSignedNestedJar = signConcurrently(nestedJars, currentDepth + 1, signedNestedJars);
+			} else {
+				numberOfSignedNestedJar = signSequentially(nestedJars, currentDepth + 1, signedNestedJars);
+			}
 			
 			// rejaring with the signed inner jars
-			Zips.packJar(jarUnpackFolder, file, false);
-			
-			numberOfSignedNestedJar = nestedJarSigner.getNumberOfSignedNestedJar();
-		} catch (MojoExecutionExceptionWrapper e) {
-			throw e.getCause();
+			if (!signedNestedJars.isEmpty()) {
+				repackedJar = Files.createTempFile(Paths.getParent(file), file.getFileName().toString() + "_repacked_", DOT_JAR);
+				final long zipStart = System.nanoTime();
+				Zips.replaceEntries(file, repackedJar, signedNestedJars);
+				Files.move(repackedJar, file, StandardCopyOption.REPLACE_EXISTING);
+				report.recordSince(file, SigningReport.Phase.ZIP, zipStart);
+			}
 		} catch (IOException e) {
 			exceptionHandler.handleError("Signing of nested jar '" + file + "' failed.", e);
 		} finally {
-			if (jarUnpackFolder != null) {
-				Paths.deleteQuietly(jarUnpackFolder);
+			if (nestedJarsFolder != null) {
+				Paths.deleteQuietly(nestedJarsFolder);
 			}
 			
-			if (tmpSignedJar != null) {
-				Paths.deleteQuietly(tmpSignedJar);
+			if (repackedJar != null) {
+				Paths.deleteQuietly(repackedJar);
 			}
 		}
 		return numberOfSignedNestedJar;
 	}
-	
-	private final class NestedJarSigner extends SimpleFileVisitor<Path> {
-
-		private final int currentDepth;
 
-		private int numberOfSignedNestedJar;
-		
-		NestedJarSigner(int currentDepth) {
-			this.currentDepth = currentDepth;
-			this.numberOfSignedNestedJar = 0;
+	/**
+	 * Signs the given nested Jars one after the other.
+	 * 
+	 * @param nestedJars
+	 *            the Jars to sign, indexed by their entry name.
+	 * @param depth
+	 *            the nesting depth of the Jars to sign.
+	 * @param signedNestedJars
+	 *            where the Jars that have been modified by the signing will be
+	 *            put.
+	 * @return the number of Jar that has been signed.
+	 * @throws MojoExecutionException
+	 */
+	private int signSequentially(Map<String, Path> nestedJars, int depth, Map<String, Path> signedNestedJars) throws MojoExecutionException {
+		int ret = 0;
+		for (Entry<String, Path> nestedJar : nestedJars.entrySet()) {
+			int signedJarCount = signJar(nestedJar.getValue(), depth);
+			if (signedJarCount > 0) {
+				signedNestedJars.put(nestedJar.getKey(), nestedJar.getValue());
+				ret += signedJarCount;
+			}
 		}
+		return ret;
+	}
 
-		@Override
-		public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+	/**
+	 * Signs the given Jars with as few requests as possible: they are sent by
+	 * batches of at most {@link #batchSize} Jars, once their own nested Jars
+	 * have been signed. A batch of a single Jar is sent as a regular request.
+	 * 
+	 * @param jars
+	 *            the Jars to sign, indexed by their entry name.
+	 * @param depth
+	 *            the nesting depth of the Jars to sign.
+	 * @param signedJars
+	 *            where the Jars that have been modified by the signing will be
+	 *            put.
+	 * @return the number of Jar that has been signed.
+	 * @throws MojoExecutionException
+	 */
+	private int signInBatches(Map<String, Path> jars, int depth, Map<String, Path> signedJars) throws MojoExecutionException {
+		int ret = 0;
+		Map<String, Path> batch = new LinkedHashMap<>();
+		for (Entry<String, Path> jar : jars.entrySet()) {
 			try {
-				numberOfSignedNestedJar += signJar(file, currentDepth+1);
-			} catch (MojoExecutionException e) {
-				// wrap exception (to be unwrapped later).
-				throw new MojoExecutionExceptionWrapper(e);
+				int nestedJarsSigned = prepareForSigning(jar.getValue(), depth);
+				if (nestedJarsSigned > 0) {
+					signedJars.put(jar.getKey(), jar.getValue());
+					ret += nestedJarsSigned;
+				}
+				if (nestedJarsSigned != NOT_TO_BE_SIGNED) {
+					batch.put(jar.getKey(), jar.getValue());
+				}
+			} catch (IOException e) {
+				exceptionHandler.handleError("Signing of file '" + jar.getValue() + "' failed.", e);
+			}
+			if (batch.size() == batchSize) {
+				ret += signBatch(batch, signedJars);
+				batch.clear();
 			}
-			return FileVisitResult.CONTINUE;
 		}
-		
-		public int getNumberOfSignedNestedJar() {
-			return numberOfSignedNestedJar;
+		if (!batch.isEmpty()) {
+			ret += signBatch(batch, signedJars);
+		}
+		return ret;
+	}
+
+	/**
+	 * Sends the given Jars, whose nested Jars are already signed, for
+	 * signing.
+	 * 
+	 * @return the number of Jar that has been signed.
+	 */
+	private int signBatch(Map<String, Path> batch, Map<String, Path> signedJars) throws MojoExecutionException {
+		int ret = 0;
+		try {
+			final Map<Path, String> failures;
+			if (batch.size() == 1) {
+				Path jar = batch.values().iterator().next();
+				if (signer.post(jar, PART_NAME, retryLimit, retryTimer, retryTimerUnit)) {
+					failures = Collections.emptyMap();
+				} else {
+					failures = Collections.singletonMap(jar, "Activate debug (-X, --debug) to see why.");
+				}
+			} else {
+				log.debug("Signing " + batch.size() + " JARs with a single request");
+				failures = new JarBatchSigner(signer, retryLimit, retryTimer, retryTimerUnit, report).signJars(new ArrayList<>(batch.values()));
+			}
+			for (Entry<String, Path> jar : batch.entrySet()) {
+				String failure = failures.get(jar.getValue());
+				if (failure == null) {
+					signedJars.put(jar.getKey(), jar.getValue());
+					ret++;
+				} else {
+					exceptionHandler.handleError("Signing of jar '" + jar.getValue() + "' failed. " + failure);
+				}
+			}
+		} catch (IOException e) {
+			exceptionHandler.handleError("Signing of jars " + batch.values() + " failed.", e);
+		}
+		return ret;
+	}
+
+	/**
+	 * Signs the given nested Jars with at most {@link #parallelism} concurrent
+	 * signing requests. Returns only when all the nested Jars have been
+	 * processed (or when the first failure has been thrown), so that the
+	 * enclosing Jar can safely be repacked afterward.
+	 * <p>
+	 * Only the first level of nested Jars is signed concurrently; the nested
+	 * Jars of the nested Jars are signed sequentially by the thread signing
+	 * their enclosing Jar. It bounds the total number of concurrent requests
+	 * to {@link #parallelism}.
+	 * 
+	 * @param nestedJars
+	 *            the Jars to sign, indexed by their entry name.
+	 * @param depth
+	 *            the nesting depth of the Jars to sign.
+	 * @param signedNestedJars
+	 *            where the Jars that have been modified by the signing will be
+	 *            put.
+	 * @return the number of Jar that has been signed.
+	 * @throws MojoExecutionException
+	 *             the first exception thrown while signing one of the Jars.
+	 * @throws IOException
+	 *             if the current thread is interrupted while waiting for the
+	 *             Jars to be signed.
+	 */
+	private int signConcurrently(Map<String, Path> nestedJars, final int depth, Map<String, Path> signedNestedJars) throws MojoExecutionException, IOException {
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, nestedJars.size()));
+		try {
+			final Map<String, Future<Integer>> signedJarCounts = new LinkedHashMap<>();
+			for (final Entry<String, Path> nestedJar : nestedJars.entrySet()) {
+				signedJarCounts.put(nestedJar.getKey(), executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws MojoExecutionException {
+						return signJar(nestedJar.getValue(), depth);
+					}
+				}));
+			}
+
+			int ret = 0;
+			for (Entry<String, Future<Integer>> signedJarCount : signedJarCounts.entrySet()) {
+				int count = getSignedJarCount(signedJarCount.getValue());
+				if (count > 0) {
+					signedNestedJars.put(signedJarCount.getKey(), nestedJars.get(signedJarCount.getKey()));
+					ret += count;
+				}
+			}
+			return ret;
+		} finally {
+			// cancel pending tasks in case of failure and wait for the running
+			// ones, they may still be writing to the nested jars folder.
+			executor.shutdownNow();
+			awaitTermination(executor);
+		}
+	}
+
+	private static int getSignedJarCount(Future<Integer> signedJarCount) throws MojoExecutionException, IOException {
+		try {
+			return signedJarCount.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for nested Jars to be signed");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof MojoExecutionException) {
+				throw (MojoExecutionException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	private void awaitTermination(ExecutorService executor) {
+		boolean interrupted = false;
+		try {
+			while (!executor.isTerminated()) {
+				try {
+					executor.awaitTermination(1, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				log.debug("Thread has been interrupted while waiting for nested Jars signing to complete");
+				Thread.currentThread().interrupt();
+			}
 		}
 	}
 	
@@ -337,6 +639,10 @@ public class JarSigner {
 	 * <li>{@link #maxDepth(int)}: 0</li>
 	 * <li>{@link #maxRetry(int)}: 0</li>
 	 * <li>{@link #waitBeforeRetry(int, TimeUnit)}: 0 {@link TimeUnit#SECONDS seconds}</li>
+	 * <li>{@link #parallelism(int)}: 1</li>
+	 * <li>{@link #skipIfSignedBy(String)}: none, Jars are always signed</li>
+	 * <li>{@link #batchSize(int)}: 1</li>
+	 * <li>{@link #report(SigningReport)}: a new report</li>
 	 * <ul> 
 	 */
 	public static class Builder {
@@ -355,6 +661,14 @@ public class JarSigner {
 
 		private int maxDepth = 0;
 
+		private int parallelism = 1;
+
+		private SignedJarDetector signedJarDetector = null;
+
+		private int batchSize = 1;
+
+		private SigningReport report = new SigningReport();
+
 		Builder(HttpPostFileSender signer) {
 			this.signer = Objects.requireNonNull(signer);
 		}
@@ -419,6 +733,65 @@ public class JarSigner {
 			return this;
 		}
 		
+		/**
+		 * The maximum number of nested Jars that will be sent concurrently to
+		 * the {@link HttpPostFileSender}. If 1 is passed, nested Jars are
+		 * signed one after the other.
+		 * @param parallelism
+		 * @return this builder for chained calls.
+		 */
+		public Builder parallelism(int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException("'parallelism' must be strictly positive");
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+		
+		/**
+		 * Skips the Jars (and their nested Jars) that are already signed by
+		 * the signer with the given certificate fingerprint, instead of sending
+		 * them again to the {@link HttpPostFileSender}. A Jar is skipped only
+		 * if all of its entries are signed by this signer and the signature is
+		 * valid.
+		 * @param sha256Fingerprint
+		 *            the hexadecimal SHA-256 fingerprint of the certificate of
+		 *            the signer, colons being ignored.
+		 * @return this builder for chained calls.
+		 */
+		public Builder skipIfSignedBy(String sha256Fingerprint) {
+			this.signedJarDetector = new SignedJarDetector(Objects.requireNonNull(sha256Fingerprint));
+			return this;
+		}
+		
+		/**
+		 * The maximum number of Jars sent in a single request to the batch
+		 * endpoint of the Jar signing service. If 1 is passed, each Jar is
+		 * sent with its own request. When greater than 1, the nested Jars are
+		 * sent in batches rather than concurrently.
+		 * @param batchSize
+		 * @return this builder for chained calls.
+		 */
+		public Builder batchSize(int batchSize) {
+			if (batchSize < 1) {
+				throw new IllegalArgumentException("'batchSize' must be strictly positive");
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+		
+		/**
+		 * The report where the time spent unpacking and repacking the Jars is
+		 * recorded. It should be the report of the {@link HttpPostFileSender},
+		 * so that all the phases of the signing are recorded together.
+		 * @param report
+		 * @return this builder for chained calls.
+		 */
+		public Builder report(SigningReport report) {
+			this.report = Objects.requireNonNull(report);
+			return this;
+		}
+		
 		/**
 		 * Creates and returns a new JarSigner configured with the options
 		 * specified to this builder.
@@ -427,7 +800,7 @@ public class JarSigner {
 		 */
 		public JarSigner build() {
 			return new JarSigner(this.signer, this.maxDepth, this.continueOnFail, 
-					this.log, this.maxRetry, this.waitTimer, this.waitTimerUnit);
+					this.log, this.maxRetry, this.waitTimer, this.waitTimerUnit, this.parallelism, this.signedJarDetector, this.batchSize, this.report);
 		}
 	}
 }
@@ -13,7 +13,10 @@
 package org.eclipse.cbi.maven.plugins.jarsigner;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -29,7 +32,10 @@ import org.apache.maven.settings.crypto.SettingsDecrypter;
 import org.apache.maven.settings.crypto.SettingsDecryptionResult;
 import org.eclipse.cbi.common.http.ApacheHttpClientPostFileSender;
 import org.eclipse.cbi.common.http.HttpPostFileSender;
+import org.eclipse.cbi.common.http.SigningReport;
 import org.eclipse.cbi.maven.common.MavenLogger;
+import org.eclipse.cbi.maven.common.SigningParameters;
+import org.eclipse.cbi.maven.common.SigningReportPublisher;
 
 /**
  * Signs project main and attached artifact using <a href=
@@ -155,6 +161,56 @@ public class SignMojo extends AbstractMojo {
      */
     private int retryTimer;
 
+    /**
+     * How the time to wait between retries evolves, either {@code fixed}
+     * ({@code retryTimer} seconds before each retry, as in the previous
+     * versions) or {@code exponential} (a random delay, growing with each
+     * retry, which may be much shorter than {@code retryTimer} for the first
+     * retries). The delay requested by the server with a {@code Retry-After}
+     * header is always honored.
+     *
+     * @parameter property="retryBackoff" default-value="fixed"
+     * @since 1.2.0
+     */
+    private String retryBackoff;
+
+    /**
+     * Maximum number of seconds to wait before a retry with the
+     * {@code exponential} backoff.
+     *
+     * @parameter property="retryMaxDelay" default-value="300"
+     * @since 1.2.0
+     */
+    private int retryMaxDelay;
+
+    /**
+     * Number of seconds, from the first attempt, after which a file is not
+     * retried anymore with the {@code exponential} backoff. 0 means no limit
+     * other than {@code retryLimit}.
+     *
+     * @parameter property="retryMaxElapsedTime" default-value="0"
+     * @since 1.2.0
+     */
+    private int retryMaxElapsedTime;
+
+    /**
+     * Directory of the local cache of signed files, e.g.
+     * {@code ~/.m2/cbi-sign-cache}. Files already signed by the same signing
+     * service are not sent again. If not set, no cache is used.
+     *
+     * @parameter property="cbi.signCacheDirectory"
+     * @since 1.2.0
+     */
+    private File signCacheDirectory;
+
+    /**
+     * Maximum size of the local cache of signed files, in megabytes.
+     *
+     * @parameter property="cbi.signCacheMaxSize" default-value="1024"
+     * @since 1.2.0
+     */
+    private long signCacheMaxSize;
+
     /**
      * Excludes signing inner jars
      *
@@ -175,6 +231,75 @@ public class SignMojo extends AbstractMojo {
      */
     private boolean excludeInnerJars;
 
+    /**
+     * Maximum number of inner jars that will be sent concurrently to the
+     * signing service. 1 means that inner jars are signed one after the
+     * other.
+     *
+     * <p>
+     * <b>Configuration via Maven commandline</b>
+     * </p>
+     *
+     * <pre>
+     * -Dcbi.jarsigner.parallelism=4
+     * </pre>
+     *
+     * @parameter property="cbi.jarsigner.parallelism" default-value="1"
+     * @since 1.2.0
+     */
+    private int parallelism;
+
+    /**
+     * Maximum number of jars sent in a single request to the batch endpoint
+     * of the signing service. The project artifacts and their inner jars are
+     * then signed with a few requests instead of one request per jar. 1 means
+     * that each jar is sent with its own request. The signing service must
+     * support batch signing when greater than 1.
+     *
+     * <p>
+     * <b>Configuration via Maven commandline</b>
+     * </p>
+     *
+     * <pre>
+     * -Dcbi.jarsigner.batchSize=50
+     * </pre>
+     *
+     * @parameter property="cbi.jarsigner.batchSize" default-value="1"
+     * @since 1.2.0
+     */
+    private int batchSize;
+
+    /**
+     * SHA-256 fingerprint of the certificate of the signing service. Jars
+     * (and inner jars) that already carry a valid signature made with this
+     * certificate on all of their entries are not sent again to the signing
+     * service. Colons in the fingerprint are ignored, so that the output of
+     * {@code keytool -list -v} can be used as is. If not set, all jars are
+     * signed.
+     *
+     * <p>
+     * <b>Configuration via Maven commandline</b>
+     * </p>
+     *
+     * <pre>
+     * -Dcbi.jarsigner.skipIfSignedBy=B0:0D:4E:...:2D:CB
+     * </pre>
+     *
+     * @parameter property="cbi.jarsigner.skipIfSignedBy"
+     * @since 1.2.0
+     */
+    private String skipIfSignedBy;
+
+    /**
+     * JSON file where the time spent in each phase of the signing is
+     * written, e.g. {@code target/jarsigner-timings.json}. A summary is always
+     * logged. If not set, no file is written.
+     *
+     * @parameter property="cbi.jarsigner.timingReport"
+     * @since 1.2.0
+     */
+    private File timingReport;
+
     /**
      * Name of configured credentials to use.
      * @parameter property="cbi.serverId"
@@ -234,31 +359,51 @@ public class SignMojo extends AbstractMojo {
             getLog().debug("Packaging type '" + packaging + "' of project '" + project + "' is not supported");
             return;
         }
+        if (parallelism < 1) {
+            // checked before the HTTP client is configured with it
+            throw new MojoExecutionException("'parallelism' must be strictly positive");
+        }
 
-        final JarSigner jarSigner = createJarSigner();
+        final SigningReport report = new SigningReport();
+        try (HttpPostFileSender signer = createSigner(report)) {
+            final JarSigner jarSigner = createJarSigner(signer, report);
 
-        final Artifact mainArtifact = project.getArtifact();
-        if (mainArtifact != null) {
-        	signArtifact(jarSigner, mainArtifact);
-        }
+            final List<Path> artifactFiles = new ArrayList<>();
+            final Artifact mainArtifact = project.getArtifact();
+            if (mainArtifact != null) {
+            	addArtifactFile(artifactFiles, mainArtifact);
+            }
 
-        for (Artifact artifact : project.getAttachedArtifacts()) {
-        	signArtifact(jarSigner, artifact);
+            for (Artifact artifact : project.getAttachedArtifacts()) {
+            	addArtifactFile(artifactFiles, artifact);
+            }
+
+            int signedJarCount = jarSigner.signJars(artifactFiles);
+
+            if (skipIfSignedBy != null) {
+            	getLog().info(signedJarCount + " JAR(s) signed, " + jarSigner.getSkippedJarCount() + " JAR(s) skipped as already signed.");
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to release the connections to the signing server", e);
+        } finally {
+            SigningReportPublisher.publish(report, getLog(), timingReport);
         }
     }
 
-	private static void signArtifact(final JarSigner jarSigner, final Artifact artifact) throws MojoExecutionException {
+	private static void addArtifactFile(final List<Path> artifactFiles, final Artifact artifact) {
 		File artifactFile = artifact.getFile();
 		if (artifactFile != null) {
-			jarSigner.signJar(artifactFile.toPath());
+			artifactFiles.add(artifactFile.toPath());
 		}
 	}
 
     /**
-     * Creates and returns the {@link JarSigner} according to the injected Mojo parameter.
-     * @return the {@link JarSigner} according to the injected Mojo parameter.
+     * Creates and returns the {@link HttpPostFileSender} according to the
+     * injected Mojo parameter. It must be closed once all Jars have been signed.
+     * @param report the report where the time spent sending the Jars is recorded.
+     * @return the {@link HttpPostFileSender} according to the injected Mojo parameter.
      */
-    private JarSigner createJarSigner() throws MojoExecutionException {
+    private HttpPostFileSender createSigner(SigningReport report) throws MojoExecutionException {
         URI signerURI = URI.create(signerUrl);
 
         String user = null;
@@ -280,14 +425,44 @@ public class SignMojo extends AbstractMojo {
             }
         }
 
-        final HttpPostFileSender signer = new ApacheHttpClientPostFileSender(signerURI, new MavenLogger(getLog()), user, password);
+        final ApacheHttpClientPostFileSender sender = ApacheHttpClientPostFileSender.builder(signerURI)
+                .logOn(new MavenLogger(getLog()))
+                .retryPolicy(SigningParameters.retryPolicy(retryBackoff, retryLimit, retryTimer, retryMaxDelay, retryMaxElapsedTime))
+                .credentials(user, password)
+                .maxConnectionsPerRoute(parallelism)
+                .report(report)
+                .build();
+        return SigningParameters.withSignCache(sender, signerUrl, signCacheDirectory, signCacheMaxSize, getLog());
+    }
+
+    /**
+     * Creates and returns the {@link JarSigner} according to the injected Mojo parameter.
+     * @param signer the signer to which the Jars will be sent.
+     * @param report the report where the time spent repacking the Jars is recorded.
+     * @return the {@link JarSigner} according to the injected Mojo parameter.
+     */
+    private JarSigner createJarSigner(HttpPostFileSender signer, SigningReport report) throws MojoExecutionException {
         JarSigner.Builder jarSignerBuilder = JarSigner.builder(signer);
-        jarSignerBuilder.logOn(getLog()).maxRetry(retryLimit).waitBeforeRetry(retryTimer, TimeUnit.SECONDS);
+        jarSignerBuilder.logOn(getLog()).maxRetry(retryLimit).waitBeforeRetry(retryTimer, TimeUnit.SECONDS).parallelism(parallelism).report(report);
 
         if (continueOnFail) {
         	jarSignerBuilder.continueOnFail();
         }
 
+        try {
+        	jarSignerBuilder.batchSize(batchSize);
+        } catch (IllegalArgumentException e) {
+        	throw new MojoExecutionException("Invalid 'batchSize' parameter: " + e.getMessage(), e);
+        }
+
+        if (skipIfSignedBy != null && !skipIfSignedBy.trim().isEmpty()) {
+        	try {
+        		jarSignerBuilder.skipIfSignedBy(skipIfSignedBy);
+        	} catch (IllegalArgumentException e) {
+        		throw new MojoExecutionException("Invalid 'skipIfSignedBy' parameter: " + e.getMessage(), e);
+        	}
+        }
+
         if (excludeInnerJars) {
         	jarSignerBuilder.maxDepth(0);
         } else {
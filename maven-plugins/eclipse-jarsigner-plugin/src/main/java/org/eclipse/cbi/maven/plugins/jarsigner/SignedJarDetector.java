@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.maven.plugins.jarsigner;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSigner;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.regex.Pattern;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.eclipse.cbi.common.util.Zips;
+
+import com.google.common.collect.Iterables;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Detects whether a Jar is already signed by a given signer, identified by the
+ * SHA-256 fingerprint of its certificate. Only the end-entity certificate is
+ * compared: a Jar signed by another certificate issued by the same CA is not
+ * considered as signed by the expected signer.
+ * <p>
+ * The detection is done in two steps. First, the central directory of the Jar
+ * is looked up for a signature file ({@code META-INF/*.SF}) and a signature
+ * block ({@code META-INF/*.RSA}, {@code *.DSA} or {@code *.EC}) whose first
+ * certificate is the expected one. Jars without such entries (the vast
+ * majority of the freshly built ones) are rejected without reading anything
+ * else. Then, the Jar is fully read and verified to check that every entry is signed by the
+ * expected signer and has not been modified since.
+ */
+public class SignedJarDetector {
+
+	private static final Pattern SIGNATURE_FILE = Pattern.compile("META-INF/[^/]+\\.SF", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern SIGNATURE_BLOCK = Pattern.compile("META-INF/[^/]+\\.(RSA|DSA|EC)", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern SIGNATURE_RELATED = Pattern.compile("META-INF/([^/]+\\.(SF|RSA|DSA|EC)|SIG-[^/]+)", Pattern.CASE_INSENSITIVE);
+
+	private static final String SHA_256 = "SHA-256";
+
+	private static final int SHA_256_LENGTH = 32;
+
+	/**
+	 * The SHA-256 fingerprint of the certificate of the expected signer.
+	 */
+	private final byte[] fingerprint;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param sha256Fingerprint
+	 *            the SHA-256 fingerprint of the certificate of the expected
+	 *            signer, as an hexadecimal string. Colons and whitespaces are
+	 *            ignored so that the output of {@code keytool -list -v} can be
+	 *            used as is.
+	 */
+	public SignedJarDetector(String sha256Fingerprint) {
+		String hex = sha256Fingerprint.replaceAll("[:\\s]", "").toUpperCase(Locale.ENGLISH);
+		try {
+			this.fingerprint = BaseEncoding.base16().decode(hex);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("'" + sha256Fingerprint + "' is not a valid hexadecimal SHA-256 fingerprint", e);
+		}
+		if (this.fingerprint.length != SHA_256_LENGTH) {
+			throw new IllegalArgumentException("'" + sha256Fingerprint + "' is not a valid hexadecimal SHA-256 fingerprint");
+		}
+	}
+
+	/**
+	 * Returns whether the given Jar carries a valid signature of the expected
+	 * signer on all its entries.
+	 *
+	 * @param jar
+	 *            the Jar to check.
+	 * @return true if the Jar is signed by the expected signer, false
+	 *         otherwise.
+	 * @throws IOException
+	 *             if the Jar can not be read.
+	 */
+	public boolean isSignedBy(Path jar) throws IOException {
+		return hasSignatureOfExpectedSigner(jar) && isVerified(jar);
+	}
+
+	/**
+	 * Looks up the central directory of the given Jar for a signature file and
+	 * a signature block starting with the certificate of the expected signer.
+	 */
+	private boolean hasSignatureOfExpectedSigner(Path jar) throws IOException {
+		boolean hasSignatureFile = false;
+		boolean hasExpectedCertificate = false;
+		try (ZipFile zipFile = Zips.openZipFile(jar)) {
+			for (Enumeration<ZipArchiveEntry> entries = zipFile.getEntries(); entries.hasMoreElements();) {
+				ZipArchiveEntry entry = entries.nextElement();
+				if (SIGNATURE_FILE.matcher(entry.getName()).matches()) {
+					hasSignatureFile = true;
+				} else if (!hasExpectedCertificate && SIGNATURE_BLOCK.matcher(entry.getName()).matches()) {
+					try (InputStream is = new BufferedInputStream(zipFile.getInputStream(entry))) {
+						// jarsigner writes the certificate of the signer first, then its chain
+						hasExpectedCertificate = isExpectedCertificate(Iterables.getFirst(CertificateFactory.getInstance("X.509").generateCertificates(is), null));
+					} catch (CertificateException e) {
+						// unparsable signature block, can't be from the expected signer
+					}
+				}
+			}
+		}
+		return hasSignatureFile && hasExpectedCertificate;
+	}
+
+	/**
+	 * Reads the whole Jar, verifying the digests of each entry, and checks that
+	 * all entries (but the signature related ones) are signed by the expected
+	 * signer.
+	 */
+	private boolean isVerified(Path jar) throws IOException {
+		try (JarInputStream jis = new JarInputStream(new BufferedInputStream(Files.newInputStream(jar)), true)) {
+			if (jis.getManifest() == null) {
+				// can't verify signature without manifest as first entry.
+				return false;
+			}
+			for (JarEntry entry = jis.getNextJarEntry(); entry != null; entry = jis.getNextJarEntry()) {
+				// code signers are only available once the entry has been fully read.
+				ByteStreams.copy(jis, ByteStreams.nullOutputStream());
+				if (!entry.isDirectory() && !SIGNATURE_RELATED.matcher(entry.getName()).matches() && !isSignedByExpectedSigner(entry.getCodeSigners())) {
+					return false;
+				}
+			}
+			return true;
+		} catch (SecurityException e) {
+			// thrown when the digest of an entry does not match its signed digest
+			return false;
+		}
+	}
+
+	private boolean isSignedByExpectedSigner(CodeSigner[] codeSigners) {
+		if (codeSigners != null) {
+			for (CodeSigner codeSigner : codeSigners) {
+				// the first certificate of the path is the one of the signer
+				if (isExpectedCertificate(Iterables.getFirst(codeSigner.getSignerCertPath().getCertificates(), null))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean isExpectedCertificate(Certificate certificate) {
+		return certificate != null && MessageDigest.isEqual(fingerprint, fingerprintOf(certificate));
+	}
+
+	private static byte[] fingerprintOf(Certificate certificate) {
+		try {
+			return MessageDigest.getInstance(SHA_256).digest(certificate.getEncoded());
+		} catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+			throw new IllegalStateException("Unable to compute the fingerprint of certificate", e);
+		}
+	}
+}
@@ -1,14 +1,25 @@
 package org.eclipse.cbi.maven.plugins.jarsigner;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
+import org.eclipse.cbi.common.http.HttpPostFileSender;
 import org.eclipse.cbi.common.test.util.DummySigner;
 import org.eclipse.cbi.common.test.util.NotSigningSigner;
 import org.eclipse.cbi.common.test.util.SampleFilesGenerators;
@@ -28,6 +39,13 @@ import com.google.common.jimfs.Jimfs;
 @RunWith(Theories.class)
 public class JarSignerTest {
 
+	/**
+	 * SHA-256 fingerprint of the certificate used to sign {@code signed.jar}.
+	 */
+	private static final String SIGNED_JAR_FINGERPRINT = "B0:0D:4E:E4:8B:E6:CB:76:BE:D2:90:24:47:04:FC:6F:3F:5C:5A:47:CE:77:5C:2A:61:6D:8B:AF:0D:63:2D:CB";
+
+	private static final String OTHER_FINGERPRINT = "01:29:08:B7:68:4E:25:83:B5:42:56:1A:64:14:D2:A8:77:B1:A9:45:DA:08:45:6B:8A:14:C4:60:BC:5B:73:36";
+
 	private static Log log;
 
 	@DataPoints
@@ -200,6 +218,179 @@ public class JarSignerTest {
 		}
 	}
 	
+	@Theory
+	public void testSigningNestedJarFilePreservesEntries(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new DummySigner()).logOn(log).maxDepth(Integer.MAX_VALUE).build();
+			Path jarToSign = createJarWithNestedJars(fs.getPath("jarToSign.jar").toAbsolutePath(), 2);
+			byte[] aFile1 = readEntry(jarToSign, "aFile1");
+			int entryCount = Zips.unpackJar(jarToSign, Files.createTempDirectory(Paths.getParent(jarToSign), null));
+			assertEquals(21, jarSigner.signJar(jarToSign));
+			assertEquals(entryCount, Zips.unpackJar(jarToSign, Files.createTempDirectory(Paths.getParent(jarToSign), null)));
+			assertArrayEquals(aFile1, readEntry(jarToSign, "aFile1"));
+		}
+	}
+	
+	@Theory
+	public void testConcurrentSigningNestedJarFile1(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new DummySigner()).logOn(log).maxDepth(1).parallelism(4).build();
+			Path jarToSign = createJarWithNestedJars(fs.getPath("jarToSign.jar").toAbsolutePath(), 1);
+			assertEquals(5, jarSigner.signJar(jarToSign));
+		}
+	}
+	
+	@Theory
+	public void testConcurrentSigningNestedJarFile2(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new DummySigner()).logOn(log).maxDepth(Integer.MAX_VALUE).parallelism(4).build();
+			Path jarToSign = createJarWithNestedJars(fs.getPath("jarToSign.jar").toAbsolutePath(), 3);
+			assertEquals(45, jarSigner.signJar(jarToSign));
+		}
+	}
+	
+	@Theory
+	@Test(expected=MojoExecutionException.class)
+	public void testConcurrentNotSigningNestedJarFile1(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new NotSigningSigner()).logOn(log).maxDepth(1).parallelism(4).build();
+			Path jarToSign = createJarWithNestedJars(fs.getPath("jarToSign.jar").toAbsolutePath(), 1);
+			jarSigner.signJar(jarToSign);
+		}
+	}
+	
+	@Theory
+	public void testConcurrentNotSigningNestedJarFile2(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new NotSigningSigner()).logOn(log).continueOnFail().maxDepth(1).parallelism(4).build();
+			Path jarToSign = createJarWithNestedJars(fs.getPath("jarToSign.jar").toAbsolutePath(), 1);
+			assertEquals(0, jarSigner.signJar(jarToSign));
+		}
+	}
+	
+	@Theory
+	public void testSkippingAlreadySignedJarFile(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new NotSigningSigner()).logOn(log).maxDepth(0).skipIfSignedBy(SIGNED_JAR_FINGERPRINT).build();
+			Path jarToSign = copySignedJar(fs.getPath("jarToSign.jar"));
+			assertEquals(0, jarSigner.signJar(jarToSign));
+			assertEquals(1, jarSigner.getSkippedJarCount());
+		}
+	}
+	
+	@Theory
+	public void testNotSkippingJarFileSignedByOther(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new DummySigner()).logOn(log).maxDepth(0).skipIfSignedBy(OTHER_FINGERPRINT).build();
+			Path jarToSign = copySignedJar(fs.getPath("jarToSign.jar"));
+			assertEquals(1, jarSigner.signJar(jarToSign));
+			assertEquals(0, jarSigner.getSkippedJarCount());
+		}
+	}
+	
+	@Theory
+	public void testNotSkippingTamperedSignedJarFile(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new DummySigner()).logOn(log).maxDepth(0).skipIfSignedBy(SIGNED_JAR_FINGERPRINT).build();
+			Path signedJar = copySignedJar(fs.getPath("signed.jar"));
+			Path tamperedFile = SampleFilesGenerators.writeFile(fs.getPath("aFile1"), "Tampered content of the file 1");
+			Path jarToSign = fs.getPath("jarToSign.jar");
+			Zips.replaceEntries(signedJar, jarToSign, Collections.singletonMap("aFile1", tamperedFile));
+			assertEquals(1, jarSigner.signJar(jarToSign));
+			assertEquals(0, jarSigner.getSkippedJarCount());
+		}
+	}
+	
+	@Theory
+	public void testSkippingAlreadySignedNestedJarFile(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new DummySigner()).logOn(log).maxDepth(1).skipIfSignedBy(SIGNED_JAR_FINGERPRINT).build();
+			Path tempDirectory = Files.createTempDirectory(fs.getPath("").toAbsolutePath(), null);
+			copySignedJar(tempDirectory.resolve("signed.jar"));
+			createJar(tempDirectory.resolve("unsigned.jar"));
+			Path jarToSign = fs.getPath("jarToSign.jar").toAbsolutePath();
+			Zips.packJar(tempDirectory, jarToSign, false);
+			assertEquals(2, jarSigner.signJar(jarToSign));
+			assertEquals(1, jarSigner.getSkippedJarCount());
+		}
+	}
+	
+	@Theory
+	public void testBatchSigningNestedJarFile(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			BatchSigner signer = new BatchSigner(null);
+			JarSigner jarSigner = JarSigner.builder(signer).logOn(log).maxDepth(1).batchSize(10).build();
+			Path jarToSign = createJarWithNestedJars(fs.getPath("jarToSign.jar").toAbsolutePath(), 1);
+			assertEquals(5, jarSigner.signJar(jarToSign));
+			// one batch with the nested jars, one single request for the enclosing jar
+			assertEquals(2, signer.requestCount);
+			assertEquals(4, signer.batchedJarCount);
+		}
+	}
+	
+	@Theory
+	public void testBatchSigningJarFiles(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			BatchSigner signer = new BatchSigner(null);
+			JarSigner jarSigner = JarSigner.builder(signer).logOn(log).batchSize(2).build();
+			Path jar1 = createJar(fs.getPath("jar1.jar").toAbsolutePath());
+			Path jar2 = createJar(fs.getPath("jar2.jar").toAbsolutePath());
+			Path jar3 = createJar(fs.getPath("jar3.jar").toAbsolutePath());
+			assertEquals(3, jarSigner.signJars(Arrays.asList(jar1, jar2, jar3)));
+			assertEquals(2, signer.requestCount);
+			assertEquals(2, signer.batchedJarCount);
+		}
+	}
+	
+	@Theory
+	@Test(expected=MojoExecutionException.class)
+	public void testBatchSigningFailure(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new BatchSigner("jar2.jar")).logOn(log).batchSize(2).build();
+			Path jar1 = createJar(fs.getPath("jar1.jar").toAbsolutePath());
+			Path jar2 = createJar(fs.getPath("jar2.jar").toAbsolutePath());
+			jarSigner.signJars(Arrays.asList(jar1, jar2));
+		}
+	}
+	
+	@Theory
+	public void testBatchSigningFailureButContinueOnFail(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs= Jimfs.newFileSystem(fsConf)) {	
+			JarSigner jarSigner = JarSigner.builder(new BatchSigner("jar2.jar")).logOn(log).batchSize(2).continueOnFail().build();
+			Path jar1 = createJar(fs.getPath("jar1.jar").toAbsolutePath());
+			Path jar2 = createJar(fs.getPath("jar2.jar").toAbsolutePath());
+			assertEquals(1, jarSigner.signJars(Arrays.asList(jar1, jar2)));
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidBatchSize() {
+		JarSigner.builder(new DummySigner()).batchSize(0);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidSkipIfSignedByFingerprint() {
+		JarSigner.builder(new DummySigner()).skipIfSignedBy("B0:0D:4E");
+	}
+	
+	private static Path copySignedJar(Path target) throws IOException {
+		try (InputStream is = JarSignerTest.class.getResourceAsStream("/signed.jar")) {
+			Files.copy(is, target);
+		}
+		return target;
+	}
+	
+	private static byte[] readEntry(Path jar, String entryName) throws IOException {
+		try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(jar))) {
+			for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+				if (entryName.equals(entry.getName())) {
+					return SampleFilesGenerators.readAllBytes(zis);
+				}
+			}
+		}
+		return null;
+	}
+	
 	private static Path createJarWithEclipseInf(Path jarFile, String eclipseInfContent) throws IOException {
 		Path tempDirectory = Files.createTempDirectory(Paths.getParent(jarFile), null);
 		Path eclipseInf = tempDirectory.resolve("META-INF").resolve("eclipse.inf");
@@ -252,4 +443,64 @@ public class JarSignerTest {
 		Paths.delete(tempDirectory);
 		return jarFile;
 	}
+
+	/**
+	 * Mimics the batch endpoint of the signing service: replies with the
+	 * submitted jars and their status, without signing anything.
+	 */
+	private static final class BatchSigner implements HttpPostFileSender {
+		
+		private final String failingJarName;
+		
+		int requestCount;
+		
+		int batchedJarCount;
+		
+		BatchSigner(String failingJarName) {
+			this.failingJarName = failingJarName;
+		}
+		
+		@Override
+		public boolean post(Path path, String partName, int maxRetry, int retryInterval, TimeUnit intervalUnit) throws IOException {
+			requestCount++;
+			if (JarBatchSigner.PART_NAME.equals(partName)) {
+				Path folder = Files.createTempDirectory(Paths.getParent(path), null);
+				Zips.unpackZip(path, folder);
+				Properties status = new Properties();
+				try (DirectoryStream<Path> jarFolders = Files.newDirectoryStream(folder)) {
+					for (Path jarFolder : jarFolders) {
+						try (DirectoryStream<Path> jars = Files.newDirectoryStream(jarFolder)) {
+							for (Path jar : jars) {
+								String entryName = Zips.entryName(folder.relativize(jar));
+								if (jar.getFileName().toString().equals(failingJarName)) {
+									status.setProperty(entryName, "FAILED: can't sign " + failingJarName);
+									Files.delete(jar);
+								} else {
+									status.setProperty(entryName, JarBatchSigner.STATUS_OK);
+									batchedJarCount++;
+								}
+							}
+						}
+					}
+				}
+				try (OutputStream os = Files.newOutputStream(folder.resolve(JarBatchSigner.STATUS_ENTRY_NAME))) {
+					status.store(os, null);
+				}
+				Files.delete(path);
+				Zips.packZip(folder, path, false);
+				Paths.delete(folder);
+			}
+			return true;
+		}
+		
+		@Override
+		public boolean post(Path path, String partName) throws IOException {
+			return post(path, partName, 0, 0, TimeUnit.SECONDS);
+		}
+		
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
 }
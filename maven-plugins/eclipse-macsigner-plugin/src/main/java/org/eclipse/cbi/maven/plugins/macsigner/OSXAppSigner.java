@@ -18,6 +18,10 @@ import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -25,12 +29,17 @@ import java.util.concurrent.TimeUnit;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.cbi.common.http.AsyncPostFileSender;
 import org.eclipse.cbi.common.http.HttpPostFileSender;
+import org.eclipse.cbi.common.http.SigningReport;
 import org.eclipse.cbi.common.util.Paths;
 import org.eclipse.cbi.common.util.Strings;
 import org.eclipse.cbi.common.util.Zips;
 import org.eclipse.cbi.maven.common.ExceptionHandler;
-import org.eclipse.cbi.maven.common.MojoExecutionExceptionWrapper;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * A signer of OS X applications.
@@ -60,8 +69,11 @@ public class OSXAppSigner {
 
 	private final TimeUnit retryIntervalUnit;
 
-	private OSXAppSigner(HttpPostFileSender signer, boolean continueOnFail, Log log, int maxRetry, int retryInterval, TimeUnit retryIntervalUnit) {
+	private final SigningReport report;
+
+	private OSXAppSigner(HttpPostFileSender signer, boolean continueOnFail, Log log, int maxRetry, int retryInterval, TimeUnit retryIntervalUnit, SigningReport report) {
 		this.signer = signer;
+		this.report = report;
 		this.log = log;
 		this.maxRetry = maxRetry;
 		this.retryInterval = retryInterval;
@@ -75,7 +87,8 @@ public class OSXAppSigner {
 	
 	/**
 	 * Signs the apps in the given if they are directories and ended with
-	 * {@code .app}.
+	 * {@code .app}. If the signer is an {@link AsyncPostFileSender}, the apps
+	 * are sent concurrently.
 	 * 
 	 * @param signFiles
 	 *            the file to be signed
@@ -84,10 +97,12 @@ public class OSXAppSigner {
 	 */
 	public int signApplications(Set<Path> signFiles) throws MojoExecutionException {
 		Objects.requireNonNull(signFiles);
+		if (signer instanceof AsyncPostFileSender) {
+			return signApplicationsConcurrently((AsyncPostFileSender) signer, signFiles);
+		}
 		int ret = 0;
 		for (Path signFile : signFiles) {
-			final PathMatcher appPattern = signFile.getFileSystem().getPathMatcher(DOT_APP_GLOB_PATTERN);
-			if (Files.isDirectory(signFile) && appPattern.matches(signFile)) {
+			if (isApplication(signFile)) {
 		    	if (signApplication(signer, signFile)) {
 		    		ret++;
 		    	}
@@ -99,6 +114,68 @@ public class OSXAppSigner {
 		return ret;
 	}
 
+	private boolean isApplication(Path signFile) {
+		final PathMatcher appPattern = signFile.getFileSystem().getPathMatcher(DOT_APP_GLOB_PATTERN);
+		return Files.isDirectory(signFile) && appPattern.matches(signFile);
+	}
+
+	/**
+	 * Zips all the apps, sends them concurrently and unzips them as they are
+	 * signed. The zipped apps are deleted once their request has completed,
+	 * even if signing fails.
+	 */
+	private int signApplicationsConcurrently(AsyncPostFileSender asyncSigner, Set<Path> signFiles) throws MojoExecutionException {
+		final Map<Path, Path> zippedApps = new LinkedHashMap<>();
+		final Map<Path, ListenableFuture<AsyncPostFileSender.Result>> results = new LinkedHashMap<>();
+		try {
+			for (Path signFile : signFiles) {
+				if (isApplication(signFile)) {
+					try {
+						Path zippedApp = zipApplication(signFile);
+						zippedApps.put(signFile, zippedApp);
+						log.info("[" + new Date() + "] Signing OS X application '" + signFile + "'...");
+						results.put(signFile, asyncSigner.postAsync(zippedApp, PART_NAME, maxRetry, retryInterval, retryIntervalUnit));
+					} catch (IOException e) {
+						exceptionHandler.handleError("Signing of OS X application '" + signFile + "' failed.", e);
+					}
+				} else {
+					exceptionHandler.handleError("Path '" + signFile.toString() + "' does not exist or is not a valid OS X application"
+							+ " It must be a folder ending with '.app' extension. It won't be signed.");
+				}
+			}
+
+			int ret = 0;
+			for (Entry<Path, ListenableFuture<AsyncPostFileSender.Result>> entry : results.entrySet()) {
+				Path appFolder = entry.getKey();
+				AsyncPostFileSender.Result result = Futures.getUnchecked(entry.getValue());
+				Exception failure = result.failure();
+				if (failure instanceof IOException) {
+					exceptionHandler.handleError("Signing of OS X application '" + appFolder + "' failed.", failure);
+				} else if (failure instanceof MojoExecutionException) {
+					throw (MojoExecutionException) failure;
+				} else if (failure != null) {
+					throw Throwables.propagate(failure);
+				} else if (!result.isSigned()) {
+					exceptionHandler.handleError("Signing of OS X application '" + appFolder + "' failed. Activate debug (-X, --debug) to see why.");
+				} else {
+					try {
+						unzipApplication(zippedApps.get(appFolder), appFolder);
+						ret++;
+					} catch (IOException e) {
+						exceptionHandler.handleError("Signing of OS X application '" + appFolder + "' failed.", e);
+					}
+				}
+			}
+			return ret;
+		} finally {
+			// the replies may still be written to the zipped apps if we are failing early
+			Futures.getUnchecked(Futures.successfulAsList(results.values()));
+			for (Path zippedApp : zippedApps.values()) {
+				Paths.deleteQuietly(zippedApp);
+			}
+		}
+	}
+
 	/**
 	 * Browses the given path looking for OS X applications to be signed with a
 	 * name contained in the given set.
@@ -115,11 +192,9 @@ public class OSXAppSigner {
 		int ret = 0;
 		
 		try {
-			OSXApplicationSignerVisitor applicationSignerVisitor = new OSXApplicationSignerVisitor(pathMatchers);
-			Files.walkFileTree(baseSearchDir, applicationSignerVisitor);
-			ret = applicationSignerVisitor.getSignedAppCount();
-		} catch (MojoExecutionExceptionWrapper e) {
-			throw e.getCause();
+			OSXApplicationLookupVisitor applicationLookupVisitor = new OSXApplicationLookupVisitor(pathMatchers);
+			Files.walkFileTree(baseSearchDir, applicationLookupVisitor);
+			ret = signApplications(applicationLookupVisitor.getApplications());
 		} catch (IOException e) {
 			exceptionHandler.handleError("Error occured while signing OS X application (" + Strings.join(", ", pathMatchers) + ").", e);
 		}
@@ -138,8 +213,7 @@ public class OSXAppSigner {
     	Path zippedApp = null;
     	
     	try {
-            zippedApp = Files.createTempFile(Paths.getParent(appFolder), appFolder.getFileName().toString() + "_", DOT_ZIP);
-            Zips.packZip(appFolder, zippedApp, true);
+            zippedApp = zipApplication(appFolder);
             
             log.info("[" + new Date() + "] Signing OS X application '" + appFolder + "'...");
             if (!signer.post(zippedApp, PART_NAME, maxRetry, retryInterval, retryIntervalUnit)) {
@@ -148,7 +222,7 @@ public class OSXAppSigner {
             	ret = true;
             }
 
-            Zips.unpackZip(zippedApp, Paths.getParent(appFolder));
+            unzipApplication(zippedApp, appFolder);
         } catch (IOException e) {
         	exceptionHandler.handleError("Signing of OS X application '" + appFolder + "' failed.", e);
         	ret = false;
@@ -161,18 +235,42 @@ public class OSXAppSigner {
     	return ret;
     }
 
-	private final class OSXApplicationSignerVisitor extends SimpleFileVisitor<Path> {
+	/**
+	 * Zips the given app in a temporary file next to it. The time spent
+	 * signing the zipped app is reported against the app.
+	 */
+	private Path zipApplication(Path appFolder) throws IOException {
+		Path zippedApp = Files.createTempFile(Paths.getParent(appFolder), appFolder.getFileName().toString() + "_", DOT_ZIP);
+		report.attribute(zippedApp, report.nameOf(appFolder));
+		try {
+			final long zipStart = System.nanoTime();
+			Zips.packZip(appFolder, zippedApp, true);
+			report.recordSince(zippedApp, SigningReport.Phase.ZIP, zipStart);
+		} catch (IOException e) {
+			Paths.deleteQuietly(zippedApp);
+			throw e;
+		}
+		return zippedApp;
+	}
+
+	private void unzipApplication(Path zippedApp, Path appFolder) throws IOException {
+		final long unzipStart = System.nanoTime();
+		Zips.unpackZip(zippedApp, Paths.getParent(appFolder));
+		report.recordSince(zippedApp, SigningReport.Phase.UNZIP, unzipStart);
+	}
+
+	private static final class OSXApplicationLookupVisitor extends SimpleFileVisitor<Path> {
 		
 		private final Set<PathMatcher> pathMatchers;
-		private int signedAppCount;
+		private final Set<Path> applications;
 
-		OSXApplicationSignerVisitor(Set<PathMatcher> pathMatchers) {
+		OSXApplicationLookupVisitor(Set<PathMatcher> pathMatchers) {
 			this.pathMatchers = pathMatchers;
-			this.signedAppCount = 0;
+			this.applications = new LinkedHashSet<>();
 		}
 
-		public int getSignedAppCount() {
-			return signedAppCount;
+		public Set<Path> getApplications() {
+			return applications;
 		}
 
 		@Override
@@ -180,23 +278,13 @@ public class OSXAppSigner {
 			if (dir.getFileSystem().getPathMatcher(DOT_APP_GLOB_PATTERN).matches(dir)) {
 				for (PathMatcher pathMatcher : pathMatchers) {
 					if (pathMatcher.matches(dir)) {
-						return signApp(dir);
+						applications.add(dir);
+						return FileVisitResult.SKIP_SUBTREE;
 					}
 				}
 			}
 			return FileVisitResult.CONTINUE;
 		}
-
-		private FileVisitResult signApp(Path dir) throws MojoExecutionExceptionWrapper {
-			try {
-				if (signApplication(signer, dir)) {
-					signedAppCount++;
-				}
-			} catch (MojoExecutionException e) {
-				throw new MojoExecutionExceptionWrapper(e);
-			}
-			return FileVisitResult.SKIP_SUBTREE;
-		}
 	}
 	
 	/**
@@ -206,6 +294,7 @@ public class OSXAppSigner {
 	 * <li>{@link #logOn(Log)}: {@link SystemStreamLog}</li>
 	 * <li>{@link #maxRetry(int)}: 0</li>
 	 * <li>{@link #waitBeforeRetry(int, TimeUnit)}: 0 {@link TimeUnit#SECONDS seconds}</li>
+	 * <li>{@link #report(SigningReport)}: a new report</li>
 	 * <ul> 
 	 */
 	public static class Builder {
@@ -222,6 +311,8 @@ public class OSXAppSigner {
 
 		private TimeUnit waitTimerUnit = TimeUnit.SECONDS;
 
+		private SigningReport report = new SigningReport();
+
 		Builder(HttpPostFileSender signer) {
 			this.signer = Objects.requireNonNull(signer);
 		}
@@ -273,6 +364,19 @@ public class OSXAppSigner {
 			return this;
 		}
 		
+		/**
+		 * The report where the time spent zipping and unzipping the
+		 * applications is recorded. It should be the report of the
+		 * {@link HttpPostFileSender}, so that all the phases of the signing
+		 * are recorded together.
+		 * @param report
+		 * @return this builder for chained calls.
+		 */
+		public Builder report(SigningReport report) {
+			this.report = Objects.requireNonNull(report);
+			return this;
+		}
+		
 		/**
 		 * Creates and returns a new JarSigner configured with the options
 		 * specified to this builder.
@@ -281,7 +385,7 @@ public class OSXAppSigner {
 		 */
 		public OSXAppSigner build() {
 			return new OSXAppSigner(this.signer, this.continueOnFail, 
-					this.log, this.maxRetry, this.waitTimer, this.waitTimerUnit);
+					this.log, this.maxRetry, this.waitTimer, this.waitTimerUnit, this.report);
 		}
 	}
 }
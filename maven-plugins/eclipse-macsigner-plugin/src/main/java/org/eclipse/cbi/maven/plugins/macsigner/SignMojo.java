@@ -12,6 +12,7 @@
 package org.eclipse.cbi.maven.plugins.macsigner;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
@@ -31,7 +32,10 @@ import org.apache.maven.settings.crypto.SettingsDecrypter;
 import org.apache.maven.settings.crypto.SettingsDecryptionResult;
 import org.eclipse.cbi.common.http.ApacheHttpClientPostFileSender;
 import org.eclipse.cbi.common.http.HttpPostFileSender;
+import org.eclipse.cbi.common.http.SigningReport;
 import org.eclipse.cbi.maven.common.MavenLogger;
+import org.eclipse.cbi.maven.common.SigningParameters;
+import org.eclipse.cbi.maven.common.SigningReportPublisher;
 
 /**
  * Signs project main and attached artifact using
@@ -162,6 +166,76 @@ public class SignMojo extends AbstractMojo {
      */
     private int retryTimer;
 
+    /**
+     * How the time to wait between retries evolves, either {@code fixed}
+     * ({@code retryTimer} seconds before each retry, as in the previous
+     * versions) or {@code exponential} (a random delay, growing with each
+     * retry, which may be much shorter than {@code retryTimer} for the first
+     * retries). The delay requested by the server with a {@code Retry-After}
+     * header is always honored.
+     *
+     * @parameter property="retryBackoff" default-value="fixed"
+     * @since 1.2.0
+     */
+    private String retryBackoff;
+
+    /**
+     * Maximum number of seconds to wait before a retry with the
+     * {@code exponential} backoff.
+     *
+     * @parameter property="retryMaxDelay" default-value="300"
+     * @since 1.2.0
+     */
+    private int retryMaxDelay;
+
+    /**
+     * Number of seconds, from the first attempt, after which a file is not
+     * retried anymore with the {@code exponential} backoff. 0 means no limit
+     * other than {@code retryLimit}.
+     *
+     * @parameter property="retryMaxElapsedTime" default-value="0"
+     * @since 1.2.0
+     */
+    private int retryMaxElapsedTime;
+
+    /**
+     * Maximum number of applications sent to the signing service at the same
+     * time. With a value greater than 1, the upload, signing and download of
+     * the applications overlap.
+     *
+     * @parameter property="cbi.macsigner.parallelism" default-value="1"
+     * @since 1.2.0
+     */
+    private int parallelism;
+
+    /**
+     * Directory of the local cache of signed files, e.g.
+     * {@code ~/.m2/cbi-sign-cache}. Files already signed by the same signing
+     * service are not sent again. If not set, no cache is used.
+     *
+     * @parameter property="cbi.signCacheDirectory"
+     * @since 1.2.0
+     */
+    private File signCacheDirectory;
+
+    /**
+     * Maximum size of the local cache of signed files, in megabytes.
+     *
+     * @parameter property="cbi.signCacheMaxSize" default-value="1024"
+     * @since 1.2.0
+     */
+    private long signCacheMaxSize;
+
+    /**
+     * JSON file where the time spent in each phase of the signing is
+     * written, e.g. {@code target/macsigner-timings.json}. A summary is always
+     * logged. If not set, no file is written.
+     *
+     * @parameter property="cbi.macsigner.timingReport"
+     * @since 1.2.0
+     */
+    private File timingReport;
+
     /**
      * Name of configured credentials to use.
      * @parameter property="cbi.serverId"
@@ -182,6 +256,10 @@ public class SignMojo extends AbstractMojo {
 
     @Override
     public void execute() throws MojoExecutionException {
+        if (parallelism < 1) {
+            throw new MojoExecutionException("'parallelism' must be strictly positive");
+        }
+
         String user = null;
         String password = null;
         if (serverId != null) {
@@ -201,23 +279,36 @@ public class SignMojo extends AbstractMojo {
             }
         }
 
-    	final HttpPostFileSender signer = new ApacheHttpClientPostFileSender(URI.create(signerUrl), new MavenLogger(getLog()), user, password);
-    	OSXAppSigner.Builder appSignerBuilder = OSXAppSigner.builder(signer).logOn(getLog()).maxRetry(retryLimit).waitBeforeRetry(retryTimer, TimeUnit.SECONDS);
-    	if (continueOnFail) {
-    		appSignerBuilder.continueOnFail();
-    	}
-    	OSXAppSigner osxAppSigner = appSignerBuilder.build();
-
-        if (signFiles != null && !signFiles.isEmpty()) {
-        	//app paths are configured
-        	Set<Path> filesToSign = new LinkedHashSet<>();
-        	for (String pathString : signFiles) {
-				filesToSign.add(FileSystems.getDefault().getPath(pathString));
-			}
-            osxAppSigner.signApplications(filesToSign);
-        } else {
-        	//perform search
-        	osxAppSigner.signApplications(FileSystems.getDefault().getPath(baseSearchDir), getPathMatchers(FileSystems.getDefault(), fileNames, getLog()));
+        final SigningReport report = new SigningReport();
+        final ApacheHttpClientPostFileSender sender = ApacheHttpClientPostFileSender.builder(URI.create(signerUrl))
+                .logOn(new MavenLogger(getLog()))
+                .retryPolicy(SigningParameters.retryPolicy(retryBackoff, retryLimit, retryTimer, retryMaxDelay, retryMaxElapsedTime))
+                .maxConnectionsPerRoute(parallelism)
+                .credentials(user, password)
+                .report(report)
+                .build();
+        try (HttpPostFileSender signer = SigningParameters.withParallelism(SigningParameters.withSignCache(sender, signerUrl, signCacheDirectory, signCacheMaxSize, true, getLog()), parallelism)) {
+        	OSXAppSigner.Builder appSignerBuilder = OSXAppSigner.builder(signer).logOn(getLog()).maxRetry(retryLimit).waitBeforeRetry(retryTimer, TimeUnit.SECONDS).report(report);
+        	if (continueOnFail) {
+        		appSignerBuilder.continueOnFail();
+        	}
+        	OSXAppSigner osxAppSigner = appSignerBuilder.build();
+
+            if (signFiles != null && !signFiles.isEmpty()) {
+            	//app paths are configured
+            	Set<Path> filesToSign = new LinkedHashSet<>();
+            	for (String pathString : signFiles) {
+    				filesToSign.add(FileSystems.getDefault().getPath(pathString));
+    			}
+                osxAppSigner.signApplications(filesToSign);
+            } else {
+            	//perform search
+            	osxAppSigner.signApplications(FileSystems.getDefault().getPath(baseSearchDir), getPathMatchers(FileSystems.getDefault(), fileNames, getLog()));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to release the connections to the signing server", e);
+        } finally {
+            SigningReportPublisher.publish(report, getLog(), timingReport);
         }
     }
 
@@ -13,6 +13,7 @@ import java.util.Set;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
+import org.eclipse.cbi.common.http.AsyncPostFileSender;
 import org.eclipse.cbi.common.test.util.DummySigner;
 import org.eclipse.cbi.common.test.util.ErrorSigner;
 import org.eclipse.cbi.common.test.util.NotSigningSigner;
@@ -154,6 +155,27 @@ public class OSXAppSignerTest {
 		}
 	}
 	
+	@Theory
+	public void testSigning2AppFolderConcurrently(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf); AsyncPostFileSender sender = new AsyncPostFileSender(new DummySigner(), 2)) {
+			OSXAppSigner osxAppSigner = OSXAppSigner.builder(sender).logOn(log).build();
+			Path app1 = Files.createDirectories(fs.getPath("test", "testApp1.app"));
+			Path app2 = Files.createDirectories(fs.getPath("test", "testApp2.app"));
+			assertEquals(2, osxAppSigner.signApplications(newSet(app1, app2)));
+		}
+	}
+	
+	@Theory
+	@Test(expected=MojoExecutionException.class)
+	public void testSigningWithErrorSignerConcurrently(Configuration fsConf) throws IOException, MojoExecutionException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf); AsyncPostFileSender sender = new AsyncPostFileSender(new ErrorSigner(), 2)) {
+			OSXAppSigner osxAppSigner = OSXAppSigner.builder(sender).logOn(log).build();
+			Path app1 = Files.createDirectories(fs.getPath("test", "testApp1.app"));
+			Path app2 = Files.createDirectories(fs.getPath("test", "testApp2.app"));
+			osxAppSigner.signApplications(newSet(app1, app2));
+		}
+	}
+	
 	@Theory
 	@Test(expected=MojoExecutionException.class)
 	public void testSigning2AppFolderAndAFile(Configuration fsConf) throws IOException, MojoExecutionException {
@@ -17,7 +17,10 @@ import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -25,10 +28,14 @@ import java.util.concurrent.TimeUnit;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.cbi.common.http.AsyncPostFileSender;
 import org.eclipse.cbi.common.http.HttpPostFileSender;
 import org.eclipse.cbi.common.util.Strings;
 import org.eclipse.cbi.maven.common.ExceptionHandler;
-import org.eclipse.cbi.maven.common.MojoExecutionExceptionWrapper;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class WindowsExeSigner {
 
@@ -49,8 +56,20 @@ public class WindowsExeSigner {
 		this.exceptionHandler = new ExceptionHandler(log, continueOnFail);
 	}
 	
+	/**
+	 * Signs the given executables. If the signer is an
+	 * {@link AsyncPostFileSender}, the executables are sent concurrently.
+	 *
+	 * @param exesToSign
+	 *            the executables to sign.
+	 * @return the number of signed executables.
+	 * @throws MojoExecutionException
+	 */
 	public int signExecutables(Set<Path> exesToSign) throws MojoExecutionException {
 		Objects.requireNonNull(exesToSign);
+		if (signer instanceof AsyncPostFileSender) {
+			return signExecutablesConcurrently((AsyncPostFileSender) signer, exesToSign);
+		}
 		int ret = 0;
 		for (Path exe : exesToSign) {
 			if (signExecutable(exe)) {
@@ -59,6 +78,33 @@ public class WindowsExeSigner {
     	}
 		return ret;
 	}
+
+	private int signExecutablesConcurrently(AsyncPostFileSender asyncSigner, Set<Path> exesToSign) throws MojoExecutionException {
+		List<ListenableFuture<AsyncPostFileSender.Result>> results = new ArrayList<>(exesToSign.size());
+		for (Path exe : exesToSign) {
+			if (isSignable(exe)) {
+				log.info("[" + new Date() + "] Signing Windows executable '" + exe + "'...");
+				results.add(asyncSigner.postAsync(exe, PART_NAME, maxRetry, retryInterval, retryIntervalUnit));
+			}
+		}
+		int ret = 0;
+		for (ListenableFuture<AsyncPostFileSender.Result> future : results) {
+			AsyncPostFileSender.Result result = Futures.getUnchecked(future);
+			Exception failure = result.failure();
+			if (failure instanceof IOException) {
+				exceptionHandler.handleError("Signing of Windows executable '" + result.path() + "' failed.", failure);
+			} else if (failure instanceof MojoExecutionException) {
+				throw (MojoExecutionException) failure;
+			} else if (failure != null) {
+				throw Throwables.propagate(failure);
+			} else if (!result.isSigned()) {
+				exceptionHandler.handleError("Signing of Windows executable '" + result.path() + "' failed. Activate debug (-X, --debug) to see why.");
+			} else {
+				ret++;
+			}
+		}
+		return ret;
+	}
 	
 	public int signExecutables(Path baseSearchDir, Set<PathMatcher> pathMatchers) throws MojoExecutionException {
 		Objects.requireNonNull(baseSearchDir);
@@ -66,11 +112,9 @@ public class WindowsExeSigner {
 		
 		int ret = 0;
 		try {
-			WindowsBinarySignerVisitor signerVisitor = new WindowsBinarySignerVisitor(pathMatchers);
-			Files.walkFileTree(baseSearchDir, signerVisitor);
-			ret = signerVisitor.getSignedExecutableCount();
-		} catch (MojoExecutionExceptionWrapper e) {
-			throw e.getCause();
+			WindowsBinaryLookupVisitor lookupVisitor = new WindowsBinaryLookupVisitor(pathMatchers);
+			Files.walkFileTree(baseSearchDir, lookupVisitor);
+			ret = signExecutables(lookupVisitor.getExecutables());
 		} catch (IOException e) {
 			exceptionHandler.handleError("Error occured while signing Windows binary (" + Strings.join(", ", pathMatchers) + ")", e);
 		}
@@ -85,11 +129,7 @@ public class WindowsExeSigner {
      */
     public boolean signExecutable(Path file) throws MojoExecutionException {
     	Objects.requireNonNull(file);
-    	if (!Files.isRegularFile(file)) {
-    		exceptionHandler.handleError("Path '" + file.toString() + "' does not exist or is not a file. It won't be signed.");
-    		return false;
-    	} else if (!Files.isWritable(file)) {
-    		exceptionHandler.handleError("Path '" + file.toString() + "' is not writable. It won't be signed.");
+    	if (!isSignable(file)) {
     		return false;
     	}
     	
@@ -107,38 +147,43 @@ public class WindowsExeSigner {
         return ret;
     }
     
+    private boolean isSignable(Path file) throws MojoExecutionException {
+    	if (!Files.isRegularFile(file)) {
+    		exceptionHandler.handleError("Path '" + file.toString() + "' does not exist or is not a file. It won't be signed.");
+    		return false;
+    	} else if (!Files.isWritable(file)) {
+    		exceptionHandler.handleError("Path '" + file.toString() + "' is not writable. It won't be signed.");
+    		return false;
+    	}
+    	return true;
+    }
+    
     public static Builder builder(HttpPostFileSender signer) {
     	return new Builder(signer);
     }
 
-	private final class WindowsBinarySignerVisitor extends SimpleFileVisitor<Path> {
+	private static final class WindowsBinaryLookupVisitor extends SimpleFileVisitor<Path> {
 		
 		private final Set<PathMatcher> pathMatchers;
-		private int signedExecutableCount;
+		private final Set<Path> executables;
 	
-		WindowsBinarySignerVisitor(Set<PathMatcher> pathMatchers) {
+		WindowsBinaryLookupVisitor(Set<PathMatcher> pathMatchers) {
 			this.pathMatchers = pathMatchers;
-			signedExecutableCount = 0;
+			this.executables = new LinkedHashSet<>();
 		}
 	
 		@Override
 		public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
 			for (PathMatcher pathMatcher : this.pathMatchers) {
 				if (pathMatcher.matches(file)) {
-					try {
-						if (signExecutable(file)) {
-							signedExecutableCount++;
-						}
-					} catch (MojoExecutionException e) {
-						throw new MojoExecutionExceptionWrapper(e);
-					}
+					executables.add(file);
 				}
 			}
 			return FileVisitResult.CONTINUE;
 		}
 		
-		public int getSignedExecutableCount() {
-			return signedExecutableCount;
+		public Set<Path> getExecutables() {
+			return executables;
 		}
 	}
 	
@@ -16,6 +16,7 @@ import java.util.Set;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.cbi.common.http.AsyncPostFileSender;
 import org.eclipse.cbi.common.test.util.DummySigner;
 import org.eclipse.cbi.common.test.util.ErrorSigner;
 import org.eclipse.cbi.common.test.util.NotSigningSigner;
@@ -157,6 +158,34 @@ public class WindowsExeSignerTest {
 		}
 	}
 	
+	@Theory
+	public void testSigningFilesConcurrently(Configuration fsConf) throws MojoExecutionException, IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf); AsyncPostFileSender signer = new AsyncPostFileSender(new DummySigner(), 2)) {
+			WindowsExeSigner winExeSigner = WindowsExeSigner.builder(signer).logOn(log).build();
+			Path baseDir = createTestAppFolders(fs.getPath("test"));
+			assertEquals(10, winExeSigner.signExecutables(baseDir, SignMojo.getPathMatchers(fs, newSet("*.exe"), log)));
+		}
+	}
+	
+	@Theory
+	@Test(expected=MojoExecutionException.class)
+	public void testSigningFilesConcurrentlyWithError(Configuration fsConf) throws MojoExecutionException, IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf); AsyncPostFileSender signer = new AsyncPostFileSender(new ErrorSigner(), 2)) {
+			WindowsExeSigner winExeSigner = WindowsExeSigner.builder(signer).logOn(log).build();
+			Path baseDir = createTestAppFolders(fs.getPath("test"));
+			winExeSigner.signExecutables(newSet(baseDir.resolve("app1.exe"), baseDir.resolve("subFolder/app3.exe")));
+		}
+	}
+	
+	@Theory
+	public void testSigningFilesConcurrentlyButContinueOnFail(Configuration fsConf) throws MojoExecutionException, IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(fsConf); AsyncPostFileSender signer = new AsyncPostFileSender(new DummySigner(), 2)) {
+			WindowsExeSigner winExeSigner = WindowsExeSigner.builder(signer).logOn(log).continueOnFail().build();
+			Path baseDir = createTestAppFolders(fs.getPath("test"));
+			assertEquals(1, winExeSigner.signExecutables(newSet(baseDir.resolve("app1.exe"), baseDir.resolve("subFolder/appX.exe"))));
+		}
+	}
+	
 	@Theory
 	public void testSigningFilesWithLookup(Configuration fsConf) throws MojoExecutionException, IOException {
 		try (FileSystem fs = Jimfs.newFileSystem(fsConf)) {
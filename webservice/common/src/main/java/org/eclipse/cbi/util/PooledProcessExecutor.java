@@ -0,0 +1,523 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A {@link ProcessExecutor} that runs the commands in a bounded pool of
+ * long-lived worker processes, for tools that support a batch or daemon mode.
+ * It saves a fork/exec (and often the startup of a runtime) for each command.
+ * <p>
+ * The workers are started with {@link #workerCommand()} and must implement the
+ * following line-based protocol (UTF-8):
+ * <ol>
+ * <li>a job is written to the worker standard input as a single line, with
+ * the arguments of the command separated by tabulations;</li>
+ * <li>the worker writes the output of the job on its standard output (or
+ * standard error, which are merged), then a line made of the
+ * {@link #exitMarker()}, a space and the exit value of the job.</li>
+ * </ol>
+ * An empty line is a no-op job: the worker only has to reply with the exit
+ * marker line, whatever its exit value and output.
+ * Consequently, the arguments of the commands must not contain tabulations nor
+ * line breaks.
+ * <p>
+ * A worker is only reused if it is still alive and, when it has been idle for
+ * {@link #probeAfterIdleMillis()}, if it replies to a no-op job within
+ * {@link #probeTimeoutMillis()}: a worker may be alive but stuck (e.g. after a
+ * network or license server failure), which its process can't tell. It is
+ * replaced after {@link #maxJobsPerWorker()} jobs. A worker that does not complete a job
+ * before its timeout is killed, with the processes it started. When all the
+ * workers are busy, the commands
+ * wait for one of them to be available, within their timeout. The number of
+ * waiting commands and the number of busy workers are exposed with
+ * {@link #queueDepth()} and {@link #busyWorkers()}.
+ * <p>
+ * As with {@link ProcessExecutor.BasicImpl}, at most {@link #maxOutputSize()}
+ * bytes of the output of each command are kept in memory, the whole output
+ * being written to a file in {@link #outputLogFolder()}, if any.
+ * <p>
+ * This class is thread-safe.
+ */
+@AutoValue
+public abstract class PooledProcessExecutor implements ProcessExecutor, Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(PooledProcessExecutor.class);
+
+	private static final String ARGUMENT_SEPARATOR = "\t";
+
+	private static final String NL = System.getProperty("line.separator");
+
+	/**
+	 * The idle workers, the most recently used first.
+	 */
+	private final LinkedBlockingDeque<Worker> idleWorkers;
+
+	private final AtomicInteger waitingJobs;
+
+	private final AtomicInteger busyWorkers;
+
+	private final AtomicInteger workerIds;
+
+	/**
+	 * Bounds the number of workers, busy or idle. Initialized by
+	 * {@link Builder#build()}.
+	 */
+	private Semaphore workerPermits;
+
+	private volatile boolean closed;
+
+	PooledProcessExecutor() {
+		this.idleWorkers = new LinkedBlockingDeque<>();
+		this.waitingJobs = new AtomicInteger();
+		this.busyWorkers = new AtomicInteger();
+		this.workerIds = new AtomicInteger();
+	}
+
+	/**
+	 * Returns the command starting a worker process.
+	 *
+	 * @return the command starting a worker process.
+	 */
+	public abstract ImmutableList<String> workerCommand();
+
+	/**
+	 * Returns the maximum number of worker processes.
+	 *
+	 * @return the maximum number of worker processes.
+	 */
+	public abstract int maxWorkers();
+
+	/**
+	 * Returns the number of jobs after which a worker process is replaced by a
+	 * new one.
+	 *
+	 * @return the number of jobs after which a worker process is replaced.
+	 */
+	public abstract int maxJobsPerWorker();
+
+	/**
+	 * Returns the prefix of the line that ends the output of a job.
+	 *
+	 * @return the prefix of the line that ends the output of a job.
+	 */
+	public abstract String exitMarker();
+
+	/**
+	 * Returns the maximum number of bytes of the output of each command kept
+	 * in memory, the first and the last ones. 0 or less means no limit.
+	 *
+	 * @return the maximum number of bytes of output kept in memory for each
+	 *         command.
+	 */
+	public abstract int maxOutputSize();
+
+	/**
+	 * Returns the folder where the whole output of each command is written,
+	 * if any.
+	 *
+	 * @return the folder where the whole output of each command is written.
+	 */
+	public abstract Optional<Path> outputLogFolder();
+
+	/**
+	 * Returns the number of milliseconds a worker process can be idle before
+	 * it is probed with a no-op job prior to its reuse.
+	 *
+	 * @return the idle time after which a worker process is probed, in
+	 *         milliseconds.
+	 */
+	public abstract long probeAfterIdleMillis();
+
+	/**
+	 * Returns the number of milliseconds within which a probed worker process
+	 * must reply, otherwise it is killed and replaced.
+	 *
+	 * @return the timeout of the probes, in milliseconds.
+	 */
+	public abstract long probeTimeoutMillis();
+
+	/**
+	 * Creates and returns a new builder for this class, with at most one worker
+	 * per available processor, recycled after 100 jobs and probed with a 5
+	 * seconds timeout after being idle for a minute. The output of the
+	 * commands is not limited nor logged.
+	 *
+	 * @return a new builder for this class.
+	 */
+	public static Builder builder() {
+		return new AutoValue_PooledProcessExecutor.Builder()
+			.maxWorkers(Runtime.getRuntime().availableProcessors())
+			.maxJobsPerWorker(100)
+			.exitMarker("#exit")
+			.maxOutputSize(0)
+			.outputLogFolder(Optional.empty())
+			.probeAfterIdleMillis(TimeUnit.MINUTES.toMillis(1))
+			.probeTimeoutMillis(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	/**
+	 * A builder of {@link PooledProcessExecutor}.
+	 */
+	@AutoValue.Builder
+	public static abstract class Builder {
+		Builder() {}
+
+		public abstract Builder workerCommand(ImmutableList<String> workerCommand);
+		public abstract Builder maxWorkers(int maxWorkers);
+		public abstract Builder maxJobsPerWorker(int maxJobsPerWorker);
+		public abstract Builder exitMarker(String exitMarker);
+		public abstract Builder maxOutputSize(int maxOutputSize);
+		public abstract Builder outputLogFolder(Optional<Path> outputLogFolder);
+		public abstract Builder probeAfterIdleMillis(long probeAfterIdleMillis);
+		public abstract Builder probeTimeoutMillis(long probeTimeoutMillis);
+
+		abstract PooledProcessExecutor autoBuild();
+
+		/**
+		 * Creates and returns a new PooledProcessExecutor object with the state
+		 * of this builder. No worker process is started until the first
+		 * command is executed.
+		 *
+		 * @return a new PooledProcessExecutor object with the state of this
+		 *         builder.
+		 */
+		public PooledProcessExecutor build() {
+			PooledProcessExecutor executor = autoBuild();
+			checkState(!executor.workerCommand().isEmpty(), "Worker command must not be empty");
+			checkState(executor.maxWorkers() > 0, "The maximum number of workers must be strictly positive");
+			checkState(executor.maxJobsPerWorker() > 0, "The maximum number of jobs per worker must be strictly positive");
+			checkState(!executor.exitMarker().isEmpty(), "The exit marker must not be empty");
+			checkState(executor.probeAfterIdleMillis() >= 0, "The idle time before probing a worker must be positive");
+			checkState(executor.probeTimeoutMillis() > 0, "The timeout of the probes must be strictly positive");
+			executor.workerPermits = new Semaphore(executor.maxWorkers(), true);
+			return executor;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The given timeout includes the time spent waiting for a worker process
+	 * to be available.
+	 */
+	@Override
+	public int exec(ImmutableList<String> command, StringBuffer processOutput, long timeout, TimeUnit timeoutUnit) throws IOException {
+		Objects.requireNonNull(command);
+		Preconditions.checkArgument(!command.isEmpty(), "Command must not be empty");
+		Objects.requireNonNull(processOutput);
+		for (String argument : command) {
+			Preconditions.checkArgument(!argument.contains(ARGUMENT_SEPARATOR) && !argument.contains("\n") && !argument.contains("\r"),
+					"Arguments must not contain tabulations nor line breaks: '%s'", argument);
+		}
+		checkState(!closed, "This executor has been closed");
+
+		final String arg0 = command.iterator().next();
+		final long deadline = System.nanoTime() + timeoutUnit.toNanos(timeout);
+
+		waitingJobs.incrementAndGet();
+		try {
+			if (!workerPermits.tryAcquire(timeout, timeoutUnit)) {
+				throw new IOException("Process '" + arg0 + "' has not been started. No worker has been available within " + timeout + " " + timeoutUnit);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting for a worker to run the process '" + arg0 + "'", e);
+		} finally {
+			waitingJobs.decrementAndGet();
+		}
+
+		busyWorkers.incrementAndGet();
+		Worker worker = null;
+		try (ProcessOutputCapture output = new ProcessOutputCapture(maxOutputSize(), ProcessOutputCapture.logFile(outputLogFolder(), arg0))) {
+			try {
+				worker = checkoutWorker();
+				logger.info("Process '" + arg0 + "' starts in worker " + worker.id);
+				int exitValue = worker.run(command, output, deadline);
+				processOutput.append(output.toString());
+				logOutput(arg0, exitValue, processOutput);
+				return exitValue;
+			} catch (IOException e) {
+				if (worker != null) {
+					worker.kill();
+				}
+				worker = null;
+				processOutput.append(output.toString());
+				throw new IOException(Joiner.on('\n').join(e.getMessage(), "Process '" + arg0 + "' output: " + processOutput.toString()), e);
+			}
+		} finally {
+			busyWorkers.decrementAndGet();
+			if (worker != null) {
+				checkinWorker(worker);
+			}
+			workerPermits.release();
+		}
+	}
+
+	@Override
+	public int exec(ImmutableList<String> command, long timeout, TimeUnit timeoutUnit) throws IOException {
+		return exec(command, new StringBuffer(), timeout, timeoutUnit);
+	}
+
+	/**
+	 * Returns the number of commands waiting for a worker process to be
+	 * available.
+	 *
+	 * @return the number of commands waiting for a worker process.
+	 */
+	public int queueDepth() {
+		return waitingJobs.get();
+	}
+
+	/**
+	 * Returns the number of worker processes currently running a command.
+	 *
+	 * @return the number of busy worker processes.
+	 */
+	public int busyWorkers() {
+		return busyWorkers.get();
+	}
+
+	/**
+	 * Returns the ratio of busy worker processes to {@link #maxWorkers()},
+	 * between 0 and 1.
+	 *
+	 * @return the utilization of the pool.
+	 */
+	public double utilization() {
+		return (double) busyWorkers.get() / maxWorkers();
+	}
+
+	/**
+	 * Kills the idle worker processes. The busy ones are killed once their
+	 * current command completes.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (Worker worker = idleWorkers.poll(); worker != null; worker = idleWorkers.poll()) {
+			worker.kill();
+		}
+	}
+
+	/**
+	 * Returns a live idle worker, probed if it has been idle for
+	 * {@link #probeAfterIdleMillis()}, or starts a new one. Must be called
+	 * with a permit.
+	 */
+	private Worker checkoutWorker() throws IOException {
+		for (Worker worker = idleWorkers.pollFirst(); worker != null; worker = idleWorkers.pollFirst()) {
+			if (!worker.isAlive()) {
+				logger.warn("Worker " + worker.id + " died while idle, discarding it");
+				worker.kill();
+			} else if (System.nanoTime() - worker.idleSince >= TimeUnit.MILLISECONDS.toNanos(probeAfterIdleMillis()) && !worker.probe(probeTimeoutMillis())) {
+				logger.warn("Worker " + worker.id + " did not reply to a probe within " + probeTimeoutMillis() + " ms, discarding it");
+				worker.kill();
+			} else {
+				return worker;
+			}
+		}
+		return new Worker(workerIds.incrementAndGet(), workerCommand(), exitMarker());
+	}
+
+	private void checkinWorker(Worker worker) {
+		if (closed || worker.jobCount >= maxJobsPerWorker() || !worker.isAlive()) {
+			logger.info("Retiring worker " + worker.id + " after " + worker.jobCount + " jobs");
+			worker.kill();
+		} else {
+			worker.idleSince = System.nanoTime();
+			idleWorkers.offerFirst(worker);
+		}
+	}
+
+	private static void logOutput(String arg0, final int exitValue, StringBuffer processOutput) {
+		if (exitValue == 0) {
+			logger.info("Process '" + arg0 + "' exited with value '" + exitValue +"'");
+			logger.info("Process '" + arg0 + "' output: " + processOutput.toString());
+		} else {
+			logger.error("Process '" + arg0 + "' exited with value '" + exitValue +"'");
+			logger.error("Process '" + arg0 + "' output: " + processOutput.toString());
+		}
+	}
+
+	/**
+	 * A worker process, used by a single command at a time.
+	 */
+	private static final class Worker {
+
+		/**
+		 * Queued in {@link #lines} when the output of the process is closed.
+		 */
+		private static final String EOF = new String("EOF");
+
+		/**
+		 * The number of bytes of the output of a no-op job kept in memory.
+		 */
+		private static final int PROBE_OUTPUT_SIZE = 1024;
+
+		final int id;
+
+		private final String exitMarker;
+
+		private final Process process;
+
+		private final Writer stdin;
+
+		/**
+		 * The lines of the output of the process, read by a thread living as
+		 * long as the process, so that reading can time out.
+		 */
+		private final BlockingQueue<String> lines;
+
+		int jobCount;
+
+		/**
+		 * The value of {@link System#nanoTime()} when the worker has been
+		 * checked in.
+		 */
+		long idleSince;
+
+		Worker(int id, ImmutableList<String> command, String exitMarker) throws IOException {
+			this.id = id;
+			this.exitMarker = exitMarker + " ";
+			this.process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			this.stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+			this.lines = new LinkedBlockingQueue<>();
+			Thread reader = new Thread(this::readOutput, "process-worker-" + id);
+			reader.setDaemon(true);
+			reader.start();
+			logger.info("Worker " + id + " started ('" + command.get(0) + "')");
+		}
+
+		boolean isAlive() {
+			return process.isAlive();
+		}
+
+		int run(ImmutableList<String> command, ProcessOutputCapture output, long deadline) throws IOException {
+			jobCount++;
+			return send(Joiner.on(ARGUMENT_SEPARATOR).join(command), command.get(0), output, deadline);
+		}
+
+		/**
+		 * Sends a no-op job to the worker and returns whether it replied
+		 * before the given timeout. The output of the no-op job is ignored.
+		 */
+		boolean probe(long timeoutMillis) {
+			try (ProcessOutputCapture output = new ProcessOutputCapture(PROBE_OUTPUT_SIZE, Optional.empty())) {
+				send("", "probe", output, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+				return true;
+			} catch (IOException e) {
+				logger.debug("Probe of worker " + id + " failed", e);
+				return false;
+			}
+		}
+
+		private int send(String job, String arg0, ProcessOutputCapture output, long deadline) throws IOException {
+			stdin.write(job);
+			stdin.write('\n');
+			stdin.flush();
+			try {
+				while (true) {
+					String line = lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (line == null) {
+						throw new IOException("Process '" + arg0 + "' has been stopped forcibly. It did not complete in time in worker " + id);
+					} else if (line == EOF) {
+						throw new IOException("Worker " + id + " exited before completing the process '" + arg0 + "'");
+					} else if (line.startsWith(exitMarker)) {
+						try {
+							return Integer.parseInt(line.substring(exitMarker.length()).trim());
+						} catch (NumberFormatException e) {
+							throw new IOException("Worker " + id + " replied with an invalid exit value: '" + line + "'", e);
+						}
+					}
+					byte[] bytes = (line + NL).getBytes(StandardCharsets.UTF_8);
+					output.write(bytes, 0, bytes.length);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting for the process '" + arg0 + "' to complete.", e);
+			}
+		}
+
+		/**
+		 * Kills the worker process and the processes it started (e.g. the
+		 * command of a shell worker), which would otherwise keep running
+		 * once orphaned.
+		 */
+		void kill() {
+			destroyDescendants(process);
+			process.destroyForcibly();
+		}
+
+		/**
+		 * Destroys the descendants of the given process with the Java 9+
+		 * {@code ProcessHandle} API, called reflectively as this class is
+		 * compiled for Java 8. Does nothing on Java 8.
+		 */
+		private static void destroyDescendants(Process process) {
+			try {
+				Method destroyForcibly = Class.forName("java.lang.ProcessHandle").getMethod("destroyForcibly");
+				// collected before destroying anything, as orphans are not descendants anymore
+				List<?> descendants = ((Stream<?>) Process.class.getMethod("descendants").invoke(process)).collect(Collectors.toList());
+				for (Object descendant : descendants) {
+					destroyForcibly.invoke(descendant);
+				}
+			} catch (ClassNotFoundException | NoSuchMethodException e) {
+				logger.debug("The processes started by the worker can't be destroyed on Java " + System.getProperty("java.version"));
+			} catch (ReflectiveOperationException e) {
+				logger.warn("Unable to destroy the processes started by the worker", e);
+			}
+		}
+
+		private void readOutput() {
+			try (BufferedReader r = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = r.readLine()) != null) {
+					lines.add(line);
+				}
+			} catch (IOException e) {
+				logger.debug("Output of worker " + id + " can't be read anymore", e);
+			} finally {
+				lines.add(EOF);
+			}
+		}
+	}
+}
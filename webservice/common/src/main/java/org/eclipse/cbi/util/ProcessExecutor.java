@@ -10,15 +10,19 @@
  *******************************************************************************/
 package org.eclipse.cbi.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +31,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Utility class to execute a native command in a forked process.
@@ -78,13 +83,54 @@ public interface ProcessExecutor {
 	
 	/**
 	 * A basic implementation that will use a {@link ProcessBuilder} to build and run the {@link Process}.
+	 * <p>
+	 * By default, the whole output of the process is gathered in memory. If a
+	 * maximum output size is set, only the beginning and the end of the output
+	 * are kept (see {@link #BasicImpl(int, Optional)}), so that the memory
+	 * used for each process is bounded. The whole output can then be written
+	 * to a log file for each process.
 	 */
 	public class BasicImpl implements ProcessExecutor {
 		
 		private static final Logger logger = LoggerFactory.getLogger(BasicImpl.class);
 
 		private static final int STREAM_GLOBBER_GRACETIME = 3; // in seconds
-		
+
+		/**
+		 * Drains the output of all the processes. Virtual threads are used
+		 * when the runtime supports them (Java 21+), a cached pool of daemon
+		 * threads otherwise, so that no thread is created for each process.
+		 */
+		private static final ExecutorService streamGobblers = createStreamGobblers();
+
+		private final int maxOutputSize;
+
+		private final Optional<Path> outputLogFolder;
+
+		/**
+		 * Creates an executor gathering the whole output of the processes in
+		 * memory.
+		 */
+		public BasicImpl() {
+			this(0, Optional.empty());
+		}
+
+		/**
+		 * Creates an executor keeping at most {@code maxOutputSize} bytes of
+		 * the output of each process in memory: the first and the last ones.
+		 *
+		 * @param maxOutputSize
+		 *            the maximum number of bytes of output kept in memory for
+		 *            each process. 0 or less means no limit.
+		 * @param outputLogFolder
+		 *            the folder where the whole output of each process is
+		 *            written, if any.
+		 */
+		public BasicImpl(int maxOutputSize, Optional<Path> outputLogFolder) {
+			this.maxOutputSize = maxOutputSize;
+			this.outputLogFolder = Objects.requireNonNull(outputLogFolder);
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
@@ -100,42 +146,80 @@ public interface ProcessExecutor {
 
 			logger.info("Process '" + arg0 + "' starts");
 			
-			Process p = pb.start();
+			try (ProcessOutputCapture output = new ProcessOutputCapture(maxOutputSize, ProcessOutputCapture.logFile(outputLogFolder, arg0))) {
+				Process p = pb.start();
+
+				// redirect output/error streams of process.
+				Future<?> streamGobbler = streamGobblers.submit(new StreamRedirection(p.getInputStream(), output));
 
-			// redirect output/error streams of process.
-			Thread streamGobbler = new Thread(new StreamRedirection(p.getInputStream(), processOutput));
-			streamGobbler.start();
+				try {
+					if (!p.waitFor(timeout, timeoutUnit)) {
+						p.destroyForcibly();
+						awaitEndOfStream(streamGobbler, p);
+						processOutput.append(output.toString());
+						throw new IOException(Joiner.on('\n').join(
+								"Process '" + arg0 + "' has been stopped forcibly. It did not complete in " + timeout + " " + timeoutUnit,
+								"Process '" + arg0 + "' output: " + processOutput.toString()));
+					}
+					
+					awaitEndOfStream(streamGobbler, p);
+					processOutput.append(output.toString());
+				} catch (InterruptedException e) {
+					logger.error("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting for the process '" + arg0 + "' to complete.", e);
 
+					streamGobbler.cancel(true);
+
+					processOutput.append(output.toString());
+					processOutput.append("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting for the process '" + arg0 + "' to complete.\n");
+					StringWriter stackTrace = new StringWriter();
+					e.printStackTrace(new PrintWriter(stackTrace));
+					processOutput.append(stackTrace.getBuffer().toString());
+					
+					if (p.isAlive())
+						logOutput(arg0, p.exitValue(), processOutput);
+					else 
+						logger.error("Process '" + arg0 + "' output: " + processOutput.toString());
+					
+					// Restore the interrupted status
+					Thread.currentThread().interrupt();
+				}
+
+				return logOutput(arg0, p.exitValue(), processOutput);
+			}
+		}
+
+		/**
+		 * Waits for the whole output of the terminated process to be drained,
+		 * i.e., for the end of its output stream. The output stream may be
+		 * kept open by the children of the process: after
+		 * {@value #STREAM_GLOBBER_GRACETIME} seconds, the stream is closed and
+		 * the remaining output is lost.
+		 */
+		private static void awaitEndOfStream(Future<?> streamGobbler, Process p) throws InterruptedException {
 			try {
-				if (!p.waitFor(timeout, timeoutUnit)) {
-					p.destroyForcibly();
-					throw new IOException(Joiner.on('\n').join(
-							"Process '" + arg0 + "' has been stopped forcibly. It did not complete in " + timeout + " " + timeoutUnit,
-							"Process '" + arg0 + "' output: " + processOutput.toString()));
+				streamGobbler.get(STREAM_GLOBBER_GRACETIME, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				logger.warn("Error while reading the output of a process", e.getCause());
+			} catch (TimeoutException e) {
+				logger.warn("The output of a process has not been closed " + STREAM_GLOBBER_GRACETIME + " seconds after its termination");
+				streamGobbler.cancel(true);
+				try {
+					p.getInputStream().close();
+				} catch (IOException ioe) {
+					logger.warn("Error while closing the output of a process", ioe);
 				}
-				
-				streamGobbler.join(TimeUnit.SECONDS.toMillis(STREAM_GLOBBER_GRACETIME)); // give 3sec to the stream gobbler to gather all the output.
-				streamGobbler.interrupt();
-			} catch (InterruptedException e) {
-				logger.error("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting for the process '" + arg0 + "' to complete.", e);
-
-				streamGobbler.interrupt();
-
-				processOutput.append("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting for the process '" + arg0 + "' to complete.\n");
-				StringWriter stackTrace = new StringWriter();
-				e.printStackTrace(new PrintWriter(stackTrace));
-				processOutput.append(stackTrace.getBuffer().toString());
-				
-				if (p.isAlive())
-					logOutput(arg0, p.exitValue(), processOutput);
-				else 
-					logger.error("Process '" + arg0 + "' output: " + processOutput.toString());
-				
-				// Restore the interrupted status
-				Thread.currentThread().interrupt();
 			}
+		}
 
-			return logOutput(arg0, p.exitValue(), processOutput);
+		private static ExecutorService createStreamGobblers() {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+						.setNameFormat("process-output-%d")
+						.setDaemon(true)
+						.build());
+			}
 		}
 
 		private int logOutput(String arg0, final int exitValue, StringBuffer processOutput) {
@@ -159,26 +243,25 @@ public interface ProcessExecutor {
 
 		/**
 		 * A runnable that will continuously read from an {@link InputStream}
-		 * and write the result in an {@link Appendable}.
+		 * and write the read bytes to a {@link ProcessOutputCapture}.
 		 */
 		private static final class StreamRedirection implements Runnable {
 
-			private static final String NL = System.getProperty("line.separator");
+			private static final int BUFFER_SIZE = 8192;
 			private final InputStream is;
-			private final Appendable appendable;
+			private final ProcessOutputCapture output;
 
 			/**
 			 * Creates a
 			 * 
 			 * @param is
-			 *            the input stream to read from (will be buffered).
-			 * @param appendable
-			 *            where the read characters will be written to. Should
-			 *            be a thread safe implementation.
+			 *            the input stream to read from.
+			 * @param output
+			 *            where the read bytes will be written to.
 			 */
-			StreamRedirection(InputStream is, Appendable appendable) {
+			StreamRedirection(InputStream is, ProcessOutputCapture output) {
 				this.is = is;
-				this.appendable = appendable;
+				this.output = output;
 			}
 
 			/**
@@ -186,11 +269,11 @@ public interface ProcessExecutor {
 			 */
 		    @Override
 		    public void run() {
-		    	BufferedReader r = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+		    	byte[] buffer = new byte[BUFFER_SIZE];
 		        try {
-		            String line = null;
-		            while ((line = r.readLine()) != null && !Thread.currentThread().isInterrupted())
-		            	appendable.append(line).append(NL);
+		            int read;
+		            while ((read = is.read(buffer)) != -1 && !Thread.currentThread().isInterrupted())
+		            	output.write(buffer, 0, read);
 		        } catch (IOException e) {
 		            throw Throwables.propagate(e);
 		        }
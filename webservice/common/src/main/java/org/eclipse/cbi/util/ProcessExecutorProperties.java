@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cbi.webservice.metrics.Metrics;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Properties reader of the execution of the native commands: admission
+ * control (see {@link ThrottledProcessExecutor}), output capture (see
+ * {@link ProcessExecutor.BasicImpl}) and pool of worker processes (see
+ * {@link PooledProcessExecutor}).
+ */
+public class ProcessExecutorProperties {
+
+	private static final String PROCESS_MAX = "process.max";
+	private static final String PROCESS_MAX_TOOL_PREFIX = PROCESS_MAX + ".";
+	private static final String PROCESS_QUEUE_SIZE = "process.queue.size";
+	private static final String PROCESS_QUEUE_TIMEOUT = "process.queue.timeout";
+	private static final String PROCESS_RETRY_AFTER = "process.retryafter";
+	private static final String PROCESS_OUTPUT_MAX = "process.output.max";
+	private static final String PROCESS_OUTPUT_LOG_FOLDER = "process.output.log.folder";
+	private static final String PROCESS_POOL_COMMAND = "process.pool.command";
+	private static final String PROCESS_POOL_MAX = "process.pool.max";
+	private static final String PROCESS_POOL_JOBS = "process.pool.jobs";
+
+	private static final int DEFAULT_PROCESS_QUEUE_SIZE = 100;
+	private static final long DEFAULT_PROCESS_QUEUE_TIMEOUT = TimeUnit.MINUTES.toSeconds(2);
+	private static final long DEFAULT_PROCESS_RETRY_AFTER = 30;
+	private static final int DEFAULT_PROCESS_OUTPUT_MAX = 1024 * 1024;
+	private static final int DEFAULT_PROCESS_POOL_JOBS = 100;
+
+	private final PropertiesReader propertiesReader;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param propertiesReader
+	 *            the properties reader that will be used to read configuration
+	 *            value.
+	 */
+	public ProcessExecutorProperties(PropertiesReader propertiesReader) {
+		this.propertiesReader = propertiesReader;
+	}
+
+	/**
+	 * Creates the executor of the native commands configured by these
+	 * properties, wrapped in a {@link ThrottledProcessExecutor} also
+	 * configured by these properties.
+	 * <p>
+	 * If the {@value #PROCESS_POOL_COMMAND} property is set, the commands are
+	 * run by a {@link PooledProcessExecutor} whose workers are started with
+	 * this command, which must implement the protocol described by
+	 * {@link PooledProcessExecutor} (e.g. a script running each job in a
+	 * batch mode of the signing tool). Its workers are killed when the JVM
+	 * shuts down. Otherwise, the commands are run by a
+	 * {@link ProcessExecutor.BasicImpl}. In both cases, the output of the
+	 * commands is captured as configured by the {@value #PROCESS_OUTPUT_MAX}
+	 * and {@value #PROCESS_OUTPUT_LOG_FOLDER} properties.
+	 *
+	 * @return a new executor.
+	 */
+	public ThrottledProcessExecutor createProcessExecutor() {
+		Optional<ImmutableList<String>> poolCommand = getPoolCommand();
+		if (poolCommand.isPresent()) {
+			return createThrottledProcessExecutor(createPooledProcessExecutor(poolCommand.get()));
+		}
+		return createThrottledProcessExecutor(new ProcessExecutor.BasicImpl(getMaxOutputSize(), getOutputLogFolder()));
+	}
+
+	private PooledProcessExecutor createPooledProcessExecutor(ImmutableList<String> workerCommand) {
+		final PooledProcessExecutor pool = PooledProcessExecutor.builder()
+			.workerCommand(workerCommand)
+			.maxWorkers(getMaxPoolWorkers())
+			.maxJobsPerWorker(getMaxJobsPerPoolWorker())
+			.maxOutputSize(getMaxOutputSize())
+			.outputLogFolder(getOutputLogFolder())
+			.build();
+		Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "process-pool-shutdown"));
+		Metrics.registry().gauge("cbi_process_workers_busy", "Number of worker processes running a native command", pool::busyWorkers);
+		Metrics.registry().gauge("cbi_process_workers_waiting", "Number of native commands waiting for a worker process", pool::queueDepth);
+		return pool;
+	}
+
+	/**
+	 * Creates a {@link ThrottledProcessExecutor} configured with these
+	 * properties and running the commands with the given executor. The
+	 * number of running and waiting commands are registered as gauges of the
+	 * {@link Metrics#registry() metrics} of the service.
+	 *
+	 * @param delegate
+	 *            the executor running the admitted commands.
+	 * @return a new executor.
+	 */
+	public ThrottledProcessExecutor createThrottledProcessExecutor(ProcessExecutor delegate) {
+		final ThrottledProcessExecutor executor = ThrottledProcessExecutor.builder()
+			.delegate(delegate)
+			.maxConcurrentProcesses(getMaxConcurrentProcesses())
+			.toolLimits(getToolLimits())
+			.maxQueueSize(getMaxQueueSize())
+			.maxQueueWait(getMaxQueueWait())
+			.retryAfter(getRetryAfter())
+			.build();
+		Metrics.registry().gauge("cbi_processes_running", "Number of native commands running", executor::runningCount);
+		Metrics.registry().gauge("cbi_processes_queued", "Number of native commands waiting to be started", executor::queueDepth);
+		return executor;
+	}
+
+	/**
+	 * Reads and returns the maximum number of native commands running at the
+	 * same time. If no {@value #PROCESS_MAX} property can be found returns 0,
+	 * i.e., no limit.
+	 *
+	 * @return the maximum number of native commands running at the same time.
+	 */
+	public int getMaxConcurrentProcesses() {
+		return propertiesReader.getInt(PROCESS_MAX, 0);
+	}
+
+	/**
+	 * Reads and returns the maximum number of native commands running at the
+	 * same time per tool, from the {@code process.max.<tool>} properties
+	 * (e.g. {@code process.max.jarsigner=4}). The in-process signers are
+	 * limited under the name of the tool they replace (see
+	 * {@link ThrottledProcessExecutor#execute(String, ThrottledProcessExecutor.Execution)}).
+	 *
+	 * @return the maximum number of native commands running at the same time
+	 *         per tool.
+	 */
+	public ImmutableMap<String, Integer> getToolLimits() {
+		ImmutableMap.Builder<String, Integer> toolLimits = ImmutableMap.builder();
+		for (String propertyName : propertiesReader.getPropertyNames(PROCESS_MAX_TOOL_PREFIX)) {
+			toolLimits.put(propertyName.substring(PROCESS_MAX_TOOL_PREFIX.length()), propertiesReader.getInt(propertyName));
+		}
+		return toolLimits.build();
+	}
+
+	/**
+	 * Reads and returns the maximum number of native commands waiting to be
+	 * started. If no {@value #PROCESS_QUEUE_SIZE} property can be found
+	 * returns {@value #DEFAULT_PROCESS_QUEUE_SIZE}.
+	 *
+	 * @return the maximum number of native commands waiting to be started.
+	 */
+	public int getMaxQueueSize() {
+		return propertiesReader.getInt(PROCESS_QUEUE_SIZE, DEFAULT_PROCESS_QUEUE_SIZE);
+	}
+
+	/**
+	 * Reads and returns the maximum time a native command waits to be
+	 * started, in seconds. If no {@value #PROCESS_QUEUE_TIMEOUT} property can
+	 * be found returns the default value '120' seconds.
+	 *
+	 * @return the maximum time a native command waits to be started.
+	 */
+	public long getMaxQueueWait() {
+		return propertiesReader.getLong(PROCESS_QUEUE_TIMEOUT, DEFAULT_PROCESS_QUEUE_TIMEOUT);
+	}
+
+	/**
+	 * Reads and returns the number of seconds sent in the
+	 * {@code Retry-After} header when a request is rejected. If no
+	 * {@value #PROCESS_RETRY_AFTER} property can be found returns
+	 * {@value #DEFAULT_PROCESS_RETRY_AFTER}.
+	 *
+	 * @return the number of seconds after which rejected requests may be
+	 *         sent again.
+	 */
+	public long getRetryAfter() {
+		return propertiesReader.getLong(PROCESS_RETRY_AFTER, DEFAULT_PROCESS_RETRY_AFTER);
+	}
+
+	/**
+	 * Reads and returns the command starting the worker processes running the
+	 * native commands, split on whitespaces. If no
+	 * {@value #PROCESS_POOL_COMMAND} property can be found returns an empty
+	 * optional, i.e., each native command is run by its own process.
+	 *
+	 * @return the command starting the worker processes.
+	 */
+	public Optional<ImmutableList<String>> getPoolCommand() {
+		String command = propertiesReader.getString(PROCESS_POOL_COMMAND, "").trim();
+		if (command.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(ImmutableList.copyOf(Splitter.on(CharMatcher.WHITESPACE).omitEmptyStrings().split(command)));
+	}
+
+	/**
+	 * Reads and returns the maximum number of worker processes. If no
+	 * {@value #PROCESS_POOL_MAX} property can be found returns the number of
+	 * available processors.
+	 *
+	 * @return the maximum number of worker processes.
+	 */
+	public int getMaxPoolWorkers() {
+		return propertiesReader.getInt(PROCESS_POOL_MAX, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Reads and returns the number of native commands after which a worker
+	 * process is replaced. If no {@value #PROCESS_POOL_JOBS} property can be
+	 * found returns {@value #DEFAULT_PROCESS_POOL_JOBS}.
+	 *
+	 * @return the number of native commands after which a worker process is
+	 *         replaced.
+	 */
+	public int getMaxJobsPerPoolWorker() {
+		return propertiesReader.getInt(PROCESS_POOL_JOBS, DEFAULT_PROCESS_POOL_JOBS);
+	}
+
+	/**
+	 * Reads and returns the maximum number of bytes of the output of a
+	 * process kept in memory. If no {@value #PROCESS_OUTPUT_MAX} property can
+	 * be found returns {@value #DEFAULT_PROCESS_OUTPUT_MAX}. 0 means no limit.
+	 *
+	 * @return the maximum number of bytes of the output of a process kept in
+	 *         memory.
+	 */
+	public int getMaxOutputSize() {
+		return propertiesReader.getInt(PROCESS_OUTPUT_MAX, DEFAULT_PROCESS_OUTPUT_MAX);
+	}
+
+	/**
+	 * Reads and returns the folder where the whole output of each process is
+	 * written, if the {@value #PROCESS_OUTPUT_LOG_FOLDER} property is set.
+	 * The folder is created if it does not exist.
+	 *
+	 * @return the folder where the whole output of each process is written.
+	 * @throws IllegalStateException
+	 *             if the folder can't be created.
+	 */
+	public Optional<Path> getOutputLogFolder() {
+		String folder = propertiesReader.getString(PROCESS_OUTPUT_LOG_FOLDER, "");
+		if (folder.isEmpty()) {
+			return Optional.empty();
+		}
+		Path outputLogFolder = propertiesReader.getPath(PROCESS_OUTPUT_LOG_FOLDER);
+		try {
+			return Optional.of(Files.createDirectories(outputLogFolder));
+		} catch (IOException e) {
+			throw new IllegalStateException("Folder '" + outputLogFolder + "' can not be created to contain the output of the processes", e);
+		}
+	}
+}
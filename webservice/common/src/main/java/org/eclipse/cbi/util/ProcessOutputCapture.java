@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captures the output of a process. If a maximum size is set, only the
+ * beginning and the end of the output are kept in memory (half of the maximum
+ * size each), so that the memory used does not depend on the size of the
+ * output. The whole output can also be written to a log file.
+ * <p>
+ * This class is thread-safe.
+ */
+final class ProcessOutputCapture implements Closeable {
+
+	private static final AtomicLong logFileCounter = new AtomicLong();
+
+	private final int maxSize;
+
+	/**
+	 * Used when there is no maximum size.
+	 */
+	private final ByteArrayOutputStream unbounded;
+
+	private final byte[] head;
+
+	/**
+	 * A ring buffer with the last bytes of the output.
+	 */
+	private final byte[] tail;
+
+	private final Optional<Path> logFile;
+
+	private final OutputStream log;
+
+	private int headSize;
+
+	private long tailWritten;
+
+	private long size;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSize
+	 *            the maximum number of bytes kept in memory. 0 or less means
+	 *            no limit.
+	 * @param logFile
+	 *            the file where the whole output is written, if any.
+	 * @throws IOException
+	 *             if the log file can't be created.
+	 */
+	ProcessOutputCapture(int maxSize, Optional<Path> logFile) throws IOException {
+		this.maxSize = maxSize;
+		if (maxSize > 0) {
+			this.unbounded = null;
+			this.head = new byte[maxSize / 2];
+			this.tail = new byte[maxSize - head.length];
+		} else {
+			this.unbounded = new ByteArrayOutputStream();
+			this.head = null;
+			this.tail = null;
+		}
+		this.logFile = logFile;
+		this.log = logFile.isPresent() ? new BufferedOutputStream(Files.newOutputStream(logFile.get())) : null;
+	}
+
+	/**
+	 * Returns a new file in the given log folder, if any, named after the
+	 * given command.
+	 *
+	 * @param logFolder
+	 *            the folder where the whole output of the processes is
+	 *            written, if any.
+	 * @param arg0
+	 *            the command of the process.
+	 * @return a new file in the log folder, or an empty {@link Optional} if
+	 *         there is no log folder.
+	 */
+	static Optional<Path> logFile(Optional<Path> logFolder, String arg0) {
+		if (!logFolder.isPresent()) {
+			return Optional.empty();
+		}
+		String tool = arg0.substring(Math.max(arg0.lastIndexOf('/'), arg0.lastIndexOf('\\')) + 1);
+		return Optional.of(logFolder.get().resolve(tool + "-" + System.currentTimeMillis() + "-" + logFileCounter.incrementAndGet() + ".log"));
+	}
+
+	synchronized void write(byte[] b, int off, int len) throws IOException {
+		if (log != null) {
+			log.write(b, off, len);
+		}
+		size += len;
+		if (unbounded != null) {
+			unbounded.write(b, off, len);
+			return;
+		}
+		int toHead = Math.min(len, head.length - headSize);
+		System.arraycopy(b, off, head, headSize, toHead);
+		headSize += toHead;
+		for (int i = off + toHead; i < off + len; ) {
+			int position = (int) (tailWritten % tail.length);
+			int chunk = Math.min(off + len - i, tail.length - position);
+			System.arraycopy(b, i, tail, position, chunk);
+			tailWritten += chunk;
+			i += chunk;
+		}
+	}
+
+	/**
+	 * Returns the total number of bytes of the output, including the ones
+	 * that have not been kept in memory.
+	 *
+	 * @return the total number of bytes of the output.
+	 */
+	synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the captured output, decoded as UTF-8. If some bytes have not
+	 * been kept in memory, they are replaced by a note saying how many of them
+	 * have been skipped, and where the whole output can be found.
+	 */
+	@Override
+	public synchronized String toString() {
+		if (unbounded != null) {
+			return new String(unbounded.toByteArray(), StandardCharsets.UTF_8);
+		}
+		StringBuilder sb = new StringBuilder(maxSize + 128);
+		sb.append(new String(head, 0, headSize, StandardCharsets.UTF_8));
+		if (tailWritten > tail.length) {
+			sb.append("\n[... ").append(tailWritten - tail.length).append(" bytes skipped");
+			if (logFile.isPresent()) {
+				sb.append(", see '").append(logFile.get()).append("'");
+			}
+			sb.append(" ...]\n");
+			int start = (int) (tailWritten % tail.length);
+			byte[] ordered = new byte[tail.length];
+			System.arraycopy(tail, start, ordered, 0, tail.length - start);
+			System.arraycopy(tail, 0, ordered, tail.length - start, start);
+			sb.append(new String(ordered, StandardCharsets.UTF_8));
+		} else {
+			sb.append(new String(tail, 0, (int) tailWritten, StandardCharsets.UTF_8));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (log != null) {
+			log.close();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a command is not executed because too many commands are already
+ * running or waiting. The command may be submitted again later.
+ */
+public class ProcessRejectedException extends IOException {
+
+	private static final long serialVersionUID = 4329386125372954118L;
+
+	private final long retryAfter;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param message
+	 *            the detail message.
+	 * @param retryAfter
+	 *            the number of seconds after which the command may be
+	 *            submitted again.
+	 */
+	public ProcessRejectedException(String message, long retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Returns the number of seconds after which the command may be submitted
+	 * again.
+	 *
+	 * @return the number of seconds after which the command may be submitted
+	 *         again.
+	 */
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+}
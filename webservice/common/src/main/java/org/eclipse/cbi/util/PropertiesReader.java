@@ -19,6 +19,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Class with utilities method for {@link Properties} objects.
@@ -183,4 +185,23 @@ public class PropertiesReader {
 			return Boolean.valueOf(propertyValue);
 		}
 	}
+
+	/**
+	 * Returns the names of the properties starting with the given prefix, in
+	 * alphabetical order.
+	 *
+	 * @param prefix
+	 *            the prefix of the names of the properties to return.
+	 * @return the names of the properties starting with the given prefix.
+	 */
+	public Set<String> getPropertyNames(String prefix) {
+		Objects.requireNonNull(prefix);
+		final Set<String> propertyNames = new TreeSet<>();
+		for (String propertyName : properties.stringPropertyNames()) {
+			if (propertyName.startsWith(prefix)) {
+				propertyNames.add(propertyName);
+			}
+		}
+		return propertyNames;
+	}
 }
@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.cbi.webservice.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A {@link ProcessExecutor} that limits the number of commands executed
+ * concurrently by a delegate executor.
+ * <p>
+ * A command is admitted once both the global limit
+ * ({@link #maxConcurrentProcesses()}) and the limit of its tool (see
+ * {@link #toolLimits()}) allow it. Until then, it waits in a queue. A command
+ * is rejected with a {@link ProcessRejectedException} if the queue already
+ * holds {@link #maxQueueSize()} commands, or if it has not been admitted
+ * within {@link #maxQueueWait()} seconds.
+ * <p>
+ * The work done within the service process instead of a native command (e.g.
+ * by the in-process signers) is subject to the same limits when it is run
+ * with {@link #execute(String, Execution)} under the name of the tool it
+ * replaces.
+ * <p>
+ * The time the commands wait to be admitted, their execution time and the
+ * rejections are recorded per tool in the {@link Metrics#registry() metrics}
+ * of the service.
+ * <p>
+ * This class is thread-safe.
+ */
+@AutoValue
+public abstract class ThrottledProcessExecutor implements ProcessExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ThrottledProcessExecutor.class);
+
+	private final AtomicInteger queuedCommands;
+
+	private final AtomicInteger runningCommands;
+
+	private final AtomicLong admittedCommands;
+
+	private final AtomicLong rejectedCommands;
+
+	private final AtomicLong totalQueueWaitNanos;
+
+	private final AtomicLong maxQueueWaitNanos;
+
+	/**
+	 * Initialized by {@link Builder#build()}, {@code null} if there is no
+	 * global limit.
+	 */
+	private Semaphore globalPermits;
+
+	/**
+	 * Initialized by {@link Builder#build()}.
+	 */
+	private ImmutableMap<String, Semaphore> toolPermits;
+
+	ThrottledProcessExecutor() {
+		this.queuedCommands = new AtomicInteger();
+		this.runningCommands = new AtomicInteger();
+		this.admittedCommands = new AtomicLong();
+		this.rejectedCommands = new AtomicLong();
+		this.totalQueueWaitNanos = new AtomicLong();
+		this.maxQueueWaitNanos = new AtomicLong();
+	}
+
+	/**
+	 * Returns the executor running the admitted commands.
+	 *
+	 * @return the executor running the admitted commands.
+	 */
+	abstract ProcessExecutor delegate();
+
+	/**
+	 * Returns the maximum number of commands running at the same time, all
+	 * tools included. 0 means no limit.
+	 *
+	 * @return the maximum number of commands running at the same time.
+	 */
+	public abstract int maxConcurrentProcesses();
+
+	/**
+	 * Returns the maximum number of commands running at the same time for
+	 * some tools. Tools are identified by the file name of the first element
+	 * of the commands (e.g. {@code jarsigner} for
+	 * {@code /usr/bin/jarsigner}).
+	 *
+	 * @return the maximum number of commands running at the same time per tool.
+	 */
+	public abstract ImmutableMap<String, Integer> toolLimits();
+
+	/**
+	 * Returns the maximum number of commands waiting to be admitted.
+	 *
+	 * @return the maximum number of commands waiting to be admitted.
+	 */
+	public abstract int maxQueueSize();
+
+	/**
+	 * Returns the maximum time a command waits to be admitted, in seconds.
+	 *
+	 * @return the maximum time a command waits to be admitted, in seconds.
+	 */
+	public abstract long maxQueueWait();
+
+	/**
+	 * Returns the number of seconds after which the clients are advised to
+	 * submit a rejected command again.
+	 *
+	 * @return the number of seconds after which a rejected command may be
+	 *         submitted again.
+	 */
+	public abstract long retryAfter();
+
+	/**
+	 * Creates and returns a new builder for this class, without any limit.
+	 *
+	 * @return a new builder for this class.
+	 */
+	public static Builder builder() {
+		return new AutoValue_ThrottledProcessExecutor.Builder()
+			.maxConcurrentProcesses(0)
+			.toolLimits(ImmutableMap.<String, Integer>of())
+			.maxQueueSize(Integer.MAX_VALUE)
+			.maxQueueWait(TimeUnit.DAYS.toSeconds(1))
+			.retryAfter(30);
+	}
+
+	/**
+	 * A builder of {@link ThrottledProcessExecutor}.
+	 */
+	@AutoValue.Builder
+	public static abstract class Builder {
+		Builder() {}
+
+		public abstract Builder delegate(ProcessExecutor delegate);
+		public abstract Builder maxConcurrentProcesses(int maxConcurrentProcesses);
+		public abstract Builder toolLimits(ImmutableMap<String, Integer> toolLimits);
+		public abstract Builder maxQueueSize(int maxQueueSize);
+		public abstract Builder maxQueueWait(long maxQueueWait);
+		public abstract Builder retryAfter(long retryAfter);
+
+		abstract ThrottledProcessExecutor autoBuild();
+
+		/**
+		 * Creates and returns a new ThrottledProcessExecutor object with the
+		 * state of this builder.
+		 *
+		 * @return a new ThrottledProcessExecutor object with the state of this
+		 *         builder.
+		 */
+		public ThrottledProcessExecutor build() {
+			ThrottledProcessExecutor executor = autoBuild();
+			checkState(executor.maxConcurrentProcesses() >= 0, "The maximum number of concurrent processes must be positive");
+			checkState(executor.maxQueueSize() >= 0, "The maximum queue size must be positive");
+			checkState(executor.maxQueueWait() >= 0, "The maximum queue wait must be positive");
+			checkState(executor.retryAfter() >= 0, "The retry after delay must be positive");
+			ImmutableMap.Builder<String, Semaphore> toolPermits = ImmutableMap.builder();
+			for (Entry<String, Integer> toolLimit : executor.toolLimits().entrySet()) {
+				checkState(toolLimit.getValue() > 0, "The maximum number of concurrent processes of '%s' must be strictly positive", toolLimit.getKey());
+				toolPermits.put(toolLimit.getKey(), new Semaphore(toolLimit.getValue(), true));
+			}
+			executor.toolPermits = toolPermits.build();
+			if (executor.maxConcurrentProcesses() > 0) {
+				executor.globalPermits = new Semaphore(executor.maxConcurrentProcesses(), true);
+			}
+			return executor;
+		}
+	}
+
+	/**
+	 * A unit of work run once admitted, see
+	 * {@link ThrottledProcessExecutor#execute(String, Execution)}.
+	 *
+	 * @param <T>
+	 *            the type of the result of the work.
+	 */
+	@FunctionalInterface
+	public interface Execution<T> {
+		/**
+		 * Does the work.
+		 *
+		 * @return the result of the work.
+		 * @throws IOException
+		 *             if the work fails.
+		 */
+		T run() throws IOException;
+	}
+
+	@Override
+	public int exec(ImmutableList<String> command, StringBuffer processOutput, long timeout, TimeUnit timeoutUnit) throws IOException {
+		Objects.requireNonNull(command);
+		Preconditions.checkArgument(!command.isEmpty(), "Command must not be empty");
+		final String tool = Paths.get(command.get(0)).getFileName().toString();
+		return execute(tool, () -> delegate().exec(command, processOutput, timeout, timeoutUnit));
+	}
+
+	/**
+	 * Runs the given work once admitted, as a command of the given tool. The
+	 * work counts as a running command, both for the global limit and for the
+	 * limit of the tool, until it returns.
+	 *
+	 * @param tool
+	 *            the name of the tool, as in {@link #toolLimits()}.
+	 * @param execution
+	 *            the work to run.
+	 * @return the result of the work.
+	 * @throws ProcessRejectedException
+	 *             if the work has not been admitted.
+	 * @throws IOException
+	 *             if the work fails, or if the thread has been interrupted
+	 *             while waiting to be admitted.
+	 */
+	public <T> T execute(String tool, Execution<T> execution) throws IOException {
+		Objects.requireNonNull(tool);
+		Objects.requireNonNull(execution);
+		final Semaphore toolPermit = toolPermits.get(tool);
+
+		admit(tool, toolPermit);
+		runningCommands.incrementAndGet();
+		final long startNanos = System.nanoTime();
+		try {
+			return execution.run();
+		} finally {
+			Metrics.registry().timer("cbi_process_duration_seconds", "Execution time of the native commands", "tool", tool).recordSince(startNanos);
+			runningCommands.decrementAndGet();
+			if (globalPermits != null) {
+				globalPermits.release();
+			}
+			if (toolPermit != null) {
+				toolPermit.release();
+			}
+		}
+	}
+
+	@Override
+	public int exec(ImmutableList<String> command, long timeout, TimeUnit timeoutUnit) throws IOException {
+		return exec(command, new StringBuffer(), timeout, timeoutUnit);
+	}
+
+	/**
+	 * Waits for the permits to run the given tool.
+	 */
+	private void admit(String tool, Semaphore toolPermit) throws IOException {
+		final long start = System.nanoTime();
+		try {
+			// start right away if possible, without entering the queue
+			if (!acquire(toolPermit, start)) {
+				if (queuedCommands.incrementAndGet() > maxQueueSize()) {
+					queuedCommands.decrementAndGet();
+					throw reject(tool, "Process '" + tool + "' has been rejected: " + maxQueueSize() + " processes are already waiting to be started");
+				}
+				try {
+					if (!acquire(toolPermit, start + TimeUnit.SECONDS.toNanos(maxQueueWait()))) {
+						throw reject(tool, "Process '" + tool + "' has been rejected: it could not be started within " + maxQueueWait() + " seconds");
+					}
+				} finally {
+					queuedCommands.decrementAndGet();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Thread '" + Thread.currentThread().getName() + "' has been interrupted while waiting to start the process '" + tool + "'", e);
+		}
+
+		long waitNanos = System.nanoTime() - start;
+		Metrics.registry().timer("cbi_process_queue_wait_seconds", "Time the native commands waited to be started", "tool", tool).record(waitNanos, TimeUnit.NANOSECONDS);
+		admittedCommands.incrementAndGet();
+		totalQueueWaitNanos.addAndGet(waitNanos);
+		for (long max = maxQueueWaitNanos.get(); waitNanos > max && !maxQueueWaitNanos.compareAndSet(max, waitNanos); max = maxQueueWaitNanos.get()) {
+			// retry
+		}
+	}
+
+	/**
+	 * Acquires the tool permit (if any) and the global permit (if any) before
+	 * the given deadline. Either both or none are acquired. The timed
+	 * {@link Semaphore#tryAcquire(long, TimeUnit)} is used even when the
+	 * deadline has passed, as it honors the fairness of the semaphores.
+	 */
+	private boolean acquire(Semaphore toolPermit, long deadline) throws InterruptedException {
+		if (toolPermit != null && !toolPermit.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+			return false;
+		}
+		if (globalPermits != null && !globalPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+			if (toolPermit != null) {
+				toolPermit.release();
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private ProcessRejectedException reject(String tool, String message) {
+		rejectedCommands.incrementAndGet();
+		Metrics.registry().counter("cbi_processes_rejected_total", "Number of native commands rejected by the admission control", "tool", tool).increment();
+		logger.warn(message);
+		return new ProcessRejectedException(message, retryAfter());
+	}
+
+	/**
+	 * Returns the number of commands currently waiting to be admitted.
+	 *
+	 * @return the number of commands currently waiting to be admitted.
+	 */
+	public int queueDepth() {
+		return queuedCommands.get();
+	}
+
+	/**
+	 * Returns the number of commands currently running.
+	 *
+	 * @return the number of commands currently running.
+	 */
+	public int runningCount() {
+		return runningCommands.get();
+	}
+
+	/**
+	 * Returns the number of commands admitted since the creation of this
+	 * executor.
+	 *
+	 * @return the number of admitted commands.
+	 */
+	public long admittedCount() {
+		return admittedCommands.get();
+	}
+
+	/**
+	 * Returns the number of commands rejected since the creation of this
+	 * executor.
+	 *
+	 * @return the number of rejected commands.
+	 */
+	public long rejectedCount() {
+		return rejectedCommands.get();
+	}
+
+	/**
+	 * Returns the cumulated time the admitted commands waited to be admitted,
+	 * in milliseconds.
+	 *
+	 * @return the cumulated queue wait time, in milliseconds.
+	 */
+	public long totalQueueWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(totalQueueWaitNanos.get());
+	}
+
+	/**
+	 * Returns the longest time an admitted command waited to be admitted, in
+	 * milliseconds.
+	 *
+	 * @return the longest queue wait time, in milliseconds.
+	 */
+	public long maxQueueWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get());
+	}
+}
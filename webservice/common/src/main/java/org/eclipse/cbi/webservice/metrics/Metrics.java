@@ -0,0 +1,464 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A registry of metrics: counters, gauges and timers (histograms of
+ * durations). The metrics are identified by their name and their labels (e.g.
+ * {@code service="/jarsigner"}). They are exposed in the Prometheus text
+ * format (see {@link #writePrometheus(Writer)} and {@link MetricsServlet}) and
+ * through JMX (see {@link #registerMBean(ObjectName)}).
+ * <p>
+ * The metrics of the services are recorded in the {@link #registry() registry
+ * of the JVM}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class Metrics {
+
+	private static final Metrics REGISTRY = new Metrics();
+
+	/**
+	 * The upper bounds of the buckets of the timers, in seconds, from a few
+	 * milliseconds (small requests) to several minutes (native tools).
+	 */
+	private static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600};
+
+	private static final String COUNTER = "counter";
+	private static final String GAUGE = "gauge";
+	private static final String HISTOGRAM = "histogram";
+
+	/** Lower than the characters of the names, so that the metrics with the same name are contiguous. */
+	private static final char ID_SEPARATOR = ' ';
+
+	/** The metrics by their {@link Metric#id}, sorted by name. */
+	private final ConcurrentSkipListMap<String, Metric> metrics;
+
+	/**
+	 * Creates an empty registry. The services record their metrics in
+	 * {@link #registry()}.
+	 */
+	public Metrics() {
+		this.metrics = new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * Returns the registry of the metrics of the JVM.
+	 *
+	 * @return the registry of the metrics of the JVM.
+	 */
+	public static Metrics registry() {
+		return REGISTRY;
+	}
+
+	/**
+	 * Returns the counter with the given name and labels, creating it if need
+	 * be.
+	 *
+	 * @param name
+	 *            the name of the counter, ending with {@code _total} by
+	 *            convention.
+	 * @param help
+	 *            the description of the counter.
+	 * @param labels
+	 *            the names and values of the labels, alternatively.
+	 * @return the counter with the given name and labels.
+	 */
+	public Counter counter(String name, String help, String... labels) {
+		return get(new Counter(name, help, labels(labels)));
+	}
+
+	/**
+	 * Returns the timer with the given name and labels, creating it if need
+	 * be.
+	 *
+	 * @param name
+	 *            the name of the timer, ending with {@code _seconds} by
+	 *            convention.
+	 * @param help
+	 *            the description of the timer.
+	 * @param labels
+	 *            the names and values of the labels, alternatively.
+	 * @return the timer with the given name and labels.
+	 */
+	public Timer timer(String name, String help, String... labels) {
+		return get(new Timer(name, help, labels(labels)));
+	}
+
+	/**
+	 * Registers a gauge with the given name and labels, replacing the previous
+	 * one if any.
+	 *
+	 * @param name
+	 *            the name of the gauge.
+	 * @param help
+	 *            the description of the gauge.
+	 * @param value
+	 *            the function returning the current value of the gauge. It
+	 *            must be thread-safe.
+	 * @param labels
+	 *            the names and values of the labels, alternatively.
+	 */
+	public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+		Gauge gauge = new Gauge(name, help, labels(labels), value);
+		checkType(gauge);
+		metrics.put(gauge.id, gauge);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <M extends Metric> M get(M metric) {
+		Metric existing = metrics.get(metric.id);
+		if (existing == null) {
+			checkType(metric);
+			existing = metrics.putIfAbsent(metric.id, metric);
+			if (existing == null) {
+				return metric;
+			}
+		}
+		Preconditions.checkArgument(existing.getClass() == metric.getClass(), "Metric '" + metric.key + "' is already registered as a " + existing.type());
+		return (M) existing;
+	}
+
+	/**
+	 * Checks that the metrics with the same name as the given one have the same
+	 * type.
+	 */
+	private void checkType(Metric metric) {
+		Entry<String, Metric> first = metrics.ceilingEntry(metric.name + ID_SEPARATOR);
+		if (first != null && first.getValue().name.equals(metric.name)) {
+			Preconditions.checkArgument(first.getValue().getClass() == metric.getClass(), "Metric '" + metric.name + "' is already registered as a " + first.getValue().type());
+		}
+	}
+
+	private static ImmutableMap<String, String> labels(String... labels) {
+		Preconditions.checkArgument(labels.length % 2 == 0, "Labels must be given as name/value pairs");
+		ImmutableMap.Builder<String, String> ret = ImmutableMap.builder();
+		for (int i = 0; i < labels.length; i += 2) {
+			ret.put(labels[i], Objects.requireNonNull(labels[i + 1]));
+		}
+		return ret.build();
+	}
+
+	/**
+	 * Writes all the metrics in the Prometheus text format (version 0.0.4).
+	 *
+	 * @param writer
+	 *            where the metrics are written.
+	 * @throws IOException
+	 *             if the metrics can't be written.
+	 */
+	public void writePrometheus(Writer writer) throws IOException {
+		String previousName = null;
+		for (Metric metric : metrics.values()) {
+			if (!metric.name.equals(previousName)) {
+				writer.write("# HELP " + metric.name + " " + metric.help.replace("\\", "\\\\").replace("\n", "\\n") + "\n");
+				writer.write("# TYPE " + metric.name + " " + metric.type() + "\n");
+				previousName = metric.name;
+			}
+			metric.writePrometheus(writer);
+		}
+	}
+
+	/**
+	 * Returns the current values of all the metrics, by name and labels. Timers
+	 * are represented by their number of samples ({@code _count}), the sum of
+	 * their durations in seconds ({@code _sum}) and the longest one
+	 * ({@code _max}).
+	 *
+	 * @return the current values of all the metrics.
+	 */
+	public Map<String, Number> snapshot() {
+		Map<String, Number> snapshot = new LinkedHashMap<>();
+		for (Metric metric : metrics.values()) {
+			metric.snapshot(snapshot);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Registers the metrics of this registry as the attributes of an MBean of
+	 * the platform MBean server, replacing the MBean already registered with
+	 * the given name if any.
+	 *
+	 * @param name
+	 *            the name of the MBean.
+	 * @throws JMException
+	 *             if the MBean can't be registered.
+	 */
+	public void registerMBean(ObjectName name) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if (server.isRegistered(name)) {
+			server.unregisterMBean(name);
+		}
+		server.registerMBean(new MetricsDynamicMBean(this), name);
+	}
+
+	private static String format(double value) {
+		if (value == Double.POSITIVE_INFINITY) {
+			return "+Inf";
+		} else if (value == (long) value) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+
+	/**
+	 * Base class of the metrics.
+	 */
+	private abstract static class Metric {
+		final String name;
+		final String help;
+		final ImmutableMap<String, String> labels;
+		/** The name and the labels, as written in the Prometheus format. */
+		final String key;
+		/** The name and the labels, as sorted in the registry. */
+		final String id;
+
+		Metric(String name, String help, ImmutableMap<String, String> labels) {
+			this.name = Objects.requireNonNull(name);
+			this.help = Objects.requireNonNull(help);
+			this.labels = labels;
+			this.key = name + labels(labels, null);
+			this.id = name + ID_SEPARATOR + labels(labels, null);
+		}
+
+		abstract String type();
+
+		abstract void writePrometheus(Writer writer) throws IOException;
+
+		abstract void snapshot(Map<String, Number> snapshot);
+
+		/**
+		 * Returns the labels of this metric in the Prometheus format, with
+		 * the given bucket label if any.
+		 */
+		static String labels(ImmutableMap<String, String> labels, String le) {
+			if (labels.isEmpty() && le == null) {
+				return "";
+			}
+			StringBuilder ret = new StringBuilder("{");
+			for (Entry<String, String> label : labels.entrySet()) {
+				if (ret.length() > 1) {
+					ret.append(',');
+				}
+				ret.append(label.getKey()).append("=\"")
+					.append(label.getValue().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+			}
+			if (le != null) {
+				if (ret.length() > 1) {
+					ret.append(',');
+				}
+				ret.append("le=\"").append(le).append('"');
+			}
+			return ret.append('}').toString();
+		}
+	}
+
+	/**
+	 * A monotonically increasing count.
+	 */
+	public static final class Counter extends Metric {
+		private final LongAdder count;
+
+		Counter(String name, String help, ImmutableMap<String, String> labels) {
+			super(name, help, labels);
+			this.count = new LongAdder();
+		}
+
+		/**
+		 * Increments this counter by one.
+		 */
+		public void increment() {
+			count.increment();
+		}
+
+		/**
+		 * Increments this counter by the given positive amount.
+		 *
+		 * @param amount
+		 *            the amount to add.
+		 */
+		public void increment(long amount) {
+			Preconditions.checkArgument(amount >= 0, "Counters can only be incremented");
+			count.add(amount);
+		}
+
+		/**
+		 * Returns the current count.
+		 *
+		 * @return the current count.
+		 */
+		public long count() {
+			return count.sum();
+		}
+
+		@Override
+		String type() {
+			return COUNTER;
+		}
+
+		@Override
+		void writePrometheus(Writer writer) throws IOException {
+			writer.write(key + " " + count() + "\n");
+		}
+
+		@Override
+		void snapshot(Map<String, Number> snapshot) {
+			snapshot.put(key, count());
+		}
+	}
+
+	/**
+	 * A value sampled when the metrics are read.
+	 */
+	private static final class Gauge extends Metric {
+		private final DoubleSupplier value;
+
+		Gauge(String name, String help, ImmutableMap<String, String> labels, DoubleSupplier value) {
+			super(name, help, labels);
+			this.value = Objects.requireNonNull(value);
+		}
+
+		@Override
+		String type() {
+			return GAUGE;
+		}
+
+		@Override
+		void writePrometheus(Writer writer) throws IOException {
+			writer.write(key + " " + format(value.getAsDouble()) + "\n");
+		}
+
+		@Override
+		void snapshot(Map<String, Number> snapshot) {
+			snapshot.put(key, value.getAsDouble());
+		}
+	}
+
+	/**
+	 * A histogram of durations.
+	 */
+	public static final class Timer extends Metric {
+		private final AtomicLongArray bucketCounts;
+		private final LongAdder count;
+		private final DoubleAdder sum;
+		private final AtomicLong maxNanos;
+
+		Timer(String name, String help, ImmutableMap<String, String> labels) {
+			super(name, help, labels);
+			this.bucketCounts = new AtomicLongArray(BUCKETS.length);
+			this.count = new LongAdder();
+			this.sum = new DoubleAdder();
+			this.maxNanos = new AtomicLong();
+		}
+
+		/**
+		 * Records the time elapsed since the given {@link System#nanoTime()}.
+		 *
+		 * @param startNanos
+		 *            the start of the recorded duration, as returned by
+		 *            {@link System#nanoTime()}.
+		 */
+		public void recordSince(long startNanos) {
+			record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Records the given duration.
+		 *
+		 * @param duration
+		 *            the duration.
+		 * @param unit
+		 *            the unit of the duration.
+		 */
+		public void record(long duration, TimeUnit unit) {
+			long nanos = Math.max(0, unit.toNanos(duration));
+			double seconds = nanos / 1e9;
+			for (int i = 0; i < BUCKETS.length; i++) {
+				if (seconds <= BUCKETS[i]) {
+					bucketCounts.incrementAndGet(i);
+					break;
+				}
+			}
+			count.increment();
+			sum.add(seconds);
+			for (long max = maxNanos.get(); nanos > max && !maxNanos.compareAndSet(max, nanos); max = maxNanos.get()) {
+				// retry
+			}
+		}
+
+		/**
+		 * Returns the number of recorded durations.
+		 *
+		 * @return the number of recorded durations.
+		 */
+		public long count() {
+			return count.sum();
+		}
+
+		/**
+		 * Returns the sum of the recorded durations, in seconds.
+		 *
+		 * @return the sum of the recorded durations, in seconds.
+		 */
+		public double totalSeconds() {
+			return sum.sum();
+		}
+
+		@Override
+		String type() {
+			return HISTOGRAM;
+		}
+
+		@Override
+		void writePrometheus(Writer writer) throws IOException {
+			// read the count first, so that no bucket is greater than it
+			long total = count();
+			long cumulativeCount = 0;
+			for (int i = 0; i < BUCKETS.length; i++) {
+				cumulativeCount += bucketCounts.get(i);
+				writer.write(name + "_bucket" + labels(labels, format(BUCKETS[i])) + " " + Math.min(cumulativeCount, total) + "\n");
+			}
+			writer.write(name + "_bucket" + labels(labels, format(Double.POSITIVE_INFINITY)) + " " + total + "\n");
+			writer.write(name + "_sum" + labels(labels, null) + " " + format(totalSeconds()) + "\n");
+			writer.write(name + "_count" + labels(labels, null) + " " + total + "\n");
+		}
+
+		@Override
+		void snapshot(Map<String, Number> snapshot) {
+			snapshot.put(name + "_count" + labels(labels, null), count());
+			snapshot.put(name + "_sum" + labels(labels, null), totalSeconds());
+			snapshot.put(name + "_max" + labels(labels, null), maxNanos.get() / 1e9);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.metrics;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/**
+ * An MBean with a read-only attribute per value of the
+ * {@link Metrics#snapshot() snapshot} of a registry. The attributes are
+ * computed each time the MBean is queried, as metrics may be added at any
+ * time.
+ */
+final class MetricsDynamicMBean implements DynamicMBean {
+
+	private final Metrics metrics;
+
+	MetricsDynamicMBean(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		Number value = metrics.snapshot().get(attribute);
+		if (value == null) {
+			throw new AttributeNotFoundException("No metric named '" + attribute + "'");
+		}
+		return value;
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		Map<String, Number> snapshot = metrics.snapshot();
+		AttributeList ret = new AttributeList();
+		for (String attribute : attributes) {
+			Number value = snapshot.get(attribute);
+			if (value != null) {
+				ret.add(new Attribute(attribute, value));
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metric '" + attribute.getName() + "' is read-only");
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		// all the attributes are read-only
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName), "Metrics MBean has no operation");
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		Map<String, Number> snapshot = metrics.snapshot();
+		MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+		int i = 0;
+		for (Entry<String, Number> metric : snapshot.entrySet()) {
+			attributes[i++] = new MBeanAttributeInfo(metric.getKey(), metric.getValue().getClass().getName(), metric.getKey(), true, false, false);
+		}
+		return new MBeanInfo(getClass().getName(), "Metrics of the service", attributes, null, new MBeanOperationInfo[0], null);
+	}
+}
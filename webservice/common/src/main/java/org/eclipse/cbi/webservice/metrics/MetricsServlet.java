@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the metrics of a registry in the Prometheus text format through GET
+ * requests.
+ */
+public class MetricsServlet extends HttpServlet {
+
+	private static final long serialVersionUID = -4672518803410470221L;
+
+	private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private final transient Metrics metrics;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param metrics
+	 *            the registry of the served metrics.
+	 */
+	public MetricsServlet(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		resp.setStatus(HttpServletResponse.SC_OK);
+		resp.setContentType(PROMETHEUS_CONTENT_TYPE);
+		Writer writer = resp.getWriter();
+		metrics.writePrometheus(writer);
+		writer.flush();
+	}
+}
@@ -10,24 +10,44 @@
  *******************************************************************************/
 package org.eclipse.cbi.webservice.server;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.Servlet;
 
 import org.apache.log4j.PropertyConfigurator;
+import org.eclipse.cbi.webservice.metrics.Metrics;
+import org.eclipse.cbi.webservice.metrics.MetricsServlet;
+import org.eclipse.cbi.webservice.servlet.MultipartStreamParser;
+import org.eclipse.cbi.webservice.servlet.ServiceServlet;
+import org.eclipse.cbi.webservice.servlet.WorkspaceManager;
+import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.NCSARequestLog;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.handler.DefaultHandler;
 import org.eclipse.jetty.server.handler.HandlerCollection;
 import org.eclipse.jetty.server.handler.RequestLogHandler;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Base class to create a simple (one servlet) embedded Jetty server.
@@ -35,11 +55,34 @@ import com.google.common.base.Preconditions;
 @AutoValue
 public abstract class EmbeddedServer {
 
-	private static final int FILE_SIZE_THRESHOLD = 8*1024*1024; // 8MiB
+	private static final int DEFAULT_FILE_SIZE_THRESHOLD = 8*1024*1024; // 8MiB
+	private static final boolean DEFAULT_MULTIPART_STREAMING = false;
 	private static final int DEFAULT_PORT = 8080;
 	private static final boolean DEFAULT_APPEND_SERVICE_VERSION_TO_PATH_SPEC = true;
 	private static final String CONTEXT_PATH = "/";
+	private static final int DEFAULT_MIN_THREADS = 8;
+	private static final int DEFAULT_MAX_THREADS = 200;
+	private static final long DEFAULT_THREAD_IDLE_TIMEOUT = 60;
+	private static final int DEFAULT_ACCEPTORS = -1;
+	private static final int DEFAULT_SELECTORS = -1;
+	private static final int DEFAULT_ACCEPT_QUEUE_SIZE = 0;
+	private static final long DEFAULT_IDLE_TIMEOUT = 30;
+	private static final int DEFAULT_OUTPUT_BUFFER_SIZE = 32*1024;
+	private static final boolean DEFAULT_HTTP2_CLEARTEXT = false;
+	private static final String HTTP2C_CONNECTION_FACTORY = "org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory";
+	private static final int DEFAULT_ASYNC_THREADS = 0;
+	private static final int DEFAULT_ASYNC_QUEUE_SIZE = 100;
+	private static final long DEFAULT_RETRY_AFTER = 30;
+	private static final long DEFAULT_TEMP_TIME_TO_LIVE = TimeUnit.DAYS.toSeconds(1);
+	private static final long DEFAULT_TEMP_JANITOR_PERIOD = TimeUnit.HOURS.toSeconds(1);
+	private static final long DEFAULT_TEMP_QUOTA = 0;
+	private static final long DEFAULT_TEMP_MIN_FREE_SPACE = 0;
+	private static final String DEFAULT_METRICS_PATH_SPEC = "/metrics";
+	private static final boolean DEFAULT_METRICS_JMX = true;
+	private static final String METRICS_OBJECT_NAME = "org.eclipse.cbi.webservice:type=Metrics";
 	private Server server;
+	private ExecutorService serviceExecutor;
+	private WorkspaceManager workspaceManager;
 
 	EmbeddedServer() {} // prevents instantiation and subclassing outside the package
 	
@@ -108,6 +151,173 @@ public abstract class EmbeddedServer {
 	 */
 	abstract Path log4jConfiguration();
 	
+	/**
+	 * Returns the size in bytes after which the parts of the requests are
+	 * written to a file of the {@link #tempFolder()}.
+	 * 
+	 * @return the size after which the parts are written to a file.
+	 */
+	abstract int fileSizeThreshold();
+	
+	/**
+	 * Returns whether the parts of the requests are read by a
+	 * {@link MultipartStreamParser} rather than by Jetty.
+	 * 
+	 * @return whether the parts of the requests are read by a
+	 *         {@link MultipartStreamParser}.
+	 */
+	abstract boolean multipartStreaming();
+	
+	/**
+	 * Returns the minimum number of threads of the Jetty thread pool.
+	 * 
+	 * @return the minimum number of threads of the Jetty thread pool.
+	 */
+	abstract int minThreads();
+	
+	/**
+	 * Returns the maximum number of threads of the Jetty thread pool.
+	 * 
+	 * @return the maximum number of threads of the Jetty thread pool.
+	 */
+	abstract int maxThreads();
+	
+	/**
+	 * Returns the time after which the idle threads of the Jetty thread pool
+	 * are stopped (down to {@link #minThreads()}), in seconds.
+	 * 
+	 * @return the idle timeout of the threads, in seconds.
+	 */
+	abstract long threadIdleTimeout();
+	
+	/**
+	 * Returns the number of threads accepting the connections. A negative
+	 * value lets Jetty choose, according to the number of processors.
+	 * 
+	 * @return the number of threads accepting the connections.
+	 */
+	abstract int acceptors();
+	
+	/**
+	 * Returns the number of threads selecting the ready connections. A
+	 * negative value lets Jetty choose, according to the number of processors.
+	 * 
+	 * @return the number of threads selecting the ready connections.
+	 */
+	abstract int selectors();
+	
+	/**
+	 * Returns the maximum number of connections waiting to be accepted. 0
+	 * lets the operating system choose.
+	 * 
+	 * @return the maximum number of connections waiting to be accepted.
+	 */
+	abstract int acceptQueueSize();
+	
+	/**
+	 * Returns the time after which an idle connection is closed, in seconds.
+	 * 
+	 * @return the idle timeout of the connections, in seconds.
+	 */
+	abstract long idleTimeout();
+	
+	/**
+	 * Returns the size of the buffer of the responses, in bytes.
+	 * 
+	 * @return the size of the buffer of the responses, in bytes.
+	 */
+	abstract int outputBufferSize();
+	
+	/**
+	 * Returns whether the server also speaks HTTP/2 over clear text (h2c),
+	 * either upgraded from HTTP/1.1 or with prior knowledge. It requires the
+	 * Jetty {@code http2-server} artifact in the classpath.
+	 * 
+	 * @return whether the server also speaks HTTP/2 over clear text.
+	 */
+	abstract boolean http2Cleartext();
+	
+	/**
+	 * Returns the number of threads serving the requests asynchronously, see
+	 * {@link ServiceServlet}. 0 means that the requests are served by the
+	 * Jetty threads.
+	 * 
+	 * @return the number of threads serving the requests asynchronously.
+	 */
+	abstract int asyncThreads();
+	
+	/**
+	 * Returns the maximum number of requests waiting for one of the
+	 * {@link #asyncThreads()}.
+	 * 
+	 * @return the maximum number of requests waiting to be served
+	 *         asynchronously.
+	 */
+	abstract int asyncQueueSize();
+	
+	/**
+	 * Returns the number of seconds after which the clients are advised to
+	 * send again the requests rejected because the queue of asynchronous
+	 * requests is full, or because the {@link #tempQuota()} is exceeded.
+	 * 
+	 * @return the number of seconds after which rejected requests may be sent
+	 *         again.
+	 */
+	abstract long retryAfter();
+	
+	/**
+	 * Returns the time after which the workspaces left behind by the requests
+	 * (see {@link WorkspaceManager}) are reclaimed, in seconds.
+	 * 
+	 * @return the time to live of the orphaned workspaces, in seconds.
+	 */
+	abstract long tempTimeToLive();
+	
+	/**
+	 * Returns the time between two reclamations of the orphaned workspaces, in
+	 * seconds. 0 means that they are only reclaimed at startup.
+	 * 
+	 * @return the time between two reclamations of the orphaned workspaces,
+	 *         in seconds.
+	 */
+	abstract long tempJanitorPeriod();
+	
+	/**
+	 * Returns the maximum number of bytes used by the workspaces of the
+	 * requests. The requests are rejected with a 503 status code above it. 0
+	 * means no limit.
+	 * 
+	 * @return the maximum number of bytes used by the workspaces.
+	 */
+	abstract long tempQuota();
+	
+	/**
+	 * Returns the minimum number of bytes left on the device of the
+	 * {@link #tempFolder()} to serve a request. The requests are rejected with
+	 * a 507 status code below it. 0 means no limit.
+	 * 
+	 * @return the minimum number of bytes left to serve a request.
+	 */
+	abstract long tempMinFreeSpace();
+	
+	/**
+	 * Returns the path spec of the {@link MetricsServlet} serving the
+	 * {@link Metrics#registry() metrics} in the Prometheus format. An empty
+	 * path spec disables it.
+	 * 
+	 * @return the path spec of the metrics, or an empty string.
+	 */
+	abstract String metricsPathSpec();
+	
+	/**
+	 * Returns whether the {@link Metrics#registry() metrics} are registered
+	 * as an MBean of the platform MBean server, named
+	 * {@value #METRICS_OBJECT_NAME}.
+	 * 
+	 * @return whether the metrics are exposed through JMX.
+	 */
+	abstract boolean metricsJmx();
+	
 	/**
 	 * Creates and returns a new builder for this class.
 	 * 
@@ -116,7 +326,27 @@ public abstract class EmbeddedServer {
 	public static Builder builder() {
 		return new AutoValue_EmbeddedServer.Builder()
 			.port(DEFAULT_PORT)
-			.appendServiceVersionToPathSpec(DEFAULT_APPEND_SERVICE_VERSION_TO_PATH_SPEC);
+			.appendServiceVersionToPathSpec(DEFAULT_APPEND_SERVICE_VERSION_TO_PATH_SPEC)
+			.fileSizeThreshold(DEFAULT_FILE_SIZE_THRESHOLD)
+			.multipartStreaming(DEFAULT_MULTIPART_STREAMING)
+			.minThreads(DEFAULT_MIN_THREADS)
+			.maxThreads(DEFAULT_MAX_THREADS)
+			.threadIdleTimeout(DEFAULT_THREAD_IDLE_TIMEOUT)
+			.acceptors(DEFAULT_ACCEPTORS)
+			.selectors(DEFAULT_SELECTORS)
+			.acceptQueueSize(DEFAULT_ACCEPT_QUEUE_SIZE)
+			.idleTimeout(DEFAULT_IDLE_TIMEOUT)
+			.outputBufferSize(DEFAULT_OUTPUT_BUFFER_SIZE)
+			.http2Cleartext(DEFAULT_HTTP2_CLEARTEXT)
+			.asyncThreads(DEFAULT_ASYNC_THREADS)
+			.asyncQueueSize(DEFAULT_ASYNC_QUEUE_SIZE)
+			.retryAfter(DEFAULT_RETRY_AFTER)
+			.tempTimeToLive(DEFAULT_TEMP_TIME_TO_LIVE)
+			.tempJanitorPeriod(DEFAULT_TEMP_JANITOR_PERIOD)
+			.tempQuota(DEFAULT_TEMP_QUOTA)
+			.tempMinFreeSpace(DEFAULT_TEMP_MIN_FREE_SPACE)
+			.metricsPathSpec(DEFAULT_METRICS_PATH_SPEC)
+			.metricsJmx(DEFAULT_METRICS_JMX);
 	}
 	
 	/**
@@ -198,6 +428,248 @@ public abstract class EmbeddedServer {
 		 */
 		public abstract Builder log4jConfiguration(Path configuration);
 		
+		/**
+		 * Sets the size in bytes after which the parts of the requests to the
+		 * to-be build server are written to a file.
+		 * 
+		 * @param fileSizeThreshold
+		 *            the size after which the parts are written to a file.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder fileSizeThreshold(int fileSizeThreshold);
+		
+		/**
+		 * Configures the to-be build server to read the parts of the requests
+		 * with a {@link MultipartStreamParser} rather than with Jetty.
+		 * 
+		 * @param multipartStreaming
+		 *            whether the parts are read by a
+		 *            {@link MultipartStreamParser}.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder multipartStreaming(boolean multipartStreaming);
+		
+		/**
+		 * Sets the minimum number of threads of the Jetty thread pool of the
+		 * to-be build server.
+		 * 
+		 * @param minThreads
+		 *            the minimum number of threads of the Jetty thread pool.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder minThreads(int minThreads);
+		
+		/**
+		 * Sets the maximum number of threads of the Jetty thread pool of the
+		 * to-be build server.
+		 * 
+		 * @param maxThreads
+		 *            the maximum number of threads of the Jetty thread pool.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder maxThreads(int maxThreads);
+		
+		/**
+		 * Sets the time after which the idle threads of the Jetty thread pool
+		 * of the to-be build server are stopped.
+		 * 
+		 * @param threadIdleTimeout
+		 *            the idle timeout of the threads, in seconds.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder threadIdleTimeout(long threadIdleTimeout);
+		
+		/**
+		 * Sets the number of threads accepting the connections of the to-be
+		 * build server. A negative value lets Jetty choose.
+		 * 
+		 * @param acceptors
+		 *            the number of threads accepting the connections.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder acceptors(int acceptors);
+		
+		/**
+		 * Sets the number of threads selecting the ready connections of the
+		 * to-be build server. A negative value lets Jetty choose.
+		 * 
+		 * @param selectors
+		 *            the number of threads selecting the ready connections.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder selectors(int selectors);
+		
+		/**
+		 * Sets the maximum number of connections waiting to be accepted by
+		 * the to-be build server. 0 lets the operating system choose.
+		 * 
+		 * @param acceptQueueSize
+		 *            the maximum number of connections waiting to be accepted.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder acceptQueueSize(int acceptQueueSize);
+		
+		/**
+		 * Sets the time after which an idle connection to the to-be build
+		 * server is closed.
+		 * 
+		 * @param idleTimeout
+		 *            the idle timeout of the connections, in seconds.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder idleTimeout(long idleTimeout);
+		
+		/**
+		 * Sets the size of the buffer of the responses of the to-be build
+		 * server.
+		 * 
+		 * @param outputBufferSize
+		 *            the size of the buffer of the responses, in bytes.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder outputBufferSize(int outputBufferSize);
+		
+		/**
+		 * Configures the to-be build server to also speak HTTP/2 over clear
+		 * text (h2c).
+		 * 
+		 * @param http2Cleartext
+		 *            whether the server also speaks HTTP/2 over clear text.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder http2Cleartext(boolean http2Cleartext);
+		
+		/**
+		 * Sets the number of threads serving the requests asynchronously in
+		 * the to-be build server. 0 means that the requests are served by the
+		 * Jetty threads.
+		 * 
+		 * @param asyncThreads
+		 *            the number of threads serving the requests
+		 *            asynchronously.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder asyncThreads(int asyncThreads);
+		
+		/**
+		 * Sets the maximum number of requests waiting to be served
+		 * asynchronously by the to-be build server.
+		 * 
+		 * @param asyncQueueSize
+		 *            the maximum number of requests waiting to be served
+		 *            asynchronously.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder asyncQueueSize(int asyncQueueSize);
+		
+		/**
+		 * Sets the number of seconds after which the clients are advised to
+		 * send again the requests rejected by the to-be build server.
+		 * 
+		 * @param retryAfter
+		 *            the number of seconds after which rejected requests may
+		 *            be sent again.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder retryAfter(long retryAfter);
+		
+		/**
+		 * Sets the time after which the workspaces left behind by the
+		 * requests to the to-be build server are reclaimed.
+		 * 
+		 * @param tempTimeToLive
+		 *            the time to live of the orphaned workspaces, in seconds.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder tempTimeToLive(long tempTimeToLive);
+		
+		/**
+		 * Sets the time between two reclamations of the orphaned workspaces
+		 * of the to-be build server. 0 means only at startup.
+		 * 
+		 * @param tempJanitorPeriod
+		 *            the time between two reclamations, in seconds.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder tempJanitorPeriod(long tempJanitorPeriod);
+		
+		/**
+		 * Sets the maximum number of bytes used by the workspaces of the
+		 * requests to the to-be build server. 0 means no limit.
+		 * 
+		 * @param tempQuota
+		 *            the maximum number of bytes used by the workspaces.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder tempQuota(long tempQuota);
+		
+		/**
+		 * Sets the minimum number of bytes left in the temporary folder of the
+		 * to-be build server to serve a request. 0 means no limit.
+		 * 
+		 * @param tempMinFreeSpace
+		 *            the minimum number of bytes left to serve a request.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder tempMinFreeSpace(long tempMinFreeSpace);
+		
+		/**
+		 * Sets the path spec of the metrics of the to-be build server, in the
+		 * Prometheus format. An empty path spec disables them.
+		 * 
+		 * @param metricsPathSpec
+		 *            the path spec of the metrics. Must not be null.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder metricsPathSpec(String metricsPathSpec);
+		
+		/**
+		 * Configures the to-be build server to expose its metrics through JMX.
+		 * 
+		 * @param metricsJmx
+		 *            whether the metrics are exposed through JMX.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder metricsJmx(boolean metricsJmx);
+		
+		/**
+		 * Configures the to-be build server with the given properties: its
+		 * port, access log file, service path spec, threads, connectors,
+		 * asynchronous processing, temporary workspaces and metrics. The
+		 * servlet, the temporary folder and the log4j configuration still have
+		 * to be set.
+		 * 
+		 * @param serverConf
+		 *            the properties of the server. Must not be null.
+		 * @return this builder for daisy chaining.
+		 */
+		public Builder configure(EmbeddedServerProperties serverConf) {
+			return port(serverConf.getServerPort())
+				.accessLogFile(serverConf.getAccessLogFile())
+				.servicePathSpec(serverConf.getServicePathSpec())
+				.appendServiceVersionToPathSpec(serverConf.isServiceVersionAppendedToPathSpec())
+				.fileSizeThreshold(serverConf.getFileSizeThreshold())
+				.multipartStreaming(serverConf.isMultipartStreaming())
+				.minThreads(serverConf.getMinThreads())
+				.maxThreads(serverConf.getMaxThreads())
+				.threadIdleTimeout(serverConf.getThreadIdleTimeout())
+				.acceptors(serverConf.getAcceptors())
+				.selectors(serverConf.getSelectors())
+				.acceptQueueSize(serverConf.getAcceptQueueSize())
+				.idleTimeout(serverConf.getIdleTimeout())
+				.outputBufferSize(serverConf.getOutputBufferSize())
+				.http2Cleartext(serverConf.isHttp2Cleartext())
+				.asyncThreads(serverConf.getAsyncThreads())
+				.asyncQueueSize(serverConf.getAsyncQueueSize())
+				.retryAfter(serverConf.getAsyncRetryAfter())
+				.tempTimeToLive(serverConf.getTempTimeToLive())
+				.tempJanitorPeriod(serverConf.getTempJanitorPeriod())
+				.tempQuota(serverConf.getTempQuota())
+				.tempMinFreeSpace(serverConf.getTempMinFreeSpace())
+				.metricsPathSpec(serverConf.getMetricsPathSpec())
+				.metricsJmx(serverConf.isMetricsJmx());
+		}
+		
 		abstract EmbeddedServer autoBuild();
 		
 		/**
@@ -207,6 +679,12 @@ public abstract class EmbeddedServer {
 		 * <li>The trimmed service path spec must not be empty</li>
 		 * <li>The temporary folder must be an existing directory</li>
 		 * <li>The parent folder of the access log fil must exist</li>
+		 * <li>The minimum number of threads must be strictly positive and lower than the maximum number of threads</li>
+		 * <li>The timeouts, the accept queue size and the output buffer size must be positive</li>
+		 * <li>The number of asynchronous threads and the size of their queue must be positive</li>
+		 * <li>The time to live of the orphaned workspaces must be strictly positive</li>
+		 * <li>The period of their reclamation, the quota and the minimum free space must be positive</li>
+		 * <li>The metrics path spec must be empty or different from the service path spec</li>
 		 * </ul>
 		 * @return a new {@link EmbeddedServer}.
 		 */
@@ -218,6 +696,20 @@ public abstract class EmbeddedServer {
 			Preconditions.checkState(Files.isDirectory(server.tempFolder()), "Temp folder must be a directory");
 			Preconditions.checkState(Files.exists(server.log4jConfiguration()), "Log4j configuration file must exists");
 			Preconditions.checkState(Files.exists(server.accessLogFile().normalize().getParent()), "Parent folder of access log file must exists");
+			Preconditions.checkState(server.fileSizeThreshold() >= 0, "File size threshold must be positive");
+			Preconditions.checkState(server.minThreads() > 0, "Minimum number of threads must be strictly positive");
+			Preconditions.checkState(server.minThreads() <= server.maxThreads(), "Minimum number of threads must be lower than the maximum number of threads");
+			Preconditions.checkState(server.threadIdleTimeout() >= 0, "Thread idle timeout must be positive");
+			Preconditions.checkState(server.acceptQueueSize() >= 0, "Accept queue size must be positive");
+			Preconditions.checkState(server.idleTimeout() >= 0, "Idle timeout must be positive");
+			Preconditions.checkState(server.outputBufferSize() > 0, "Output buffer size must be strictly positive");
+			Preconditions.checkState(server.asyncThreads() >= 0, "Number of asynchronous threads must be positive");
+			Preconditions.checkState(server.asyncQueueSize() >= 0, "Size of the queue of asynchronous requests must be positive");
+			Preconditions.checkState(server.tempTimeToLive() > 0, "Time to live of the orphaned workspaces must be strictly positive");
+			Preconditions.checkState(server.tempJanitorPeriod() >= 0, "Period of the reclamation of the orphaned workspaces must be positive");
+			Preconditions.checkState(server.tempQuota() >= 0, "Quota of the workspaces must be positive");
+			Preconditions.checkState(server.tempMinFreeSpace() >= 0, "Minimum free space must be positive");
+			Preconditions.checkState(!server.metricsPathSpec().trim().equals(server.servicePathSpec().trim()), "Metrics path spec must be different from the service path spec");
 			return server;
 		}
 	}
@@ -231,12 +723,31 @@ public abstract class EmbeddedServer {
 	public void start() throws Exception {
 		PropertyConfigurator.configure(log4jConfiguration().toString());
 		
-		server = new Server(port());
+		server = new Server(new QueuedThreadPool(maxThreads(), minThreads(), (int) TimeUnit.SECONDS.toMillis(threadIdleTimeout())));
+		server.addConnector(createConnector(server));
 
 		ServletContextHandler contextHandler = new ServletContextHandler(ServletContextHandler.SESSIONS);
 		contextHandler.setContextPath(CONTEXT_PATH);
 		ServletHolder servletHolder = new ServletHolder(servlet());
-		servletHolder.getRegistration().setMultipartConfig(new MultipartConfigElement(tempFolder().toString(), -1L, -1L, FILE_SIZE_THRESHOLD));
+		if (asyncThreads() > 0) {
+			serviceExecutor = createServiceExecutor();
+			servletHolder.setAsyncSupported(true);
+			contextHandler.setAttribute(ServiceServlet.EXECUTOR_ATTRIBUTE, serviceExecutor);
+			contextHandler.setAttribute(ServiceServlet.RETRY_AFTER_ATTRIBUTE, retryAfter());
+		}
+		workspaceManager = WorkspaceManager.builder(tempFolder())
+			.timeToLive(tempTimeToLive())
+			.janitorPeriod(tempJanitorPeriod())
+			.quota(tempQuota())
+			.minFreeSpace(tempMinFreeSpace())
+			.retryAfter(retryAfter())
+			.build();
+		contextHandler.setAttribute(WorkspaceManager.ATTRIBUTE, workspaceManager);
+		if (multipartStreaming()) {
+			contextHandler.setAttribute(MultipartStreamParser.ATTRIBUTE, new MultipartStreamParser(tempFolder(), fileSizeThreshold()));
+		} else {
+			servletHolder.getRegistration().setMultipartConfig(new MultipartConfigElement(tempFolder().toString(), -1L, -1L, fileSizeThreshold()));
+		}
 		final String fullPathSpec;
 		if (appendServiceVersionToPathSpec()) {
 			fullPathSpec = servicePathSpec() + "/" + servlet().getClass().getPackage().getImplementationVersion();
@@ -244,6 +755,10 @@ public abstract class EmbeddedServer {
 			fullPathSpec = servicePathSpec();
 		}
 		contextHandler.addServlet(servletHolder, fullPathSpec);
+		if (!metricsPathSpec().trim().isEmpty()) {
+			contextHandler.addServlet(new ServletHolder(new MetricsServlet(Metrics.registry())), metricsPathSpec().trim());
+		}
+		registerMetrics();
 
 		HandlerCollection handlers = new HandlerCollection();
 		RequestLogHandler requestLogHandler = new RequestLogHandler();
@@ -256,8 +771,89 @@ public abstract class EmbeddedServer {
 
 		server.setHandler(handlers);
 
-		server.start();
-		server.join();
+		try {
+			workspaceManager.start();
+			server.start();
+			server.join();
+		} finally {
+			if (serviceExecutor != null) {
+				serviceExecutor.shutdown();
+			}
+			workspaceManager.close();
+		}
+	}
+	
+	/**
+	 * Registers the gauges of the asynchronous executor and of the workspaces
+	 * of the requests, and the MBean of the metrics if {@link #metricsJmx()}.
+	 */
+	private void registerMetrics() throws JMException {
+		final Metrics metrics = Metrics.registry();
+		if (serviceExecutor instanceof ThreadPoolExecutor) {
+			final ThreadPoolExecutor executor = (ThreadPoolExecutor) serviceExecutor;
+			metrics.gauge("cbi_async_requests_active", "Number of requests being served asynchronously", executor::getActiveCount);
+			metrics.gauge("cbi_async_requests_queued", "Number of requests waiting to be served asynchronously", () -> executor.getQueue().size());
+		}
+		final WorkspaceManager workspaces = workspaceManager;
+		metrics.gauge("cbi_workspaces_active", "Number of workspaces of the requests in use", workspaces::activeWorkspaces);
+		metrics.gauge("cbi_workspaces_usage_bytes", "Number of bytes used by the workspaces of the requests", () -> {
+			try {
+				return workspaces.usage();
+			} catch (IOException e) {
+				return Double.NaN;
+			}
+		});
+		if (metricsJmx()) {
+			metrics.registerMBean(new ObjectName(METRICS_OBJECT_NAME));
+		}
+	}
+	
+	/**
+	 * Creates the connector of the given server, speaking HTTP/1.1 and, if
+	 * {@link #http2Cleartext()}, HTTP/2 over clear text.
+	 */
+	private ServerConnector createConnector(Server server) {
+		HttpConfiguration httpConfiguration = new HttpConfiguration();
+		httpConfiguration.setOutputBufferSize(outputBufferSize());
+		final ConnectionFactory[] connectionFactories;
+		if (http2Cleartext()) {
+			connectionFactories = new ConnectionFactory[] {new HttpConnectionFactory(httpConfiguration), createHttp2CConnectionFactory(httpConfiguration)};
+		} else {
+			connectionFactories = new ConnectionFactory[] {new HttpConnectionFactory(httpConfiguration)};
+		}
+		ServerConnector connector = new ServerConnector(server, acceptors(), selectors(), connectionFactories);
+		connector.setPort(port());
+		connector.setAcceptQueueSize(acceptQueueSize());
+		connector.setIdleTimeout(TimeUnit.SECONDS.toMillis(idleTimeout()));
+		return connector;
+	}
+	
+	/**
+	 * Creates the HTTP/2 over clear text connection factory. It is looked up
+	 * reflectively as the Jetty {@code http2-server} artifact is an optional
+	 * dependency.
+	 */
+	private static ConnectionFactory createHttp2CConnectionFactory(HttpConfiguration httpConfiguration) {
+		try {
+			return (ConnectionFactory) Class.forName(HTTP2C_CONNECTION_FACTORY).getConstructor(HttpConfiguration.class).newInstance(httpConfiguration);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("HTTP/2 over clear text requires '" + HTTP2C_CONNECTION_FACTORY + "' (Jetty artifact 'org.eclipse.jetty.http2:http2-server') in the classpath", e);
+		}
+	}
+	
+	/**
+	 * Creates the executor serving the requests asynchronously. It rejects the
+	 * requests once {@link #asyncQueueSize()} of them are waiting.
+	 */
+	private ExecutorService createServiceExecutor() {
+		final BlockingQueue<Runnable> queue;
+		if (asyncQueueSize() > 0) {
+			queue = new ArrayBlockingQueue<>(asyncQueueSize());
+		} else {
+			queue = new SynchronousQueue<>();
+		}
+		return new ThreadPoolExecutor(asyncThreads(), asyncThreads(), 0L, TimeUnit.MILLISECONDS, queue,
+				new ThreadFactoryBuilder().setNameFormat("service-%d").setDaemon(true).build());
 	}
 	
 	/**
@@ -267,5 +863,9 @@ public abstract class EmbeddedServer {
 	 */
 	public void stop() throws Exception {
 		server.stop();
+		if (serviceExecutor != null) {
+			serviceExecutor.shutdown();
+		}
+		workspaceManager.close();
 	}
 }
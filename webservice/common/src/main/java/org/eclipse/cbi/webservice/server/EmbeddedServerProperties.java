@@ -25,6 +25,26 @@ public final class EmbeddedServerProperties {
 
 	private static final int DEFAULT_SERVER_PORT = 8080;
 	private static final boolean DEFAULT_SERVICE_PATH_SPEC_VERSIONED = true;
+	private static final int DEFAULT_FILE_SIZE_THRESHOLD = 8*1024*1024;
+	private static final boolean DEFAULT_MULTIPART_STREAMING = false;
+	private static final int DEFAULT_MIN_THREADS = 8;
+	private static final int DEFAULT_MAX_THREADS = 200;
+	private static final long DEFAULT_THREAD_IDLE_TIMEOUT = 60;
+	private static final int DEFAULT_ACCEPTORS = -1;
+	private static final int DEFAULT_SELECTORS = -1;
+	private static final int DEFAULT_ACCEPT_QUEUE_SIZE = 0;
+	private static final long DEFAULT_IDLE_TIMEOUT = 30;
+	private static final int DEFAULT_OUTPUT_BUFFER_SIZE = 32*1024;
+	private static final boolean DEFAULT_HTTP2_CLEARTEXT = false;
+	private static final int DEFAULT_ASYNC_THREADS = 0;
+	private static final int DEFAULT_ASYNC_QUEUE_SIZE = 100;
+	private static final long DEFAULT_ASYNC_RETRY_AFTER = 30;
+	private static final long DEFAULT_TEMP_TIME_TO_LIVE = 24*60*60;
+	private static final long DEFAULT_TEMP_JANITOR_PERIOD = 60*60;
+	private static final long DEFAULT_TEMP_QUOTA = 0;
+	private static final long DEFAULT_TEMP_MIN_FREE_SPACE = 0;
+	private static final String DEFAULT_METRICS_PATH_SPEC = "/metrics";
+	private static final boolean DEFAULT_METRICS_JMX = true;
 	
 	private static final String JAVA_IO_TMPDIR = "java.io.tmpdir";
 	
@@ -38,6 +58,46 @@ public final class EmbeddedServerProperties {
 	public static final String SERVICE_PATH_SPEC = "server.service.pathspec";
 	/** The key for the server option whether the service version should be happened to the service path spec. */
 	public static final String SERVICE_PATH_SPEC_VERSIONED = "server.service.pathspec.versioned";
+	/** The key for the size after which the parts of the requests are written to a file property */
+	public static final String FILE_SIZE_THRESHOLD = "server.multipart.threshold";
+	/** The key for the server option whether the parts of the requests are read while they are received */
+	public static final String MULTIPART_STREAMING = "server.multipart.streaming";
+	/** The key for the minimum number of threads of the server thread pool property */
+	public static final String MIN_THREADS = "server.threads.min";
+	/** The key for the maximum number of threads of the server thread pool property */
+	public static final String MAX_THREADS = "server.threads.max";
+	/** The key for the idle timeout of the threads of the server thread pool property */
+	public static final String THREAD_IDLE_TIMEOUT = "server.threads.idletimeout";
+	/** The key for the number of acceptor threads property */
+	public static final String ACCEPTORS = "server.acceptors";
+	/** The key for the number of selector threads property */
+	public static final String SELECTORS = "server.selectors";
+	/** The key for the maximum number of connections waiting to be accepted property */
+	public static final String ACCEPT_QUEUE_SIZE = "server.acceptqueue.size";
+	/** The key for the idle timeout of the connections property */
+	public static final String IDLE_TIMEOUT = "server.idletimeout";
+	/** The key for the size of the buffer of the responses property */
+	public static final String OUTPUT_BUFFER_SIZE = "server.output.buffer.size";
+	/** The key for the server option whether HTTP/2 over clear text is enabled */
+	public static final String HTTP2_CLEARTEXT = "server.http2c";
+	/** The key for the number of threads serving the requests asynchronously property */
+	public static final String ASYNC_THREADS = "server.async.threads";
+	/** The key for the maximum number of requests waiting to be served asynchronously property */
+	public static final String ASYNC_QUEUE_SIZE = "server.async.queue.size";
+	/** The key for the delay after which the rejected requests may be sent again property */
+	public static final String ASYNC_RETRY_AFTER = "server.async.retryafter";
+	/** The key for the time after which the orphaned workspaces of the requests are reclaimed property */
+	public static final String TEMP_TIME_TO_LIVE = "server.temp.ttl";
+	/** The key for the time between two reclamations of the orphaned workspaces property */
+	public static final String TEMP_JANITOR_PERIOD = "server.temp.janitor.period";
+	/** The key for the maximum number of bytes used by the workspaces of the requests property */
+	public static final String TEMP_QUOTA = "server.temp.quota";
+	/** The key for the minimum number of bytes left in the temporary folder to serve a request property */
+	public static final String TEMP_MIN_FREE_SPACE = "server.temp.minfree";
+	/** The key for the path specification of the metrics in the Prometheus format property */
+	public static final String METRICS_PATH_SPEC = "server.metrics.pathspec";
+	/** The key for the server option whether the metrics are exposed through JMX */
+	public static final String METRICS_JMX = "server.metrics.jmx";
 	
 	private final PropertiesReader propertiesReader;
 
@@ -133,4 +193,221 @@ public final class EmbeddedServerProperties {
 	public boolean isServiceVersionAppendedToPathSpec() {
 		return propertiesReader.getBoolean(SERVICE_PATH_SPEC_VERSIONED, DEFAULT_SERVICE_PATH_SPEC_VERSIONED);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Gets the {@value #FILE_SIZE_THRESHOLD} property from the properties or
+	 * {@value #DEFAULT_FILE_SIZE_THRESHOLD} if not specified in the properties.
+	 * 
+	 * @return the size in bytes after which the parts of the requests are
+	 *         written to a file.
+	 */
+	public int getFileSizeThreshold() {
+		return propertiesReader.getInt(FILE_SIZE_THRESHOLD, DEFAULT_FILE_SIZE_THRESHOLD);
+	}
+	
+	/**
+	 * Gets the {@value #MULTIPART_STREAMING} property from the properties.
+	 * 
+	 * @return true if the parts of the requests are read, digested and
+	 *         written once while they are received.
+	 */
+	public boolean isMultipartStreaming() {
+		return propertiesReader.getBoolean(MULTIPART_STREAMING, DEFAULT_MULTIPART_STREAMING);
+	}
+	
+	/**
+	 * Gets the {@value #MIN_THREADS} property from the properties or
+	 * {@value #DEFAULT_MIN_THREADS} if not specified in the properties.
+	 * 
+	 * @return the minimum number of threads of the server thread pool.
+	 */
+	public int getMinThreads() {
+		return propertiesReader.getInt(MIN_THREADS, DEFAULT_MIN_THREADS);
+	}
+	
+	/**
+	 * Gets the {@value #MAX_THREADS} property from the properties or
+	 * {@value #DEFAULT_MAX_THREADS} if not specified in the properties.
+	 * 
+	 * @return the maximum number of threads of the server thread pool.
+	 */
+	public int getMaxThreads() {
+		return propertiesReader.getInt(MAX_THREADS, DEFAULT_MAX_THREADS);
+	}
+	
+	/**
+	 * Gets the {@value #THREAD_IDLE_TIMEOUT} property from the properties or
+	 * {@value #DEFAULT_THREAD_IDLE_TIMEOUT} if not specified in the
+	 * properties.
+	 * 
+	 * @return the idle timeout of the threads of the server thread pool, in
+	 *         seconds.
+	 */
+	public long getThreadIdleTimeout() {
+		return propertiesReader.getLong(THREAD_IDLE_TIMEOUT, DEFAULT_THREAD_IDLE_TIMEOUT);
+	}
+	
+	/**
+	 * Gets the {@value #ACCEPTORS} property from the properties or
+	 * {@value #DEFAULT_ACCEPTORS} if not specified in the properties. A
+	 * negative value lets the server choose.
+	 * 
+	 * @return the number of acceptor threads.
+	 */
+	public int getAcceptors() {
+		return propertiesReader.getInt(ACCEPTORS, DEFAULT_ACCEPTORS);
+	}
+	
+	/**
+	 * Gets the {@value #SELECTORS} property from the properties or
+	 * {@value #DEFAULT_SELECTORS} if not specified in the properties. A
+	 * negative value lets the server choose.
+	 * 
+	 * @return the number of selector threads.
+	 */
+	public int getSelectors() {
+		return propertiesReader.getInt(SELECTORS, DEFAULT_SELECTORS);
+	}
+	
+	/**
+	 * Gets the {@value #ACCEPT_QUEUE_SIZE} property from the properties or
+	 * {@value #DEFAULT_ACCEPT_QUEUE_SIZE} if not specified in the properties.
+	 * 0 lets the operating system choose.
+	 * 
+	 * @return the maximum number of connections waiting to be accepted.
+	 */
+	public int getAcceptQueueSize() {
+		return propertiesReader.getInt(ACCEPT_QUEUE_SIZE, DEFAULT_ACCEPT_QUEUE_SIZE);
+	}
+	
+	/**
+	 * Gets the {@value #IDLE_TIMEOUT} property from the properties or
+	 * {@value #DEFAULT_IDLE_TIMEOUT} if not specified in the properties.
+	 * 
+	 * @return the idle timeout of the connections, in seconds.
+	 */
+	public long getIdleTimeout() {
+		return propertiesReader.getLong(IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT);
+	}
+	
+	/**
+	 * Gets the {@value #OUTPUT_BUFFER_SIZE} property from the properties or
+	 * {@value #DEFAULT_OUTPUT_BUFFER_SIZE} if not specified in the properties.
+	 * 
+	 * @return the size of the buffer of the responses, in bytes.
+	 */
+	public int getOutputBufferSize() {
+		return propertiesReader.getInt(OUTPUT_BUFFER_SIZE, DEFAULT_OUTPUT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Gets the {@value #HTTP2_CLEARTEXT} property from the properties.
+	 * 
+	 * @return true if the server also speaks HTTP/2 over clear text (h2c).
+	 */
+	public boolean isHttp2Cleartext() {
+		return propertiesReader.getBoolean(HTTP2_CLEARTEXT, DEFAULT_HTTP2_CLEARTEXT);
+	}
+	
+	/**
+	 * Gets the {@value #ASYNC_THREADS} property from the properties or
+	 * {@value #DEFAULT_ASYNC_THREADS} if not specified in the properties. 0
+	 * means that the requests are served synchronously by the server threads.
+	 * 
+	 * @return the number of threads serving the requests asynchronously.
+	 */
+	public int getAsyncThreads() {
+		return propertiesReader.getInt(ASYNC_THREADS, DEFAULT_ASYNC_THREADS);
+	}
+	
+	/**
+	 * Gets the {@value #ASYNC_QUEUE_SIZE} property from the properties or
+	 * {@value #DEFAULT_ASYNC_QUEUE_SIZE} if not specified in the properties.
+	 * 
+	 * @return the maximum number of requests waiting to be served
+	 *         asynchronously.
+	 */
+	public int getAsyncQueueSize() {
+		return propertiesReader.getInt(ASYNC_QUEUE_SIZE, DEFAULT_ASYNC_QUEUE_SIZE);
+	}
+	
+	/**
+	 * Gets the {@value #ASYNC_RETRY_AFTER} property from the properties or
+	 * {@value #DEFAULT_ASYNC_RETRY_AFTER} if not specified in the properties.
+	 * 
+	 * @return the number of seconds after which the requests rejected because
+	 *         too many of them are waiting may be sent again.
+	 */
+	public long getAsyncRetryAfter() {
+		return propertiesReader.getLong(ASYNC_RETRY_AFTER, DEFAULT_ASYNC_RETRY_AFTER);
+	}
+	
+	/**
+	 * Gets the {@value #TEMP_TIME_TO_LIVE} property from the properties or
+	 * {@value #DEFAULT_TEMP_TIME_TO_LIVE} if not specified in the properties.
+	 * 
+	 * @return the number of seconds after which the workspaces left behind by
+	 *         the requests are reclaimed.
+	 */
+	public long getTempTimeToLive() {
+		return propertiesReader.getLong(TEMP_TIME_TO_LIVE, DEFAULT_TEMP_TIME_TO_LIVE);
+	}
+	
+	/**
+	 * Gets the {@value #TEMP_JANITOR_PERIOD} property from the properties or
+	 * {@value #DEFAULT_TEMP_JANITOR_PERIOD} if not specified in the
+	 * properties. 0 means that the orphaned workspaces are only reclaimed at
+	 * startup.
+	 * 
+	 * @return the number of seconds between two reclamations of the orphaned
+	 *         workspaces.
+	 */
+	public long getTempJanitorPeriod() {
+		return propertiesReader.getLong(TEMP_JANITOR_PERIOD, DEFAULT_TEMP_JANITOR_PERIOD);
+	}
+	
+	/**
+	 * Gets the {@value #TEMP_QUOTA} property from the properties or
+	 * {@value #DEFAULT_TEMP_QUOTA} if not specified in the properties. 0 means
+	 * no limit.
+	 * 
+	 * @return the maximum number of bytes used by the workspaces of the
+	 *         requests.
+	 */
+	public long getTempQuota() {
+		return propertiesReader.getLong(TEMP_QUOTA, DEFAULT_TEMP_QUOTA);
+	}
+	
+	/**
+	 * Gets the {@value #TEMP_MIN_FREE_SPACE} property from the properties or
+	 * {@value #DEFAULT_TEMP_MIN_FREE_SPACE} if not specified in the
+	 * properties. 0 means no limit.
+	 * 
+	 * @return the minimum number of bytes left in the temporary folder to
+	 *         serve a request.
+	 */
+	public long getTempMinFreeSpace() {
+		return propertiesReader.getLong(TEMP_MIN_FREE_SPACE, DEFAULT_TEMP_MIN_FREE_SPACE);
+	}
+	
+	/**
+	 * Gets the {@value #METRICS_PATH_SPEC} property from the properties or
+	 * {@value #DEFAULT_METRICS_PATH_SPEC} if not specified in the properties.
+	 * An empty value disables the metrics endpoint.
+	 * 
+	 * @return the path specification of the metrics in the Prometheus format.
+	 */
+	public String getMetricsPathSpec() {
+		return propertiesReader.getString(METRICS_PATH_SPEC, DEFAULT_METRICS_PATH_SPEC).trim();
+	}
+	
+	/**
+	 * Gets the {@value #METRICS_JMX} property from the properties or
+	 * {@value #DEFAULT_METRICS_JMX} if not specified in the properties.
+	 * 
+	 * @return true if the metrics are exposed through JMX.
+	 */
+	public boolean isMetricsJmx() {
+		return propertiesReader.getBoolean(METRICS_JMX, DEFAULT_METRICS_JMX);
+	}
+}
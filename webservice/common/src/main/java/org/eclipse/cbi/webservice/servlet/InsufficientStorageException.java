@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/**
+ * Thrown when a request is not served because there is not enough space to
+ * store its temporary files (see {@link WorkspaceManager}). If the space is
+ * expected to be reclaimed soon, the request may be sent again after
+ * {@link #getRetryAfter()} seconds, otherwise the service is unable to store
+ * the request until the administrators free some space.
+ */
+public class InsufficientStorageException extends IOException {
+
+	private static final long serialVersionUID = -3519658208519208410L;
+
+	private final OptionalLong retryAfter;
+
+	/**
+	 * Constructor of an exception that is not expected to resolve itself.
+	 *
+	 * @param message
+	 *            the detail message.
+	 */
+	public InsufficientStorageException(String message) {
+		super(message);
+		this.retryAfter = OptionalLong.empty();
+	}
+
+	/**
+	 * Constructor of an exception that is expected to resolve itself.
+	 *
+	 * @param message
+	 *            the detail message.
+	 * @param retryAfter
+	 *            the number of seconds after which the request may be sent
+	 *            again.
+	 */
+	public InsufficientStorageException(String message, long retryAfter) {
+		super(message);
+		this.retryAfter = OptionalLong.of(retryAfter);
+	}
+
+	/**
+	 * Returns the number of seconds after which the request may be sent
+	 * again, if the space is expected to be reclaimed soon.
+	 *
+	 * @return the number of seconds after which the request may be sent
+	 *         again, if any.
+	 */
+	public OptionalLong getRetryAfter() {
+		return retryAfter;
+	}
+}
@@ -0,0 +1,557 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+
+import org.eclipse.cbi.webservice.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A parser of {@code multipart/form-data} requests writing each part only
+ * once. The parts are read from the request stream and kept in memory up to
+ * {@link #fileSizeThreshold} bytes; bigger parts are written to a file of the
+ * {@link #location} folder (or of the {@link Workspace} of the request) while
+ * they are received. The SHA-256 digest and the size of each part are
+ * computed on the fly (see {@link StreamedPart}). Writing a part
+ * ({@link Part#write(String)}) to a file of the location folder then only
+ * moves it.
+ * <p>
+ * A parser is used instead of the parsing of the container when it is the
+ * servlet context attribute {@link #ATTRIBUTE}. The parts of a request are
+ * parsed once, and kept as a request attribute (see
+ * {@link #getParts(HttpServletRequest)}).
+ */
+public final class MultipartStreamParser {
+
+	/** The name of the servlet context attribute with the parser of the requests. */
+	public static final String ATTRIBUTE = MultipartStreamParser.class.getName();
+
+	private static final String PARTS_ATTRIBUTE = ATTRIBUTE + ".parts";
+
+	/** Marks the requests whose parts have been read by the container, so that the parsing is timed only once. */
+	private static final String CONTAINER_PARSED_ATTRIBUTE = ATTRIBUTE + ".containerParsed";
+
+	private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+	private static final String BOUNDARY_PARAMETER = "boundary";
+	private static final String CONTENT_DISPOSITION = "content-disposition";
+	private static final String CONTENT_TYPE = "content-type";
+	private static final String NAME_PARAMETER = "name";
+	private static final String FILENAME_PARAMETER = "filename";
+
+	private static final byte[] CRLF = {'\r', '\n'};
+	private static final String TEMP_FILE_PREFIX = MultipartStreamParser.class.getSimpleName() + "-";
+	private static final String TEMP_FILE_SUFFIX = ".part";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_HEADER_LINE_LENGTH = 8 * 1024;
+	private static final int MAX_HEADER_LINES = 64;
+
+	private final static Logger logger = LoggerFactory.getLogger(MultipartStreamParser.class);
+
+	private final Path location;
+
+	private final int fileSizeThreshold;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param location
+	 *            the folder of the files of the parts bigger than the
+	 *            threshold.
+	 * @param fileSizeThreshold
+	 *            the size in bytes after which the parts are written to a
+	 *            file.
+	 */
+	public MultipartStreamParser(Path location, int fileSizeThreshold) {
+		this.location = location;
+		this.fileSizeThreshold = fileSizeThreshold;
+	}
+
+	/**
+	 * Returns whether the parts of the given request are parsed by a
+	 * {@link MultipartStreamParser} rather than by the container.
+	 *
+	 * @param request
+	 *            the request.
+	 * @return whether the parts of the given request are streamed.
+	 */
+	static boolean isStreaming(HttpServletRequest request) {
+		return request.getAttribute(PARTS_ATTRIBUTE) != null || parser(request).isPresent();
+	}
+
+	/**
+	 * Returns the parts of the given request: the ones parsed by the
+	 * {@link MultipartStreamParser} of the servlet context if any, or the ones
+	 * of the container otherwise.
+	 *
+	 * @param request
+	 *            the request.
+	 * @return the parts of the given request.
+	 * @throws IOException
+	 *             if the request can't be read.
+	 * @throws ServletException
+	 *             if the request is not a {@code multipart/form-data} one.
+	 */
+	static Collection<Part> getParts(HttpServletRequest request) throws IOException, ServletException {
+		@SuppressWarnings("unchecked")
+		Collection<Part> parts = (Collection<Part>) request.getAttribute(PARTS_ATTRIBUTE);
+		if (parts != null) {
+			return parts;
+		}
+		// the servlet context is not available anymore once an asynchronous request is dispatched
+		Optional<MultipartStreamParser> parser = parser(request);
+		if (!parser.isPresent()) {
+			if (request.getAttribute(CONTAINER_PARSED_ATTRIBUTE) != null) {
+				return request.getParts();
+			}
+			final long startNanos = System.nanoTime();
+			parts = request.getParts();
+			request.setAttribute(CONTAINER_PARSED_ATTRIBUTE, Boolean.TRUE);
+			parsingTimer().recordSince(startNanos);
+			return parts;
+		}
+		final long startNanos = System.nanoTime();
+		parts = parser.get().parse(request);
+		request.setAttribute(PARTS_ATTRIBUTE, parts);
+		parsingTimer().recordSince(startNanos);
+		return parts;
+	}
+
+	private static Metrics.Timer parsingTimer() {
+		return Metrics.registry().timer("cbi_multipart_duration_seconds", "Time to receive and parse the parts of the requests");
+	}
+
+	/**
+	 * Deletes the files of the parts of the given request parsed by a
+	 * {@link MultipartStreamParser}, if any.
+	 *
+	 * @param request
+	 *            the request.
+	 */
+	static void deleteParts(HttpServletRequest request) {
+		@SuppressWarnings("unchecked")
+		Collection<Part> parts = (Collection<Part>) request.getAttribute(PARTS_ATTRIBUTE);
+		if (parts != null) {
+			for (Part part : parts) {
+				try {
+					part.delete();
+				} catch (IOException e) {
+					logger.error("Error occured while deleting a temporary resource", e);
+				}
+			}
+		}
+	}
+
+	private static Optional<MultipartStreamParser> parser(HttpServletRequest request) {
+		ServletContext servletContext = request.getServletContext();
+		if (servletContext == null) {
+			return Optional.empty();
+		}
+		Object parser = servletContext.getAttribute(ATTRIBUTE);
+		return parser instanceof MultipartStreamParser ? Optional.of((MultipartStreamParser) parser) : Optional.empty();
+	}
+
+	/**
+	 * Parses the parts of the given request.
+	 */
+	List<Part> parse(HttpServletRequest request) throws IOException, ServletException {
+		String contentType = request.getContentType();
+		if (contentType == null || !contentType.toLowerCase(Locale.ENGLISH).startsWith(MULTIPART_FORM_DATA)) {
+			throw new ServletException("Content-Type != " + MULTIPART_FORM_DATA);
+		}
+		String boundary = parseParameters(contentType).get(BOUNDARY_PARAMETER);
+		if (boundary == null || boundary.isEmpty()) {
+			throw new ServletException("Missing boundary in Content-Type '" + contentType + "'");
+		}
+
+		// the files are kept with the other temporary files of the request if it has a workspace
+		Path folder = Workspace.of(request).map(Workspace::path).orElse(location);
+		List<Part> parts = new ArrayList<>();
+		try {
+			parse(request.getInputStream(), boundary, parts, folder);
+		} catch (IOException | RuntimeException e) {
+			for (Part part : parts) {
+				part.delete();
+			}
+			throw e;
+		}
+		return Collections.unmodifiableList(parts);
+	}
+
+	private void parse(InputStream in, String boundary, List<Part> parts, Path folder) throws IOException {
+		DelimitedStream stream = new DelimitedStream(in, ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1));
+		if (!stream.skipToDelimiter()) {
+			throw new IOException("Missing initial multipart boundary");
+		}
+		while (true) {
+			String afterDelimiter = stream.readLine();
+			if (afterDelimiter.startsWith("--")) {
+				return;
+			}
+			ListMultimap<String, String> headers = LinkedListMultimap.create();
+			for (String line = stream.readLine(); !line.isEmpty(); line = stream.readLine()) {
+				int colon = line.indexOf(':');
+				if (colon <= 0) {
+					throw new IOException("Invalid multipart header '" + line + "'");
+				}
+				headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH), line.substring(colon + 1).trim());
+				if (headers.size() > MAX_HEADER_LINES) {
+					throw new IOException("Too many multipart headers");
+				}
+			}
+			String contentDisposition = first(headers, CONTENT_DISPOSITION);
+			if (contentDisposition == null) {
+				throw new IOException("Missing multipart header 'Content-Disposition'");
+			}
+			Map<String, String> dispositionParameters = parseParameters(contentDisposition);
+			StreamedPart part = new StreamedPart(dispositionParameters.get(NAME_PARAMETER), dispositionParameters.get(FILENAME_PARAMETER),
+					first(headers, CONTENT_TYPE), headers, location);
+			parts.add(part);
+			try (PartOutputStream content = new PartOutputStream(part, folder)) {
+				if (!stream.transferToDelimiter(content)) {
+					throw new IOException("Unexpected end of the multipart stream in part '" + part.getName() + "'");
+				}
+			}
+		}
+	}
+
+	private static String first(ListMultimap<String, String> headers, String name) {
+		List<String> values = headers.get(name);
+		return values.isEmpty() ? null : values.get(0);
+	}
+
+	/**
+	 * Parses the parameters of a header value, e.g.
+	 * {@code form-data; name="file"; filename="a.jar"}. The names of the
+	 * parameters are lower-cased.
+	 */
+	static Map<String, String> parseParameters(String headerValue) {
+		Map<String, String> parameters = new LinkedHashMap<>();
+		int i = headerValue.indexOf(';');
+		while (i >= 0 && i < headerValue.length()) {
+			int equal = headerValue.indexOf('=', i + 1);
+			if (equal < 0) {
+				break;
+			}
+			String name = headerValue.substring(i + 1, equal).trim().toLowerCase(Locale.ENGLISH);
+			StringBuilder value = new StringBuilder();
+			int j = equal + 1;
+			while (j < headerValue.length() && headerValue.charAt(j) == ' ') {
+				j++;
+			}
+			if (j < headerValue.length() && headerValue.charAt(j) == '"') {
+				for (j++; j < headerValue.length() && headerValue.charAt(j) != '"'; j++) {
+					char c = headerValue.charAt(j);
+					if (c == '\\' && j + 1 < headerValue.length() && headerValue.charAt(j + 1) == '"') {
+						c = headerValue.charAt(++j);
+					}
+					value.append(c);
+				}
+				j = headerValue.indexOf(';', j);
+			} else {
+				int semicolon = headerValue.indexOf(';', j);
+				value.append(headerValue.substring(j, semicolon < 0 ? headerValue.length() : semicolon).trim());
+				j = semicolon;
+			}
+			parameters.put(name, value.toString());
+			i = j;
+		}
+		return parameters;
+	}
+
+	/**
+	 * Writes the content of a part, in memory up to the threshold and to a
+	 * file of the given folder afterward, computing its digest.
+	 */
+	private final class PartOutputStream extends OutputStream {
+
+		private final StreamedPart part;
+		private final Path folder;
+		private final Hasher hasher;
+		private final ByteArrayOutputStream memory;
+		private OutputStream file;
+		private long size;
+
+		PartOutputStream(StreamedPart part, Path folder) {
+			this.part = part;
+			this.folder = folder;
+			this.hasher = Hashing.sha256().newHasher();
+			this.memory = new ByteArrayOutputStream();
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (file == null && size + len > fileSizeThreshold) {
+				part.file = Files.createTempFile(folder, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+				file = Files.newOutputStream(part.file);
+				memory.writeTo(file);
+				memory.reset();
+			}
+			hasher.putBytes(b, off, len);
+			(file != null ? file : memory).write(b, off, len);
+			size += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			part.size = size;
+			part.sha256 = hasher.hash();
+			if (file != null) {
+				file.close();
+			} else {
+				part.content = memory.toByteArray();
+			}
+		}
+	}
+
+	/**
+	 * A buffered stream read up to delimiters.
+	 */
+	private static final class DelimitedStream {
+
+		private final InputStream in;
+		private final byte[] delimiter;
+		private final byte[] buffer;
+		private int position;
+		private int limit;
+		private boolean eof;
+
+		DelimitedStream(InputStream in, byte[] delimiter) {
+			this.in = in;
+			this.delimiter = delimiter;
+			this.buffer = new byte[Math.max(BUFFER_SIZE, 2 * delimiter.length)];
+			// virtually prepend a line break, so that the first delimiter matches
+			System.arraycopy(CRLF, 0, buffer, 0, CRLF.length);
+			this.limit = CRLF.length;
+		}
+
+		boolean skipToDelimiter() throws IOException {
+			return transferToDelimiter(ByteStreams.nullOutputStream());
+		}
+
+		/**
+		 * Writes the bytes up to the next delimiter to the given stream, and
+		 * skips the delimiter. Returns false if the end of the stream is
+		 * reached before the delimiter.
+		 */
+		boolean transferToDelimiter(OutputStream out) throws IOException {
+			while (true) {
+				fill(delimiter.length);
+				int found = indexOf(delimiter, position, limit);
+				if (found >= 0) {
+					out.write(buffer, position, found - position);
+					position = found + delimiter.length;
+					return true;
+				}
+				// the end of the buffer may be the beginning of the delimiter
+				int safe = eof ? limit : Math.max(position, limit - delimiter.length + 1);
+				out.write(buffer, position, safe - position);
+				position = safe;
+				if (eof) {
+					return false;
+				}
+			}
+		}
+
+		/**
+		 * Reads the bytes up to the next line separator, and skips it.
+		 */
+		String readLine() throws IOException {
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			while (true) {
+				fill(CRLF.length);
+				int found = indexOf(CRLF, position, limit);
+				int end = found >= 0 ? found : (eof ? limit : Math.max(position, limit - CRLF.length + 1));
+				line.write(buffer, position, end - position);
+				if (line.size() > MAX_HEADER_LINE_LENGTH) {
+					throw new IOException("Multipart header line is too long");
+				}
+				if (found >= 0) {
+					position = found + CRLF.length;
+					return new String(line.toByteArray(), StandardCharsets.UTF_8);
+				}
+				position = end;
+				if (eof) {
+					throw new IOException("Unexpected end of the multipart stream");
+				}
+			}
+		}
+
+		/**
+		 * Reads from the stream until at least the given number of bytes are
+		 * available in the buffer, or the end of stream is reached.
+		 */
+		private void fill(int minimum) throws IOException {
+			if (limit - position >= minimum || eof) {
+				return;
+			}
+			if (position > 0) {
+				System.arraycopy(buffer, position, buffer, 0, limit - position);
+				limit -= position;
+				position = 0;
+			}
+			while (limit - position < minimum && !eof) {
+				int read = in.read(buffer, limit, buffer.length - limit);
+				if (read < 0) {
+					eof = true;
+				} else {
+					limit += read;
+				}
+			}
+		}
+
+		private int indexOf(byte[] pattern, int from, int to) {
+			outer: for (int i = from; i <= to - pattern.length; i++) {
+				for (int j = 0; j < pattern.length; j++) {
+					if (buffer[i + j] != pattern[j]) {
+						continue outer;
+					}
+				}
+				return i;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * A part parsed by a {@link MultipartStreamParser}. Its content is either
+	 * in memory or in a file of the location folder.
+	 */
+	static final class StreamedPart implements Part {
+
+		private final String name;
+		private final String submittedFileName;
+		private final String contentType;
+		private final ListMultimap<String, String> headers;
+		private final Path location;
+		private byte[] content;
+		private Path file;
+		private long size;
+		private HashCode sha256;
+
+		StreamedPart(String name, String submittedFileName, String contentType, ListMultimap<String, String> headers, Path location) {
+			this.name = name;
+			this.submittedFileName = submittedFileName;
+			this.contentType = contentType;
+			this.headers = headers;
+			this.location = location;
+		}
+
+		/**
+		 * Returns the SHA-256 digest of the content of this part.
+		 *
+		 * @return the SHA-256 digest of the content of this part.
+		 */
+		HashCode sha256() {
+			return sha256;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			if (file != null) {
+				return Files.newInputStream(file);
+			}
+			return new ByteArrayInputStream(content);
+		}
+
+		@Override
+		public String getContentType() {
+			return contentType;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String getSubmittedFileName() {
+			return submittedFileName;
+		}
+
+		@Override
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * Writes the content of this part to the given file of the location
+		 * folder. If the content is already in a file, it is moved.
+		 */
+		@Override
+		public void write(String fileName) throws IOException {
+			Path target = location.resolve(fileName);
+			if (file != null) {
+				Files.move(file, target);
+			} else {
+				Files.write(target, content);
+				content = null;
+			}
+			file = target;
+		}
+
+		@Override
+		public void delete() throws IOException {
+			if (file != null) {
+				Files.deleteIfExists(file);
+			}
+		}
+
+		@Override
+		public String getHeader(String headerName) {
+			return first(headers, headerName.toLowerCase(Locale.ENGLISH));
+		}
+
+		@Override
+		public Collection<String> getHeaders(String headerName) {
+			return ImmutableList.copyOf(headers.get(headerName.toLowerCase(Locale.ENGLISH)));
+		}
+
+		@Override
+		public Collection<String> getHeaderNames() {
+			return ImmutableList.copyOf(headers.keySet());
+		}
+	}
+}
@@ -18,7 +18,9 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.SecureRandom;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -33,9 +35,21 @@ import org.slf4j.LoggerFactory;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Strings;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 
 /**
  * A facade to {@link HttpServletRequest}.
+ * <p>
+ * The temporary files of the request (the files of the parts and the ones
+ * created with {@link #createTempFile(String, String)} and
+ * {@link #createTempDirectory(String)}) are created in the {@link Workspace}
+ * of the request if it has one, and are deleted with it. Otherwise, they are
+ * created in the {@link #tempFolder() temporary folder} and deleted when this
+ * facade is {@link #close() closed}.
  */
 @AutoValue
 public abstract class RequestFacade implements Closeable {
@@ -44,8 +58,11 @@ public abstract class RequestFacade implements Closeable {
 
 	private final Set<Part> partToDelete;
 
+	private final Set<Path> pathToDelete;
+
 	RequestFacade() { //prevents subclassing and instantiation outside package
 		this.partToDelete = new LinkedHashSet<>();
+		this.pathToDelete = new LinkedHashSet<>();
 	}
 
 	/**
@@ -121,7 +138,7 @@ public abstract class RequestFacade implements Closeable {
 	 * @throws ServletException
 	 */
 	public boolean hasPart(String partName) throws IOException, ServletException {
-		return request().getPart(partName) != null;
+		return getPart(partName) != null;
 	}
 
 	/**
@@ -136,7 +153,7 @@ public abstract class RequestFacade implements Closeable {
 	 * @throws ServletException
 	 */
 	public boolean hasParameter(String parameterName) throws IOException, ServletException {
-		return request().getParameter(parameterName) != null;
+		return getParameter(parameterName).isPresent();
 	}
 
 	/**
@@ -194,24 +211,146 @@ public abstract class RequestFacade implements Closeable {
 	public Optional<Path> getPartPath(String partName, String prefix, String suffix) throws IOException, ServletException {
 		final Path ret;
 
-		Part part = request().getPart(partName);
+		Part part = getPart(partName);
 		if (part != null) {
-			Path generatedPath = generatePath(Strings.nullToEmpty(prefix), "-" + Strings.nullToEmpty(part.getSubmittedFileName()) + Strings.nullToEmpty(suffix));
-			// may rename in the temp folder as specified in MultipartConfig
-			part.write(tempFolder().relativize(generatedPath).toString());
-
-			if (!Files.exists(generatedPath)) {
-				ret = null;
-			} else {
-				this.partToDelete.add(part);
-				ret = generatedPath;
-			}
+			ret = writePart(part, prefix, suffix);
 		} else {
 			ret = null;
 		}
 		return Optional.ofNullable(ret);
 	}
 
+	/**
+	 * Returns the files of all the parts with the given part name, mapped to
+	 * their submitted file name (empty if none has been submitted), in the
+	 * order of the request. It is empty if no part with the given name exists.
+	 * <p>
+	 * The file names will be prefixed with the given string.
+	 *
+	 * @param partName
+	 *            the name of the parts with the desired files
+	 * @param prefix
+	 *            the prefix to be prepended to the file names
+	 * @return the files of all the parts with the given part name, mapped to
+	 *         their submitted file name.
+	 * @throws IOException
+	 * @throws ServletException
+	 */
+	public Map<Path, String> getPartPaths(String partName, String prefix) throws IOException, ServletException {
+		final Map<Path, String> ret = new LinkedHashMap<>();
+		for (Part part : MultipartStreamParser.getParts(request())) {
+			if (partName.equals(part.getName())) {
+				Path path = writePart(part, prefix, null);
+				if (path != null) {
+					ret.put(path, Strings.nullToEmpty(part.getSubmittedFileName()));
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the SHA-256 digest of the content of the part with the given
+	 * name, or {@link Optional#empty()} is no part with the given name exists.
+	 * The digest of the parts read by a {@link MultipartStreamParser} is
+	 * computed while they are received; the other parts are read again.
+	 *
+	 * @param partName
+	 *            the name of the part with the desired digest
+	 * @return the SHA-256 digest of the content of the part with the given
+	 *         name, or {@link Optional#empty()} is no part with the given name
+	 *         exists.
+	 * @throws IOException
+	 * @throws ServletException
+	 */
+	public Optional<HashCode> getPartSha256(String partName) throws IOException, ServletException {
+		Part part = getPart(partName);
+		if (part == null) {
+			return Optional.empty();
+		} else if (part instanceof MultipartStreamParser.StreamedPart) {
+			return Optional.of(((MultipartStreamParser.StreamedPart) part).sha256());
+		}
+		Hasher hasher = Hashing.sha256().newHasher();
+		try (InputStream is = part.getInputStream()) {
+			ByteStreams.copy(is, Funnels.asOutputStream(hasher));
+		}
+		return Optional.of(hasher.hash());
+	}
+
+	/**
+	 * Returns the part with the given name, or {@code null}.
+	 */
+	private Part getPart(String partName) throws IOException, ServletException {
+		if (!MultipartStreamParser.isStreaming(request())) {
+			return request().getPart(partName);
+		}
+		for (Part part : MultipartStreamParser.getParts(request())) {
+			if (partName.equals(part.getName())) {
+				return part;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates a new empty temporary file for the request.
+	 *
+	 * @param prefix
+	 *            the prefix of the file name, may be {@code null}.
+	 * @param suffix
+	 *            the suffix of the file name, may be {@code null}.
+	 * @return the new file.
+	 * @throws IOException
+	 *             if the file can't be created.
+	 */
+	public Path createTempFile(String prefix, String suffix) throws IOException {
+		Optional<Workspace> workspace = Workspace.of(request());
+		if (workspace.isPresent()) {
+			return workspace.get().createTempFile(prefix, suffix);
+		}
+		Path file = Files.createTempFile(tempFolder(), prefix, suffix);
+		pathToDelete.add(file);
+		return file;
+	}
+
+	/**
+	 * Creates a new empty temporary folder for the request.
+	 *
+	 * @param prefix
+	 *            the prefix of the folder name, may be {@code null}.
+	 * @return the new folder.
+	 * @throws IOException
+	 *             if the folder can't be created.
+	 */
+	public Path createTempDirectory(String prefix) throws IOException {
+		Optional<Workspace> workspace = Workspace.of(request());
+		if (workspace.isPresent()) {
+			return workspace.get().createTempDirectory(prefix);
+		}
+		Path folder = Files.createTempDirectory(tempFolder(), prefix);
+		pathToDelete.add(folder);
+		return folder;
+	}
+
+	/**
+	 * Writes the given part in a new file of the workspace of the request or
+	 * of the {@link #tempFolder() temporary folder}, and returns it (or {@code null} if it has not been written).
+	 */
+	private Path writePart(Part part, String prefix, String suffix) throws IOException {
+		Path generatedPath = generatePath(Strings.nullToEmpty(prefix), "-" + Strings.nullToEmpty(part.getSubmittedFileName()) + Strings.nullToEmpty(suffix));
+		// may rename in the temp folder as specified in MultipartConfig
+		part.write(tempFolder().relativize(generatedPath).toString());
+
+		if (!Files.exists(generatedPath)) {
+			return null;
+		} else {
+			if (!Workspace.of(request()).isPresent()) {
+				this.partToDelete.add(part);
+			}
+			return generatedPath;
+		}
+	}
+
 	/**
 	 * Returns the submitted file name of the part with the given name. If the
 	 * decorated request has no request with the given name, it will return
@@ -227,7 +366,7 @@ public abstract class RequestFacade implements Closeable {
 	 */
 	public Optional<String> getSubmittedFileName(String partName) throws IOException, ServletException {
 		final String ret;
-		Part part = request().getPart(partName);
+		Part part = getPart(partName);
 		if (part != null) {
 			String submittedFileName = part.getSubmittedFileName();
 			if (!Strings.isNullOrEmpty(submittedFileName)) {
@@ -258,7 +397,7 @@ public abstract class RequestFacade implements Closeable {
 	@SuppressWarnings("resource")
 	public Optional<InputStream> getPartInputStream(String partName) throws IOException, ServletException {
 		final InputStream ret;
-		Part part = request().getPart(partName);
+		Part part = getPart(partName);
 		if (part != null) {
 			ret = part.getInputStream();
 		} else {
@@ -281,7 +420,7 @@ public abstract class RequestFacade implements Closeable {
 	 * @throws ServletException
 	 */
 	public Optional<String> getPartText(String partName) throws IOException, ServletException {
-		Part part = request().getPart(partName);
+		Part part = getPart(partName);
 		if (part == null) {
 			return Optional.empty();
 		}
@@ -293,6 +432,9 @@ public abstract class RequestFacade implements Closeable {
 	 * Returns the value of the parameter with the given. If the the decorated
 	 * request has no parameter with the given name, {@link Optional#empty()} is
 	 * returned.
+	 * <p>
+	 * As done by the container, the text parts of requests read by a
+	 * {@link MultipartStreamParser} are parameters too.
 	 *
 	 * @param parameterName
 	 *            the name of the desired parameter
@@ -302,9 +444,27 @@ public abstract class RequestFacade implements Closeable {
 	 * @throws IOException
 	 */
 	public Optional<String> getParameter(String parameterName) throws IOException {
-		return Optional.ofNullable(request().getParameter(parameterName));
+		String parameter = request().getParameter(parameterName);
+		if (parameter == null && MultipartStreamParser.isStreaming(request())) {
+			try {
+				Part part = getPart(parameterName);
+				if (part != null && part.getSubmittedFileName() == null) {
+					try (InputStream is = part.getInputStream()) {
+						parameter = IO.toString(is);
+					}
+				}
+			} catch (ServletException e) {
+				// not a multipart request
+			}
+		}
+		return Optional.ofNullable(parameter);
 	}
 
+	/**
+	 * Deletes the temporary files of the request, unless they are in its
+	 * workspace: the workspace is deleted by the {@link ServiceServlet} once
+	 * the request has been served.
+	 */
 	@Override
 	public void close() throws IOException {
 		partToDelete.forEach(p -> {
@@ -314,6 +474,16 @@ public abstract class RequestFacade implements Closeable {
 				logger.error("Error occured while deleting a temporary resource", e);
 			}
 		});
+		pathToDelete.forEach(p -> {
+			try {
+				WorkspaceManager.deleteRecursively(p);
+			} catch (IOException e) {
+				logger.error("Error occured while deleting temporary resource '" + p + "'", e);
+			}
+		});
+		if (!Workspace.of(request()).isPresent()) {
+			MultipartStreamParser.deleteParts(request());
+		}
 	}
 
 	/** Random generator for file name generation */
@@ -329,14 +499,15 @@ public abstract class RequestFacade implements Closeable {
     }
 
 	/**
-	 * Generates a valid random path in {@link #tempFolder() the temporary
-	 * folder}. It is valid in the sense that it does not exists when returned.
+	 * Generates a valid random path in the workspace of the request or in
+	 * {@link #tempFolder() the temporary folder}. It is valid in the sense that it does not exists when returned.
 	 */
 	private Path generatePath(String prefix, String suffix) {
+		final Path folder = Workspace.of(request()).map(Workspace::path).orElse(tempFolder());
 		Path ret = null;
 		do {
 			final String generateFilename = randomString(prefix, suffix);
-			final Path resolvedPath = tempFolder().resolve(generateFilename);
+			final Path resolvedPath = folder.resolve(generateFilename);
 			if (!Files.exists(resolvedPath)) {
 				ret = resolvedPath;
 			}
@@ -11,18 +11,27 @@
 package org.eclipse.cbi.webservice.servlet;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalLong;
+
+import javax.servlet.ServletOutputStream;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+import org.eclipse.cbi.util.ProcessRejectedException;
+import org.eclipse.cbi.webservice.metrics.Metrics;
 import org.eclipse.cbi.webservice.servlet.AutoValue_ResponseFacade;
+import org.eclipse.jetty.server.HttpOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -32,6 +41,9 @@ import com.google.common.net.HttpHeaders;
 public abstract class ResponseFacade {
 
 	private static final String TEXT_PLAIN_CONTENT_TYPE = "text/plain";
+
+	/** Status code of the responses to the requests that can't be stored (WebDAV, RFC 4918). */
+	private static final int SC_INSUFFICIENT_STORAGE = 507;
 	
 	private final static Logger logger = LoggerFactory.getLogger(ResponseFacade.class);
 	
@@ -95,6 +107,12 @@ public abstract class ResponseFacade {
 	/**
 	 * Sets the {@link HttpServletResponse} with the appropriate headers to send
 	 * back the given file to the client.
+	 * <p>
+	 * When served by Jetty, the channel of the file is handed to the
+	 * connector, which reads it into its direct buffers. The file is not
+	 * memory mapped, as the mapping would retain the disk space of the file
+	 * once deleted (and prevent its deletion on Windows) until it is garbage
+	 * collected.
 	 * 
 	 * @param contentType
 	 *            the content type of the file to be send
@@ -106,8 +124,10 @@ public abstract class ResponseFacade {
 	 *             if the file can't be read or sent.
 	 */
 	public void replyWithFile(String contentType, String fileName, Path file) throws IOException {
+		final long startNanos = System.nanoTime();
+		final long size = Files.size(file);
 		servletResponse().setContentType(contentType);
-		servletResponse().setContentLengthLong(Files.size(file));
+		servletResponse().setContentLengthLong(size);
 		
 		servletResponse().addHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
 		servletResponse().addHeader(HttpHeaders.CACHE_CONTROL, "max-age=0, no-cache, no-store");
@@ -115,14 +135,68 @@ public abstract class ResponseFacade {
 		
 		servletResponse().setStatus(HttpServletResponse.SC_OK);
 		
-		Files.copy(file, servletResponse().getOutputStream());
+		ServletOutputStream outputStream = servletResponse().getOutputStream();
+		if (outputStream instanceof HttpOutput) {
+			sendContent((HttpOutput) outputStream, file);
+		} else {
+			Files.copy(file, outputStream);
+		}
 		servletResponse().flushBuffer();
+		Metrics.registry().timer("cbi_reply_duration_seconds", "Time to send the files replied to the requests").recordSince(startNanos);
+		Metrics.registry().counter("cbi_download_bytes_total", "Number of bytes of the files replied to the requests").increment(size);
+	}
+	
+	/**
+	 * Sends the given file through the given Jetty output, reading it through
+	 * its channel. The file can be deleted as soon as this method returns.
+	 */
+	private static void sendContent(HttpOutput output, Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			output.sendContent(channel);
+		}
 	}
 	
+	/**
+	 * Sets the {@link HttpServletResponse} with the appropriate headers to
+	 * notify that the service is temporarily overloaded, and that the request
+	 * may be sent again after the given delay.
+	 *
+	 * @param retryAfter
+	 *            the number of seconds after which the request may be sent
+	 *            again.
+	 * @param messages
+	 *            additional messages
+	 * @throws IOException
+	 *             if error occurs during the transmission of the response.
+	 */
+	public void serviceUnavailable(long retryAfter, String... messages) throws IOException {
+		servletResponse().setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+		replyPlain(HttpServletResponse.SC_SERVICE_UNAVAILABLE, messages);
+	}
+
+	/**
+	 * Sets the {@link HttpServletResponse} with the appropriate headers to
+	 * notify that the service is unable to store the request (507).
+	 *
+	 * @param messages
+	 *            additional messages
+	 * @throws IOException
+	 *             if error occurs during the transmission of the response.
+	 */
+	public void insufficientStorage(String... messages) throws IOException {
+		replyPlain(SC_INSUFFICIENT_STORAGE, messages);
+	}
+
 	/**
 	 * Sets the {@link HttpServletResponse} with the appropriate headers to
 	 * notify an error during the processing of the request. It will dump the
 	 * messages and the exception stack trace as the body of the response.
+	 * <p>
+	 * If the error is caused by a {@link ProcessRejectedException}, the
+	 * service is {@link #serviceUnavailable(long, String...) unavailable}
+	 * instead. If it is caused by an {@link InsufficientStorageException}, the
+	 * service is either unavailable or {@link #insufficientStorage(String...)
+	 * unable to store the request}.
 	 * 
 	 * @param e
 	 *            the exception that causes the error.
@@ -131,7 +205,21 @@ public abstract class ResponseFacade {
 	 * @throws IOException
 	 *             if error occurs during the transmission of the response.
 	 */
-	public void internalServerError(Exception e, String... messages) throws IOException {
+	public void internalServerError(Throwable e, String... messages) throws IOException {
+		for (Throwable cause : Throwables.getCausalChain(e)) {
+			if (cause instanceof ProcessRejectedException) {
+				serviceUnavailable(((ProcessRejectedException) cause).getRetryAfter(), cause.getMessage());
+				return;
+			} else if (cause instanceof InsufficientStorageException) {
+				OptionalLong retryAfter = ((InsufficientStorageException) cause).getRetryAfter();
+				if (retryAfter.isPresent()) {
+					serviceUnavailable(retryAfter.getAsLong(), cause.getMessage());
+				} else {
+					insufficientStorage(cause.getMessage());
+				}
+				return;
+			}
+		}
 		internalServerError(messages);
 		e.printStackTrace(servletResponse().getWriter());
 		logger.error("Error Stacktrace", e);
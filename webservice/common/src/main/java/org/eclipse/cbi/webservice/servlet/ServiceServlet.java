@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.cbi.webservice.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+/**
+ * Base class of the servlets serving a service through POST requests.
+ * <p>
+ * If the servlet context has an {@link Executor} as attribute
+ * {@link #EXECUTOR_ATTRIBUTE} and the request supports asynchronous
+ * processing, the request is parsed on the container thread, and then served
+ * by the executor. The container thread is released in the meantime. If
+ * serving the request fails on the executor, the client gets an
+ * {@link ResponseFacade#internalServerError(Throwable, String...) internal
+ * server error}, unless the response has already been committed. If the
+ * executor rejects the request, the service is
+ * {@link ResponseFacade#serviceUnavailable(long, String...) unavailable}, and
+ * the client is advised to retry after the number of seconds of attribute
+ * {@link #RETRY_AFTER_ATTRIBUTE}.
+ * <p>
+ * Otherwise, the request is served on the container thread.
+ * <p>
+ * If the servlet context has a {@link WorkspaceManager} as attribute
+ * {@link WorkspaceManager#ATTRIBUTE}, a {@link Workspace} is created for each
+ * request before it is parsed, and deleted in the background once the
+ * request has been served. If there is not enough space left to create it,
+ * the request is rejected (see {@link InsufficientStorageException}).
+ * Otherwise, the files of the parts read by a {@link MultipartStreamParser}
+ * are deleted once the request has been served.
+ * <p>
+ * The number of requests, their duration and the number of uploaded bytes
+ * are recorded in the {@link Metrics#registry() metrics} of the service, which
+ * is labeled by the servlet path of the requests.
+ */
+public abstract class ServiceServlet extends HttpServlet {
+
+	private static final long serialVersionUID = -2408738722349066510L;
+
+	/** The name of the servlet context attribute with the executor serving the requests. */
+	public static final String EXECUTOR_ATTRIBUTE = ServiceServlet.class.getName() + ".executor";
+
+	/** The name of the servlet context attribute with the delay (a {@link Long}, in seconds) after which rejected requests may be sent again. */
+	public static final String RETRY_AFTER_ATTRIBUTE = ServiceServlet.class.getName() + ".retryAfter";
+
+	private static final long DEFAULT_RETRY_AFTER = 30;
+
+	private static final String MULTIPART_CONTENT_TYPE_PREFIX = "multipart/";
+
+	private final static Logger logger = LoggerFactory.getLogger(ServiceServlet.class);
+
+	private static final AtomicInteger requestsInFlight = new AtomicInteger();
+
+	static {
+		Metrics.registry().gauge("cbi_requests_in_flight", "Number of requests being served", requestsInFlight::get);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected final void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		final long startNanos = System.nanoTime();
+		// the servlet path is reset by the container once an asynchronous request is dispatched
+		final String service = Strings.nullToEmpty(req.getServletPath());
+		requestsInFlight.incrementAndGet();
+		final ResponseFacade responseFacade = ResponseFacade.builder()
+				.servletResponse(resp)
+				.session(req.getSession())
+				.build();
+
+		final ServletContext servletContext = req.getServletContext();
+		try {
+			createWorkspace(req, servletContext);
+		} catch (InsufficientStorageException e) {
+			responseFacade.internalServerError(e);
+			requestServed(req, resp, service, startNanos);
+			return;
+		}
+
+		final Executor executor = servletContext != null ? (Executor) servletContext.getAttribute(EXECUTOR_ATTRIBUTE) : null;
+		if (executor == null || !req.isAsyncSupported()) {
+			try {
+				doPost(req, responseFacade);
+			} finally {
+				releaseTemporaryResources(req);
+				requestServed(req, resp, service, startNanos);
+			}
+			return;
+		}
+
+		// the upload is read on the container thread, only the service is run by the executor
+		String contentType = req.getContentType();
+		if (contentType != null && contentType.startsWith(MULTIPART_CONTENT_TYPE_PREFIX)) {
+			try {
+				MultipartStreamParser.getParts(req);
+			} catch (IOException | ServletException | RuntimeException e) {
+				releaseTemporaryResources(req);
+				requestServed(req, resp, service, startNanos);
+				throw e;
+			}
+		}
+
+		final AsyncContext asyncContext = req.startAsync();
+		// the services enforce their own timeouts
+		asyncContext.setTimeout(0);
+		try {
+			executor.execute(() -> {
+				try {
+					doPost(req, responseFacade);
+				} catch (Throwable e) {
+					reportAsyncError(resp, responseFacade, e);
+				} finally {
+					releaseTemporaryResources(req);
+					requestServed(req, resp, service, startNanos);
+					asyncContext.complete();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			releaseTemporaryResources(req);
+			try {
+				responseFacade.serviceUnavailable(retryAfter(servletContext), "Too many requests are being served, try again later");
+			} finally {
+				requestServed(req, resp, service, startNanos);
+				asyncContext.complete();
+			}
+		}
+	}
+
+	/**
+	 * Reports the given failure of a request served by the executor to the
+	 * client, as the container would do for a request served on its thread.
+	 */
+	private static void reportAsyncError(HttpServletResponse resp, ResponseFacade responseFacade, Throwable e) {
+		if (resp.isCommitted()) {
+			logger.error("Error occured while serving the request asynchronously, after the response has been committed", e);
+			return;
+		}
+		try {
+			resp.resetBuffer();
+			responseFacade.internalServerError(e);
+		} catch (IOException | RuntimeException replyError) {
+			logger.error("Error occured while serving the request asynchronously", e);
+			logger.error("Unable to report the error to the client", replyError);
+		}
+	}
+
+	/**
+	 * Records the metrics of the given request once it has been served,
+	 * successfully or not.
+	 */
+	private static void requestServed(HttpServletRequest req, HttpServletResponse resp, String service, long startNanos) {
+		requestsInFlight.decrementAndGet();
+		final Metrics metrics = Metrics.registry();
+		metrics.counter("cbi_requests_total", "Number of served requests", "service", service, "status", Integer.toString(resp.getStatus())).increment();
+		metrics.timer("cbi_request_duration_seconds", "Time to serve the requests, upload and reply included", "service", service).recordSince(startNanos);
+		long uploadedBytes = req.getContentLengthLong();
+		if (uploadedBytes > 0) {
+			metrics.counter("cbi_upload_bytes_total", "Number of bytes uploaded by the requests", "service", service).increment(uploadedBytes);
+		}
+	}
+
+	/**
+	 * Creates the workspace of the given request, if the servlet context has a
+	 * {@link WorkspaceManager}.
+	 */
+	private static void createWorkspace(HttpServletRequest req, ServletContext servletContext) throws IOException {
+		Object workspaceManager = servletContext != null ? servletContext.getAttribute(WorkspaceManager.ATTRIBUTE) : null;
+		if (workspaceManager instanceof WorkspaceManager) {
+			req.setAttribute(Workspace.ATTRIBUTE, ((WorkspaceManager) workspaceManager).create());
+		}
+	}
+
+	/**
+	 * Deletes the workspace of the given request in the background, or the
+	 * files of its parts read by a {@link MultipartStreamParser} if it has no
+	 * workspace.
+	 */
+	private static void releaseTemporaryResources(HttpServletRequest req) {
+		Optional<Workspace> workspace = Workspace.of(req);
+		if (workspace.isPresent()) {
+			workspace.get().close();
+		} else {
+			MultipartStreamParser.deleteParts(req);
+		}
+	}
+
+	private static long retryAfter(ServletContext servletContext) {
+		Object retryAfter = servletContext.getAttribute(RETRY_AFTER_ATTRIBUTE);
+		return retryAfter instanceof Long ? (Long) retryAfter : DEFAULT_RETRY_AFTER;
+	}
+
+	/**
+	 * Serves the given POST request. Errors must be reported to the client
+	 * through the given response facade, as this method may be called outside
+	 * of the container thread.
+	 *
+	 * @param req
+	 *            the request to serve.
+	 * @param responseFacade
+	 *            the facade to the response of the request.
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	protected abstract void doPost(HttpServletRequest req, ResponseFacade responseFacade) throws ServletException, IOException;
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The folder holding all the temporary files of a request. It is created by a
+ * {@link WorkspaceManager} before the request is served, and
+ * {@link #close() closing} it deletes the folder in the background.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class Workspace implements Closeable {
+
+	/** The name of the request attribute with the workspace of the request. */
+	public static final String ATTRIBUTE = Workspace.class.getName();
+
+	private final WorkspaceManager manager;
+
+	private final Path path;
+
+	private final AtomicBoolean closed;
+
+	Workspace(WorkspaceManager manager, Path path) {
+		this.manager = manager;
+		this.path = path;
+		this.closed = new AtomicBoolean();
+	}
+
+	/**
+	 * Returns the folder of this workspace.
+	 *
+	 * @return the folder of this workspace.
+	 */
+	public Path path() {
+		return path;
+	}
+
+	/**
+	 * Creates a new empty file in this workspace.
+	 *
+	 * @param prefix
+	 *            the prefix of the file name, may be {@code null}.
+	 * @param suffix
+	 *            the suffix of the file name, may be {@code null}.
+	 * @return the new file.
+	 * @throws IOException
+	 *             if the file can't be created.
+	 */
+	public Path createTempFile(String prefix, String suffix) throws IOException {
+		return Files.createTempFile(path, prefix, suffix);
+	}
+
+	/**
+	 * Creates a new empty folder in this workspace.
+	 *
+	 * @param prefix
+	 *            the prefix of the folder name, may be {@code null}.
+	 * @return the new folder.
+	 * @throws IOException
+	 *             if the folder can't be created.
+	 */
+	public Path createTempDirectory(String prefix) throws IOException {
+		return Files.createTempDirectory(path, prefix);
+	}
+
+	/**
+	 * Deletes this workspace and all its content in the background. Calling
+	 * this method more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (closed.compareAndSet(false, true)) {
+			manager.release(path);
+		}
+	}
+
+	/**
+	 * Returns the workspace of the given request, if any.
+	 *
+	 * @param request
+	 *            the request.
+	 * @return the workspace of the given request, if any.
+	 */
+	public static Optional<Workspace> of(HttpServletRequest request) {
+		Object workspace = request.getAttribute(ATTRIBUTE);
+		return workspace instanceof Workspace ? Optional.of((Workspace) workspace) : Optional.empty();
+	}
+}
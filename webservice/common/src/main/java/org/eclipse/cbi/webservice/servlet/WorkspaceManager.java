@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Creates the {@link Workspace workspaces} of the requests in the
+ * {@link #root()} folder, and deletes them in the background once the
+ * requests have been served.
+ * <p>
+ * A janitor reclaims the workspaces left behind (e.g. by a crash of the
+ * server) once they have not been modified for {@link #timeToLive()}
+ * seconds. It runs when the manager is {@link #start() started}, and then
+ * every {@link #janitorPeriod()} seconds.
+ * <p>
+ * A workspace is not created, and an {@link InsufficientStorageException} is
+ * thrown instead, if the device of the root folder has less than
+ * {@link #minFreeSpace()} bytes left (the request can't be stored, 507), or
+ * if the workspaces already use {@link #quota()} bytes (the service is
+ * temporarily unavailable, 503, until some workspaces are deleted).
+ * <p>
+ * This class is thread-safe.
+ */
+@AutoValue
+public abstract class WorkspaceManager implements Closeable {
+
+	/** The name of the servlet context attribute with the manager of the workspaces. */
+	public static final String ATTRIBUTE = WorkspaceManager.class.getName();
+
+	static final String WORKSPACE_PREFIX = "workspace-";
+
+	private static final long USAGE_REFRESH_PERIOD = TimeUnit.SECONDS.toNanos(5);
+
+	private static final long SHUTDOWN_TIMEOUT = 30;
+
+	private static final Logger logger = LoggerFactory.getLogger(WorkspaceManager.class);
+
+	private final Set<Path> activeWorkspaces;
+
+	/**
+	 * Initialized by {@link Builder#build()}.
+	 */
+	private ScheduledExecutorService executor;
+
+	private long usage;
+
+	private long usageRefreshedAt;
+
+	private boolean usageComputed;
+
+	WorkspaceManager() {
+		this.activeWorkspaces = ConcurrentHashMap.newKeySet();
+	}
+
+	/**
+	 * Returns the folder where the workspaces are created.
+	 *
+	 * @return the folder where the workspaces are created.
+	 */
+	public abstract Path root();
+
+	/**
+	 * Returns the time after which a workspace that is not used by any
+	 * request anymore is reclaimed by the janitor, in seconds.
+	 *
+	 * @return the time to live of the orphaned workspaces, in seconds.
+	 */
+	public abstract long timeToLive();
+
+	/**
+	 * Returns the time between two runs of the janitor, in seconds. 0 means
+	 * that the janitor only runs at startup.
+	 *
+	 * @return the time between two runs of the janitor, in seconds.
+	 */
+	public abstract long janitorPeriod();
+
+	/**
+	 * Returns the maximum number of bytes used by all the workspaces. 0 means
+	 * no limit.
+	 *
+	 * @return the maximum number of bytes used by all the workspaces.
+	 */
+	public abstract long quota();
+
+	/**
+	 * Returns the minimum number of bytes left on the device of the
+	 * {@link #root()} folder to create a workspace. 0 means no limit.
+	 *
+	 * @return the minimum number of bytes left to create a workspace.
+	 */
+	public abstract long minFreeSpace();
+
+	/**
+	 * Returns the number of seconds after which the clients are advised to
+	 * send again the requests rejected because the {@link #quota()} is
+	 * exceeded.
+	 *
+	 * @return the number of seconds after which a rejected request may be sent
+	 *         again.
+	 */
+	public abstract long retryAfter();
+
+	/**
+	 * Creates and returns a new builder for this class, without any limit.
+	 *
+	 * @param root
+	 *            the folder where the workspaces are created.
+	 * @return a new builder for this class.
+	 */
+	public static Builder builder(Path root) {
+		return new AutoValue_WorkspaceManager.Builder()
+			.root(root)
+			.timeToLive(TimeUnit.DAYS.toSeconds(1))
+			.janitorPeriod(TimeUnit.HOURS.toSeconds(1))
+			.quota(0)
+			.minFreeSpace(0)
+			.retryAfter(30);
+	}
+
+	/**
+	 * A builder of {@link WorkspaceManager}.
+	 */
+	@AutoValue.Builder
+	public abstract static class Builder {
+		Builder() {}
+
+		abstract Builder root(Path root);
+
+		/**
+		 * Sets the time after which an orphaned workspace is reclaimed.
+		 *
+		 * @param timeToLive
+		 *            the time to live of the orphaned workspaces, in seconds.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder timeToLive(long timeToLive);
+
+		/**
+		 * Sets the time between two runs of the janitor. 0 means that the
+		 * janitor only runs at startup.
+		 *
+		 * @param janitorPeriod
+		 *            the time between two runs of the janitor, in seconds.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder janitorPeriod(long janitorPeriod);
+
+		/**
+		 * Sets the maximum number of bytes used by all the workspaces. 0 means
+		 * no limit.
+		 *
+		 * @param quota
+		 *            the maximum number of bytes used by all the workspaces.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder quota(long quota);
+
+		/**
+		 * Sets the minimum number of bytes left on the device of the root
+		 * folder to create a workspace. 0 means no limit.
+		 *
+		 * @param minFreeSpace
+		 *            the minimum number of bytes left to create a workspace.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder minFreeSpace(long minFreeSpace);
+
+		/**
+		 * Sets the number of seconds after which the clients are advised to
+		 * send again the requests rejected because the quota is exceeded.
+		 *
+		 * @param retryAfter
+		 *            the number of seconds after which a rejected request may
+		 *            be sent again.
+		 * @return this builder for daisy chaining.
+		 */
+		public abstract Builder retryAfter(long retryAfter);
+
+		abstract WorkspaceManager autoBuild();
+
+		/**
+		 * Creates and returns a new {@link WorkspaceManager}. The following checks are done:
+		 * <ul>
+		 * <li>The root folder must be an existing directory</li>
+		 * <li>The time to live must be strictly positive</li>
+		 * <li>The period of the janitor, the quota, the minimum free space and the retry delay must be positive</li>
+		 * </ul>
+		 * @return a new {@link WorkspaceManager}.
+		 */
+		public WorkspaceManager build() {
+			WorkspaceManager manager = autoBuild();
+			Preconditions.checkState(Files.isDirectory(manager.root()), "Workspaces root folder must be an existing directory");
+			Preconditions.checkState(manager.timeToLive() > 0, "Time to live of the workspaces must be strictly positive");
+			Preconditions.checkState(manager.janitorPeriod() >= 0, "Period of the janitor must be positive");
+			Preconditions.checkState(manager.quota() >= 0, "Quota of the workspaces must be positive");
+			Preconditions.checkState(manager.minFreeSpace() >= 0, "Minimum free space must be positive");
+			Preconditions.checkState(manager.retryAfter() >= 0, "Retry after delay must be positive");
+			// the pending deletions still run once shut down, not the janitor
+			manager.executor = new ScheduledThreadPoolExecutor(1,
+					new ThreadFactoryBuilder().setNameFormat("workspace-janitor-%d").setDaemon(true).build());
+			return manager;
+		}
+	}
+
+	/**
+	 * Starts the janitor. It reclaims the orphaned workspaces right away, and
+	 * then every {@link #janitorPeriod()} seconds.
+	 */
+	public void start() {
+		if (janitorPeriod() > 0) {
+			executor.scheduleWithFixedDelay(this::reclaimOrphans, 0, janitorPeriod(), TimeUnit.SECONDS);
+		} else {
+			executor.execute(this::reclaimOrphans);
+		}
+	}
+
+	/**
+	 * Creates a new workspace.
+	 *
+	 * @return the new workspace.
+	 * @throws InsufficientStorageException
+	 *             if there is not enough space left to create a workspace.
+	 * @throws IOException
+	 *             if the workspace can't be created.
+	 */
+	public Workspace create() throws IOException {
+		checkStorage();
+		Path path = Files.createTempDirectory(root(), WORKSPACE_PREFIX);
+		activeWorkspaces.add(path);
+		return new Workspace(this, path);
+	}
+
+	private void checkStorage() throws IOException {
+		if (minFreeSpace() > 0) {
+			long usableSpace = Files.getFileStore(root()).getUsableSpace();
+			if (usableSpace < minFreeSpace()) {
+				throw new InsufficientStorageException("Not enough space left to store the request (" + usableSpace + " bytes usable in the temporary folder)");
+			}
+		}
+		if (quota() > 0) {
+			long usage = usage();
+			if (usage >= quota()) {
+				throw new InsufficientStorageException("Too many temporary files are being used (" + usage + " bytes), try again later", retryAfter());
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of workspaces that have been created and not released
+	 * yet.
+	 *
+	 * @return the number of workspaces in use.
+	 */
+	public int activeWorkspaces() {
+		return activeWorkspaces.size();
+	}
+
+	/**
+	 * Returns the number of bytes used by the files of all the workspaces. The
+	 * returned value may be up to a few seconds old.
+	 *
+	 * @return the number of bytes used by all the workspaces.
+	 * @throws IOException
+	 *             if the root folder can't be read.
+	 */
+	public synchronized long usage() throws IOException {
+		long now = System.nanoTime();
+		if (!usageComputed || now - usageRefreshedAt > USAGE_REFRESH_PERIOD) {
+			usage = computeUsage();
+			usageRefreshedAt = now;
+			usageComputed = true;
+		}
+		return usage;
+	}
+
+	private long computeUsage() throws IOException {
+		final long[] size = new long[1];
+		try (DirectoryStream<Path> workspaces = Files.newDirectoryStream(root(), WORKSPACE_PREFIX + "*")) {
+			for (Path workspace : workspaces) {
+				Files.walkFileTree(workspace, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+						size[0] += attrs.size();
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path file, IOException e) {
+						// deleted in the meantime
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			}
+		}
+		return size[0];
+	}
+
+	/**
+	 * Deletes the given workspace folder in the background. It is deleted
+	 * right away if the manager is closed.
+	 */
+	void release(Path workspace) {
+		try {
+			executor.execute(() -> delete(workspace));
+		} catch (RejectedExecutionException e) {
+			delete(workspace);
+		}
+	}
+
+	private void delete(Path workspace) {
+		try {
+			deleteRecursively(workspace);
+		} catch (IOException e) {
+			logger.error("Error occured while deleting workspace '" + workspace + "', it will be reclaimed by the janitor", e);
+		} finally {
+			activeWorkspaces.remove(workspace);
+		}
+	}
+
+	static void deleteRecursively(Path folder) throws IOException {
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.deleteIfExists(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+				if (e != null) {
+					throw e;
+				}
+				Files.deleteIfExists(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Deletes the workspaces that are not used by any request and that have
+	 * not been modified for {@link #timeToLive()} seconds.
+	 */
+	void reclaimOrphans() {
+		long expiration = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(timeToLive());
+		try (DirectoryStream<Path> workspaces = Files.newDirectoryStream(root(), WORKSPACE_PREFIX + "*")) {
+			for (Path workspace : workspaces) {
+				if (!activeWorkspaces.contains(workspace) && Files.isDirectory(workspace)
+						&& Files.getLastModifiedTime(workspace).toMillis() < expiration) {
+					logger.info("Reclaiming orphaned workspace '" + workspace + "'");
+					try {
+						deleteRecursively(workspace);
+					} catch (IOException e) {
+						logger.error("Error occured while reclaiming workspace '" + workspace + "'", e);
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// must not be thrown, it would cancel the next runs
+			logger.error("Error occured while reclaiming the orphaned workspaces of '" + root() + "'", e);
+		}
+	}
+
+	/**
+	 * Stops the janitor, and waits for the pending deletions.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+				logger.warn("Some workspaces have not been deleted yet, they will be reclaimed by the janitor");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
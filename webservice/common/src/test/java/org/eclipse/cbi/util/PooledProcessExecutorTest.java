@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.jimfs.Jimfs;
+
+public class PooledProcessExecutorTest {
+
+	/**
+	 * A worker echoing its jobs, with its PID, and exiting with 3 if the job
+	 * is 'fail', hanging, with a child process whose PID is echoed, if the
+	 * job is 'hang', writing 1000 numbered lines if the job is 'verbose', or
+	 * not reading its next job for 30 seconds if the job is 'stall'.
+	 */
+	private static final ImmutableList<String> WORKER = ImmutableList.of("sh", "-c",
+			"while IFS= read -r job; do "
+			+ "case \"$job\" in "
+			+ "hang) sleep 30 & echo \"child $!\"; wait ;; "
+			+ "fail) echo \"#exit 3\" ;; "
+			+ "verbose) i=0; while [ $i -lt 1000 ]; do echo \"line $i\"; i=$((i+1)); done; echo \"#exit 0\" ;; "
+			+ "stall) echo \"#exit 0\"; sleep 30 ;; "
+			+ "*) echo \"$$ $job\"; echo \"#exit 0\" ;; "
+			+ "esac; done");
+
+	@Test
+	public void testExec() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).build()) {
+			StringBuffer output = new StringBuffer();
+			int exitValue = executor.exec(ImmutableList.of("echo", "Hello World"), output, 10, TimeUnit.SECONDS);
+			assertEquals(0, exitValue);
+			assertTrue(output.toString(), output.toString().endsWith(" echo\tHello World\n"));
+		}
+	}
+
+	@Test
+	public void testExitValue() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).build()) {
+			assertEquals(3, executor.exec(ImmutableList.of("fail"), 10, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testWorkerIsReused() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxWorkers(1).build()) {
+			assertEquals(pid(executor), pid(executor));
+		}
+	}
+
+	@Test
+	public void testWorkerIsRecycled() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxWorkers(1).maxJobsPerWorker(1).build()) {
+			assertNotEquals(pid(executor), pid(executor));
+		}
+	}
+
+	@Test
+	public void testHangingWorkerIsKilled() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxWorkers(1).build()) {
+			String pid = pid(executor);
+			try {
+				executor.exec(ImmutableList.of("hang"), 500, TimeUnit.MILLISECONDS);
+				fail("The hanging process should have timed out");
+			} catch (IOException e) {
+				// expected
+			}
+			assertEquals(0, executor.busyWorkers());
+			assertNotEquals(pid, pid(executor));
+		}
+	}
+
+	@Test
+	public void testProcessesStartedByHangingWorkerAreKilled() throws IOException, InterruptedException {
+		// descendant processes can only be listed since Java 9
+		Assume.assumeTrue(hasMethod(Process.class, "descendants"));
+		Assume.assumeTrue(Files.isDirectory(Paths.get("/proc")));
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxWorkers(1).build()) {
+			String childPid = null;
+			try {
+				executor.exec(ImmutableList.of("hang"), 500, TimeUnit.MILLISECONDS);
+				fail("The hanging process should have timed out");
+			} catch (IOException e) {
+				Matcher matcher = Pattern.compile("child (\\d+)").matcher(e.getMessage());
+				assertTrue(e.getMessage(), matcher.find());
+				childPid = matcher.group(1);
+			}
+			long deadline = System.currentTimeMillis() + 5000;
+			while (isRunning(childPid) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			assertFalse("Process " + childPid + " is still running", isRunning(childPid));
+		}
+	}
+
+	@Test
+	public void testOutputIsCapped() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxOutputSize(100).build()) {
+			StringBuffer output = new StringBuffer();
+			assertEquals(0, executor.exec(ImmutableList.of("verbose"), output, 10, TimeUnit.SECONDS));
+			assertTrue(output.toString(), output.toString().startsWith("line 0\n"));
+			assertTrue(output.toString(), output.toString().contains(" bytes skipped"));
+			assertTrue(output.toString(), output.toString().endsWith("line 999\n"));
+			assertTrue(output.toString(), output.length() < 200);
+		}
+	}
+
+	@Test
+	public void testOutputLogFile() throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path folder = Files.createDirectories(fs.getPath("process-output"));
+			StringBuffer output = new StringBuffer();
+			try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxOutputSize(100).outputLogFolder(Optional.of(folder)).build()) {
+				executor.exec(ImmutableList.of("verbose"), output, 10, TimeUnit.SECONDS);
+			}
+			try (DirectoryStream<Path> logFiles = Files.newDirectoryStream(folder)) {
+				Path logFile = Iterables.getOnlyElement(logFiles);
+				assertTrue(logFile.getFileName().toString().startsWith("verbose-"));
+				assertEquals(1000, Files.readAllLines(logFile, StandardCharsets.UTF_8).size());
+				assertTrue(output.toString().contains(logFile.toString()));
+			}
+		}
+	}
+
+	@Test
+	public void testIdleWorkerIsProbed() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxWorkers(1).probeAfterIdleMillis(0).build()) {
+			assertEquals(pid(executor), pid(executor));
+		}
+	}
+
+	@Test
+	public void testStalledWorkerIsReplaced() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).maxWorkers(1).probeAfterIdleMillis(0).probeTimeoutMillis(500).build()) {
+			String pid = pid(executor);
+			assertEquals(0, executor.exec(ImmutableList.of("stall"), 10, TimeUnit.SECONDS));
+			assertNotEquals(pid, pid(executor));
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testArgumentWithLineBreak() throws IOException {
+		try (PooledProcessExecutor executor = PooledProcessExecutor.builder().workerCommand(WORKER).build()) {
+			executor.exec(ImmutableList.of("echo", "Hello\nWorld"), 10, TimeUnit.SECONDS);
+		}
+	}
+
+	private static boolean hasMethod(Class<?> type, String name) {
+		try {
+			type.getMethod(name);
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns whether the given process exists and is not a zombie, i.e.
+	 * terminated but not reaped yet by its parent.
+	 */
+	private static boolean isRunning(String pid) throws IOException {
+		Path stat = Paths.get("/proc", pid, "stat");
+		try {
+			String content = new String(Files.readAllBytes(stat), StandardCharsets.UTF_8);
+			// the state follows the command name, which is between parentheses
+			return content.charAt(content.lastIndexOf(')') + 2) != 'Z';
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+	}
+
+	private static String pid(ProcessExecutor executor) throws IOException {
+		StringBuffer output = new StringBuffer();
+		executor.exec(ImmutableList.of("pid"), output, 10, TimeUnit.SECONDS);
+		return output.toString().split(" ")[0];
+	}
+}
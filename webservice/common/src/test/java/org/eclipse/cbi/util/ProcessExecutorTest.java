@@ -11,14 +11,23 @@
 package org.eclipse.cbi.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.cbi.util.ProcessExecutor;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.jimfs.Jimfs;
 
 public class ProcessExecutorTest {
 
@@ -30,5 +39,38 @@ public class ProcessExecutorTest {
 		assertEquals(0, exitValue);
 		assertEquals("Hello World\n", output.toString());
 	}
-	
+
+	@Test
+	public void testOutputIsDrained() throws IOException {
+		StringBuffer output = new StringBuffer();
+		ProcessExecutor executor = new ProcessExecutor.BasicImpl();
+		int exitValue = executor.exec(ImmutableList.of("seq", "100000"), output, 10, TimeUnit.SECONDS);
+		assertEquals(0, exitValue);
+		assertTrue(output.toString().endsWith("\n99999\n100000\n"));
+	}
+
+	@Test
+	public void testBoundedOutput() throws IOException {
+		StringBuffer output = new StringBuffer();
+		ProcessExecutor executor = new ProcessExecutor.BasicImpl(8, Optional.empty());
+		int exitValue = executor.exec(ImmutableList.of("printf", "0123456789abcdefghij"), output, 10, TimeUnit.SECONDS);
+		assertEquals(0, exitValue);
+		assertEquals("0123\n[... 12 bytes skipped ...]\nghij", output.toString());
+	}
+
+	@Test
+	public void testOutputLogFile() throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path folder = Files.createDirectories(fs.getPath("process-output"));
+			StringBuffer output = new StringBuffer();
+			ProcessExecutor executor = new ProcessExecutor.BasicImpl(8, Optional.of(folder));
+			executor.exec(ImmutableList.of("printf", "0123456789abcdefghij"), output, 10, TimeUnit.SECONDS);
+			try (DirectoryStream<Path> logFiles = Files.newDirectoryStream(folder)) {
+				Path logFile = Iterables.getOnlyElement(logFiles);
+				assertTrue(logFile.getFileName().toString().startsWith("printf-"));
+				assertEquals("0123456789abcdefghij", new String(Files.readAllBytes(logFile), StandardCharsets.UTF_8));
+				assertTrue(output.toString().contains(logFile.toString()));
+			}
+		}
+	}
 }
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class ThrottledProcessExecutorTest {
+
+	@Test
+	public void testExec() throws IOException {
+		ThrottledProcessExecutor executor = ThrottledProcessExecutor.builder().delegate(new ProcessExecutor.BasicImpl()).maxConcurrentProcesses(1).build();
+		StringBuffer output = new StringBuffer();
+		assertEquals(0, executor.exec(ImmutableList.of("echo", "Hello World"), output, 10, TimeUnit.SECONDS));
+		assertEquals("Hello World\n", output.toString());
+		assertEquals(1, executor.admittedCount());
+	}
+
+	@Test
+	public void testToolLimit() throws Exception {
+		BlockingProcessExecutor delegate = new BlockingProcessExecutor();
+		ThrottledProcessExecutor executor = ThrottledProcessExecutor.builder()
+				.delegate(delegate)
+				.toolLimits(ImmutableMap.of("jarsigner", 2))
+				.build();
+		ExecutorService clients = Executors.newCachedThreadPool();
+		try {
+			for (int i = 0; i < 5; i++) {
+				clients.submit(() -> executor.exec(ImmutableList.of("/usr/bin/jarsigner"), 10, TimeUnit.SECONDS));
+			}
+			Future<Integer> other = clients.submit(() -> executor.exec(ImmutableList.of("/usr/bin/codesign"), 10, TimeUnit.SECONDS));
+			while (executor.queueDepth() < 3 || delegate.running.get() < 3) {
+				Thread.sleep(10);
+			}
+			// other tools are not limited
+			assertEquals(3, delegate.running.get());
+			assertEquals(3, executor.queueDepth());
+			delegate.release.countDown();
+			assertEquals(0, other.get().intValue());
+		} finally {
+			delegate.release.countDown();
+			clients.shutdown();
+			clients.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		assertEquals(6, executor.admittedCount());
+		assertEquals(0, executor.rejectedCount());
+	}
+
+	@Test
+	public void testRejectionWhenQueueIsFull() throws Exception {
+		BlockingProcessExecutor delegate = new BlockingProcessExecutor();
+		ThrottledProcessExecutor executor = ThrottledProcessExecutor.builder()
+				.delegate(delegate)
+				.maxConcurrentProcesses(1)
+				.maxQueueSize(0)
+				.retryAfter(42)
+				.build();
+		ExecutorService clients = Executors.newCachedThreadPool();
+		try {
+			clients.submit(() -> executor.exec(ImmutableList.of("jarsigner"), 10, TimeUnit.SECONDS));
+			while (delegate.running.get() < 1) {
+				Thread.sleep(10);
+			}
+			executor.exec(ImmutableList.of("jarsigner"), 10, TimeUnit.SECONDS);
+			fail("Should have been rejected");
+		} catch (ProcessRejectedException e) {
+			assertEquals(42, e.getRetryAfter());
+		} finally {
+			delegate.release.countDown();
+			clients.shutdown();
+			clients.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		assertEquals(1, executor.rejectedCount());
+	}
+
+	@Test
+	public void testRejectionAfterQueueTimeout() throws Exception {
+		BlockingProcessExecutor delegate = new BlockingProcessExecutor();
+		ThrottledProcessExecutor executor = ThrottledProcessExecutor.builder()
+				.delegate(delegate)
+				.maxConcurrentProcesses(1)
+				.maxQueueWait(0)
+				.build();
+		ExecutorService clients = Executors.newCachedThreadPool();
+		try {
+			clients.submit(() -> executor.exec(ImmutableList.of("jarsigner"), 10, TimeUnit.SECONDS));
+			while (delegate.running.get() < 1) {
+				Thread.sleep(10);
+			}
+			executor.exec(ImmutableList.of("jarsigner"), 10, TimeUnit.SECONDS);
+			fail("Should have been rejected");
+		} catch (ProcessRejectedException e) {
+			assertTrue(e.getMessage().contains("jarsigner"));
+		} finally {
+			delegate.release.countDown();
+			clients.shutdown();
+			clients.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		assertEquals(0, executor.queueDepth());
+	}
+
+	@Test
+	public void testInProcessExecutionIsLimited() throws Exception {
+		BlockingProcessExecutor delegate = new BlockingProcessExecutor();
+		ThrottledProcessExecutor executor = ThrottledProcessExecutor.builder()
+				.delegate(delegate)
+				.toolLimits(ImmutableMap.of("jarsigner", 1))
+				.maxQueueSize(0)
+				.build();
+		ExecutorService clients = Executors.newCachedThreadPool();
+		try {
+			clients.submit(() -> executor.exec(ImmutableList.of("jarsigner"), 10, TimeUnit.SECONDS));
+			while (delegate.running.get() < 1) {
+				Thread.sleep(10);
+			}
+			assertEquals("other", executor.execute("codesign", () -> "other"));
+			executor.execute("jarsigner", () -> "signed");
+			fail("Should have been rejected");
+		} catch (ProcessRejectedException e) {
+			assertTrue(e.getMessage().contains("jarsigner"));
+		} finally {
+			delegate.release.countDown();
+			clients.shutdown();
+			clients.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		assertEquals("signed", executor.execute("jarsigner", () -> "signed"));
+		assertEquals(0, executor.runningCount());
+		assertEquals(1, executor.rejectedCount());
+	}
+
+	private static final class BlockingProcessExecutor implements ProcessExecutor {
+
+		final AtomicInteger running = new AtomicInteger();
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public int exec(ImmutableList<String> command, StringBuffer processOutput, long timeout, TimeUnit timeoutUnit) throws IOException {
+			running.incrementAndGet();
+			try {
+				release.await(timeout, timeoutUnit);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return 0;
+		}
+
+		@Override
+		public int exec(ImmutableList<String> command, long timeout, TimeUnit timeoutUnit) throws IOException {
+			return exec(command, new StringBuffer(), timeout, timeoutUnit);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+	@Test
+	public void testCounter() throws IOException {
+		Metrics metrics = new Metrics();
+		metrics.counter("requests_total", "Requests", "service", "/jarsigner", "status", "200").increment();
+		metrics.counter("requests_total", "Requests", "service", "/jarsigner", "status", "200").increment(2);
+		metrics.counter("requests_total", "Requests", "service", "/jarsigner", "status", "500").increment();
+		assertSame(metrics.counter("requests_total", "Requests", "service", "/jarsigner", "status", "200"),
+				metrics.counter("requests_total", "Requests", "service", "/jarsigner", "status", "200"));
+
+		assertEquals("# HELP requests_total Requests\n"
+				+ "# TYPE requests_total counter\n"
+				+ "requests_total{service=\"/jarsigner\",status=\"200\"} 3\n"
+				+ "requests_total{service=\"/jarsigner\",status=\"500\"} 1\n", prometheus(metrics));
+	}
+
+	@Test
+	public void testGauge() throws IOException {
+		Metrics metrics = new Metrics();
+		AtomicInteger value = new AtomicInteger(4);
+		metrics.gauge("in_flight", "In flight", value::get);
+		value.set(2);
+		metrics.gauge("usage_bytes", "Usage", () -> 0.5);
+
+		assertEquals("# HELP in_flight In flight\n"
+				+ "# TYPE in_flight gauge\n"
+				+ "in_flight 2\n"
+				+ "# HELP usage_bytes Usage\n"
+				+ "# TYPE usage_bytes gauge\n"
+				+ "usage_bytes 0.5\n", prometheus(metrics));
+	}
+
+	@Test
+	public void testTimer() throws IOException {
+		Metrics metrics = new Metrics();
+		Metrics.Timer timer = metrics.timer("duration_seconds", "Duration", "tool", "jarsigner");
+		timer.record(3, TimeUnit.MILLISECONDS);
+		timer.record(2, TimeUnit.SECONDS);
+		timer.record(1, TimeUnit.HOURS);
+		assertEquals(3, timer.count());
+		assertEquals(3602.003, timer.totalSeconds(), 1e-9);
+
+		String prometheus = prometheus(metrics);
+		assertTrue(prometheus.startsWith("# HELP duration_seconds Duration\n# TYPE duration_seconds histogram\n"));
+		assertTrue(prometheus.contains("duration_seconds_bucket{tool=\"jarsigner\",le=\"0.005\"} 1\n"));
+		assertTrue(prometheus.contains("duration_seconds_bucket{tool=\"jarsigner\",le=\"1\"} 1\n"));
+		assertTrue(prometheus.contains("duration_seconds_bucket{tool=\"jarsigner\",le=\"2.5\"} 2\n"));
+		assertTrue(prometheus.contains("duration_seconds_bucket{tool=\"jarsigner\",le=\"600\"} 2\n"));
+		assertTrue(prometheus.contains("duration_seconds_bucket{tool=\"jarsigner\",le=\"+Inf\"} 3\n"));
+		assertTrue(prometheus.contains("duration_seconds_count{tool=\"jarsigner\"} 3\n"));
+	}
+
+	@Test
+	public void testLabelsEscaped() throws IOException {
+		Metrics metrics = new Metrics();
+		metrics.counter("errors_total", "Errors", "message", "a \"quoted\"\\path\n").increment();
+		assertTrue(prometheus(metrics).contains("errors_total{message=\"a \\\"quoted\\\"\\\\path\\n\"} 1\n"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTypeConflict() {
+		Metrics metrics = new Metrics();
+		metrics.counter("duration_seconds", "Duration", "service", "/jarsigner");
+		metrics.timer("duration_seconds", "Duration", "service", "/macsigner");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOddLabels() {
+		new Metrics().counter("requests_total", "Requests", "service");
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		Metrics metrics = new Metrics();
+		metrics.counter("requests_total", "Requests", "service", "/jarsigner").increment(5);
+		ObjectName name = new ObjectName("org.eclipse.cbi.webservice.test:type=Metrics");
+		metrics.registerMBean(name);
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(5L, server.getAttribute(name, "requests_total{service=\"/jarsigner\"}"));
+			metrics.timer("duration_seconds", "Duration").record(2, TimeUnit.SECONDS);
+			assertEquals(1L, server.getAttribute(name, "duration_seconds_count"));
+			assertEquals(2.0, server.getAttribute(name, "duration_seconds_max"));
+			assertEquals(4, server.getMBeanInfo(name).getAttributes().length);
+		} finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+	}
+
+	private static String prometheus(Metrics metrics) throws IOException {
+		StringWriter writer = new StringWriter();
+		metrics.writePrometheus(writer);
+		return writer.toString();
+	}
+}
@@ -11,6 +11,7 @@
 package org.eclipse.cbi.webservice.server;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -96,6 +97,43 @@ public class EmbeddedServerPropertiesTest {
 		}
 	}
 	
+	@Test
+	public void testEmptyPropertiesGetConnectorConfiguration() throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			EmbeddedServerProperties propertiesReader = new EmbeddedServerProperties(new PropertiesReader(new Properties(), fs));
+			assertEquals(8, propertiesReader.getMinThreads());
+			assertEquals(200, propertiesReader.getMaxThreads());
+			assertEquals(-1, propertiesReader.getAcceptors());
+			assertEquals(-1, propertiesReader.getSelectors());
+			assertEquals(30, propertiesReader.getIdleTimeout());
+			assertFalse(propertiesReader.isHttp2Cleartext());
+		}
+	}
+	
+	@Test
+	public void testGetConnectorConfiguration() throws IOException {
+		try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+			Properties properties = createTestProperties();
+			properties.setProperty("server.threads.min", "4");
+			properties.setProperty("server.threads.max", "16");
+			properties.setProperty("server.acceptors", "1");
+			properties.setProperty("server.selectors", "2");
+			properties.setProperty("server.acceptqueue.size", "128");
+			properties.setProperty("server.idletimeout", "300");
+			properties.setProperty("server.output.buffer.size", "65536");
+			properties.setProperty("server.http2c", "true");
+			EmbeddedServerProperties propertiesReader = new EmbeddedServerProperties(new PropertiesReader(properties, fs));
+			assertEquals(4, propertiesReader.getMinThreads());
+			assertEquals(16, propertiesReader.getMaxThreads());
+			assertEquals(1, propertiesReader.getAcceptors());
+			assertEquals(2, propertiesReader.getSelectors());
+			assertEquals(128, propertiesReader.getAcceptQueueSize());
+			assertEquals(300, propertiesReader.getIdleTimeout());
+			assertEquals(65536, propertiesReader.getOutputBufferSize());
+			assertTrue(propertiesReader.isHttp2Cleartext());
+		}
+	}
+	
 	private static Properties createTestProperties() {
 		Properties properties = new Properties();
 		properties.setProperty("server.access.log", "/var/log/access.log   ");
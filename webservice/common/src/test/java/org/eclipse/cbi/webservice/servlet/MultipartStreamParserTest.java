@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.jimfs.Jimfs;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MultipartStreamParserTest {
+
+	private static final String BOUNDARY = "----TestBoundary7MA4YWxk";
+
+	@Mock HttpServletRequest request;
+
+	@Test
+	public void testParse() throws Exception {
+		byte[] content = randomBytes(100 * 1024);
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path location = Files.createDirectory(fs.getPath("/tmp"));
+			List<Part> parts = parse(location, 1024, body(content), Integer.MAX_VALUE);
+			assertEquals(2, parts.size());
+
+			Part name = parts.get(0);
+			assertEquals("name", name.getName());
+			assertNull(name.getSubmittedFileName());
+			assertEquals("my program", new String(ByteStreams.toByteArray(name.getInputStream()), StandardCharsets.UTF_8));
+
+			Part file = parts.get(1);
+			assertEquals("file", file.getName());
+			assertEquals("test.jar", file.getSubmittedFileName());
+			assertEquals("application/java-archive", file.getContentType());
+			assertEquals(content.length, file.getSize());
+			assertEquals(Hashing.sha256().hashBytes(content), ((MultipartStreamParser.StreamedPart) file).sha256());
+			// only the part bigger than the threshold is in a file
+			assertEquals(1, Files.list(location).count());
+
+			file.write("target.jar");
+			assertArrayEquals(content, Files.readAllBytes(location.resolve("target.jar")));
+			assertEquals(1, Files.list(location).count());
+
+			file.delete();
+			assertFalse(Files.exists(location.resolve("target.jar")));
+		}
+	}
+
+	@Test
+	public void testParseByteByByte() throws Exception {
+		byte[] content = randomBytes(10 * 1024);
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path location = Files.createDirectory(fs.getPath("/tmp"));
+			List<Part> parts = parse(location, 8 * 1024 * 1024, body(content), 1);
+			assertEquals(2, parts.size());
+			assertArrayEquals(content, ByteStreams.toByteArray(parts.get(1).getInputStream()));
+			assertEquals(0, Files.list(location).count());
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void testTruncatedRequest() throws Exception {
+		byte[] body = body(randomBytes(10 * 1024));
+		byte[] truncated = new byte[body.length - 100];
+		System.arraycopy(body, 0, truncated, 0, truncated.length);
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path location = Files.createDirectory(fs.getPath("/tmp"));
+			try {
+				parse(location, 1024, truncated, Integer.MAX_VALUE);
+			} finally {
+				assertEquals(0, Files.list(location).count());
+			}
+		}
+	}
+
+	@Test
+	public void testParseParameters() {
+		Map<String, String> parameters = MultipartStreamParser.parseParameters("form-data; name=\"file\"; filename=\"a \\\"b\\\"; c.jar\"");
+		assertEquals("file", parameters.get("name"));
+		assertEquals("a \"b\"; c.jar", parameters.get("filename"));
+		assertEquals("abc", MultipartStreamParser.parseParameters("multipart/form-data; Boundary=abc").get("boundary"));
+		assertTrue(MultipartStreamParser.parseParameters("form-data").isEmpty());
+	}
+
+	private List<Part> parse(Path location, int threshold, byte[] body, int maxRead) throws Exception {
+		when(request.getContentType()).thenReturn("multipart/form-data; boundary=" + BOUNDARY);
+		when(request.getInputStream()).thenReturn(new ChunkedServletInputStream(new ByteArrayInputStream(body), maxRead));
+		return new MultipartStreamParser(location, threshold).parse(request);
+	}
+
+	private static byte[] body(byte[] content) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write(("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"name\"\r\n"
+				+ "\r\n"
+				+ "my program\r\n"
+				+ "--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"test.jar\"\r\n"
+				+ "Content-Type: application/java-archive\r\n"
+				+ "\r\n").getBytes(StandardCharsets.UTF_8));
+		body.write(content);
+		body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		return body.toByteArray();
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(42).nextBytes(bytes);
+		return bytes;
+	}
+
+	/**
+	 * A servlet input stream returning at most maxRead bytes per read.
+	 */
+	private static final class ChunkedServletInputStream extends ServletInputStream {
+		private final InputStream in;
+		private final int maxRead;
+
+		ChunkedServletInputStream(InputStream in, int maxRead) {
+			this.in = in;
+			this.maxRead = maxRead;
+		}
+
+		@Override
+		public int read() throws IOException { return in.read(); }
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException { return in.read(b, off, Math.min(len, maxRead)); }
+
+		@Override
+		public boolean isFinished() { return false; }
+
+		@Override
+		public boolean isReady() { return true; }
+
+		@Override
+		public void setReadListener(ReadListener readListener) {}
+	}
+}
@@ -18,6 +18,9 @@ import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.servlet.ServletException;
@@ -129,6 +132,38 @@ public class RequestFacadeTest {
 		}
 	}
 	
+	@Test
+	public void testPartPaths() throws IOException, ServletException {
+		try (FileSystem fs = Jimfs.newFileSystem(); RequestFacade facade = createRequestFacadeUnderTest(fs)) {
+			Part otherPart = mock(Part.class);
+			Part anotherPart = mock(Part.class);
+			when(request.getParts()).thenReturn(Arrays.asList(part, otherPart, anotherPart));
+			when(part.getName()).thenReturn("testPart");
+			when(part.getSubmittedFileName()).thenReturn("file1.jar");
+			when(otherPart.getName()).thenReturn("otherPart");
+			when(anotherPart.getName()).thenReturn("testPart");
+			when(anotherPart.getSubmittedFileName()).thenReturn("file2.jar");
+			Answer<Object> createFile = new Answer<Object>() {
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					String filename = invocation.getArgumentAt(0, String.class);
+					Files.createFile(fs.getRootDirectories().iterator().next().resolve("tmp").resolve(filename));
+					return null;
+				}
+			};
+			doAnswer(createFile).when(part).write(anyString());
+			doAnswer(createFile).when(anotherPart).write(anyString());
+			
+			Map<Path, String> paths = facade.getPartPaths("testPart", "prefix-");
+			assertEquals(Arrays.asList("file1.jar", "file2.jar"), new ArrayList<>(paths.values()));
+			for (Path path : paths.keySet()) {
+				assertTrue(path.toString().startsWith(fs.getRootDirectories().iterator().next() + "tmp/prefix-"));
+				assertTrue(Files.exists(path));
+			}
+			verify(otherPart, never()).write(anyString());
+		}
+	}
+	
 	@Test
 	public void testPartPathCantWrite() throws IOException, ServletException {
 		try (FileSystem fs = Jimfs.newFileSystem(); RequestFacade facade = createRequestFacadeUnderTest(fs)) {
@@ -11,13 +11,20 @@
 package org.eclipse.cbi.webservice.servlet;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javax.servlet.ServletOutputStream;
@@ -26,13 +33,16 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.eclipse.cbi.common.test.util.SampleFilesGenerators;
+import org.eclipse.cbi.util.ProcessRejectedException;
 import org.eclipse.cbi.webservice.servlet.ResponseFacade;
+import org.eclipse.jetty.server.HttpOutput;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.jimfs.Jimfs;
 import com.google.common.net.HttpHeaders;
 
@@ -86,6 +96,27 @@ public class ResponseFacadeTest {
 		}
 	}
 	
+	@Test
+	public void testReplyWithFileThroughJetty() throws IOException {
+		HttpOutput httpOutput = mock(HttpOutput.class);
+		when(response.getOutputStream()).thenReturn(httpOutput);
+		Path path = Files.createTempFile(ResponseFacadeTest.class.getSimpleName(), ".txt");
+		try {
+			SampleFilesGenerators.createLoremIpsumFile(path, 3);
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			// the channel is closed once the content has been sent
+			doAnswer(invocation -> ByteStreams.copy(Channels.newInputStream((ReadableByteChannel) invocation.getArguments()[0]), content))
+				.when(httpOutput).sendContent(any(ReadableByteChannel.class));
+			ResponseFacade responseFacade = ResponseFacade.builder().servletResponse(response).session(session).build();
+			responseFacade.replyWithFile("application/mine", "test.ext", path);
+			verify(httpOutput).sendContent(any(ReadableByteChannel.class));
+			assertEquals(SampleFilesGenerators.loremIpsumRepeated(3), new String(content.toByteArray(), StandardCharsets.UTF_8));
+			verify(response).setStatus(200);
+		} finally {
+			Files.delete(path);
+		}
+	}
+	
 	@Test
 	public void internalServerError() throws IOException {
 		ResponseFacade responseFacade = ResponseFacade.builder().servletResponse(response).session(session).build();
@@ -106,6 +137,16 @@ public class ResponseFacadeTest {
 		verify(response).setStatus(500);
 	}
 
+	@Test
+	public void internalServerErrorCausedByRejection() throws IOException {
+		ResponseFacade responseFacade = ResponseFacade.builder().servletResponse(response).session(session).build();
+		Exception thrownException = new IOException("wrapper", new ProcessRejectedException("rejected", 42));
+		responseFacade.internalServerError(thrownException, "a message");
+		verify(pw).println("rejected [SESSION=12345]");
+		verify(response).setHeader(HttpHeaders.RETRY_AFTER, "42");
+		verify(response).setStatus(503);
+	}
+
 	private static final class ForwardingServletOutputStream extends ServletOutputStream {
 		private final ByteArrayOutputStream baos;
 		
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.common.jimfs.Jimfs;
+import com.google.common.net.HttpHeaders;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ServiceServletTest {
+
+	@Mock private HttpServletRequest request;
+	@Mock private HttpServletResponse response;
+	@Mock private HttpSession session;
+	@Mock private ServletContext servletContext;
+	@Mock private AsyncContext asyncContext;
+	@Mock private PrintWriter pw;
+
+	@Before
+	public void before() throws IOException {
+		when(request.getSession()).thenReturn(session);
+		when(request.getServletContext()).thenReturn(servletContext);
+		when(request.isAsyncSupported()).thenReturn(true);
+		when(request.startAsync()).thenReturn(asyncContext);
+		when(response.getWriter()).thenReturn(pw);
+		when(session.getId()).thenReturn("12345");
+	}
+
+	@Test
+	public void testServedSynchronouslyWithoutExecutor() throws Exception {
+		RecordingServlet servlet = new RecordingServlet();
+		servlet.post(request, response);
+		assertEquals(Thread.currentThread(), servlet.servingThread);
+		verify(request, never()).startAsync();
+	}
+
+	@Test
+	public void testServedByExecutor() throws Exception {
+		when(servletContext.getAttribute(ServiceServlet.EXECUTOR_ATTRIBUTE)).thenReturn((Executor) command -> {
+			Thread thread = new Thread(command);
+			thread.start();
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		});
+		RecordingServlet servlet = new RecordingServlet();
+		servlet.post(request, response);
+		assertNotEquals(Thread.currentThread(), servlet.servingThread);
+		verify(asyncContext).complete();
+	}
+
+	@Test
+	public void testFailureOnExecutor() throws Exception {
+		when(servletContext.getAttribute(ServiceServlet.EXECUTOR_ATTRIBUTE)).thenReturn((Executor) command -> command.run());
+		RecordingServlet servlet = new RecordingServlet();
+		servlet.failure = new IllegalStateException("Failure while serving the request");
+		servlet.post(request, response);
+		verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		verify(asyncContext).complete();
+	}
+
+	@Test
+	public void testRejectedByExecutor() throws Exception {
+		when(servletContext.getAttribute(ServiceServlet.EXECUTOR_ATTRIBUTE)).thenReturn((Executor) command -> {
+			throw new RejectedExecutionException();
+		});
+		when(servletContext.getAttribute(ServiceServlet.RETRY_AFTER_ATTRIBUTE)).thenReturn(42L);
+		RecordingServlet servlet = new RecordingServlet();
+		servlet.post(request, response);
+		assertNull(servlet.servingThread);
+		verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		verify(response).setHeader(HttpHeaders.RETRY_AFTER, "42");
+		verify(asyncContext).complete();
+	}
+
+	@Test
+	public void testServedInWorkspace() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path root = Files.createDirectory(fs.getPath("/tmp"));
+			WorkspaceManager manager = WorkspaceManager.builder(root).build();
+			when(servletContext.getAttribute(WorkspaceManager.ATTRIBUTE)).thenReturn(manager);
+			Map<String, Object> attributes = new HashMap<>();
+			doAnswer(invocation -> attributes.put((String) invocation.getArguments()[0], invocation.getArguments()[1]))
+				.when(request).setAttribute(anyString(), any());
+			when(request.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArguments()[0]));
+
+			RecordingServlet servlet = new RecordingServlet();
+			servlet.post(request, response);
+			Path workspace = servlet.workspace.get().path();
+			assertEquals(root, workspace.getParent());
+
+			manager.close();
+			assertFalse(Files.exists(workspace));
+		}
+	}
+
+	@Test
+	public void testInsufficientStorage() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path root = Files.createDirectory(fs.getPath("/tmp"));
+			WorkspaceManager manager = WorkspaceManager.builder(root).minFreeSpace(Long.MAX_VALUE).build();
+			when(servletContext.getAttribute(WorkspaceManager.ATTRIBUTE)).thenReturn(manager);
+			RecordingServlet servlet = new RecordingServlet();
+			servlet.post(request, response);
+			assertNull(servlet.servingThread);
+			verify(response).setStatus(507);
+			manager.close();
+		}
+	}
+
+	private static final class RecordingServlet extends ServiceServlet {
+		private static final long serialVersionUID = 1L;
+
+		volatile Thread servingThread;
+
+		volatile Optional<Workspace> workspace;
+
+		volatile RuntimeException failure;
+
+		RecordingServlet() {}
+
+		void post(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+			doPost(req, resp);
+		}
+
+		@Override
+		protected void doPost(HttpServletRequest req, ResponseFacade responseFacade) throws ServletException, IOException {
+			servingThread = Thread.currentThread();
+			workspace = Workspace.of(req);
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.jimfs.Jimfs;
+
+public class WorkspaceManagerTest {
+
+	@Test
+	public void testWorkspaceDeletedOnClose() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path root = Files.createDirectory(fs.getPath("/tmp"));
+			WorkspaceManager manager = WorkspaceManager.builder(root).build();
+			Workspace workspace = manager.create();
+			assertEquals(root, workspace.path().getParent());
+			assertEquals(1, manager.activeWorkspaces());
+			Path file = workspace.createTempFile("test", ".jar");
+			Files.write(workspace.createTempDirectory("test").resolve("content"), new byte[1024]);
+			assertEquals(root, file.getParent().getParent());
+
+			workspace.close();
+			manager.close();
+			assertFalse(Files.exists(workspace.path()));
+			assertEquals(0, manager.activeWorkspaces());
+		}
+	}
+
+	@Test
+	public void testReclaimOrphans() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path root = Files.createDirectory(fs.getPath("/tmp"));
+			FileTime twoDaysAgo = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+			Path oldOrphan = Files.createDirectory(root.resolve(WorkspaceManager.WORKSPACE_PREFIX + "old"));
+			Files.write(oldOrphan.resolve("content"), new byte[1024]);
+			Files.setLastModifiedTime(oldOrphan, twoDaysAgo);
+			Path newOrphan = Files.createDirectory(root.resolve(WorkspaceManager.WORKSPACE_PREFIX + "new"));
+			Path other = Files.createDirectory(root.resolve("other"));
+			Files.setLastModifiedTime(other, twoDaysAgo);
+
+			WorkspaceManager manager = WorkspaceManager.builder(root).timeToLive(TimeUnit.DAYS.toSeconds(1)).build();
+			Workspace active = manager.create();
+			Files.setLastModifiedTime(active.path(), twoDaysAgo);
+
+			manager.reclaimOrphans();
+			assertFalse(Files.exists(oldOrphan));
+			assertTrue(Files.exists(newOrphan));
+			assertTrue(Files.exists(other));
+			assertTrue(Files.exists(active.path()));
+			manager.close();
+		}
+	}
+
+	@Test
+	public void testQuotaExceeded() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path root = Files.createDirectory(fs.getPath("/tmp"));
+			Path workspace = Files.createDirectory(root.resolve(WorkspaceManager.WORKSPACE_PREFIX + "full"));
+			Files.write(workspace.resolve("content"), new byte[1024]);
+			// not counted in the quota
+			Files.write(root.resolve("other"), new byte[1024]);
+
+			WorkspaceManager manager = WorkspaceManager.builder(root).quota(1024).retryAfter(42).build();
+			assertEquals(1024, manager.usage());
+			try {
+				manager.create();
+				fail("InsufficientStorageException expected");
+			} catch (InsufficientStorageException e) {
+				assertEquals(42, e.getRetryAfter().getAsLong());
+			}
+			assertEquals(0, manager.activeWorkspaces());
+			manager.close();
+		}
+	}
+
+	@Test
+	public void testNotEnoughFreeSpace() throws Exception {
+		try (FileSystem fs = Jimfs.newFileSystem()) {
+			Path root = Files.createDirectory(fs.getPath("/tmp"));
+			WorkspaceManager manager = WorkspaceManager.builder(root).minFreeSpace(Long.MAX_VALUE).build();
+			try {
+				manager.create();
+				fail("InsufficientStorageException expected");
+			} catch (InsufficientStorageException e) {
+				assertFalse(e.getRetryAfter().isPresent());
+			}
+			assertEquals(0, Files.list(root).count());
+			manager.close();
+		}
+	}
+}
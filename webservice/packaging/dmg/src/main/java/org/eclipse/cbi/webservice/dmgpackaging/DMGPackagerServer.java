@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.util.ProcessExecutorProperties;
 import org.eclipse.cbi.util.PropertiesReader;
 import org.eclipse.cbi.webservice.server.EmbeddedServer;
 import org.eclipse.cbi.webservice.server.EmbeddedServerProperties;
@@ -47,19 +48,16 @@ public class DMGPackagerServer {
 			final DMGPackagerProperties conf = new DMGPackagerProperties(PropertiesReader.create(confPath));
 			final Path tempFolder = serverConf.getTempFolder();
 			
-			final ProcessExecutor executor = new ProcessExecutor.BasicImpl();
+			final ProcessExecutor executor = new ProcessExecutorProperties(PropertiesReader.create(confPath)).createProcessExecutor();
 			
 			final DMGPackagerServlet createDMGServlet = DMGPackagerServlet.builder()
 					.dmgPackagerBuilder(DMGPackager.builder(executor).timeout(conf.getTimeout()))
 					.requestFacadeBuilder(RequestFacade.builder(tempFolder))
-					.requestParserBuilder(DMGPackagerServletRequestParser.builder(executor, tempFolder))
+					.requestParserBuilder(DMGPackagerServletRequestParser.builder(executor))
 					.build();
 			
 			final EmbeddedServer server = EmbeddedServer.builder()
-				.port(serverConf.getServerPort())
-				.accessLogFile(serverConf.getAccessLogFile())
-				.servicePathSpec(serverConf.getServicePathSpec())
-				.appendServiceVersionToPathSpec(serverConf.isServiceVersionAppendedToPathSpec())
+				.configure(serverConf)
 				.servlet(createDMGServlet)
 				.tempFolder(tempFolder)
 				.log4jConfiguration(confPath)
@@ -11,24 +11,19 @@
 package org.eclipse.cbi.webservice.dmgpackaging;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 
-import org.eclipse.cbi.common.util.Paths;
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
 import org.eclipse.cbi.webservice.servlet.ResponseFacade;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.eclipse.cbi.webservice.servlet.ServiceServlet;
 
 import com.google.auto.value.AutoValue;
 
 @AutoValue
-public abstract class DMGPackagerServlet extends HttpServlet {
+public abstract class DMGPackagerServlet extends ServiceServlet {
 
 	private static final String DOT_TAR_GZ = ".tar.gz";
 
@@ -36,8 +31,6 @@ public abstract class DMGPackagerServlet extends HttpServlet {
 
 	private static final String DOT_DMG = ".dmg";
 
-	private final static Logger logger = LoggerFactory.getLogger(DMGPackagerServlet.class);
-	
 	private static final long serialVersionUID = 7717817265007907435L;
 	
 	DMGPackagerServlet() {}
@@ -60,15 +53,9 @@ public abstract class DMGPackagerServlet extends HttpServlet {
 	}
 	
 	@Override
-	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-		final ResponseFacade responseFacade = ResponseFacade.builder()
-				.servletResponse(resp)
-				.session(req.getSession())
-				.build();
-		
-		Path targetImageFile = null;
-		try(RequestFacade requestFacade = requestFacadeBuilder().request(req).build();
-				DMGPackagerServletRequestParser parser = requestParserBuilder().requestFacade(requestFacade).build()) {
+	protected void doPost(HttpServletRequest req, ResponseFacade responseFacade) throws ServletException, IOException {
+		try(RequestFacade requestFacade = requestFacadeBuilder().request(req).build()) {
+			final DMGPackagerServletRequestParser parser = requestParserBuilder().requestFacade(requestFacade).build();
 			final DMGPackager packager = dmgPackagerBuilder()
 				.appDropLink(parser.getAppDropLink())
 				.backgroundImage(parser.getBackgroundImage())
@@ -82,23 +69,12 @@ public abstract class DMGPackagerServlet extends HttpServlet {
 				.build();
 			
 			Path source = parser.getSource();
-			targetImageFile = packager.packageImageFile(source, source.normalize().getParent().resolve(source.getFileName().toString() + DOT_DMG));
+			// next to the source, it is deleted with it
+			Path targetImageFile = packager.packageImageFile(source, source.normalize().getParent().resolve(source.getFileName().toString() + DOT_DMG));
 			String filename = requestFacade.getSubmittedFileName(DMGPackagerServletRequestParser.SOURCE_PART_NAME).toString().replace(DOT_TAR_GZ, DOT_DMG);
 			responseFacade.replyWithFile(APPLE_DISKIMAGE_MEDIA_TYPE, filename, targetImageFile);
 		} catch (Exception e) {
 			responseFacade.internalServerError(e);
-		} finally {
-			deleteTemporaryResource(targetImageFile);
-		}
-	}
-
-	private void deleteTemporaryResource(Path tempResource) {
-		if (tempResource != null && Files.exists(tempResource)) {
-			try {
-				Paths.delete(tempResource);
-			} catch (IOException e) {
-				logger.error("Error occured while deleting temporary resource '"+tempResource.toString()+"'", e);
-			}
 		}
 	}
 }
@@ -10,66 +10,37 @@
  *******************************************************************************/
 package org.eclipse.cbi.webservice.dmgpackaging;
 
-import static com.google.common.base.Preconditions.checkState;
-
-import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.util.LinkedHashSet;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.servlet.ServletException;
 
-import org.eclipse.cbi.common.util.Paths;
 import org.eclipse.cbi.common.util.Zips;
 import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.webservice.metrics.Metrics;
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.google.auto.value.AutoValue;
 
 /**
  * A parser for request to {@link DMGPackagerServlet}.
  * <p>
- * It will create temporary resources during call to some methods. Calling
- * {@link #close()} method will remove these temporary resources.
+ * It will create temporary resources during call to some methods. They are
+ * created and deleted by the {@link #requestFacade() request facade}.
  */
 @AutoValue
-public abstract class DMGPackagerServletRequestParser implements Closeable {
+public abstract class DMGPackagerServletRequestParser {
 
-	private final static Logger logger = LoggerFactory.getLogger(DMGPackagerServletRequestParser.class);
-	
 	private static final String DOT_APP_GLOB_PATTERN = "glob:**.app";
 	static final String SOURCE_PART_NAME = "source";
 	private static final String DOT_TAR_GZ = ".tar.gz";
 	private static final String TEMP_FILE_PREFIX = DMGPackagerServletRequestParser.class.getSimpleName() + "-";
 	
-	private final Set<Path> tempPaths;
-	
-	DMGPackagerServletRequestParser() {
-		tempPaths = new LinkedHashSet<Path>();
-	}
-	
-	@Override
-	public void close() throws IOException {
-		Set<Path> pathToClean = new LinkedHashSet<>(tempPaths);
-		tempPaths.clear();;
-		
-		pathToClean.forEach(p -> {
-			try {
-				if (p != null && Files.exists(p)) {
-					Paths.delete(p);
-				}
-			} catch (IOException e) {
-				logger.error("Error occured while deleting temporary resource '" + p.toString() + "'", e);
-			}
-		});
-	}
+	DMGPackagerServletRequestParser() {}
 	
 	public Path getSource() throws RequestParserException, IOException, ServletException {
 		if (requestFacade().hasPart(SOURCE_PART_NAME)) {
@@ -89,7 +60,7 @@ public abstract class DMGPackagerServletRequestParser implements Closeable {
 	}
 	
 	private Path extractApp(Path sourcePath) throws IOException, ServletException, RequestParserException {
-		Path untarFolder = createTempDirectory(tempFolder(), TEMP_FILE_PREFIX);
+		Path untarFolder = requestFacade().createTempDirectory(TEMP_FILE_PREFIX);
 		untar(sourcePath, untarFolder);
 		return findFirstAppInFolder(untarFolder);
 	}
@@ -111,7 +82,9 @@ public abstract class DMGPackagerServletRequestParser implements Closeable {
 	}
 	
 	private void untar(Path sourcePath, Path extractFolder) throws RequestParserException, IOException {
+		final long startNanos = System.nanoTime();
 		int unpackedEntries = Zips.unpackTarGz(sourcePath, extractFolder);
+		Metrics.registry().timer("cbi_zip_duration_seconds", "Time to pack and unpack the archives", "operation", "unpack").recordSince(startNanos);
 		if (unpackedEntries <= 0) {
 			throw new RequestParserException("The provided '" + SOURCE_PART_NAME + "' part is not a valid '.tar.gz' file.");
 		}
@@ -168,36 +141,21 @@ public abstract class DMGPackagerServletRequestParser implements Closeable {
 		return ret;
 	}
 	
-	private Path createTempDirectory(Path folder, String prefix) throws IOException {
-		Path tempFolder = Files.createTempDirectory(folder, prefix);
-		tempPaths.add(tempFolder);
-		return tempFolder;
-	}
-
 	abstract RequestFacade requestFacade();
 
-	abstract Path tempFolder();
-
 	abstract ProcessExecutor processExecutor();
 	
-	public static Builder builder(ProcessExecutor executor, Path tempFolder) {
+	public static Builder builder(ProcessExecutor executor) {
 		return new AutoValue_DMGPackagerServletRequestParser.Builder()
-			.processExecutor(executor)
-			.tempFolder(tempFolder);
+			.processExecutor(executor);
 	}
 
 	@AutoValue.Builder
 	public static abstract class Builder {
 		Builder() {}
 		public abstract Builder requestFacade(RequestFacade requestFacade);
-		abstract Builder tempFolder(Path path);
 		abstract Builder processExecutor(ProcessExecutor executor);
-		abstract DMGPackagerServletRequestParser autoBuild();
-		public DMGPackagerServletRequestParser build() {
-			DMGPackagerServletRequestParser parser = autoBuild();
-			checkState(Files.isDirectory(parser.tempFolder()), "Temporary folder must be an existing directory");
-			return parser;
-		}
+		public abstract DMGPackagerServletRequestParser build();
 	}
 	
 	public static class RequestParserException extends RuntimeException {
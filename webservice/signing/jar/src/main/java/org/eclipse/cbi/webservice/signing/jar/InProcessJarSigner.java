@@ -0,0 +1,518 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.signing.jar;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.Security;
+import java.security.cert.CertPath;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipFile;
+
+import org.eclipse.cbi.util.ProcessRejectedException;
+import org.eclipse.cbi.util.ThrottledProcessExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Signs jars within the service process with the
+ * {@code jdk.security.jarsigner} API, instead of forking a {@code jarsigner}
+ * process for each jar. The keystore, the private key and the certificate
+ * chain are loaded once, when this signer is built. Jars are signed by a
+ * fixed pool of worker threads, which bounds the number of concurrent
+ * signatures. The pool is shut down when this signer is closed. If an
+ * admission control is set, each signature is also admitted by it as a
+ * {@code jarsigner} command, so that the limits of the native commands (e.g.
+ * {@code process.max.jarsigner}) apply as if jars were signed by forked
+ * {@code jarsigner} processes.
+ * <p>
+ * Each jar is signed into its own temporary file, which replaces the jar only
+ * once the signature has completed in time. The signature of a jar can't be
+ * interrupted: when it times out, it is abandoned and its output is discarded
+ * whenever it completes.
+ * <p>
+ * The {@code jdk.security.jarsigner} API is available from Java 9 onwards. As
+ * this service is compiled for Java 8, it is accessed reflectively; building
+ * this signer fails on older runtimes. The timestamping authority is reached
+ * with the proxy settings of the service JVM ({@code https.proxyHost}, ...).
+ */
+public final class InProcessJarSigner implements JarCodesigner {
+
+	private static final Logger logger = LoggerFactory.getLogger(InProcessJarSigner.class);
+
+	private static final String JDK_JAR_SIGNER_BUILDER = "jdk.security.jarsigner.JarSigner$Builder";
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	/**
+	 * The tool name under which the signatures are admitted.
+	 */
+	private static final String TOOL = "jarsigner";
+
+	/**
+	 * The {@code jdk.security.jarsigner.JarSigner} (immutable and thread-safe)
+	 * configured with the loaded private key and certificate chain.
+	 */
+	private final Object jdkJarSigner;
+
+	/**
+	 * The {@code JarSigner#sign(ZipFile, OutputStream)} method.
+	 */
+	private final Method signMethod;
+
+	/**
+	 * The timeout of the signature of a jar, in seconds.
+	 */
+	private final long timeout;
+
+	private final ExecutorService workers;
+
+	/**
+	 * The admission control of the signatures, {@code null} if there is none.
+	 */
+	private final ThrottledProcessExecutor admissionControl;
+
+	private InProcessJarSigner(Object jdkJarSigner, Method signMethod, long timeout, int threads, ThrottledProcessExecutor admissionControl) {
+		this.jdkJarSigner = jdkJarSigner;
+		this.signMethod = signMethod;
+		this.timeout = timeout;
+		this.admissionControl = admissionControl;
+		this.workers = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+			.setNameFormat(InProcessJarSigner.class.getSimpleName() + "-%d")
+			.setDaemon(true)
+			.build());
+	}
+
+	/**
+	 * Creates and returns a new builder for this class.
+	 *
+	 * @return a new builder for this class.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Sign the given jar file with the loaded key.
+	 *
+	 * @param jar
+	 *            the jar to be sign
+	 * @return the path to the signed jar file (the same as the one given in
+	 *         parameter).
+	 * @throws ProcessRejectedException
+	 *             if the signature has not been admitted.
+	 * @throws IOException
+	 *             if the jar can't be signed in time.
+	 */
+	@Override
+	public Path signJar(Path jar) throws IOException {
+		if (admissionControl != null) {
+			return admissionControl.execute(TOOL, () -> doSignJar(jar));
+		}
+		return doSignJar(jar);
+	}
+
+	private Path doSignJar(Path jar) throws IOException {
+		final Path signedJar = Files.createTempFile(jar.toAbsolutePath().getParent(), jar.getFileName().toString(), TEMP_FILE_SUFFIX);
+		final AtomicBoolean abandoned = new AtomicBoolean();
+		Future<Void> signing = workers.submit(() -> {
+			signJarInto(jar, signedJar, abandoned);
+			return null;
+		});
+		try {
+			signing.get(timeout, TimeUnit.SECONDS);
+			Files.move(signedJar, jar, StandardCopyOption.REPLACE_EXISTING);
+			return jar;
+		} catch (InterruptedException e) {
+			abandon(signing, abandoned);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while signing '" + jar.getFileName() + "'");
+		} catch (TimeoutException e) {
+			abandon(signing, abandoned);
+			throw new IOException("Signing of '" + jar.getFileName() + "' did not complete within " + timeout + " seconds", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("Signing of '" + jar.getFileName() + "' failed", cause);
+		} finally {
+			deleteQuietly(signedJar);
+		}
+	}
+
+	/**
+	 * Signs the given jar into the given file. If the signature has been
+	 * abandoned in the meantime, the signed file is deleted.
+	 */
+	private void signJarInto(Path jar, Path signedJar, AtomicBoolean abandoned) throws IOException {
+		try (ZipFile zipFile = new ZipFile(jar.toFile());
+			OutputStream os = new BufferedOutputStream(Files.newOutputStream(signedJar))) {
+			signMethod.invoke(jdkJarSigner, zipFile, os);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause.getMessage(), cause);
+		} catch (IllegalAccessException e) {
+			throw new IOException(e);
+		} finally {
+			if (abandoned.get()) {
+				deleteQuietly(signedJar);
+			}
+		}
+	}
+
+	/**
+	 * Gives up on the given signature. It is cancelled if it has not started
+	 * yet, otherwise it runs to completion and its output is discarded.
+	 */
+	private static void abandon(Future<?> signing, AtomicBoolean abandoned) {
+		abandoned.set(true);
+		signing.cancel(true);
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.warn("Unable to delete temporary file '" + file + "'", e);
+		}
+	}
+
+	/**
+	 * Shuts down the worker threads. The signatures in progress are abandoned.
+	 */
+	@Override
+	public void close() {
+		workers.shutdownNow();
+	}
+
+	/**
+	 * A builder of InProcessJarSigner.
+	 */
+	public static final class Builder {
+
+		private Path keystore;
+		private Path keystorePassword;
+		private String keystoreAlias;
+		private URI timestampingAuthority;
+		private long timeout;
+		private int threads = Runtime.getRuntime().availableProcessors();
+		private String digestalg = "";
+		private String sigalg = "";
+		private String provider = "";
+		private String providerArg = "";
+		private String keystoreType = "";
+		private String certchain = "";
+		private ThrottledProcessExecutor admissionControl;
+
+		Builder() {}
+
+		/**
+		 * Sets the path to the keystore file.
+		 */
+		public Builder keystore(Path keystore) {
+			this.keystore = Objects.requireNonNull(keystore);
+			return this;
+		}
+
+		/**
+		 * Sets the path to the file storing the keystore password.
+		 */
+		public Builder keystorePassword(Path keystorePassword) {
+			this.keystorePassword = Objects.requireNonNull(keystorePassword);
+			return this;
+		}
+
+		/**
+		 * Sets the alias name of the key in the keystore.
+		 */
+		public Builder keystoreAlias(String keystoreAlias) {
+			this.keystoreAlias = Objects.requireNonNull(keystoreAlias);
+			return this;
+		}
+
+		/**
+		 * Sets the timestamping authority URI.
+		 */
+		public Builder timestampingAuthority(URI timestampingAuthority) {
+			this.timestampingAuthority = Objects.requireNonNull(timestampingAuthority);
+			return this;
+		}
+
+		/**
+		 * Sets the timeout of the signature of a jar, in seconds.
+		 */
+		public Builder timeout(long timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Sets the number of worker threads signing jars. Defaults to the
+		 * number of available processors.
+		 */
+		public Builder threads(int threads) {
+			this.threads = threads;
+			return this;
+		}
+
+		public Builder digestalg(String digestalg) {
+			this.digestalg = Objects.requireNonNull(digestalg);
+			return this;
+		}
+
+		public Builder sigalg(String sigalg) {
+			this.sigalg = Objects.requireNonNull(sigalg);
+			return this;
+		}
+
+		/**
+		 * Sets the security provider, either its name or its class name, as
+		 * {@code jarsigner -providerName} or {@code -providerClass}.
+		 */
+		public Builder provider(String provider) {
+			this.provider = Objects.requireNonNull(provider);
+			return this;
+		}
+
+		/**
+		 * Sets the configuration argument of the security provider, as
+		 * {@code jarsigner -providerArg}.
+		 */
+		public Builder providerArg(String providerArg) {
+			this.providerArg = Objects.requireNonNull(providerArg);
+			return this;
+		}
+
+		public Builder keystoreType(String keystoreType) {
+			this.keystoreType = Objects.requireNonNull(keystoreType);
+			return this;
+		}
+
+		/**
+		 * Sets the path to a file with the complete certificate chain, or an
+		 * empty string if the one of the keystore should be used.
+		 */
+		public Builder certchain(String certchain) {
+			this.certchain = Objects.requireNonNull(certchain);
+			return this;
+		}
+
+		/**
+		 * Sets the admission control of the signatures, which are admitted as
+		 * {@code jarsigner} commands. There is none by default.
+		 */
+		public Builder admissionControl(ThrottledProcessExecutor admissionControl) {
+			this.admissionControl = Objects.requireNonNull(admissionControl);
+			return this;
+		}
+
+		/**
+		 * Creates and returns a new InProcessJarSigner object with the state
+		 * of this builder. The keystore is loaded and the
+		 * {@code jdk.security.jarsigner.JarSigner} is configured right away.
+		 *
+		 * @return a new InProcessJarSigner object with the state of this
+		 *         builder.
+		 * @throws IOException
+		 *             if the key or the certificate chain can't be loaded, or
+		 *             if the {@code jdk.security.jarsigner} API is not
+		 *             available.
+		 */
+		public InProcessJarSigner build() throws IOException {
+			checkState(keystore != null, "The keystore must be set");
+			checkState(keystorePassword != null, "The keystore password must be set");
+			checkState(keystoreAlias != null, "The keystore alias must be set");
+			checkState(timestampingAuthority != null, "The timestamping authority must be set");
+			checkState(timeout > 0, "The timeout must be strictly positive");
+			checkState(threads > 0, "The number of threads must be strictly positive");
+
+			final Provider securityProvider = createProvider();
+			final KeyStore keyStore = loadKeyStore(securityProvider);
+			final PrivateKey privateKey;
+			final Certificate[] chain;
+			try {
+				privateKey = (PrivateKey) keyStore.getKey(keystoreAlias, readKeystorePassword());
+				chain = Strings.isNullOrEmpty(certchain) ? keyStore.getCertificateChain(keystoreAlias) : loadCertificateChain();
+			} catch (IOException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IOException("Unable to retrieve the key '" + keystoreAlias + "' from the keystore '" + keystore + "'", e);
+			}
+			if (privateKey == null || chain == null) {
+				throw new IOException("No key found under the alias '" + keystoreAlias + "' in the keystore '" + keystore + "'");
+			}
+
+			final Object jdkJarSigner;
+			final Method signMethod;
+			try {
+				CertPath certPath = CertificateFactory.getInstance("X.509").generateCertPath(Arrays.asList(chain));
+				Class<?> builderClass = Class.forName(JDK_JAR_SIGNER_BUILDER);
+				Constructor<?> builderConstructor = builderClass.getConstructor(PrivateKey.class, CertPath.class);
+				Object builder = builderConstructor.newInstance(privateKey, certPath);
+				if (!Strings.isNullOrEmpty(digestalg)) {
+					builder = invoke(builderClass, builder, "digestAlgorithm", digestalg, securityProvider);
+				}
+				if (!Strings.isNullOrEmpty(sigalg)) {
+					builder = invoke(builderClass, builder, "signatureAlgorithm", sigalg, securityProvider);
+				}
+				builder = builderClass.getMethod("tsa", URI.class).invoke(builder, timestampingAuthority);
+				jdkJarSigner = builderClass.getMethod("build").invoke(builder);
+				signMethod = jdkJarSigner.getClass().getMethod("sign", ZipFile.class, OutputStream.class);
+			} catch (ClassNotFoundException e) {
+				throw new IOException("In-process jar signing requires Java 9 or later (running " + System.getProperty("java.version") + ")", e);
+			} catch (InvocationTargetException e) {
+				throw new IOException("Unable to configure the jar signer: " + e.getCause().getMessage(), e.getCause());
+			} catch (ReflectiveOperationException | java.security.cert.CertificateException e) {
+				throw new IOException("Unable to configure the jar signer", e);
+			}
+
+			logger.info("Loaded key '" + keystoreAlias + "' from keystore '" + keystore + "', signing jars in process with " + threads + " worker threads");
+			return new InProcessJarSigner(jdkJarSigner, signMethod, timeout, threads, admissionControl);
+		}
+
+		/**
+		 * Calls the given algorithm method of the builder, with the provider if
+		 * there is one.
+		 */
+		private static Object invoke(Class<?> builderClass, Object builder, String methodName, String algorithm, Provider provider) throws ReflectiveOperationException {
+			if (provider != null) {
+				return builderClass.getMethod(methodName, String.class, Provider.class).invoke(builder, algorithm, provider);
+			}
+			return builderClass.getMethod(methodName, String.class).invoke(builder, algorithm);
+		}
+
+		/**
+		 * Returns the security provider, as {@code jarsigner} does: a provider
+		 * with an argument (e.g. {@code SunPKCS11} and its configuration file)
+		 * must be installed and is configured with
+		 * {@code Provider#configure(String)}, other ones are instantiated if they
+		 * are not installed.
+		 */
+		private Provider createProvider() throws IOException {
+			if (Strings.isNullOrEmpty(provider)) {
+				return null;
+			}
+			Provider installedProvider = getInstalledProvider(provider);
+			if (Strings.isNullOrEmpty(providerArg)) {
+				if (installedProvider != null) {
+					return installedProvider;
+				}
+				try {
+					Object providerObject = Class.forName(provider).getDeclaredConstructor().newInstance();
+					if (!(providerObject instanceof Provider)) {
+						throw new IOException("'" + provider + "' is not a security provider");
+					}
+					return (Provider) providerObject;
+				} catch (ReflectiveOperationException e) {
+					throw new IOException("Unable to create the security provider '" + provider + "'", e);
+				}
+			}
+
+			if (installedProvider == null) {
+				throw new IOException("The security provider '" + provider + "' must be installed in the JVM to be configured with '" + providerArg + "'");
+			}
+			try {
+				// Provider#configure(String) is only available from Java 9 onwards
+				return (Provider) Provider.class.getMethod("configure", String.class).invoke(installedProvider, providerArg);
+			} catch (InvocationTargetException e) {
+				throw new IOException("Unable to configure the security provider '" + provider + "' with '" + providerArg + "'", e.getCause());
+			} catch (ReflectiveOperationException e) {
+				throw new IOException("Configuring the security provider '" + provider + "' requires Java 9 or later (running " + System.getProperty("java.version") + ")", e);
+			}
+		}
+
+		/**
+		 * Returns the installed provider with the given name or class name, or
+		 * {@code null} if there is none.
+		 */
+		private static Provider getInstalledProvider(String nameOrClassName) {
+			Provider provider = Security.getProvider(nameOrClassName);
+			if (provider == null) {
+				for (Provider installedProvider : Security.getProviders()) {
+					if (installedProvider.getClass().getName().equals(nameOrClassName)) {
+						return installedProvider;
+					}
+				}
+			}
+			return provider;
+		}
+
+		private KeyStore loadKeyStore(Provider securityProvider) throws IOException {
+			String type = Strings.isNullOrEmpty(keystoreType) ? KeyStore.getDefaultType() : keystoreType;
+			try {
+				KeyStore keyStore = securityProvider != null ? KeyStore.getInstance(type, securityProvider) : KeyStore.getInstance(type);
+				if ("NONE".equals(keystore.toString())) {
+					keyStore.load(null, readKeystorePassword());
+				} else {
+					try (InputStream is = Files.newInputStream(keystore)) {
+						keyStore.load(is, readKeystorePassword());
+					}
+				}
+				return keyStore;
+			} catch (IOException e) {
+				throw new IOException("Unable to load the keystore '" + keystore + "'", e);
+			} catch (Exception e) {
+				throw new IOException("Unable to load the keystore '" + keystore + "' of type '" + type + "'", e);
+			}
+		}
+
+		/**
+		 * Reads the password from the first line of the password file, as
+		 * {@code jarsigner -storepass:file} does.
+		 */
+		private char[] readKeystorePassword() throws IOException {
+			List<String> lines = Files.readAllLines(keystorePassword, StandardCharsets.UTF_8);
+			return lines.isEmpty() ? new char[0] : lines.get(0).toCharArray();
+		}
+
+		private Certificate[] loadCertificateChain() throws IOException, java.security.cert.CertificateException {
+			try (InputStream is = Files.newInputStream(keystore.getFileSystem().getPath(certchain))) {
+				List<Certificate> certificates = new ArrayList<>(CertificateFactory.getInstance("X.509").generateCertificates(is));
+				return certificates.toArray(new Certificate[certificates.size()]);
+			}
+		}
+	}
+}
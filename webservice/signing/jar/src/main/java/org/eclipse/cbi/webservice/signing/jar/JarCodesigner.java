@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eclipse Foundation - initial implementation
+ *******************************************************************************/
+package org.eclipse.cbi.webservice.signing.jar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface to the actual jar signing implementations. Implementations
+ * holding resources release them when closed.
+ */
+public interface JarCodesigner extends Closeable {
+
+	/**
+	 * Sign the given jar file in place.
+	 *
+	 * @param jar
+	 *            the jar to be sign
+	 * @return the path to the signed jar file (the same as the one given in
+	 *         parameter).
+	 * @throws IOException
+	 *             if the jar can't be signed.
+	 */
+	Path signJar(Path jar) throws IOException;
+
+	/**
+	 * Releases the resources of this signer. Does nothing by default.
+	 */
+	@Override
+	default void close() throws IOException {
+		// nothing to release by default
+	}
+}
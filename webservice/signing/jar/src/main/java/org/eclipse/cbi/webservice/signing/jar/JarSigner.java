@@ -28,7 +28,7 @@ import com.google.common.collect.ImmutableList;
  * Abstraction of a call to jarsigner command.
  */
 @AutoValue
-public abstract class JarSigner {
+public abstract class JarSigner implements JarCodesigner {
 
 	/**
 	 * Returns the path to the jar signer binary
@@ -237,6 +237,7 @@ public abstract class JarSigner {
 	 * @throws IOException
 	 *             if the execution of the command did not end properly.
 	 */
+	@Override
 	public Path signJar(Path jar) throws IOException {
 		final StringBuffer output = new StringBuffer();
 		int jarSignerExitValue = processExecutor().exec(createCommand(jar), output , timeout(), TimeUnit.SECONDS);
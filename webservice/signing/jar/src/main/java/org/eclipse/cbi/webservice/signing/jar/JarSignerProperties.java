@@ -35,6 +35,18 @@ public class JarSignerProperties {
 	private static final String JARSIGNER_DIGESTALG = "jarsigner.digestalg";
 	private static final String JARSIGNER_PROVIDER = "jarsigner.provider";
 	private static final String JARSIGNER_PROVIDER_ARG = "jarsigner.provider.arg";
+	private static final String JARSIGNER_ENGINE = "jarsigner.engine";
+	private static final String JARSIGNER_INTERNAL_THREADS = "jarsigner.internal.threads";
+
+	/**
+	 * Value of {@value #JARSIGNER_ENGINE} to fork a jarsigner process for each jar.
+	 */
+	public static final String ENGINE_PROCESS = "process";
+
+	/**
+	 * Value of {@value #JARSIGNER_ENGINE} to sign jars within the service process.
+	 */
+	public static final String ENGINE_INTERNAL = "internal";
 
 	private static final String JARSIGNER_HTTP_PROXY_HOST = "jarsigner.http.proxy.host";
 	private static final String JARSIGNER_HTTPS_PROXY_HOST = "jarsigner.https.proxy.host";
@@ -122,6 +134,32 @@ public class JarSignerProperties {
 		return propertiesReader.getLong(JARSIGNER_TIMEOUT, JARSIGNER_TIMEOUT_DEFAULT);
 	}
 
+	/**
+	 * Reads and returns how jars are signed, either
+	 * {@value #ENGINE_PROCESS} (the default) or {@value #ENGINE_INTERNAL}.
+	 *
+	 * @return how jars are signed.
+	 */
+	public String getEngine() {
+		String engine = propertiesReader.getString(JARSIGNER_ENGINE, ENGINE_PROCESS);
+		if (!ENGINE_PROCESS.equals(engine) && !ENGINE_INTERNAL.equals(engine)) {
+			throw new IllegalArgumentException("Property '" + JARSIGNER_ENGINE + "' must be either '" + ENGINE_PROCESS + "' or '" + ENGINE_INTERNAL + "' (currently '" + engine + "')");
+		}
+		return engine;
+	}
+
+	/**
+	 * Reads and returns the number of threads signing jars when the
+	 * {@value #ENGINE_INTERNAL} engine is used. If no
+	 * {@value #JARSIGNER_INTERNAL_THREADS} property can be found returns the
+	 * number of available processors.
+	 *
+	 * @return the number of threads signing jars.
+	 */
+	public int getInternalThreads() {
+		return propertiesReader.getInt(JARSIGNER_INTERNAL_THREADS, Runtime.getRuntime().availableProcessors());
+	}
+
 	public String getHttpProxyHost() {
 		return propertiesReader.getString(JARSIGNER_HTTP_PROXY_HOST, "");
 	}
@@ -17,8 +17,9 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.util.ProcessExecutorProperties;
 import org.eclipse.cbi.util.PropertiesReader;
+import org.eclipse.cbi.util.ThrottledProcessExecutor;
 import org.eclipse.cbi.webservice.server.EmbeddedServer;
 import org.eclipse.cbi.webservice.server.EmbeddedServerProperties;
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
@@ -49,43 +50,64 @@ public class SigningServer {
 			final EmbeddedServerProperties serverConf = new EmbeddedServerProperties(PropertiesReader.create(confPath));
 			final JarSignerProperties conf = new JarSignerProperties(PropertiesReader.create(confPath));
 			final Path tempFolder = serverConf.getTempFolder();
+			final ThrottledProcessExecutor processExecutor = new ProcessExecutorProperties(PropertiesReader.create(confPath)).createProcessExecutor();
+
+			final JarCodesigner jarSigner;
+			if (JarSignerProperties.ENGINE_INTERNAL.equals(conf.getEngine())) {
+				jarSigner = InProcessJarSigner.builder()
+					.keystore(conf.getKeystore())
+					.keystoreAlias(conf.getKeystoreAlias())
+					.keystorePassword(conf.getKeystorePassword())
+					.keystoreType(conf.getKeystoreType())
+					.timestampingAuthority(conf.getTimeStampingAuthority())
+					.certchain(conf.getCertchain())
+					.provider(conf.getProvider())
+					.providerArg(conf.getProviderArg())
+					.sigalg(conf.getSigalg())
+					.digestalg(conf.getDigestalg())
+					.threads(conf.getInternalThreads())
+					.timeout(conf.getTimeout())
+					.admissionControl(processExecutor)
+					.build();
+			} else {
+				jarSigner = JarSigner.builder()
+					.jarSigner(conf.getJarSigner())
+					.keystore(conf.getKeystore())
+					.keystoreAlias(conf.getKeystoreAlias())
+					.keystorePassword(conf.getKeystorePassword())
+					.keystoreType(conf.getKeystoreType())
+					.timestampingAuthority(conf.getTimeStampingAuthority())
+					.httpProxyHost(conf.getHttpProxyHost())
+					.httpProxyPort(conf.getHttpProxyPort())
+					.httpsProxyHost(conf.getHttpsProxyHost())
+					.httpsProxyPort(conf.getHttpsProxyPort())
+					.certchain(conf.getCertchain())
+					.provider(conf.getProvider())
+					.providerArg(conf.getProviderArg())
+					.sigalg(conf.getSigalg())
+					.digestalg(conf.getDigestalg())
+					.processExecutor(processExecutor)
+					.timeout(conf.getTimeout())
+					.build();
+			}
 
-			final JarSigner jarSigner = JarSigner.builder()
-				.jarSigner(conf.getJarSigner())
-				.keystore(conf.getKeystore())
-				.keystoreAlias(conf.getKeystoreAlias())
-				.keystorePassword(conf.getKeystorePassword())
-				.keystoreType(conf.getKeystoreType())
-				.timestampingAuthority(conf.getTimeStampingAuthority())
-				.httpProxyHost(conf.getHttpProxyHost())
-				.httpProxyPort(conf.getHttpProxyPort())
-				.httpsProxyHost(conf.getHttpsProxyHost())
-				.httpsProxyPort(conf.getHttpsProxyPort())
-				.certchain(conf.getCertchain())
-				.provider(conf.getProvider())
-				.providerArg(conf.getProviderArg())
-				.sigalg(conf.getSigalg())
-				.digestalg(conf.getDigestalg())
-				.processExecutor(new ProcessExecutor.BasicImpl())
-				.timeout(conf.getTimeout())
-				.build();
-			
 			final SigningServlet codeSignServlet = SigningServlet.builder()
 				.jarSigner(jarSigner)
 				.requestFacadeBuilder(RequestFacade.builder(tempFolder))
 				.build();
 			
 			final EmbeddedServer server = EmbeddedServer.builder()
-				.port(serverConf.getServerPort())
-				.accessLogFile(serverConf.getAccessLogFile())
-				.servicePathSpec(serverConf.getServicePathSpec())
-				.appendServiceVersionToPathSpec(serverConf.isServiceVersionAppendedToPathSpec())
+				.configure(serverConf)
 				.servlet(codeSignServlet)
 				.tempFolder(tempFolder)
 				.log4jConfiguration(confPath)
 				.build();
 
-			server.start();
+			try {
+				server.start();
+			} finally {
+				jarSigner.close();
+			}
 		}
 	}
 
@@ -11,39 +11,75 @@
 package org.eclipse.cbi.webservice.signing.jar;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.cbi.common.util.Zips;
+import org.eclipse.cbi.util.ProcessRejectedException;
+import org.eclipse.cbi.webservice.metrics.Metrics;
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
 import org.eclipse.cbi.webservice.servlet.ResponseFacade;
+import org.eclipse.cbi.webservice.servlet.ServiceServlet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.auto.value.AutoValue;
 
 /**
  * Servlet that will serve the jar signing service.
+ * <p>
+ * A single jar is signed by sending it as a part named {@value #FILE_PART_NAME}.
+ * The response is the signed jar.
+ * <p>
+ * Several jars are signed with a single request by sending them as parts named
+ * {@value #BATCH_PART_NAME}. Each of these parts is either a jar (or a war) or a
+ * zip of jars. The response is a zip containing the signed jars and a
+ * properties file {@value #BATCH_STATUS_ENTRY_NAME} mapping the name of each
+ * submitted jar to {@value #BATCH_STATUS_OK} or to the reason of its failure.
+ * The name of a jar sent as a part is its submitted file name, and it is put
+ * in the response under the last segment of this name. The name of a jar sent
+ * in a zip is its entry name, and it is put in the response under this same
+ * entry name. A jar whose place in the response is already taken by another
+ * submitted jar is not signed. The failed jars are not part of the response.
+ * If the service is overloaded, the whole batch is rejected.
  */
 @AutoValue
-public abstract class SigningServlet extends HttpServlet {
+public abstract class SigningServlet extends ServiceServlet {
 
 	private static final long serialVersionUID = -4790172921268575018L;
 
 	private static final String JAR_CONTENT_TYPE = "application/java-archive";
 	private static final String TEMP_FILE_PREFIX = SigningServlet.class.getSimpleName() + "-";
 	private static final String FILE_PART_NAME = "file";
+	private static final String BATCH_PART_NAME = "batch";
+	private static final String ZIP_CONTENT_TYPE = "application/zip";
+	private static final String BATCH_RESPONSE_FILE_NAME = "signed.zip";
+	private static final String BATCH_STATUS_ENTRY_NAME = "signing-status.properties";
+	private static final String BATCH_STATUS_OK = "OK";
+	private static final String BATCH_STATUS_FAILED = "FAILED: ";
+
+	private final static Logger logger = LoggerFactory.getLogger(SigningServlet.class);
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-		final ResponseFacade responseFacade = ResponseFacade.builder()
-				.servletResponse(resp)
-				.session(req.getSession()).build();
-		
+	protected void doPost(HttpServletRequest req, ResponseFacade responseFacade) throws ServletException, IOException {
 		try(RequestFacade requestFacade = requestFacadeBuilder().request(req).build()) {
 			doSign(requestFacade, responseFacade);
 		} catch (Exception e) {
@@ -52,9 +88,11 @@ public abstract class SigningServlet extends HttpServlet {
 	}
 
 	private void doSign(final RequestFacade requestFacade, final ResponseFacade responseFacade) throws IOException, ServletException {
-		if (requestFacade.hasPart(FILE_PART_NAME)) {
+		if (requestFacade.hasPart(BATCH_PART_NAME)) {
+			doSignBatch(requestFacade, responseFacade);
+		} else if (requestFacade.hasPart(FILE_PART_NAME)) {
 			String submittedFileName = requestFacade.getSubmittedFileName(FILE_PART_NAME).get();
-			if (submittedFileName.endsWith(".jar") || submittedFileName.endsWith(".war")) {
+			if (isJar(submittedFileName)) {
 				Path unsignedJar = requestFacade.getPartPath(FILE_PART_NAME, TEMP_FILE_PREFIX).get();
 				Path signedJar = jarSigner().signJar(unsignedJar);
 				responseFacade.replyWithFile(JAR_CONTENT_TYPE, submittedFileName, signedJar);
@@ -62,12 +100,129 @@ public abstract class SigningServlet extends HttpServlet {
 				responseFacade.replyPlain(HttpServletResponse.SC_BAD_REQUEST, "Submitted '" + FILE_PART_NAME + "' '" + submittedFileName + "' must ends with '.jar' or '.war'");
 			}
 		} else {
-			responseFacade.replyPlain(HttpServletResponse.SC_BAD_REQUEST, "POST request must contain a part named '" + FILE_PART_NAME + "'");
+			responseFacade.replyPlain(HttpServletResponse.SC_BAD_REQUEST, "POST request must contain a part named '" + FILE_PART_NAME + "' or parts named '" + BATCH_PART_NAME + "'");
+		}
+	}
+
+	private void doSignBatch(final RequestFacade requestFacade, final ResponseFacade responseFacade) throws IOException, ServletException {
+		final Map<Path, String> submittedFiles = requestFacade.getPartPaths(BATCH_PART_NAME, TEMP_FILE_PREFIX);
+		if (submittedFiles.isEmpty()) {
+			responseFacade.replyPlain(HttpServletResponse.SC_BAD_REQUEST, "Parts named '" + BATCH_PART_NAME + "' must not be empty");
+			return;
+		}
+
+		final Path batchFolder = requestFacade.createTempDirectory(TEMP_FILE_PREFIX);
+		final Path jarsFolder = Files.createDirectory(batchFolder.resolve("jars"));
+		final Path zipsFolder = Files.createDirectory(batchFolder.resolve("zips"));
+		final Properties status = new Properties();
+		// the jars to sign in the response folder, with their name in the status
+		final Map<Path, String> jars = new LinkedHashMap<>();
+		int zipCount = 0;
+		for (Entry<Path, String> submittedFile : submittedFiles.entrySet()) {
+			String submittedFileName = submittedFile.getValue();
+			if (isJar(submittedFileName)) {
+				// only keep the file name, some clients send the full path
+				Path jar = jarsFolder.resolve(jarsFolder.getFileSystem().getPath(submittedFileName).getFileName().toString());
+				addBatchedJar(submittedFile.getKey(), jar, submittedFileName, jars, status);
+			} else if (submittedFileName.endsWith(".zip")) {
+				// each zip is unpacked in its own folder so that the jars of a zip can't overwrite the ones of another part
+				Path zipFolder = Files.createDirectory(zipsFolder.resolve(Integer.toString(zipCount++)));
+				final long startNanos = System.nanoTime();
+				Zips.unpackZip(submittedFile.getKey(), zipFolder);
+				Metrics.registry().timer("cbi_zip_duration_seconds", "Time to pack and unpack the archives", "operation", "unpack").recordSince(startNanos);
+				for (Path unpackedFile : listFiles(zipFolder)) {
+					String entryName = Zips.entryName(zipFolder.relativize(unpackedFile));
+					if (isJar(entryName)) {
+						addBatchedJar(unpackedFile, jarsFolder.resolve(zipFolder.relativize(unpackedFile)), entryName, jars, status);
+					} else {
+						status.setProperty(entryName, BATCH_STATUS_FAILED + "Only '.jar' and '.war' files can be signed");
+					}
+				}
+			} else {
+				status.setProperty(submittedFileName, BATCH_STATUS_FAILED + "Submitted '" + BATCH_PART_NAME + "' must ends with '.jar', '.war' or '.zip'");
+			}
 		}
+
+		for (Entry<Path, String> jar : jars.entrySet()) {
+			String jarStatus = signBatchedJar(jar.getKey());
+			status.setProperty(jar.getValue(), jarStatus);
+			if (!BATCH_STATUS_OK.equals(jarStatus)) {
+				Files.delete(jar.getKey());
+			}
+		}
+
+		try (OutputStream os = Files.newOutputStream(jarsFolder.resolve(BATCH_STATUS_ENTRY_NAME))) {
+			status.store(os, null);
+		}
+		Path signedZip = batchFolder.resolve(BATCH_RESPONSE_FILE_NAME);
+		final long startNanos = System.nanoTime();
+		Zips.packZip(jarsFolder, signedZip, false);
+		Metrics.registry().timer("cbi_zip_duration_seconds", "Time to pack and unpack the archives", "operation", "pack").recordSince(startNanos);
+		responseFacade.replyWithFile(ZIP_CONTENT_TYPE, BATCH_RESPONSE_FILE_NAME, signedZip);
+	}
+
+	/**
+	 * Moves the given submitted jar to its place in the response, unless
+	 * another jar already took it.
+	 */
+	private static void addBatchedJar(Path submittedJar, Path jar, String name, Map<Path, String> jars, Properties status) throws IOException {
+		if (jars.containsValue(name)) {
+			// the status of the name is the one of the jar already in the response
+			logger.warn("Batched jar '" + name + "' has been submitted several times, only the first one is signed");
+		} else if (Files.exists(jar)) {
+			status.setProperty(name, BATCH_STATUS_FAILED + "Another jar with the same name has already been submitted");
+		} else {
+			Files.createDirectories(jar.getParent());
+			Files.move(submittedJar, jar);
+			jars.put(jar, name);
+		}
+	}
+
+	/**
+	 * Signs the given jar of a batch and returns its status. A rejection due
+	 * to the overload of the service is propagated so that the whole batch is
+	 * rejected, and can be retried later.
+	 */
+	private String signBatchedJar(Path jar) throws IOException {
+		try {
+			jarSigner().signJar(jar);
+			return BATCH_STATUS_OK;
+		} catch (IOException e) {
+			if (isRejection(e)) {
+				throw e;
+			}
+			logger.error("Signing of batched jar '" + jar.getFileName() + "' failed", e);
+			return BATCH_STATUS_FAILED + e.getMessage();
+		}
+	}
+
+	private static boolean isRejection(Throwable t) {
+		for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ProcessRejectedException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isJar(String fileName) {
+		return fileName.endsWith(".jar") || fileName.endsWith(".war");
+	}
+
+	private static List<Path> listFiles(Path folder) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				files.add(file);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return files;
 	}
 	
 	abstract RequestFacade.Builder requestFacadeBuilder();
-	abstract JarSigner jarSigner();
+	abstract JarCodesigner jarSigner();
 	
 	public static Builder builder() {
 		return new AutoValue_SigningServlet.Builder();
@@ -76,7 +231,7 @@ public abstract class SigningServlet extends HttpServlet {
 	@AutoValue.Builder
 	public static abstract class Builder {
 		public abstract Builder requestFacadeBuilder(RequestFacade.Builder requestFacadeBuilder);
-		public abstract Builder jarSigner(JarSigner jarSigner);
+		public abstract Builder jarSigner(JarCodesigner jarSigner);
 		public abstract SigningServlet build();
 	}
 }
@@ -28,6 +28,7 @@ import java.util.zip.ZipInputStream;
 import org.eclipse.cbi.common.util.Paths;
 import org.eclipse.cbi.common.util.Zips;
 import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.webservice.metrics.Metrics;
 import org.eclipse.cbi.webservice.util.function.WrappedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,20 +48,45 @@ public abstract class Codesigner {
 
 	Codesigner() {}
 	
+	/**
+	 * Signs the applications of the given zip file, and zips them back to the
+	 * given target. The applications are unzipped in the
+	 * {@link #tempFolder() temporary folder}.
+	 *
+	 * @return the number of signed applications.
+	 * @throws IOException
+	 */
 	public long signZippedApplications(Path source, Path target) throws IOException {
+		return signZippedApplications(source, target, tempFolder());
+	}
+
+	/**
+	 * Signs the applications of the given zip file, and zips them back to the
+	 * given target. The applications are unzipped in the given folder, e.g.
+	 * the workspace of the request, so that they are deleted with it even if
+	 * the service crashes in the meantime.
+	 *
+	 * @return the number of signed applications.
+	 * @throws IOException
+	 */
+	public long signZippedApplications(Path source, Path target, Path workFolder) throws IOException {
 		requireNonNull(source);
 		requireNonNull(target);
+		requireNonNull(workFolder);
 		checkArgument(Files.isRegularFile(source), "Source zip must be an existing regular file");
 		checkArgument(source.getFileName().toString().endsWith(".zip"), "Source path must end with zip extension");
 		checkArgument(target.getFileName().toString().endsWith(".zip"), "Target path must end with zip extension");
 		
 		Path unzipDirectory = null;
 		try {
-			unzipDirectory = Files.createTempDirectory(tempFolder(), TEMP_FILE_PREFIX);
+			unzipDirectory = Files.createTempDirectory(workFolder, TEMP_FILE_PREFIX);
 			
 			try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
 				// unzip the part in temp folder.
-				if (Zips.unpack(zis, unzipDirectory) > 0) {
+				final long startNanos = System.nanoTime();
+				final int unpackedEntries = Zips.unpack(zis, unzipDirectory);
+				Metrics.registry().timer("cbi_zip_duration_seconds", "Time to pack and unpack the archives", "operation", "unpack").recordSince(startNanos);
+				if (unpackedEntries > 0) {
 					return signAndRezip(unzipDirectory, target);
 				} else {
 					throw new IOException("The provided Zip file is invalid");
@@ -108,7 +134,10 @@ public abstract class Codesigner {
 	private long signAndRezip(Path unzipDirectory, Path signedFile) throws IOException {
 		final long nbSignedApps = signApplications(unzipDirectory);
 		if (nbSignedApps > 0) {
-			if (Zips.packZip(unzipDirectory, signedFile, false) <= 0) {
+			final long startNanos = System.nanoTime();
+			final int packedEntries = Zips.packZip(unzipDirectory, signedFile, false);
+			Metrics.registry().timer("cbi_zip_duration_seconds", "Time to pack and unpack the archives", "operation", "pack").recordSince(startNanos);
+			if (packedEntries <= 0) {
 				throw new IOException("The signing was succesfull, but something wrong happened when trying to zip it back");
 			}
 		}
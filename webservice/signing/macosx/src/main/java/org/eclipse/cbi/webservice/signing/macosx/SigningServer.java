@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.util.ProcessExecutorProperties;
 import org.eclipse.cbi.util.PropertiesReader;
 import org.eclipse.cbi.webservice.server.EmbeddedServer;
 import org.eclipse.cbi.webservice.server.EmbeddedServerProperties;
@@ -49,6 +50,7 @@ public class SigningServer {
 			final EmbeddedServerProperties serverConf = new EmbeddedServerProperties(PropertiesReader.create(confPath));
 			final CodesignerProperties conf = new CodesignerProperties(PropertiesReader.create(confPath));
 			final Path tempFolder = serverConf.getTempFolder();
+			final ProcessExecutor processExecutor = new ProcessExecutorProperties(PropertiesReader.create(confPath)).createProcessExecutor();
 
 			final Codesigner codesigner = Codesigner.builder()
 				.certificateName(conf.getCertificate())
@@ -57,20 +59,16 @@ public class SigningServer {
 				.tempFolder(tempFolder)
 				.codesignTimeout(conf.getCodesignTimeout())
 				.securityUnlockTimeout(conf.getSecurityUnlockTimeout())
-				.processExecutor(new ProcessExecutor.BasicImpl())
+				.processExecutor(processExecutor)
 				.build();
 			
 			final SigningServlet codeSignServlet = SigningServlet.builder()
-				.tempFolder(tempFolder)
 				.codesigner(codesigner)
 				.requestFacadeBuilder(RequestFacade.builder(tempFolder))
 				.build();
 			
 			final EmbeddedServer server = EmbeddedServer.builder()
-				.port(serverConf.getServerPort())
-				.accessLogFile(serverConf.getAccessLogFile())
-				.servicePathSpec(serverConf.getServicePathSpec())
-				.appendServiceVersionToPathSpec(serverConf.isServiceVersionAppendedToPathSpec())
+				.configure(serverConf)
 				.servlet(codeSignServlet)
 				.tempFolder(tempFolder)
 				.log4jConfiguration(confPath)
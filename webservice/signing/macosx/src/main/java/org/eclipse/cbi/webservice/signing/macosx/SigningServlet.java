@@ -11,19 +11,17 @@
 package org.eclipse.cbi.webservice.signing.macosx;
  
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
 import org.eclipse.cbi.webservice.servlet.ResponseFacade;
+import org.eclipse.cbi.webservice.servlet.ServiceServlet;
 
 import com.google.auto.value.AutoValue;
-import com.google.common.base.Preconditions;
  
 /**
  * Serves OS X code signing service through POST request. It requires a "file"
@@ -31,7 +29,7 @@ import com.google.common.base.Preconditions;
  * file with all the .app in the original ZIP file signed accordingly.
  */
 @AutoValue
-public abstract class SigningServlet extends HttpServlet {
+public abstract class SigningServlet extends ServiceServlet {
 	
 	private static final String TEMP_FILE_PREFIX = SigningServlet.class.getSimpleName() + "-";
 	private static final String SIGNED_ZIP_FILE_SUFFIX = ".signed.zip";
@@ -48,12 +46,7 @@ public abstract class SigningServlet extends HttpServlet {
 	 * {@inheritDoc}
 	 */
 	@Override
-    protected void doPost(HttpServletRequest req, HttpServletResponse response) throws ServletException, IOException {
-		final ResponseFacade responseFacade = ResponseFacade.builder()
-				.servletResponse(response)
-				.session(req.getSession())
-				.build();
-		
+    protected void doPost(HttpServletRequest req, ResponseFacade responseFacade) throws ServletException, IOException {
 		try(RequestFacade requestFacade = requestFacadeBuilder().request(req).build()) {
 			doSign(requestFacade, responseFacade);
 		} catch (Exception e) {
@@ -64,12 +57,8 @@ public abstract class SigningServlet extends HttpServlet {
 	private void doSign(RequestFacade requestFacade, final ResponseFacade answeringMachine) throws IOException, ServletException {
 		if (requestFacade.hasPart(FILE_PART_NAME)) {
 			final String suffix = requestFacade.getSubmittedFileName(FILE_PART_NAME).get() + SIGNED_ZIP_FILE_SUFFIX;
-			final Path zipWithSignedApps = Files.createTempFile(tempFolder(), TEMP_FILE_PREFIX, suffix);
-			try {
-				doSign(zipWithSignedApps, requestFacade, answeringMachine);
-			} finally {
-				Codesigner.cleanTemporaryResource(zipWithSignedApps);
-			}
+			final Path zipWithSignedApps = requestFacade.createTempFile(TEMP_FILE_PREFIX, suffix);
+			doSign(zipWithSignedApps, requestFacade, answeringMachine);
 		} else {
 			answeringMachine.replyPlain(HttpServletResponse.SC_BAD_REQUEST, "POST request must contain a part named '" + FILE_PART_NAME + "'");
 		}
@@ -77,7 +66,7 @@ public abstract class SigningServlet extends HttpServlet {
 
 	private void doSign(final Path zipWithSignedApps, RequestFacade requestFacade, final ResponseFacade answeringMachine) throws IOException, ServletException {
 		Path zipWithUnsignedApps = requestFacade.getPartPath(FILE_PART_NAME, TEMP_FILE_PREFIX).get();
-		if (codesigner().signZippedApplications(zipWithUnsignedApps, zipWithSignedApps) > 0) {
+		if (codesigner().signZippedApplications(zipWithUnsignedApps, zipWithSignedApps, requestFacade.createTempDirectory(TEMP_FILE_PREFIX)) > 0) {
 			answeringMachine.replyWithFile(ZIP_CONTENT_TYPE, requestFacade.getSubmittedFileName(FILE_PART_NAME).get(), zipWithSignedApps);
 		} else {
 			answeringMachine.replyPlain(HttpServletResponse.SC_BAD_REQUEST, "No '.app' folder can be found in the provided zip file");
@@ -95,15 +84,6 @@ public abstract class SigningServlet extends HttpServlet {
 	 */
 	abstract RequestFacade.Builder requestFacadeBuilder();
 
-	/**
-	 * Returns the temporary folder to use during intermediate step of
-	 * application signing.
-	 * 
-	 * @return the temporary folder to use during intermediate step of
-	 *         application signing.
-	 */
-	abstract Path tempFolder();
-
 	public static Builder builder() {
 		return new AutoValue_SigningServlet.Builder();
 	}
@@ -128,32 +108,13 @@ public abstract class SigningServlet extends HttpServlet {
 		
 		public abstract Builder codesigner(Codesigner codesigner);
 		
-		/**
-		 * Sets the temporary folder for intermediate step during signing.
-		 * 
-		 * @param tempFolder
-		 *            the temporary folder for intermediate step during signing.
-		 * @return this builder for daisy chaining.
-		 */
-		public abstract Builder tempFolder(Path tempFolder);
-		
-		abstract SigningServlet autoBuild();
-		
 		/**
 		 * Creates and returns a new instance of {@link SigningServlet} as
-		 * configured by this builder. The following checks are made:
-		 * <ul>
-		 * <li>The temporary folder must exists.</li>
-		 * </ul>
+		 * configured by this builder.
 		 * 
-		 * @return a new instance of {@link CodesignerOLD} as configured by this
+		 * @return a new instance of {@link SigningServlet} as configured by this
 		 *         builder.
 		 */
-		public SigningServlet build() {
-			SigningServlet codesignerServlet = autoBuild();
-			Preconditions.checkState(Files.exists(codesignerServlet.tempFolder()), "Temporary folder must exists");
-			Preconditions.checkState(Files.isDirectory(codesignerServlet.tempFolder()), "Temporary folder must be a directory");
-			return codesignerServlet;
-		}
+		public abstract SigningServlet build();
 	}
 }
\ No newline at end of file
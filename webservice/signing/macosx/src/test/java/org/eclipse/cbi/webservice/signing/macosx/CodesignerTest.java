@@ -155,6 +155,24 @@ public class CodesignerTest {
 		}
 	}
 	
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testSignInWorkFolder() throws IOException, ServletException {
+		try(FileSystem fs = Jimfs.newFileSystem(Configuration.osX())) {
+			Path workFolder = Files.createDirectories(fs.getPath("/workspace"));
+			assertEquals(1, createCodesignerUnderTest(fs, processExecutor).signZippedApplications(createTestZipFile(fs), fs.getPath("signed.zip"), workFolder));
+			
+			ArgumentCaptor<ImmutableList> listCaptor = ArgumentCaptor.forClass(ImmutableList.class);
+			verify(processExecutor, times(2)).exec(listCaptor.capture(), any(), anyLong(), any());
+			assertTrue(listCaptor.getAllValues().get(1).get(7).toString().startsWith("/workspace/"));
+			
+			verifyCleanedTempFolder(fs);
+			try (Stream<Path> list = Files.list(workFolder)) {
+				assertEquals(0, list.count());
+			}
+		}
+	}
+	
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Test
 	public void testSecurityTimeout() throws IOException, ServletException {
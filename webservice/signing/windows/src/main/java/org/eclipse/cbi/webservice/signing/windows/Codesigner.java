@@ -10,14 +10,16 @@
  *******************************************************************************/
 package org.eclipse.cbi.webservice.signing.windows;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 
 /**
- * Interfact to the actual signing implementations.
+ * Interfact to the actual signing implementations. Implementations holding
+ * resources release them when closed.
  */
-public interface Codesigner {
+public interface Codesigner extends Closeable {
 
 	/**
 	 * Sign a given file in place.
@@ -26,4 +28,12 @@ public interface Codesigner {
 	 * @throws IOException if anything goes wrong
 	 */
 	public void sign(Path file, String name, URI url) throws IOException;
+
+	/**
+	 * Releases the resources of this signer. Does nothing by default.
+	 */
+	@Override
+	public default void close() throws IOException {
+		// nothing to release by default
+	}
 }
@@ -10,15 +10,32 @@
  *******************************************************************************/
 package org.eclipse.cbi.webservice.signing.windows;
 
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.cbi.common.util.Paths;
 import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.util.ThrottledProcessExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,14 +43,59 @@ import com.google.auto.value.AutoValue;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Codesigning implementation running the JSign command line tool.
+ * <p>
+ * By default, a new {@code java -jar jsign.jar} process is started for each
+ * file. If {@link #inProcess()} is true, the command line tool is run within
+ * the service JVM instead, from a class loader dedicated to the JSign jar and
+ * isolated from the service classes. This class loader is created once and
+ * reused for all the signatures, which saves the startup of a JVM for each of
+ * them. At most {@link #inProcessThreads()} files are then signed at the same
+ * time, and the class loader is released when this signer is closed. The
+ * in-process signatures are also admitted by the {@link #admissionControl()},
+ * if any, as {@code jsign} commands.
+ * <p>
+ * A running JSign can't be interrupted. To make sure that a file is not
+ * modified once its signature has timed out, JSign signs a copy of the file,
+ * which replaces it only if the signature completed in time.
+ */
 @AutoValue
 public abstract class JSignCodesigner implements Codesigner {
 
 	private static Logger logger = LoggerFactory.getLogger(JSignCodesigner.class);;
 
+	private static final String JSIGN_CLI_CLASS = "net.jsign.JsignCLI";
+
+	private static final String TEMP_FOLDER_PREFIX = "jsign_";
+
+	/**
+	 * The tool name under which the in-process signatures are admitted.
+	 */
+	private static final String IN_PROCESS_TOOL = "jsign";
+
+	/**
+	 * The in-process JSign command line tool, created on first use.
+	 */
+	private volatile IsolatedJSign isolatedJSign;
+
+	private boolean closed;
+
 	@Override
 	public void sign(Path file, String name, URI url) throws IOException {
+		if (inProcess()) {
+			if (admissionControl().isPresent()) {
+				admissionControl().get().execute(IN_PROCESS_TOOL, () -> {
+					signInProcess(file, name, url);
+					return null;
+				});
+			} else {
+				signInProcess(file, name, url);
+			}
+			return;
+		}
 		Path out = null;
 		try {
 			StringBuffer output = new StringBuffer();
@@ -55,12 +117,61 @@ public abstract class JSignCodesigner implements Codesigner {
 		}
 	}
 
+	/**
+	 * Signs a copy of the given file with the in-process JSign and replaces
+	 * the file with it. The copy keeps the name of the file, as JSign
+	 * recognizes the type of the files from their extension.
+	 */
+	private void signInProcess(Path file, String name, URI url) throws IOException {
+		Path copyFolder = Files.createTempDirectory(Paths.getParent(file.toAbsolutePath()), TEMP_FOLDER_PREFIX);
+		try {
+			Path copy = Files.copy(file, copyFolder.resolve(file.getFileName().toString()));
+			isolatedJSign().execute(createArguments(copy, name, url), copyFolder, timeout(), TimeUnit.SECONDS);
+			Files.move(copy, file, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Paths.deleteQuietly(copyFolder);
+		}
+	}
+
+	private IsolatedJSign isolatedJSign() throws IOException {
+		IsolatedJSign current = isolatedJSign;
+		if (current == null) {
+			synchronized (this) {
+				checkState(!closed, "This signer has been closed");
+				current = isolatedJSign;
+				if (current == null) {
+					current = new IsolatedJSign(jsignjar(), inProcessThreads());
+					isolatedJSign = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Releases the in-process JSign, if it has been created. The signatures
+	 * in progress are abandoned.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		closed = true;
+		if (isolatedJSign != null) {
+			isolatedJSign.close();
+			isolatedJSign = null;
+		}
+	}
+
 	private ImmutableList<String> createCommand(Path file, String name, URI url) {
-		ImmutableList.Builder<String> builder = ImmutableList.<String>builder();
-		builder.add("java")
+		return ImmutableList.<String>builder()
+				.add("java")
 				.add("-jar")
-				.add(jsignjar().toString());
+				.add(jsignjar().toString())
+				.addAll(createArguments(file, name, url))
+				.build();
+	}
 
+	private ImmutableList<String> createArguments(Path file, String name, URI url) {
+		ImmutableList.Builder<String> builder = ImmutableList.<String>builder();
 
 		if (!Strings.isNullOrEmpty(keystore().toString())) {
 			builder.add("--keystore").add(keystore().toString());
@@ -111,7 +222,10 @@ public abstract class JSignCodesigner implements Codesigner {
 	}
 
 	public static Builder builder() {
-		return new AutoValue_JSignCodesigner.Builder();
+		return new AutoValue_JSignCodesigner.Builder()
+				.inProcess(false)
+				.inProcessThreads(Runtime.getRuntime().availableProcessors())
+				.admissionControl(Optional.empty());
 	}
 
 	/**
@@ -222,11 +336,43 @@ public abstract class JSignCodesigner implements Codesigner {
 
 	abstract long timeout();
 
+	/**
+	 * Tells if JSign is run within the service JVM rather than in a new
+	 * process.
+	 *
+	 * @return true if JSign is run within the service JVM.
+	 */
+	abstract boolean inProcess();
+
+	/**
+	 * Returns the maximum number of files signed at the same time by the
+	 * in-process JSign.
+	 *
+	 * @return the maximum number of files signed at the same time by the
+	 *         in-process JSign.
+	 */
+	abstract int inProcessThreads();
+
+	/**
+	 * Returns the admission control of the in-process signatures. The
+	 * signatures run in a new process are admitted by the
+	 * {@link #processExecutor()}.
+	 *
+	 * @return the admission control of the in-process signatures.
+	 */
+	abstract Optional<ThrottledProcessExecutor> admissionControl();
+
 	abstract ProcessExecutor processExecutor();
 
 	@AutoValue.Builder
 	public static abstract class Builder {
-		public abstract JSignCodesigner build();
+		abstract JSignCodesigner autoBuild();
+
+		public JSignCodesigner build() {
+			JSignCodesigner codesigner = autoBuild();
+			checkState(codesigner.inProcessThreads() > 0, "The number of in-process threads must be strictly positive");
+			return codesigner;
+		}
 
 		public abstract Builder jsignjar(Path jsignjar);
 
@@ -288,5 +434,126 @@ public abstract class JSignCodesigner implements Codesigner {
 		public abstract Builder keyfilePassword(Path keypass);
 
 		public abstract Builder processExecutor(ProcessExecutor processExecutor);
+
+		/**
+		 * Sets whether JSign is run within the service JVM rather than in a
+		 * new process (the default).
+		 *
+		 * @return this builder for daisy-chaining.
+		 */
+		public abstract Builder inProcess(boolean inProcess);
+
+		/**
+		 * Sets the maximum number of files signed at the same time by the
+		 * in-process JSign. Defaults to the number of available processors.
+		 *
+		 * @return this builder for daisy-chaining.
+		 */
+		public abstract Builder inProcessThreads(int inProcessThreads);
+
+		/**
+		 * Sets the admission control of the in-process signatures, which are
+		 * admitted as {@code jsign} commands. There is none by default.
+		 *
+		 * @return this builder for daisy-chaining.
+		 */
+		public abstract Builder admissionControl(Optional<ThrottledProcessExecutor> admissionControl);
+	}
+
+	/**
+	 * The JSign command line tool, loaded from the JSign jar by a class loader
+	 * whose parent is the parent of the system class loader (the platform
+	 * class loader from Java 9 onwards, the extension class loader before). So
+	 * JSign sees the JDK modules (e.g. {@code jdk.crypto.cryptoki} for PKCS#11
+	 * tokens), but neither JSign sees the service classes nor the service sees
+	 * the JSign classes.
+	 * <p>
+	 * The command line tool is instantiated for each execution and is run by a
+	 * fixed pool of threads, so that a timeout can be enforced and the number
+	 * of concurrent executions is bounded. Each execution thus loads the
+	 * keystore again, but does not pay for the JVM startup nor for the loading
+	 * of the JSign classes.
+	 */
+	private static final class IsolatedJSign implements Closeable {
+
+		private final Path jsignjar;
+
+		private final URLClassLoader classLoader;
+
+		private final Class<?> cliClass;
+
+		private final Method executeMethod;
+
+		private final ExecutorService executor;
+
+		IsolatedJSign(Path jsignjar, int threads) throws IOException {
+			this.jsignjar = jsignjar;
+			this.classLoader = new URLClassLoader(new URL[] { jsignjar.toUri().toURL() }, ClassLoader.getSystemClassLoader().getParent());
+			try {
+				this.cliClass = classLoader.loadClass(JSIGN_CLI_CLASS);
+				// the method called by JsignCLI#main(String...), without the System.exit() on failure
+				this.executeMethod = cliClass.getDeclaredMethod("execute", String[].class);
+				this.executeMethod.setAccessible(true);
+			} catch (ReflectiveOperationException | SecurityException e) {
+				classLoader.close();
+				throw new IOException("'" + jsignjar + "' can't be run in process: '" + JSIGN_CLI_CLASS + "#execute(String...)' is not available", e);
+			}
+			this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+					.setNameFormat("jsign-%d")
+					.setDaemon(true)
+					.build());
+		}
+
+		/**
+		 * Runs JSign with the given arguments. If it does not complete in
+		 * time, it is abandoned and the given folder, holding the files it
+		 * works on, is deleted once it completes.
+		 */
+		void execute(List<String> arguments, Path workFolder, long timeout, TimeUnit unit) throws IOException {
+			final String[] args = arguments.toArray(new String[arguments.size()]);
+			final AtomicBoolean abandoned = new AtomicBoolean();
+			Future<?> execution = executor.submit(() -> {
+				Thread currentThread = Thread.currentThread();
+				ClassLoader previousContextClassLoader = currentThread.getContextClassLoader();
+				currentThread.setContextClassLoader(classLoader);
+				try {
+					executeMethod.invoke(cliClass.getDeclaredConstructor().newInstance(), (Object) args);
+				} finally {
+					currentThread.setContextClassLoader(previousContextClassLoader);
+					if (abandoned.get()) {
+						Paths.deleteQuietly(workFolder);
+					}
+				}
+				return null;
+			});
+			try {
+				execution.get(timeout, unit);
+			} catch (InterruptedException e) {
+				abandoned.set(true);
+				execution.cancel(true);
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while running '" + jsignjar + "'");
+			} catch (TimeoutException e) {
+				abandoned.set(true);
+				execution.cancel(true);
+				throw new IOException("'" + jsignjar + "' did not complete within " + timeout + " " + unit.toString().toLowerCase(), e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof InvocationTargetException) {
+					cause = cause.getCause();
+				}
+				throw new IOException("'" + jsignjar + "' failed: " + cause.getMessage(), cause);
+			}
+		}
+
+		/**
+		 * Stops the threads running JSign and closes the class loader. The
+		 * executions in progress are abandoned.
+		 */
+		@Override
+		public void close() throws IOException {
+			executor.shutdownNow();
+			classLoader.close();
+		}
 	}
 }
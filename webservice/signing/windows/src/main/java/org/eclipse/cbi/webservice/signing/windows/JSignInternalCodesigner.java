@@ -25,11 +25,14 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.cbi.util.ThrottledProcessExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
 import net.jsign.DigestAlgorithm;
@@ -39,15 +42,55 @@ import net.jsign.timestamp.TimestampingMode;
 
 /**
  * Codesigning implementation using JSign directly in process.
+ * <p>
+ * The security provider, the keystore, the private key and the certificate
+ * chain are loaded once, when this codesigner is built, and then shared by all
+ * the signatures (with a PKCS#11 token, this means a single login for the
+ * lifetime of the server). If {@link #keyRefreshInterval()} is strictly
+ * positive, they are reloaded once they are older than this interval; if the
+ * reload fails, the previously loaded ones are kept and the reload is attempted
+ * again after another interval.
+ * <p>
+ * This class is thread-safe: {@link #sign(Path, String, URI)} can be called
+ * concurrently. The loaded key material is immutable and safely published; a
+ * new {@link PESigner} (a cheap, mutable object which is not thread-safe) is
+ * created from it for each signature. The underlying provider must support
+ * concurrent signatures with the same private key, which is the case of the
+ * JDK providers, including SunPKCS11.
+ * <p>
+ * The signatures are admitted by the {@link #admissionControl()}, if any, as
+ * {@code jsign} commands, so that the limits of the native commands apply to
+ * them too.
  */
 @AutoValue
 public abstract class JSignInternalCodesigner implements Codesigner {
 
 	private static Logger logger = LoggerFactory.getLogger(JSignInternalCodesigner.class);;
 
+	/**
+	 * The tool name under which the signatures are admitted.
+	 */
+	private static final String TOOL = "jsign";
+
+	/**
+	 * The cached key material, guarded by {@code this} for updates.
+	 */
+	private volatile KeyMaterial keyMaterial;
+
 	@Override
 	public void sign(Path file, String name, URI url) throws IOException {
-		PESigner signer = createSigner(file, name, url);
+		if (admissionControl().isPresent()) {
+			admissionControl().get().execute(TOOL, () -> {
+				doSign(file, name, url);
+				return null;
+			});
+		} else {
+			doSign(file, name, url);
+		}
+	}
+
+	private void doSign(Path file, String name, URI url) throws IOException {
+		PESigner signer = createSigner(keyMaterial(), name, url);
 
 		PEFile peFile = new PEFile(file.toFile());
 		logger.info("Adding Authenticode signature to " + file);
@@ -64,7 +107,39 @@ public abstract class JSignInternalCodesigner implements Codesigner {
 		}
 	}
 
-	private PESigner createSigner(Path file, String name, URI url) throws IOException {
+	/**
+	 * Returns the cached key material, reloading it first if it is older than
+	 * {@link #keyRefreshInterval()}.
+	 */
+	private KeyMaterial keyMaterial() throws IOException {
+		KeyMaterial current = keyMaterial;
+		if (current == null || isExpired(current)) {
+			synchronized (this) {
+				current = keyMaterial;
+				if (current == null) {
+					current = loadKeyMaterial();
+					keyMaterial = current;
+				} else if (isExpired(current)) {
+					try {
+						current = loadKeyMaterial();
+						logger.info("Reloaded the key '" + keystoreAlias() + "' from the keystore " + keystore());
+					} catch (IOException e) {
+						logger.warn("Unable to reload the key '" + keystoreAlias() + "' from the keystore " + keystore() + ", keeping the previous one", e);
+						current = current.renewed();
+					}
+					keyMaterial = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private boolean isExpired(KeyMaterial material) {
+		return keyRefreshInterval() > 0
+				&& System.nanoTime() - material.loadedAt >= TimeUnit.SECONDS.toNanos(keyRefreshInterval());
+	}
+
+	private KeyMaterial loadKeyMaterial() throws IOException {
 		PrivateKey privateKey;
 		Certificate[] chain;
 
@@ -154,6 +229,10 @@ public abstract class JSignInternalCodesigner implements Codesigner {
                         + "RSA key");
 		}
 
+		return new KeyMaterial(provider, privateKey, chain, sigalg, System.nanoTime());
+	}
+
+	private PESigner createSigner(KeyMaterial material, String name, URI url) {
 //		try {
 //			initializeProxy(proxyUrl, proxyUser, proxyPass);
 //		} catch (Exception e) {
@@ -161,10 +240,10 @@ public abstract class JSignInternalCodesigner implements Codesigner {
 //		}
 
 		// and now the actual work!
-		PESigner signer = new PESigner(chain, privateKey)
+		PESigner signer = new PESigner(material.chain.clone(), material.privateKey)
 				.withDigestAlgorithm(DigestAlgorithm.of(digestalg()))
-				.withSignatureProvider(provider)
-				.withSignatureAlgorithm(sigalg)
+				.withSignatureProvider(material.provider)
+				.withSignatureAlgorithm(material.sigalg)
 				.withSignaturesReplaced(replace())
 				.withTimestamping(timestampingAuthority() != null)
 				.withTimestampingMode(timestampingMode() != null ? TimestampingMode.of(timestampingMode())
@@ -239,15 +318,32 @@ public abstract class JSignInternalCodesigner implements Codesigner {
 	}
 
 	public static Builder builder() {
-		return new AutoValue_JSignInternalCodesigner.Builder();
+		return new AutoValue_JSignInternalCodesigner.Builder()
+				.keyRefreshInterval(0)
+				.admissionControl(Optional.empty());
 	}
 
 	abstract Optional<String> description();
 
 	abstract Optional<URI> url();
 
+	/**
+	 * Returns the admission control of the signatures.
+	 *
+	 * @return the admission control of the signatures.
+	 */
+	abstract Optional<ThrottledProcessExecutor> admissionControl();
+
 	abstract long timeout();
 
+	/**
+	 * Returns the age, in seconds, after which the key material is reloaded. 0
+	 * means that it is never reloaded.
+	 *
+	 * @return the age after which the key material is reloaded.
+	 */
+	abstract long keyRefreshInterval();
+
 	abstract boolean replace();
 
 	/**
@@ -336,12 +432,42 @@ public abstract class JSignInternalCodesigner implements Codesigner {
 
 	@AutoValue.Builder
 	public static abstract class Builder {
-		public abstract JSignInternalCodesigner build();
+		abstract JSignInternalCodesigner autoBuild();
+
+		/**
+		 * Creates the codesigner and loads its key material.
+		 *
+		 * @return a new codesigner.
+		 * @throws IOException
+		 *             if the key material can't be loaded.
+		 */
+		public JSignInternalCodesigner build() throws IOException {
+			JSignInternalCodesigner codesigner = autoBuild();
+			Preconditions.checkState(codesigner.keyRefreshInterval() >= 0, "The key refresh interval must be positive");
+			codesigner.keyMaterial();
+			return codesigner;
+		}
+
+		/**
+		 * Sets the age, in seconds, after which the key material is reloaded.
+		 * 0 (the default) means that it is never reloaded.
+		 *
+		 * @return this builder for daisy-chaining.
+		 */
+		public abstract Builder keyRefreshInterval(long keyRefreshInterval);
 
 		public abstract Builder description(Optional<String> description);
 
 		public abstract Builder url(Optional<URI> uri);
 
+		/**
+		 * Sets the admission control of the signatures, which are admitted as
+		 * {@code jsign} commands. There is none by default.
+		 *
+		 * @return this builder for daisy-chaining.
+		 */
+		public abstract Builder admissionControl(Optional<ThrottledProcessExecutor> admissionControl);
+
 		public abstract Builder replace(boolean replace);
 
 		/**
@@ -406,4 +532,38 @@ public abstract class JSignInternalCodesigner implements Codesigner {
 		abstract Builder certchain(Path certchain);
 	}
 
+	/**
+	 * The loaded provider, private key and certificate chain.
+	 */
+	private static final class KeyMaterial {
+
+		final Provider provider;
+
+		final PrivateKey privateKey;
+
+		final Certificate[] chain;
+
+		final String sigalg;
+
+		/**
+		 * The {@link System#nanoTime()} at which it has been loaded.
+		 */
+		final long loadedAt;
+
+		KeyMaterial(Provider provider, PrivateKey privateKey, Certificate[] chain, String sigalg, long loadedAt) {
+			this.provider = provider;
+			this.privateKey = privateKey;
+			this.chain = chain;
+			this.sigalg = sigalg;
+			this.loadedAt = loadedAt;
+		}
+
+		/**
+		 * Returns the same key material, as if it had just been loaded.
+		 */
+		KeyMaterial renewed() {
+			return new KeyMaterial(provider, privateKey, chain, sigalg, System.nanoTime());
+		}
+	}
+
 }
@@ -28,6 +28,7 @@ public class JSignInternalProperties {
 	private static final String JSIGN_URL = "windows.jsign.url";
 	private static final String JSIGN_DESCRIPTION = "windows.jsign.description";
 	private static final String JSIGN_TIMEOUT = "windows.jsign.timeout";
+	private static final String JSIGN_KEY_REFRESH_INTERVAL = "windows.jsign.key.refresh.interval";
 	private static final String JSIGN_REPLACE = "windows.jsign.replace";
 	private static final String JSIGN_TS_AUTHORITY = "windows.jsign.tsa";
 	private static final String JSIGN_TS_MODE = "windows.jsign.timestamping.mode";
@@ -156,6 +157,15 @@ public class JSignInternalProperties {
 		return propertiesReader.getLong(JSIGN_TIMEOUT, JSIGN_TIMEOUT_DEFAULT);
 	}
 
+	/**
+	 * Reads and returns the age, in seconds, after which the key material is
+	 * reloaded. If no {@value #JSIGN_KEY_REFRESH_INTERVAL} property can be
+	 * found returns 0, i.e., the key material is loaded only once.
+	 */
+	public long getKeyRefreshInterval() {
+		return propertiesReader.getLong(JSIGN_KEY_REFRESH_INTERVAL, 0);
+	}
+
 	public String getHttpProxyHost() {
 		return propertiesReader.getString(JSIGN_HTTP_PROXY_HOST, "");
 	}
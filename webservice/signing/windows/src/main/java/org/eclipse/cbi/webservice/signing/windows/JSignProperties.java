@@ -46,6 +46,8 @@ public class JSignProperties {
 	private static final String JSIGN_HTTP_PROXY_PORT = "windows.jsign.http.proxy.port";
 
 	private static final String JSIGN_JAR = "windows.jsign.jar";
+	private static final String JSIGN_IN_PROCESS = "windows.jsign.inprocess";
+	private static final String JSIGN_IN_PROCESS_THREADS = "windows.jsign.inprocess.threads";
 
 	private final PropertiesReader propertiesReader;
 
@@ -63,6 +65,25 @@ public class JSignProperties {
 		return propertiesReader.getPath(JSIGN_JAR);
 	}
 
+	/**
+	 * Reads and returns whether JSign is run within the service JVM rather
+	 * than in a new process for each file. If no {@value #JSIGN_IN_PROCESS}
+	 * property can be found returns false.
+	 */
+	public boolean isInProcess() {
+		return propertiesReader.getBoolean(JSIGN_IN_PROCESS, false);
+	}
+
+	/**
+	 * Reads and returns the maximum number of files signed at the same time
+	 * when JSign is run within the service JVM. If no
+	 * {@value #JSIGN_IN_PROCESS_THREADS} property can be found returns the
+	 * number of available processors.
+	 */
+	public int getInProcessThreads() {
+		return propertiesReader.getInt(JSIGN_IN_PROCESS_THREADS, Runtime.getRuntime().availableProcessors());
+	}
+
 	public Optional<URI> getURL() {
 		String url = propertiesReader.getString(JSIGN_URL, "");
 		if (Strings.isNullOrEmpty(url)) {
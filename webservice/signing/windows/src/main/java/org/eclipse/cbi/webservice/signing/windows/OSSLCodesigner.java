@@ -37,7 +37,8 @@ public abstract class OSSLCodesigner implements Codesigner {
 	public void sign(Path file, String name, URI url) throws IOException {
 		Path out = null;
 		try {
-			out = Files.createTempFile(tempFolder(), TEMP_FILE_PREFIX, file.getFileName().toString());
+			// next to the file, in the workspace of the request
+			out = Files.createTempFile(Paths.getParent(file.toAbsolutePath()), TEMP_FILE_PREFIX, file.getFileName().toString());
 			StringBuffer output = new StringBuffer();
 			int osslsigncodeExitValue = processExecutor().exec(createCommand(file, out, name, url), output, timeout(), TimeUnit.SECONDS);
 			if (osslsigncodeExitValue != 0) {
@@ -86,7 +87,6 @@ public abstract class OSSLCodesigner implements Codesigner {
 	abstract Optional<String> description();
 	abstract Optional<URI> uri();
 	abstract URI timestampURI();
-	abstract Path tempFolder();
 	abstract ProcessExecutor processExecutor();
 
 	@AutoValue.Builder
@@ -107,8 +107,6 @@ public abstract class OSSLCodesigner implements Codesigner {
 
 		public abstract Builder timestampURI(URI timestampURI);
 
-		public abstract Builder tempFolder(Path tempFolder);
-
 		public abstract Builder processExecutor(ProcessExecutor processExecutor);
 
 
@@ -16,9 +16,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
-import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.util.ProcessExecutorProperties;
 import org.eclipse.cbi.util.PropertiesReader;
+import org.eclipse.cbi.util.ThrottledProcessExecutor;
 import org.eclipse.cbi.webservice.server.EmbeddedServer;
 import org.eclipse.cbi.webservice.server.EmbeddedServerProperties;
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
@@ -46,13 +48,17 @@ public class SigningServer {
 			PropertiesReader properties = PropertiesReader.create(confPath);
 			final EmbeddedServerProperties serverConf = new EmbeddedServerProperties(properties);
 			final Path tempFolder = serverConf.getTempFolder();
+			final ThrottledProcessExecutor processExecutor = new ProcessExecutorProperties(properties).createProcessExecutor();
 
 			final Codesigner codesigner;
 			if ("jsign".equalsIgnoreCase(properties.getString("windows.signer"))) {
 				final JSignProperties conf = new JSignProperties(properties);
 				codesigner = JSignCodesigner.builder()
-						.processExecutor(new ProcessExecutor.BasicImpl())
+						.processExecutor(processExecutor)
 						.jsignjar(conf.getJsignjar())
+						.inProcess(conf.isInProcess())
+						.inProcessThreads(conf.getInProcessThreads())
+						.admissionControl(Optional.of(processExecutor))
 						.keystore(conf.getKeystore())
 						.keystoreAlias(conf.getKeystoreAlias())
 						.keystorePassword(conf.getKeystorePassword())
@@ -75,11 +81,13 @@ public class SigningServer {
 
 				final JSignInternalProperties conf = new JSignInternalProperties(properties);
 				codesigner = JSignInternalCodesigner.builder()
+						.admissionControl(Optional.of(processExecutor))
 						.keystore(conf.getKeystore())
 						.keystoreAlias(conf.getKeystoreAlias())
 						.keystorePassword(conf.getKeystorePassword())
 						.keystoreType(conf.getKeystoreType())
 						.timeout(conf.getTimeout())
+						.keyRefreshInterval(conf.getKeyRefreshInterval())
 						.timestampingAuthority(conf.getTimeStampingAuthority())
 						.timestampingMode(conf.getTimeStampingMode())
 						.timestampingRetries(conf.getTimeStampingRetries())
@@ -103,13 +111,12 @@ public class SigningServer {
 				final OSSLSigncodeProperties conf = new OSSLSigncodeProperties(properties);
 
 				codesigner = OSSLCodesigner.builder()
-						.processExecutor(new ProcessExecutor.BasicImpl())
+						.processExecutor(processExecutor)
 						.osslsigncode(conf.getOSSLSigncode())
 						.timeout(conf.getTimeout())
 						.pkcs12(conf.getPKCS12())
 						.pkcs12Password(conf.getPKCS12Password())
 						.timestampURI(conf.getTimestampURI())
-						.tempFolder(tempFolder)
 						.description(conf.getDescription())
 						.uri(conf.getURI())
 						.build();
@@ -121,15 +128,17 @@ public class SigningServer {
 					.build();
 
 			final EmbeddedServer server = EmbeddedServer.builder()
-					.port(serverConf.getServerPort())
-					.accessLogFile(serverConf.getAccessLogFile())
-					.servicePathSpec(serverConf.getServicePathSpec())
-					.appendServiceVersionToPathSpec(serverConf.isServiceVersionAppendedToPathSpec())
+					.configure(serverConf)
 					.servlet(codeSignServlet)
 					.tempFolder(tempFolder)
-					.log4jConfiguration(confPath).build();
+					.log4jConfiguration(confPath)
+					.build();
 
-			server.start();
+			try {
+				server.start();
+			} finally {
+				codesigner.close();
+			}
 		}
 	}
 
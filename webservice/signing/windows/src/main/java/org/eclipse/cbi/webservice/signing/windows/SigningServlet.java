@@ -16,12 +16,12 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.cbi.webservice.servlet.RequestFacade;
 import org.eclipse.cbi.webservice.servlet.ResponseFacade;
+import org.eclipse.cbi.webservice.servlet.ServiceServlet;
 
 import com.google.auto.value.AutoValue;
 
@@ -29,7 +29,7 @@ import com.google.auto.value.AutoValue;
  * Servlet that will serve the Windows executable signing service.
  */
 @AutoValue
-public abstract class SigningServlet extends HttpServlet {
+public abstract class SigningServlet extends ServiceServlet {
 
 	private static final long serialVersionUID = -7811488782781658819L;
 
@@ -43,11 +43,7 @@ public abstract class SigningServlet extends HttpServlet {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-		ResponseFacade responseFacade = ResponseFacade.builder()
-				.servletResponse(resp)
-				.session(req.getSession()).build();
-
+	protected void doPost(HttpServletRequest req, ResponseFacade responseFacade) throws ServletException, IOException {
 		try (RequestFacade requestFacade = requestFacadeBuilder().request(req).build()) {
 			doSign(requestFacade, responseFacade);
 		} catch (Exception e) {
@@ -0,0 +1,183 @@
+package org.eclipse.cbi.webservice.signing.windows;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.eclipse.cbi.util.ProcessExecutor;
+import org.eclipse.cbi.util.ProcessRejectedException;
+import org.eclipse.cbi.util.ThrottledProcessExecutor;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableMap;
+
+public class JSignCodesignerTest {
+
+	/**
+	 * A fake JSign command line tool appending "signed" to the file to sign.
+	 * It ignores interruptions, and takes 2 seconds to sign the files whose
+	 * name starts with "slow". It uses a class of a platform module
+	 * ({@code java.sql}), as JSign does.
+	 */
+	private static final String FAKE_JSIGN_CLI = String.join("\n",
+			"package net.jsign;",
+			"import java.nio.file.*;",
+			"public class JsignCLI {",
+			"	void execute(String... args) throws Exception {",
+			"		new java.sql.Timestamp(System.currentTimeMillis());",
+			"		Path file = Paths.get(args[args.length - 1]);",
+			"		if (file.getFileName().toString().startsWith(\"slow\")) {",
+			"			long end = System.currentTimeMillis() + 2000;",
+			"			while (System.currentTimeMillis() < end) {",
+			"				try { Thread.sleep(100); } catch (InterruptedException e) { }",
+			"			}",
+			"		}",
+			"		Files.write(file, \"signed\".getBytes(\"UTF-8\"), StandardOpenOption.APPEND);",
+			"	}",
+			"}");
+
+	@ClassRule
+	public static TemporaryFolder jsignFolder = new TemporaryFolder();
+
+	@Rule
+	public TemporaryFolder workFolder = new TemporaryFolder();
+
+	private static Path jsignjar;
+
+	@BeforeClass
+	public static void createFakeJSign() throws IOException {
+		Path sources = jsignFolder.newFolder("src", "net", "jsign").toPath();
+		Path source = Files.write(sources.resolve("JsignCLI.java"), FAKE_JSIGN_CLI.getBytes(StandardCharsets.UTF_8));
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, source.toString()));
+		jsignjar = jsignFolder.getRoot().toPath().resolve("jsign.jar");
+		try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jsignjar))) {
+			jar.putNextEntry(new JarEntry("net/jsign/JsignCLI.class"));
+			jar.write(Files.readAllBytes(sources.resolve("JsignCLI.class")));
+			jar.closeEntry();
+		}
+	}
+
+	private static JSignCodesigner.Builder inProcessCodesigner(long timeout) {
+		Path none = Paths.get("");
+		return JSignCodesigner.builder()
+				.processExecutor(new ProcessExecutor.BasicImpl())
+				.jsignjar(jsignjar)
+				.inProcess(true)
+				.inProcessThreads(2)
+				.keystore(none)
+				.keystoreAlias("")
+				.keystorePassword(none)
+				.keystoreType("")
+				.keyfile(none)
+				.keyfilePassword(none)
+				.certfile(none)
+				.timeout(timeout)
+				.timestampingAuthority("")
+				.timestampingMode("")
+				.httpProxyHost("")
+				.httpProxyPort(0)
+				.replace(false)
+				.digestalg("")
+				.description(Optional.empty())
+				.url(Optional.empty());
+	}
+
+	@Test
+	public void testSignInProcess() throws IOException {
+		Path exe = Files.write(workFolder.newFile("test.exe").toPath(), "unsigned".getBytes(StandardCharsets.UTF_8));
+		try (JSignCodesigner codesigner = inProcessCodesigner(10).build()) {
+			codesigner.sign(exe, null, null);
+			codesigner.sign(exe, null, null);
+		}
+		assertEquals("unsignedsignedsigned", new String(Files.readAllBytes(exe), StandardCharsets.UTF_8));
+		assertEquals(Arrays.asList(exe), list(workFolder.getRoot().toPath()));
+	}
+
+	@Test
+	public void testTimedOutSignatureDoesNotModifyTheFile() throws IOException, InterruptedException {
+		Path exe = Files.write(workFolder.newFile("slow.exe").toPath(), "unsigned".getBytes(StandardCharsets.UTF_8));
+		try (JSignCodesigner codesigner = inProcessCodesigner(1).build()) {
+			try {
+				codesigner.sign(exe, null, null);
+				fail("The signature should have timed out");
+			} catch (IOException e) {
+				assertTrue(e.getMessage().contains("did not complete within 1 seconds"));
+			}
+			// let the abandoned signature complete
+			Thread.sleep(2000);
+		}
+		assertEquals("unsigned", new String(Files.readAllBytes(exe), StandardCharsets.UTF_8));
+		assertEquals(Arrays.asList(exe), list(workFolder.getRoot().toPath()));
+	}
+
+	@Test
+	public void testInProcessSignatureIsAdmitted() throws Exception {
+		Path slowExe = Files.write(workFolder.newFile("slow.exe").toPath(), "unsigned".getBytes(StandardCharsets.UTF_8));
+		Path exe = Files.write(workFolder.newFile("test.exe").toPath(), "unsigned".getBytes(StandardCharsets.UTF_8));
+		ThrottledProcessExecutor admissionControl = ThrottledProcessExecutor.builder()
+				.delegate(new ProcessExecutor.BasicImpl())
+				.toolLimits(ImmutableMap.of("jsign", 1))
+				.maxQueueSize(0)
+				.build();
+		ExecutorService clients = Executors.newSingleThreadExecutor();
+		try (JSignCodesigner codesigner = inProcessCodesigner(10).admissionControl(Optional.of(admissionControl)).build()) {
+			Future<?> slowSigning = clients.submit(() -> {
+				codesigner.sign(slowExe, null, null);
+				return null;
+			});
+			while (admissionControl.runningCount() < 1) {
+				Thread.sleep(10);
+			}
+			try {
+				codesigner.sign(exe, null, null);
+				fail("The signature should have been rejected");
+			} catch (ProcessRejectedException e) {
+				assertTrue(e.getMessage().contains("jsign"));
+			}
+			slowSigning.get();
+		} finally {
+			clients.shutdown();
+		}
+		assertEquals("unsignedsigned", new String(Files.readAllBytes(slowExe), StandardCharsets.UTF_8));
+		assertEquals("unsigned", new String(Files.readAllBytes(exe), StandardCharsets.UTF_8));
+		assertEquals(1, admissionControl.admittedCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSignAfterClose() throws IOException {
+		Path exe = Files.write(workFolder.newFile("test.exe").toPath(), "unsigned".getBytes(StandardCharsets.UTF_8));
+		JSignCodesigner codesigner = inProcessCodesigner(10).build();
+		codesigner.close();
+		codesigner.sign(exe, null, null);
+	}
+
+	private static List<Path> list(Path folder) throws IOException {
+		try (Stream<Path> files = Files.list(folder)) {
+			return files.collect(Collectors.toList());
+		}
+	}
+}